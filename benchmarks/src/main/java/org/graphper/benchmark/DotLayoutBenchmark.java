@@ -0,0 +1,50 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.benchmark;
+
+import org.graphper.api.Graphviz;
+import org.graphper.api.attributes.Layout;
+import org.graphper.api.attributes.Splines;
+import org.graphper.draw.DrawGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * End to end {@link org.graphper.layout.dot.DotLayoutEngine} layout, from {@link Graphviz} to a
+ * {@link DrawGraph} without rendering.
+ *
+ * @author Jamison Jiang
+ */
+public class DotLayoutBenchmark extends GraphParams {
+
+  @Param({"ROUNDED"})
+  public Splines splines;
+
+  private Graphviz graphviz;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    graphviz = newGraphviz(splines);
+  }
+
+  @Benchmark
+  public DrawGraph layout() {
+    return Layout.DOT.getLayoutEngine().layout(graphviz);
+  }
+}
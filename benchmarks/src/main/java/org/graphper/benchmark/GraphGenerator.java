@@ -0,0 +1,203 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.benchmark;
+
+import static org.graphper.api.Html.table;
+import static org.graphper.api.Html.td;
+
+import java.util.Random;
+import org.graphper.api.Cluster;
+import org.graphper.api.Cluster.ClusterBuilder;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Graphviz.GraphvizBuilder;
+import org.graphper.api.Line;
+import org.graphper.api.Line.LineBuilder;
+import org.graphper.api.Node;
+import org.graphper.api.Node.NodeBuilder;
+import org.graphper.api.attributes.Splines;
+import org.graphper.util.Asserts;
+
+/**
+ * Deterministic synthetic {@link Graphviz} generator used by the benchmarks. The same parameters
+ * always produce the same graph, so numbers of different runs and versions are comparable.
+ *
+ * @author Jamison Jiang
+ */
+public final class GraphGenerator {
+
+  /**
+   * Maximum rank distance between the tail and head of a generated line.
+   */
+  private static final int LINE_SPAN = 8;
+
+  /**
+   * Number of direct child clusters of every cluster.
+   */
+  private static final int CLUSTER_FANOUT = 2;
+
+  private static final long DEFAULT_SEED = 0x5EED;
+
+  private int nodeNum = 100;
+
+  private double density = 1.5;
+
+  private int clusterDepth = 0;
+
+  private Profile profile = Profile.PLAIN;
+
+  private Splines splines = Splines.ROUNDED;
+
+  private long seed = DEFAULT_SEED;
+
+  /**
+   * The label style of generated nodes and lines.
+   */
+  public enum Profile {
+    /**
+     * Short node labels, no line labels.
+     */
+    PLAIN,
+    /**
+     * Multi-line node labels and a label on every line.
+     */
+    LABEL,
+    /**
+     * Every node is an html table.
+     */
+    TABLE
+  }
+
+  public GraphGenerator nodeNum(int nodeNum) {
+    Asserts.illegalArgument(nodeNum < 2, "nodeNum (" + nodeNum + ") can not less than 2");
+    this.nodeNum = nodeNum;
+    return this;
+  }
+
+  /**
+   * Average number of out lines of every node.
+   *
+   * @param density line number divided by node number
+   * @return generator
+   */
+  public GraphGenerator density(double density) {
+    Asserts.illegalArgument(density <= 0, "density (" + density + ") must be > 0");
+    this.density = density;
+    return this;
+  }
+
+  public GraphGenerator clusterDepth(int clusterDepth) {
+    Asserts.illegalArgument(clusterDepth < 0,
+                            "clusterDepth (" + clusterDepth + ") can not less than 0");
+    this.clusterDepth = clusterDepth;
+    return this;
+  }
+
+  public GraphGenerator profile(Profile profile) {
+    Asserts.nullArgument(profile, "profile");
+    this.profile = profile;
+    return this;
+  }
+
+  public GraphGenerator splines(Splines splines) {
+    Asserts.nullArgument(splines, "splines");
+    this.splines = splines;
+    return this;
+  }
+
+  public GraphGenerator seed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  public Graphviz build() {
+    Random random = new Random(seed);
+    Node[] nodes = new Node[nodeNum];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = newNode(i, random);
+    }
+
+    GraphvizBuilder builder = Graphviz.digraph().splines(splines);
+    if (clusterDepth > 0) {
+      addClusters(builder, nodes);
+    } else {
+      builder.addNode(nodes);
+    }
+
+    int lineNum = (int) Math.round(nodeNum * density);
+    for (int i = 0; i < lineNum; i++) {
+      int tail = random.nextInt(nodeNum - 1);
+      int span = 1 + random.nextInt(Math.min(LINE_SPAN, nodeNum - tail - 1));
+      LineBuilder line = Line.builder(nodes[tail], nodes[tail + span]);
+      if (profile == Profile.LABEL) {
+        line.label("line " + i);
+      }
+      builder.addLine(line.build());
+    }
+    return builder.build();
+  }
+
+  private Node newNode(int idx, Random random) {
+    NodeBuilder node = Node.builder();
+    switch (profile) {
+      case LABEL:
+        StringBuilder label = new StringBuilder("node_").append(idx);
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+          label.append('\n').append("attribute ").append(random.nextInt(10000));
+        }
+        return node.label(label.toString()).build();
+      case TABLE:
+        return node.table(
+            table()
+                .tr(td().colSpan(2).text("table_" + idx))
+                .tr(td().text("id"), td().text(String.valueOf(random.nextInt(10000))))
+                .tr(td().text("name"), td().text("value " + random.nextInt(100)))
+        ).build();
+      default:
+        return node.label(String.valueOf(idx)).build();
+    }
+  }
+
+  /*
+   * Split the nodes into contiguous ranges, every level of cluster splits the range of the parent
+   * into CLUSTER_FANOUT parts until the specified depth is reached.
+   */
+  private void addClusters(GraphvizBuilder builder, Node[] nodes) {
+    int step = (int) Math.ceil((double) nodes.length / CLUSTER_FANOUT);
+    for (int from = 0; from < nodes.length; from += step) {
+      builder.cluster(newCluster(nodes, from, Math.min(nodes.length, from + step), 1));
+    }
+  }
+
+  private Cluster newCluster(Node[] nodes, int from, int to, int depth) {
+    ClusterBuilder builder = Cluster.builder().label("cluster_" + depth + "_" + from);
+    if (depth >= clusterDepth || to - from < CLUSTER_FANOUT * 2) {
+      for (int i = from; i < to; i++) {
+        builder.addNode(nodes[i]);
+      }
+      return builder.build();
+    }
+
+    // Keep one node directly under the cluster, the rest go to the child clusters
+    builder.addNode(nodes[from]);
+    int step = (int) Math.ceil((double) (to - from - 1) / CLUSTER_FANOUT);
+    for (int s = from + 1; s < to; s += step) {
+      builder.cluster(newCluster(nodes, s, Math.min(to, s + step), depth + 1));
+    }
+    return builder.build();
+  }
+}
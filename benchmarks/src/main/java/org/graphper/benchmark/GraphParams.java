@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.graphper.api.Graphviz;
+import org.graphper.api.attributes.Splines;
+import org.graphper.benchmark.GraphGenerator.Profile;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The common parameters of the synthetic graphs, every benchmark runs on the cross product of the
+ * parameters, use <tt>-p name=v1,v2</tt> to narrow it down from the command line.
+ *
+ * @author Jamison Jiang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Xss64m"})
+public abstract class GraphParams {
+
+  @Param({"100", "1000"})
+  public int nodes;
+
+  @Param({"1.5", "3.0"})
+  public double density;
+
+  @Param({"0", "2"})
+  public int clusterDepth;
+
+  @Param({"PLAIN", "LABEL", "TABLE"})
+  public Profile profile;
+
+  protected Graphviz newGraphviz(Splines splines) {
+    return new GraphGenerator()
+        .nodeNum(nodes)
+        .density(density)
+        .clusterDepth(clusterDepth)
+        .profile(profile)
+        .splines(splines)
+        .build();
+  }
+}
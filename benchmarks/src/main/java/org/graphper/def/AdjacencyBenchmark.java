@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.def;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The adjacency lists of {@link DirectedEdgeGraph}: building the graph, a full sweep over the out
+ * edges of every vertex, and removing a part of the edges. Run with <tt>-prof gc</tt>, the
+ * <tt>gc.alloc.rate.norm</tt> of {@link #build()} is the memory of the whole graph in bytes.
+ * Compare the results with the same benchmark of another version to see the change of the
+ * adjacency storage.
+ *
+ * @author Jamison Jiang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class AdjacencyBenchmark {
+
+  /**
+   * Average number of out edges of every vertex.
+   */
+  private static final int DEGREE = 8;
+
+  @Param({"100000"})
+  public int edges;
+
+  @Param({"false", "true"})
+  public boolean swapRemove;
+
+  private BVertex[] vertices;
+
+  private BEdge[] edgeArray;
+
+  private DirectedEdgeGraph<BVertex, BEdge> graph;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random random = new Random(0x5EED);
+    vertices = new BVertex[Math.max(2, edges / DEGREE)];
+    for (int i = 0; i < vertices.length; i++) {
+      vertices[i] = new BVertex();
+    }
+    edgeArray = new BEdge[edges];
+    for (int i = 0; i < edges; i++) {
+      edgeArray[i] = new BEdge(vertices[random.nextInt(vertices.length)],
+                               vertices[random.nextInt(vertices.length)]);
+    }
+    graph = build();
+  }
+
+  @Benchmark
+  public DirectedEdgeGraph<BVertex, BEdge> build() {
+    DirectedEdgeGraph<BVertex, BEdge> digraph = new DirectedEdgeGraph<>(vertices.length);
+    digraph.setSwapRemove(swapRemove);
+    for (BEdge edge : edgeArray) {
+      digraph.addEdge(edge);
+    }
+    return digraph;
+  }
+
+  @Benchmark
+  public double iterate() {
+    double weight = 0;
+    for (BVertex v : vertices) {
+      for (BEdge edge : graph.adjacent(v)) {
+        weight += edge.weight();
+      }
+    }
+    return weight;
+  }
+
+  @Benchmark
+  public int removeEdges(RemoveState state) {
+    // Every fourth edge, the removed member is usually in the middle of the adjacency list
+    int removed = 0;
+    for (int i = 0; i < edgeArray.length; i += 4) {
+      if (state.graph.removeEdge(edgeArray[i])) {
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * A fresh copy of the graph for every invocation of {@link #removeEdges(RemoveState)}.
+   */
+  @State(Scope.Thread)
+  public static class RemoveState {
+
+    private DirectedEdgeGraph<BVertex, BEdge> graph;
+
+    @Setup(Level.Invocation)
+    public void setup(AdjacencyBenchmark benchmark) {
+      graph = benchmark.graph.copy();
+    }
+  }
+
+  public static class BVertex extends VertexIndex {
+
+    private static final long serialVersionUID = 4210452447010372262L;
+  }
+
+  public static class BEdge extends AbstractDirectedEdge<BVertex, BEdge> {
+
+    private static final long serialVersionUID = -7455416399011532335L;
+
+    BEdge(BVertex from, BVertex to) {
+      super(from, to);
+    }
+
+    @Override
+    public BEdge reverse() {
+      return new BEdge(to(), from());
+    }
+
+    @Override
+    public BEdge copy() {
+      return new BEdge(from(), to());
+    }
+  }
+}
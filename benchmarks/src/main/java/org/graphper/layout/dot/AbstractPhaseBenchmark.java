@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import org.graphper.api.Graphviz;
+import org.graphper.api.attributes.Splines;
+import org.graphper.benchmark.GraphParams;
+import org.graphper.layout.dot.DotPhaseHarness.Phase;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Template of the single phase benchmark, every invocation gets a fresh {@link DotPhaseHarness}
+ * which has already executed all previous phases, so only the target phase is measured.
+ *
+ * @author Jamison Jiang
+ */
+public abstract class AbstractPhaseBenchmark extends GraphParams {
+
+  protected DotPhaseHarness harness;
+
+  private Graphviz graphviz;
+
+  @Setup(Level.Trial)
+  public void initGraph() {
+    graphviz = newGraphviz(splines());
+  }
+
+  @Setup(Level.Invocation)
+  public void initHarness() {
+    harness = DotPhaseHarness.init(graphviz).runBefore(phase(), coordinateV1());
+  }
+
+  /**
+   * Returns the phase to be measured.
+   *
+   * @return measured phase
+   */
+  protected abstract Phase phase();
+
+  protected Splines splines() {
+    return Splines.ROUNDED;
+  }
+
+  protected boolean coordinateV1() {
+    return false;
+  }
+}
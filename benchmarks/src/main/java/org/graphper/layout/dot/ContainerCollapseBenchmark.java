@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import org.graphper.layout.dot.DotPhaseHarness.Phase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * {@link ContainerCollapse}, the ranking of all nodes with collapsed clusters.
+ *
+ * @author Jamison Jiang
+ */
+public class ContainerCollapseBenchmark extends AbstractPhaseBenchmark {
+
+  @Param({"CSR", "V1"})
+  public String simplex;
+
+  @Setup(Level.Trial)
+  public void initSimplex() {
+    System.setProperty("dot.network.simplex.v1", String.valueOf("V1".equals(simplex)));
+  }
+
+  @Override
+  protected Phase phase() {
+    return Phase.CONTAINER_COLLAPSE;
+  }
+
+  @Benchmark
+  public void containerCollapse() {
+    harness.containerCollapse();
+  }
+}
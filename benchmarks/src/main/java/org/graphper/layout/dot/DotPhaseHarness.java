@@ -0,0 +1,194 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import org.graphper.api.GraphAttrs;
+import org.graphper.api.Graphviz;
+import org.graphper.def.EdgeDedigraph;
+import org.graphper.draw.DrawGraph;
+import org.graphper.layout.LayoutAttach;
+import org.graphper.layout.dot.DotLineRouter.DotLineRouterFactory;
+import org.graphper.util.Asserts;
+
+/**
+ * Runs the {@link DotLayoutEngine} pipeline one phase at a time, the order and the arguments of
+ * the phases are the same as {@link DotLayoutEngine#layout(DrawGraph, LayoutAttach)}. The
+ * benchmark prepares a harness up to the phase to be measured, and then only measures that phase.
+ *
+ * @author Jamison Jiang
+ */
+public class DotPhaseHarness extends DotLayoutEngine {
+
+  private static final long serialVersionUID = -3370389284826436208L;
+
+  private DrawGraph drawGraph;
+
+  private DotAttachment dotAttachment;
+
+  private RankContent rankContent;
+
+  private EdgeDedigraph<DNode, DLine> digraphProxy;
+
+  private Phase next = Phase.CONTAINER_COLLAPSE;
+
+  /**
+   * The phases of dot layout, in execution order.
+   */
+  public enum Phase {
+    CONTAINER_COLLAPSE,
+    MIN_CROSS,
+    LABEL_SUPPLEMENT,
+    COORDINATE,
+    ROUTER
+  }
+
+  /**
+   * Router of the {@link Phase#ROUTER} phase.
+   */
+  public enum Router {
+    SPLINE(new SplineRouter.SplineRouterFactory()),
+    POLYLINE(new PolyLineRouter.PolyLineRouterFactory()),
+    ORTHO(new OrthogonalRouter.OrthogonalRouterFactory()),
+    ROUNDED(new RoundedRouter.RoundedRouterFactory());
+
+    private final DotLineRouterFactory<?> factory;
+
+    Router(DotLineRouterFactory<?> factory) {
+      this.factory = factory;
+    }
+  }
+
+  private DotPhaseHarness() {
+  }
+
+  /**
+   * Run the common node and line initialization of the layout engine, and stop before the first
+   * dot phase.
+   *
+   * @param graphviz graphviz
+   * @return harness stopped before {@link Phase#CONTAINER_COLLAPSE}
+   */
+  public static DotPhaseHarness init(Graphviz graphviz) {
+    DotPhaseHarness harness = new DotPhaseHarness();
+    harness.layout(graphviz);
+    return harness;
+  }
+
+  /**
+   * Run all phases before the specified phase.
+   *
+   * @param phase the phase to be measured
+   * @param v1    use {@link Coordinate} instead of {@link CoordinateV2}
+   * @return this harness
+   */
+  public DotPhaseHarness runBefore(Phase phase, boolean v1) {
+    Asserts.nullArgument(phase, "phase");
+    while (next.ordinal() < phase.ordinal()) {
+      switch (next) {
+        case CONTAINER_COLLAPSE:
+          containerCollapse();
+          break;
+        case MIN_CROSS:
+          minCross();
+          break;
+        case LABEL_SUPPLEMENT:
+          labelSupplement();
+          break;
+        case COORDINATE:
+          coordinate(v1);
+          break;
+        default:
+          throw new IllegalStateException("Unexpected phase " + next);
+      }
+    }
+    return this;
+  }
+
+  public void containerCollapse() {
+    checkPhase(Phase.CONTAINER_COLLAPSE);
+    ContainerCollapse containerCollapse = new ContainerCollapse(dotAttachment,
+                                                                drawGraph.getGraphviz());
+    rankContent = containerCollapse.getRankContent();
+
+    if (dotAttachment.haveClusters() || dotAttachment.haveSubgraphs()) {
+      handleLegalLine(dotAttachment.getDotDigraph());
+      rankContent = new RankContent(dotAttachment.getDotDigraph(), graphAttrs().getRankSep(),
+                                    true, null);
+    }
+    next = Phase.MIN_CROSS;
+  }
+
+  public void minCross() {
+    checkPhase(Phase.MIN_CROSS);
+    digraphProxy = new MinCross(rankContent, dotAttachment).getDigraphProxy();
+    next = Phase.LABEL_SUPPLEMENT;
+  }
+
+  public void labelSupplement() {
+    checkPhase(Phase.LABEL_SUPPLEMENT);
+    new LabelSupplement(rankContent, dotAttachment, digraphProxy);
+    next = Phase.COORDINATE;
+  }
+
+  public void coordinate(boolean v1) {
+    checkPhase(Phase.COORDINATE);
+    if (v1) {
+      new Coordinate(graphAttrs().getNslimit(), rankContent, dotAttachment, digraphProxy);
+    } else {
+      new CoordinateV2(graphAttrs().getNslimit(), rankContent, dotAttachment, digraphProxy);
+    }
+
+    autoGeneratePort(dotAttachment);
+    if (!drawGraph.needFlip()) {
+      containerLabelPos(drawGraph);
+    }
+    next = Phase.ROUTER;
+  }
+
+  public void route(Router router) {
+    Asserts.nullArgument(router, "router");
+    checkPhase(Phase.ROUTER);
+    if (digraphProxy.vertexNum() > 0) {
+      router.factory.newInstance(drawGraph, dotAttachment.getDotDigraph(), rankContent,
+                                 digraphProxy, getExecutor()).route();
+    }
+    next = null;
+  }
+
+  public DrawGraph getDrawGraph() {
+    return drawGraph;
+  }
+
+  @Override
+  protected void layout(DrawGraph drawGraph, LayoutAttach attach) {
+    this.drawGraph = drawGraph;
+    this.dotAttachment = (DotAttachment) attach;
+    dotAttachment.initLineClip();
+  }
+
+  @Override
+  protected void afterRenderShifter(LayoutAttach attach) {
+  }
+
+  private GraphAttrs graphAttrs() {
+    return drawGraph.getGraphviz().graphAttrs();
+  }
+
+  private void checkPhase(Phase phase) {
+    Asserts.illegalArgument(next != phase, "Expect phase " + next + " but " + phase);
+  }
+}
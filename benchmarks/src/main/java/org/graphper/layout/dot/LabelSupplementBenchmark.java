@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import org.graphper.layout.dot.DotPhaseHarness.Phase;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * {@link LabelSupplement}, the placement of line labels and same rank lines.
+ *
+ * @author Jamison Jiang
+ */
+public class LabelSupplementBenchmark extends AbstractPhaseBenchmark {
+
+  @Override
+  protected Phase phase() {
+    return Phase.LABEL_SUPPLEMENT;
+  }
+
+  @Benchmark
+  public void labelSupplement() {
+    harness.labelSupplement();
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import org.graphper.api.attributes.Splines;
+import org.graphper.layout.dot.DotPhaseHarness.Phase;
+import org.graphper.layout.dot.DotPhaseHarness.Router;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Every {@link DotLineRouter}, the graph uses the matching {@link Splines} so that the node size
+ * expansion of previous phases is the same as a normal layout.
+ *
+ * @author Jamison Jiang
+ */
+public class LineRouterBenchmark extends AbstractPhaseBenchmark {
+
+  @Param({"SPLINE", "POLYLINE", "ORTHO", "ROUNDED"})
+  public Router router;
+
+  @Override
+  protected Phase phase() {
+    return Phase.ROUTER;
+  }
+
+  @Override
+  protected Splines splines() {
+    return Splines.valueOf(router.name());
+  }
+
+  @Benchmark
+  public void route() {
+    harness.route(router);
+  }
+}
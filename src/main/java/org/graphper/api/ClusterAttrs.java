@@ -26,6 +26,7 @@ import org.graphper.api.attributes.Color;
 import org.graphper.api.attributes.Labeljust;
 import org.graphper.api.attributes.Labelloc;
 import org.graphper.def.FlatPoint;
+import org.graphper.util.Asserts;
 
 /**
  * Cluster attribute object.
@@ -126,6 +127,30 @@ public class ClusterAttrs implements Serializable, Cloneable {
     return assemble;
   }
 
+  /**
+   * Returns a copy of these attributes whose attributes not affecting the layout, which are label,
+   * style, background color, color, font color, href, font name and pen width, are replaced by the
+   * ones of {@code paint}. The null attributes of {@code paint} keep the current values, the font
+   * name and the pen width always have values and are always replaced.
+   *
+   * @param paint the attributes to paint
+   * @return the copy of attributes
+   * @throws NullPointerException null paint
+   */
+  public ClusterAttrs repaint(ClusterAttrs paint) {
+    Asserts.nullArgument(paint, "paint");
+    ClusterAttrs attrs = clone();
+    attrs.label = paint.label != null ? paint.label : label;
+    attrs.style = paint.style != null ? paint.style : style;
+    attrs.bgColor = paint.bgColor != null ? paint.bgColor : bgColor;
+    attrs.color = paint.color != null ? paint.color : color;
+    attrs.fontColor = paint.fontColor != null ? paint.fontColor : fontColor;
+    attrs.href = paint.href != null ? paint.href : href;
+    attrs.fontName = paint.fontName;
+    attrs.penWidth = paint.penWidth;
+    return attrs;
+  }
+
   @Override
   public ClusterAttrs clone() {
     try {
@@ -62,6 +62,8 @@ public class GraphAttrs implements Serializable, Cloneable {
 
   int nslimit1 = Integer.MAX_VALUE;
 
+  int searchsize = 1;
+
   double rankSep = (double) Graphviz.PIXEL / 2;
 
   FlatPoint scale = new FlatPoint(1, 1);
@@ -70,12 +72,20 @@ public class GraphAttrs implements Serializable, Cloneable {
 
   int mclimit = 8;
 
+  int mcstarts = 1;
+
+  long mcseed;
+
+  int orthoRounds = 0;
+
   double fontSize = (double) Graphviz.PIXEL / 2;
 
   boolean compound = false;
 
   boolean showGrid = false;
 
+  boolean packComponents = false;
+
   String href;
 
   Table table;
@@ -130,6 +140,10 @@ public class GraphAttrs implements Serializable, Cloneable {
     return nslimit1;
   }
 
+  public int getSearchsize() {
+    return searchsize;
+  }
+
   public double getRankSep() {
     return rankSep;
   }
@@ -142,6 +156,18 @@ public class GraphAttrs implements Serializable, Cloneable {
     return mclimit;
   }
 
+  public int getMcstarts() {
+    return mcstarts;
+  }
+
+  public long getMcseed() {
+    return mcseed;
+  }
+
+  public int getOrthoRounds() {
+    return orthoRounds;
+  }
+
   public FlatPoint getMargin() {
     return margin;
   }
@@ -158,6 +184,10 @@ public class GraphAttrs implements Serializable, Cloneable {
     return showGrid;
   }
 
+  public boolean isPackComponents() {
+    return packComponents;
+  }
+
   public String getHref() {
     return href;
   }
@@ -189,9 +219,13 @@ public class GraphAttrs implements Serializable, Cloneable {
     }
     GraphAttrs that = (GraphAttrs) o;
     return Double.compare(that.nodeSep, nodeSep) == 0 && nslimit == that.nslimit
-        && nslimit1 == that.nslimit1 && Double.compare(that.rankSep, rankSep) == 0
-        && mclimit == that.mclimit && Double.compare(that.fontSize, fontSize) == 0
+        && nslimit1 == that.nslimit1 && searchsize == that.searchsize
+        && Double.compare(that.rankSep, rankSep) == 0
+        && mclimit == that.mclimit && mcstarts == that.mcstarts && mcseed == that.mcseed
+        && orthoRounds == that.orthoRounds
+        && Double.compare(that.fontSize, fontSize) == 0
         && compound == that.compound && showGrid == that.showGrid
+        && packComponents == that.packComponents
         && Objects.equals(bgColor, that.bgColor)
         && splines == that.splines && Objects.equals(fontColor, that.fontColor)
         && rankdir == that.rankdir && layout == that.layout
@@ -205,8 +239,9 @@ public class GraphAttrs implements Serializable, Cloneable {
   @Override
   public int hashCode() {
     return Objects.hash(bgColor, splines, fontColor, rankdir, layout, nodeSep, label, fontName,
-                        labelloc, labeljust, nslimit, nslimit1, rankSep, scale, margin, mclimit,
-                        fontSize, compound, showGrid, href, table, assemble);
+                        labelloc, labeljust, nslimit, nslimit1, searchsize, rankSep, scale, margin,
+                        mclimit, mcstarts, mcseed, orthoRounds, fontSize, compound, showGrid,
+                        packComponents, href, table, assemble);
   }
 
   @Override
@@ -224,13 +259,18 @@ public class GraphAttrs implements Serializable, Cloneable {
         ", labeljust=" + labeljust +
         ", nslimit=" + nslimit +
         ", nslimit1=" + nslimit1 +
+        ", searchsize=" + searchsize +
         ", rankSep=" + rankSep +
         ", scale=" + scale +
         ", margin=" + margin +
         ", mclimit=" + mclimit +
+        ", mcstarts=" + mcstarts +
+        ", mcseed=" + mcseed +
+        ", orthoRounds=" + orthoRounds +
         ", fontSize=" + fontSize +
         ", compound=" + compound +
         ", showGrid=" + showGrid +
+        ", packComponents=" + packComponents +
         ", href='" + href + '\'' +
         ", table='" + table + '\'' +
         ", assemble=" + assemble +
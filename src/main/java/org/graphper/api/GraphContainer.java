@@ -19,6 +19,7 @@ package org.graphper.api;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -73,6 +74,12 @@ public abstract class GraphContainer extends VertexIndex {
   // The line template attribute value
   protected volatile Map<String, Object> lineAttrsMap;
 
+  // Nodes and lines are kept in the order of adding, see GraphContainerBuilder#bulk
+  boolean bulk;
+
+  // The node and line sets are shared with a built container, copy them before the next adding
+  boolean shared;
+
   /**
    * Returns the container id.
    *
@@ -444,22 +451,86 @@ public abstract class GraphContainer extends VertexIndex {
 
   synchronized void addLine(Line line) {
     Asserts.nullArgument(line, "line");
+    copyIfShared();
+    addLine0(line);
+  }
+
+  synchronized void addNode(Node node) {
+    Asserts.nullArgument(node, "node");
+    copyIfShared();
+    addNode0(node);
+  }
+
+  synchronized void addNodes(Iterable<Node> nodes) {
+    Asserts.nullArgument(nodes, "nodes");
+    copyIfShared();
+    for (Node node : nodes) {
+      Asserts.nullArgument(node, "node");
+      addNode0(node);
+    }
+  }
+
+  synchronized void addLines(Iterable<Line> lines) {
+    Asserts.nullArgument(lines, "lines");
+    copyIfShared();
+    for (Line line : lines) {
+      Asserts.nullArgument(line, "line");
+      addNode0(line.head());
+      addNode0(line.tail());
+      addLine0(line);
+    }
+  }
+
+  synchronized void bulk(int nodeCapacity, int lineCapacity) {
+    Asserts.illegalArgument(nodeCapacity < 0, "nodeCapacity can not be negative");
+    Asserts.illegalArgument(lineCapacity < 0, "lineCapacity can not be negative");
+    Set<Node> ns = new LinkedHashSet<>(hashCapacity(nodeCapacity));
+    if (nodes != null) {
+      ns.addAll(nodes);
+    }
+    Set<Line> ls = new LinkedHashSet<>(hashCapacity(lineCapacity));
+    if (lines != null) {
+      ls.addAll(lines);
+    }
+    nodes = ns;
+    lines = ls;
+    bulk = true;
+    shared = false;
+  }
+
+  private void addLine0(Line line) {
     if (lines == null) {
-      lines = new TreeSet<>();
+      lines = bulk ? new LinkedHashSet<>() : new TreeSet<>();
     }
 
     lines.add(line);
   }
 
-  synchronized void addNode(Node node) {
-    Asserts.nullArgument(node, "node");
+  private void addNode0(Node node) {
     if (nodes == null) {
-      nodes = new TreeSet<>();
+      nodes = bulk ? new LinkedHashSet<>() : new TreeSet<>();
     }
 
     nodes.add(node);
   }
 
+  private void copyIfShared() {
+    if (!shared) {
+      return;
+    }
+    if (nodes != null) {
+      nodes = new LinkedHashSet<>(nodes);
+    }
+    if (lines != null) {
+      lines = new LinkedHashSet<>(lines);
+    }
+    shared = false;
+  }
+
+  private static int hashCapacity(int size) {
+    return (int) Math.min((long) size * 4 / 3 + 1, Integer.MAX_VALUE);
+  }
+
   // ---------------------------------- Graph Container Builder ----------------------------------
 
   /**
@@ -945,6 +1016,50 @@ public abstract class GraphContainer extends VertexIndex {
       return self();
     }
 
+    /**
+     * Keep the nodes and lines of this container in the order of adding, by hash sets pre-sized to
+     * the capacities, instead of the sets sorted by {@link Node#compareTo} and
+     * {@link Line#compareTo}. Adding an element no longer compares it with others, and
+     * {@link #build()} hands the sets to the built container without copying, the sets are only
+     * copied if this builder adds elements again after building.
+     *
+     * <p>The order of elements decides the order of layout, so a graph built in bulk may be laid
+     * out differently from the same graph added in another order.
+     *
+     * @param nodeCapacity expected number of nodes
+     * @param lineCapacity expected number of lines
+     * @return container builder
+     * @throws IllegalArgumentException negative capacity
+     */
+    public B bulk(int nodeCapacity, int lineCapacity) {
+      initContainer().bulk(nodeCapacity, lineCapacity);
+      return self();
+    }
+
+    /**
+     * Add all nodes, a stream can be added by {@code addNodes(stream::iterator)}.
+     *
+     * @param nodes nodes to add
+     * @return container builder
+     * @throws NullPointerException null nodes or null node
+     */
+    public B addNodes(Iterable<Node> nodes) {
+      initContainer().addNodes(nodes);
+      return self();
+    }
+
+    /**
+     * Add all lines and their nodes, a stream can be added by {@code addLines(stream::iterator)}.
+     *
+     * @param lines lines to add
+     * @return container builder
+     * @throws NullPointerException null lines or null line
+     */
+    public B addLines(Iterable<Line> lines) {
+      initContainer().addLines(lines);
+      return self();
+    }
+
     /**
      * Build a {@code GraphContainer}.
      *
@@ -988,11 +1103,19 @@ public abstract class GraphContainer extends VertexIndex {
         if (g.clusters != null) {
           repl.clusters = new ArrayList<>(g.clusters);
         }
-        if (g.nodes != null) {
-          repl.nodes = new TreeSet<>(g.nodes);
-        }
-        if (g.lines != null) {
-          repl.lines = new TreeSet<>(g.lines);
+        if (g.bulk) {
+          // Share the sets until the next adding
+          repl.nodes = g.nodes;
+          repl.lines = g.lines;
+          repl.bulk = true;
+          repl.shared = g.shared = true;
+        } else {
+          if (g.nodes != null) {
+            repl.nodes = new TreeSet<>(g.nodes);
+          }
+          if (g.lines != null) {
+            repl.lines = new TreeSet<>(g.lines);
+          }
         }
       }
       if (nodeAttrsMap != null) {
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.api;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import org.graphper.api.ext.Box;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.DrawGraphIndex;
+import org.graphper.draw.ExecuteException;
+import org.graphper.draw.geometry.GeometryFormat;
+import org.graphper.draw.geometry.GeometryRenderEngine;
+import org.graphper.draw.raster.RasterRenderEngine;
+import org.graphper.draw.svg.SvgRenderEngine;
+import org.graphper.draw.svg.SvgRenderResult;
+import org.graphper.util.Asserts;
+
+/**
+ * The layout result of a {@link Graphviz}, created by {@link Graphviz#toLayout()}. The layout is
+ * only executed once, and then it can be rendered to any {@link FileType} as many times as needed,
+ * including rendering several types at the same time.
+ *
+ * <p>The layout result is a snapshot of the graphviz when it was laid out, modifying the graphviz
+ * afterwards needs a new layout.
+ *
+ * @author Jamison Jiang
+ */
+public class GraphLayout {
+
+  private final DrawGraph drawGraph;
+
+  private final SvgRenderEngine renderEngine;
+
+  private volatile DrawGraphIndex index;
+
+  GraphLayout(DrawGraph drawGraph, SvgRenderEngine renderEngine) {
+    Asserts.nullArgument(drawGraph, "drawGraph");
+    Asserts.nullArgument(renderEngine, "renderEngine");
+    this.drawGraph = drawGraph;
+    this.renderEngine = renderEngine;
+  }
+
+  /**
+   * Returns the graph description object after layout.
+   *
+   * @return the graph description object after layout
+   */
+  public DrawGraph getDrawGraph() {
+    return drawGraph;
+  }
+
+  /**
+   * Output svg resource content.
+   *
+   * @return svg graph resource
+   * @throws ExecuteException conversion execution error
+   */
+  public GraphResource toSvg() throws ExecuteException {
+    return toFile(FileType.SVG);
+  }
+
+  /**
+   * Output the svg of an area, only the graph elements intersecting the area are drawn, and the
+   * view box of svg is the area.
+   *
+   * @param viewport the area of layout coordinates
+   * @return svg graph resource of the area
+   * @throws ExecuteException conversion execution error
+   * @see #index()
+   */
+  public GraphResource toSvg(Box viewport) throws ExecuteException {
+    Asserts.nullArgument(viewport, "viewport");
+    return renderEngine.render(drawGraph, index().viewport(viewport));
+  }
+
+  /**
+   * Output the svg and keep its document, when the appearance of some graph elements is changed,
+   * {@link SvgRenderResult#rerender} only draws these elements again and returns the changes of
+   * the document. The changed attributes are also applied to this layout.
+   *
+   * @return svg document for re-rendering
+   * @throws ExecuteException conversion execution error
+   */
+  public SvgRenderResult toSvgResult() throws ExecuteException {
+    return renderEngine.renderResult(drawGraph);
+  }
+
+  /**
+   * Returns the spatial index of the graph elements, the index is created at the first call.
+   *
+   * @return spatial index of graph elements
+   */
+  public DrawGraphIndex index() {
+    DrawGraphIndex idx = index;
+    if (idx == null) {
+      synchronized (this) {
+        idx = index;
+        if (idx == null) {
+          index = idx = new DrawGraphIndex(drawGraph);
+        }
+      }
+    }
+    return idx;
+  }
+
+  /**
+   * Write the svg to the writer while rendering, the whole svg document is never kept in memory.
+   * The writer is flushed but not closed.
+   *
+   * @param writer svg writer
+   * @throws ExecuteException conversion execution error or an I/O error occurs
+   */
+  public void writeSvg(Writer writer) throws ExecuteException {
+    renderEngine.writeSvg(drawGraph, writer);
+  }
+
+  /**
+   * Write the svg to the output stream in UTF-8 while rendering. The output stream is flushed but
+   * not closed.
+   *
+   * @param outputStream svg output stream
+   * @throws ExecuteException conversion execution error or an I/O error occurs
+   * @see #writeSvg(Writer)
+   */
+  public void writeSvg(OutputStream outputStream) throws ExecuteException {
+    Asserts.nullArgument(outputStream, "outputStream");
+    Writer writer = new BufferedWriter(
+        new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    writeSvg(writer);
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      throw new ExecuteException(e);
+    }
+  }
+
+  /**
+   * Write the png to the output stream by tiles painted in parallel by the
+   * {@link ForkJoinPool#commonPool()}. The output stream is flushed but not closed.
+   *
+   * @param outputStream png output stream
+   * @throws ExecuteException conversion execution error or an I/O error occurs
+   * @see #writePng(OutputStream, Executor)
+   */
+  public void writePng(OutputStream outputStream) throws ExecuteException {
+    writePng(outputStream, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Write the png to the output stream by tiles, the tiles are painted in parallel by the
+   * executor and only one row of tiles is kept in memory, so the memory does not grow with the
+   * image height. The output stream is flushed but not closed.
+   *
+   * <p>If the graph contains node shapes only supported by svg, the png is converted from svg
+   * and written at once.
+   *
+   * @param outputStream png output stream
+   * @param executor     executor of tiles
+   * @throws ExecuteException conversion execution error or an I/O error occurs
+   */
+  public void writePng(OutputStream outputStream, Executor executor) throws ExecuteException {
+    Asserts.nullArgument(outputStream, "outputStream");
+    Asserts.nullArgument(executor, "executor");
+    if (RasterRenderEngine.support(drawGraph)) {
+      RasterRenderEngine.getInstance().writePng(drawGraph, outputStream, executor);
+      return;
+    }
+
+    try {
+      outputStream.write(toFile(FileType.PNG).bytes());
+      outputStream.flush();
+    } catch (IOException e) {
+      throw new ExecuteException(e);
+    }
+  }
+
+  /**
+   * Output the geometry of graph elements, it is much smaller than the svg and only contains the
+   * coordinates needed to draw the graph by clients.
+   *
+   * @param format geometry format
+   * @return geometry resource
+   * @throws ExecuteException conversion execution error
+   * @see GeometryFormat
+   */
+  public GraphResource toGeometry(GeometryFormat format) throws ExecuteException {
+    Asserts.nullArgument(format, "format");
+    return GeometryRenderEngine.getInstance().render(drawGraph, format);
+  }
+
+  /**
+   * Write the geometry of graph elements to the output stream while rendering. The output stream
+   * is flushed but not closed.
+   *
+   * @param format       geometry format
+   * @param outputStream geometry output stream
+   * @throws ExecuteException conversion execution error or an I/O error occurs
+   * @see GeometryFormat
+   */
+  public void writeGeometry(GeometryFormat format, OutputStream outputStream)
+      throws ExecuteException {
+    GeometryRenderEngine.getInstance().writeGeometry(drawGraph, format, outputStream);
+  }
+
+  /**
+   * Returns the rendered graph file resource, return svg if {@code fileType} is null.
+   *
+   * @param fileType image type
+   * @return graph image
+   * @throws ExecuteException conversion execution error
+   */
+  public GraphResource toFile(FileType fileType) throws ExecuteException {
+    return renderEngine.render(drawGraph, fileType);
+  }
+
+  /**
+   * Render all file types in parallel by the {@link ForkJoinPool#commonPool()}.
+   *
+   * @param fileTypes image types
+   * @return the graph image of every type
+   * @throws ExecuteException conversion execution error of any type
+   * @see #toFiles(Executor, FileType...)
+   */
+  public Map<FileType, GraphResource> toFiles(FileType... fileTypes) throws ExecuteException {
+    return toFiles(ForkJoinPool.commonPool(), fileTypes);
+  }
+
+  /**
+   * Render all file types in parallel by the specified executor, every type is rendered once even
+   * if it is repeated.
+   *
+   * @param executor  executor of renders
+   * @param fileTypes image types
+   * @return the graph image of every type
+   * @throws ExecuteException conversion execution error of any type
+   */
+  public Map<FileType, GraphResource> toFiles(Executor executor, FileType... fileTypes)
+      throws ExecuteException {
+    Asserts.nullArgument(executor, "executor");
+    Asserts.nullArgument(fileTypes, "fileTypes");
+
+    Map<FileType, CompletableFuture<GraphResource>> futures = new EnumMap<>(FileType.class);
+    for (FileType fileType : fileTypes) {
+      Asserts.nullArgument(fileType, "fileType");
+      if (futures.containsKey(fileType)) {
+        continue;
+      }
+
+      futures.put(fileType, CompletableFuture.supplyAsync(() -> {
+        try {
+          return toFile(fileType);
+        } catch (ExecuteException e) {
+          throw new CompletionException(e);
+        }
+      }, executor));
+    }
+
+    Map<FileType, GraphResource> resources = new EnumMap<>(FileType.class);
+    List<Throwable> errors = null;
+    for (Map.Entry<FileType, CompletableFuture<GraphResource>> entry : futures.entrySet()) {
+      try {
+        resources.put(entry.getKey(), entry.getValue().join());
+      } catch (CompletionException e) {
+        if (errors == null) {
+          errors = new ArrayList<>(1);
+        }
+        errors.add(e.getCause() != null ? e.getCause() : e);
+      }
+    }
+
+    if (errors != null) {
+      Throwable first = errors.get(0);
+      ExecuteException ex = first instanceof ExecuteException
+          ? (ExecuteException) first : new ExecuteException(first);
+      for (int i = 1; i < errors.size(); i++) {
+        ex.addSuppressed(errors.get(i));
+      }
+      throw ex;
+    }
+    return resources;
+  }
+}
@@ -17,9 +17,15 @@
 package org.graphper.api;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.graphper.api.Html.Table;
@@ -168,6 +174,189 @@ public class Graphviz extends GraphContainer implements Serializable {
     return CommonRenderEngine.getInstance().render(this, fileType);
   }
 
+  /**
+   * Write the svg to the output stream in UTF-8 while rendering, the whole svg document is never
+   * kept in memory. The output stream is flushed but not closed.
+   *
+   * @param outputStream svg output stream
+   * @throws ExecuteException conversion execution error or an I/O error occurs
+   */
+  public void writeSvg(OutputStream outputStream) throws ExecuteException {
+    toLayout().writeSvg(outputStream);
+  }
+
+  /**
+   * Write the svg to the writer while rendering, the whole svg document is never kept in memory.
+   * The writer is flushed but not closed.
+   *
+   * @param writer svg writer
+   * @throws ExecuteException conversion execution error or an I/O error occurs
+   */
+  public void writeSvg(Writer writer) throws ExecuteException {
+    toLayout().writeSvg(writer);
+  }
+
+  /**
+   * Write the png to the output stream by tiles painted in parallel, the image of the whole graph
+   * is never kept in memory. The output stream is flushed but not closed.
+   *
+   * @param outputStream png output stream
+   * @throws ExecuteException conversion execution error or an I/O error occurs
+   * @see GraphLayout#writePng(OutputStream, java.util.concurrent.Executor)
+   */
+  public void writePng(OutputStream outputStream) throws ExecuteException {
+    toLayout().writePng(outputStream);
+  }
+
+  /**
+   * Only execute the layout of the graph, the returned {@link GraphLayout} can be rendered to any
+   * file type without laying out again.
+   *
+   * @return layout result of graph
+   * @throws ExecuteException layout execution error
+   */
+  public GraphLayout toLayout() throws ExecuteException {
+    CommonRenderEngine renderEngine = CommonRenderEngine.getInstance();
+    return new GraphLayout(renderEngine.layout(this), renderEngine);
+  }
+
+  /**
+   * Split the graph into connected components, the nodes connected by lines and all nodes of a
+   * {@link Subgraph} or {@link Cluster} directly belonging to the graph are in the same component.
+   * Every component is a new {@code Graphviz} containing the nodes, lines and sub-graphs of the
+   * component in the original order, it has the node and line templates of the current graph and
+   * the graph attributes without the label and margin. Returns the current graph if there is only
+   * one component.
+   *
+   * @return the connected components of graph
+   */
+  public List<Graphviz> components() {
+    Map<Node, Integer> nodeIndex = new HashMap<>(nodeNum());
+    List<Node> indexNodes = new ArrayList<>();
+    for (Node node : nodes()) {
+      if (nodeIndex.putIfAbsent(node, indexNodes.size()) == null) {
+        indexNodes.add(node);
+      }
+    }
+    for (Line line : lines()) {
+      for (Node node : Arrays.asList(line.tail(), line.head())) {
+        if (nodeIndex.putIfAbsent(node, indexNodes.size()) == null) {
+          indexNodes.add(node);
+        }
+      }
+    }
+
+    int[] parent = new int[indexNodes.size()];
+    for (int i = 0; i < parent.length; i++) {
+      parent[i] = i;
+    }
+    for (Line line : directLines()) {
+      union(parent, nodeIndex.get(line.tail()), nodeIndex.get(line.head()));
+    }
+    List<GraphContainer> children = new ArrayList<>(subgraphs().size() + clusters().size());
+    children.addAll(subgraphs());
+    children.addAll(clusters());
+    for (GraphContainer child : children) {
+      int first = -1;
+      for (Node node : child.nodes()) {
+        int n = nodeIndex.get(node);
+        if (first == -1) {
+          first = n;
+        } else {
+          union(parent, first, n);
+        }
+      }
+      for (Line line : child.lines()) {
+        union(parent, nodeIndex.get(line.tail()), nodeIndex.get(line.head()));
+      }
+    }
+
+    // Components are numbered in the order of their first node
+    int[] componentNo = new int[parent.length];
+    Arrays.fill(componentNo, -1);
+    int num = 0;
+    for (int i = 0; i < parent.length; i++) {
+      int root = find(parent, i);
+      if (componentNo[root] == -1) {
+        componentNo[root] = num++;
+      }
+    }
+    if (num <= 1) {
+      return Collections.singletonList(this);
+    }
+
+    GraphAttrs attrs = graphAttrs.clone();
+    attrs.label = null;
+    attrs.table = null;
+    attrs.assemble = null;
+    attrs.margin = new UnmodifyFlatPoint(0, 0);
+    attrs.packComponents = false;
+
+    List<Graphviz> components = new ArrayList<>(num);
+    for (int i = 0; i < num; i++) {
+      Graphviz component = new Graphviz(isDirected, attrs);
+      component.id = id;
+      component.nodeAttrsMap = nodeAttrsMap;
+      component.lineAttrsMap = lineAttrsMap;
+      component.bulk = bulk;
+      components.add(component);
+    }
+
+    for (Node node : directNodes()) {
+      components.get(componentNo[find(parent, nodeIndex.get(node))]).addNode(node);
+    }
+    for (Line line : directLines()) {
+      components.get(componentNo[find(parent, nodeIndex.get(line.tail()))]).addLine(line);
+    }
+    for (Subgraph subgraph : subgraphs()) {
+      Node node = subgraph.nodes().iterator().next();
+      components.get(componentNo[find(parent, nodeIndex.get(node))]).addSubgraph(subgraph);
+    }
+    for (Cluster cluster : clusters()) {
+      Node node = cluster.nodes().iterator().next();
+      components.get(componentNo[find(parent, nodeIndex.get(node))]).addCluster(cluster);
+    }
+
+    for (Graphviz component : components) {
+      component.recordFather();
+    }
+    return components;
+  }
+
+  private void recordFather() {
+    Set<GraphContainer> path = new HashSet<>();
+    Set<GraphContainer> accessStack = new HashSet<>();
+
+    GraphvizUtils.dfs(MAX_DEPTH, Boolean.FALSE, path, accessStack, this,
+                      (s, f) -> setFather(f, s), (c, f) -> setFather(f, c), null);
+  }
+
+  private void setFather(GraphContainer father, GraphContainer container) {
+    if (fatherRecord == null) {
+      fatherRecord = new HashMap<>();
+    }
+    Asserts.illegalArgument(container.absoluteEmpty(), "Graphviz have empty sub graph!");
+    Asserts.illegalArgument(fatherRecord.get(container) != null,
+                            "Graph Container is repeatedly set in Graphviz!");
+    fatherRecord.put(container, father);
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  private static void union(int[] parent, int i, int j) {
+    int ri = find(parent, i);
+    int rj = find(parent, j);
+    if (ri != rj) {
+      parent[Math.max(ri, rj)] = Math.min(ri, rj);
+    }
+  }
+
   // ------------------------------------------ static ---------------------------------------
 
   /**
@@ -387,6 +576,29 @@ public class Graphviz extends GraphContainer implements Serializable {
       return self();
     }
 
+    /**
+     * In the {@link Layout#DOT}, every iteration of the network simplex replaces a tree edge of
+     * negative cut value. searchsize is the maximum number of negative tree edges examined to
+     * choose the most negative one, the next search resumes from the edges not examined yet. A
+     * larger searchsize usually needs fewer iterations, and each iteration costs more. The default
+     * value is 1, which takes the first negative tree edge, other values may change the layout.
+     *
+     * <p>searchsize only bounds the choice of the leaving tree edge, the search of the entering
+     * edge still examines all edges between the two components. It is ignored by the object graph
+     * network simplex enabled by the system property <tt>dot.network.simplex.v1</tt>, which always
+     * takes the first negative tree edge.
+     *
+     * @param searchsize maximum number of negative tree edges examined in each iteration
+     * @return graphviz builder
+     * @throws IllegalArgumentException searchsize less than 1
+     */
+    public GraphvizBuilder searchsize(int searchsize) {
+      Asserts.illegalArgument(searchsize < 1,
+                              "searchsize (" + searchsize + ") can not less than 1");
+      graphAttrs.searchsize = searchsize;
+      return self();
+    }
+
     /**
      * Set the interval distance of the rank, only valid for {@link Layout#DOT}.
      *
@@ -469,6 +681,54 @@ public class Graphviz extends GraphContainer implements Serializable {
       return self();
     }
 
+    /**
+     * In the {@link Layout#DOT}, run the minimization of crossings from multiple independent
+     * initial orders and keep the order with the fewest crossings. The starts run in parallel on
+     * the {@link java.util.concurrent.ForkJoinPool#commonPool()}, more starts usually bring fewer
+     * crossings on multi-core hosts. The default value is 1, which only uses the default initial
+     * orders.
+     *
+     * @param mcstarts the number of independent starts of crossing minimization
+     * @return graphviz builder
+     * @throws IllegalArgumentException mcstarts less than 1
+     */
+    public GraphvizBuilder mcstarts(int mcstarts) {
+      Asserts.illegalArgument(mcstarts < 1, "mcstarts (" + mcstarts + ") can not less than 1");
+      graphAttrs.mcstarts = mcstarts;
+      return self();
+    }
+
+    /**
+     * The seed of the random initial orders of {@link #mcstarts(int)}, the same seed always
+     * produces the same layout.
+     *
+     * @param mcseed seed of the random initial orders
+     * @return graphviz builder
+     */
+    public GraphvizBuilder mcseed(long mcseed) {
+      graphAttrs.mcseed = mcseed;
+      return self();
+    }
+
+    /**
+     * In the {@link Layout#DOT} with {@link Splines#ORTHO}, route the edges in parallel on the
+     * {@link java.util.concurrent.ForkJoinPool#commonPool()}, and negotiate the congestion of
+     * edges in the rounds after the first one: the edges sharing the same grid with others are
+     * routed again, and the shared grids become more expensive every round, so the edges tend to
+     * leave them if there is a route with the same number of bends. The default value is 0, which
+     * routes the edges one after another without negotiation.
+     *
+     * @param orthoRounds the number of rounds of ortho routing
+     * @return graphviz builder
+     * @throws IllegalArgumentException orthoRounds less than 0
+     */
+    public GraphvizBuilder orthoRounds(int orthoRounds) {
+      Asserts.illegalArgument(orthoRounds < 0,
+                              "orthoRounds (" + orthoRounds + ") can not less than 0");
+      graphAttrs.orthoRounds = orthoRounds;
+      return self();
+    }
+
     /**
      * Set the font size of graphviz.
      *
@@ -507,6 +767,22 @@ public class Graphviz extends GraphContainer implements Serializable {
       return self();
     }
 
+    /**
+     * Set whether to lay out the connected components of the graph separately. When it is true,
+     * every connected component is laid out in parallel as an independent graph, and then the
+     * components are packed into one canvas, each {@link Subgraph} and {@link Cluster} directly
+     * belonging to the graph is always kept in one component. Not valid if the graph has a
+     * {@link #table(Table)} or {@link #assemble(Assemble)} label.
+     *
+     * @param packComponents whether to lay out and pack the components separately
+     * @return graphviz builder
+     * @see Graphviz#components()
+     */
+    public GraphvizBuilder packComponents(boolean packComponents) {
+      graphAttrs.packComponents = packComponents;
+      return self();
+    }
+
     /**
      * Set a cluster link, only valid when the output is <tt>svg</tt>.
      *
@@ -596,13 +872,7 @@ public class Graphviz extends GraphContainer implements Serializable {
       Graphviz graphviz = super.build();
 
       // Make sure acyclic,limit container depency depth
-      Set<GraphContainer> path = new HashSet<>();
-      Set<GraphContainer> accessStack = new HashSet<>();
-
-      GraphvizUtils.dfs(MAX_DEPTH, Boolean.FALSE, path, accessStack, graphviz,
-                        (s, f) -> setFather(graphviz, f, s), (c, f) -> setFather(graphviz, f, c),
-                        null);
-
+      graphviz.recordFather();
       return graphviz;
     }
 
@@ -614,15 +884,5 @@ public class Graphviz extends GraphContainer implements Serializable {
       supplyFields(repl.container);
       return repl;
     }
-
-    private void setFather(Graphviz graphviz, GraphContainer father, GraphContainer container) {
-      if (graphviz.fatherRecord == null) {
-        graphviz.fatherRecord = new HashMap<>();
-      }
-      Asserts.illegalArgument(container.absoluteEmpty(), "Graphviz have empty sub graph!");
-      Asserts.illegalArgument(graphviz.fatherRecord.get(container) != null,
-                              "Graph Container is repeatedly set in Graphviz!");
-      graphviz.fatherRecord.put(container, father);
-    }
   }
 }
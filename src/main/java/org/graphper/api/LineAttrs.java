@@ -25,6 +25,7 @@ import org.graphper.api.attributes.Color;
 import org.graphper.api.attributes.Dir;
 import org.graphper.api.attributes.LineStyle;
 import org.graphper.api.attributes.Port;
+import org.graphper.util.Asserts;
 
 /**
  * Line attribute object.
@@ -212,6 +213,31 @@ public class LineAttrs implements Serializable, Cloneable {
     return assemble;
   }
 
+  /**
+   * Returns a copy of these attributes whose attributes not affecting the layout, which are
+   * control points, show boxes, color, font color, font name, label, style, href and pen width,
+   * are replaced by the non-null ones of {@code paint}. The null attributes of {@code paint} keep
+   * the current values.
+   *
+   * @param paint the attributes to paint
+   * @return the copy of attributes
+   * @throws NullPointerException null paint
+   */
+  public LineAttrs repaint(LineAttrs paint) {
+    Asserts.nullArgument(paint, "paint");
+    LineAttrs attrs = clone();
+    attrs.controlPoints = paint.controlPoints != null ? paint.controlPoints : controlPoints;
+    attrs.showboxes = paint.showboxes != null ? paint.showboxes : showboxes;
+    attrs.color = paint.color != null ? paint.color : color;
+    attrs.fontColor = paint.fontColor != null ? paint.fontColor : fontColor;
+    attrs.fontName = paint.fontName != null ? paint.fontName : fontName;
+    attrs.label = paint.label != null ? paint.label : label;
+    attrs.style = paint.style != null ? paint.style : style;
+    attrs.href = paint.href != null ? paint.href : href;
+    attrs.penWidth = paint.penWidth != null ? paint.penWidth : penWidth;
+    return attrs;
+  }
+
   @Override
   public LineAttrs clone() {
     try {
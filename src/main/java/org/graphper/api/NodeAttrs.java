@@ -26,6 +26,7 @@ import org.graphper.api.attributes.NodeShape;
 import org.graphper.api.attributes.NodeStyle;
 import org.graphper.def.FlatPoint;
 import org.graphper.api.attributes.NodeShapeEnum;
+import org.graphper.util.Asserts;
 
 /**
  * Node attribute object.
@@ -173,6 +174,30 @@ public class NodeAttrs implements Serializable, Cloneable {
     return assemble;
   }
 
+  /**
+   * Returns a copy of these attributes whose attributes not affecting the layout, which are color,
+   * fill color, font color, font name, label, style, href, image and pen width, are replaced by the
+   * non-null ones of {@code paint}. The null attributes of {@code paint} keep the current values.
+   *
+   * @param paint the attributes to paint
+   * @return the copy of attributes
+   * @throws NullPointerException null paint
+   */
+  public NodeAttrs repaint(NodeAttrs paint) {
+    Asserts.nullArgument(paint, "paint");
+    NodeAttrs attrs = clone();
+    attrs.color = paint.color != null ? paint.color : color;
+    attrs.fillColor = paint.fillColor != null ? paint.fillColor : fillColor;
+    attrs.fontColor = paint.fontColor != null ? paint.fontColor : fontColor;
+    attrs.fontName = paint.fontName != null ? paint.fontName : fontName;
+    attrs.label = paint.label != null ? paint.label : label;
+    attrs.style = paint.style != null ? paint.style : style;
+    attrs.href = paint.href != null ? paint.href : href;
+    attrs.image = paint.image != null ? paint.image : image;
+    attrs.penWidth = paint.penWidth != null ? paint.penWidth : penWidth;
+    return attrs;
+  }
+
   @Override
   public NodeAttrs clone() {
     try {
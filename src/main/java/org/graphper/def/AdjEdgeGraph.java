@@ -95,6 +95,11 @@ abstract class AdjEdgeGraph<V, E extends BaseEdge<V, E>> extends
    */
   protected transient int modCount;
 
+  /**
+   * Whether the adjacency lists remove members by moving the last member into the removed slot.
+   */
+  boolean swapRemove;
+
   /**
    * The positioning key of the vertex index {@code VertexIndex}.
    */
@@ -192,12 +197,11 @@ abstract class AdjEdgeGraph<V, E extends BaseEdge<V, E>> extends
       return (EdgeBag<V, E>) EdgeBag.EMPTY;
     }
     if (v instanceof VertexIndex) {
-      Integer index;
-      index = ((VertexIndex) v).getGraphIndex().get(checkAndReturnGraphRef());
-      if (index == null) {
+      int index = ((VertexIndex) v).index(checkAndReturnGraphRef());
+      if (index < 0) {
         return (EdgeBag<V, E>) EdgeBag.EMPTY;
       }
-      if (index >= 0 && index < vertexNum && v.equals(bags[index].vertex)) {
+      if (index < vertexNum && v.equals(bags[index].vertex)) {
         return bags[index];
       }
     }
@@ -280,6 +284,31 @@ abstract class AdjEdgeGraph<V, E extends BaseEdge<V, E>> extends
     return count;
   }
 
+  /**
+   * Set whether removing edges from the adjacency list of a vertex moves the last member into the
+   * removed slot. Then a removal is <tt>O(1)</tt> once the member is found, instead of shifting all
+   * the following members, but {@link #adjacent(Object)} no longer keeps the insertion order after
+   * removals. The default is <tt>false</tt>, and the setting applies to the existing vertices too.
+   *
+   * @param swapRemove whether the adjacency lists use swap-remove
+   */
+  public void setSwapRemove(boolean swapRemove) {
+    this.swapRemove = swapRemove;
+    for (int i = 0; i < vertexNum; i++) {
+      bags[i].swapRemove = swapRemove;
+    }
+  }
+
+  /**
+   * Returns whether the adjacency lists use swap-remove.
+   *
+   * @return whether the adjacency lists use swap-remove
+   * @see #setSwapRemove(boolean)
+   */
+  public boolean isSwapRemove() {
+    return swapRemove;
+  }
+
   /**
    * Returns an array containing all the vertices in this collection.
    *
@@ -337,9 +366,10 @@ abstract class AdjEdgeGraph<V, E extends BaseEdge<V, E>> extends
     }
     int vn = vertexNum++;
     bags[vn] = bag = new EdgeBag<>(v);
+    bag.swapRemove = swapRemove;
     // Add vertex index
     if (v instanceof VertexIndex) {
-      ((VertexIndex) v).getGraphIndex().put(checkAndReturnGraphRef(), vn);
+      ((VertexIndex) v).index(checkAndReturnGraphRef(), vn);
     }
     modCount++;
     return bag;
@@ -441,7 +471,7 @@ abstract class AdjEdgeGraph<V, E extends BaseEdge<V, E>> extends
         if (bags[i].vertex instanceof VertexIndex) {
           VertexIndex vertexIndex = (VertexIndex) bags[i].vertex;
           // Indexes are only added to the current graph's
-          vertexIndex.getGraphIndex().put(checkAndReturnGraphRef(), i);
+          vertexIndex.index(checkAndReturnGraphRef(), i);
         }
       }
     }
@@ -536,6 +566,7 @@ abstract class AdjEdgeGraph<V, E extends BaseEdge<V, E>> extends
     @SuppressWarnings("all")
     public EdgeBag<V, E> clone() {
       EdgeBag<V, E> bag = new EdgeBag<>(vertex);
+      bag.swapRemove = swapRemove;
       bag.loopNum = loopNum;
       bag.degree = degree;
       for (E e : this) {
@@ -89,6 +89,11 @@ abstract class AdjVertexGraph<V> extends AbstractBaseGraph.AbstractVertexOpBase<
    */
   protected transient int modCount;
 
+  /**
+   * Whether the adjacency lists remove members by moving the last member into the removed slot.
+   */
+  boolean swapRemove;
+
   /**
    * The positioning key of the vertex index {@code VertexIndex}.
    */
@@ -136,7 +141,7 @@ abstract class AdjVertexGraph<V> extends AbstractBaseGraph.AbstractVertexOpBase<
       }
       bags[i] = new VertexBag<>(v);
       if (v instanceof VertexIndex) {
-        ((VertexIndex) v).getGraphIndex().put(checkAndReturnGraphRef(), i);
+        ((VertexIndex) v).index(checkAndReturnGraphRef(), i);
       }
       vertexNum++;
     }
@@ -197,12 +202,11 @@ abstract class AdjVertexGraph<V> extends AbstractBaseGraph.AbstractVertexOpBase<
       return (VertexBag<V>) VertexBag.EMPTY;
     }
     if (v instanceof VertexIndex) {
-      Integer index;
-      index = ((VertexIndex) v).getGraphIndex().get(checkAndReturnGraphRef());
-      if (index == null) {
+      int index = ((VertexIndex) v).index(checkAndReturnGraphRef());
+      if (index < 0) {
         return (VertexBag<V>) VertexBag.EMPTY;
       }
-      if (index >= 0 && index < vertexNum && v.equals(bags[index].vertex)) {
+      if (index < vertexNum && v.equals(bags[index].vertex)) {
         return bags[index];
       }
     }
@@ -256,6 +260,31 @@ abstract class AdjVertexGraph<V> extends AbstractBaseGraph.AbstractVertexOpBase<
     return count;
   }
 
+  /**
+   * Set whether removing adjacent vertices from the adjacency list of a vertex moves the last member into the
+   * removed slot. Then a removal is <tt>O(1)</tt> once the member is found, instead of shifting all
+   * the following members, but {@link #adjacent(Object)} no longer keeps the insertion order after
+   * removals. The default is <tt>false</tt>, and the setting applies to the existing vertices too.
+   *
+   * @param swapRemove whether the adjacency lists use swap-remove
+   */
+  public void setSwapRemove(boolean swapRemove) {
+    this.swapRemove = swapRemove;
+    for (int i = 0; i < vertexNum; i++) {
+      bags[i].swapRemove = swapRemove;
+    }
+  }
+
+  /**
+   * Returns whether the adjacency lists use swap-remove.
+   *
+   * @return whether the adjacency lists use swap-remove
+   * @see #setSwapRemove(boolean)
+   */
+  public boolean isSwapRemove() {
+    return swapRemove;
+  }
+
   /**
    * Returns an array containing all the vertices in this collection.
    *
@@ -313,9 +342,10 @@ abstract class AdjVertexGraph<V> extends AbstractBaseGraph.AbstractVertexOpBase<
     }
     int vn = vertexNum++;
     bags[vn] = bag = new VertexBag<>(v);
+    bag.swapRemove = swapRemove;
     // Add vertex index
     if (v instanceof VertexIndex) {
-      ((VertexIndex) v).getGraphIndex().put(checkAndReturnGraphRef(), vn);
+      ((VertexIndex) v).index(checkAndReturnGraphRef(), vn);
     }
     modCount++;
     return bag;
@@ -417,7 +447,7 @@ abstract class AdjVertexGraph<V> extends AbstractBaseGraph.AbstractVertexOpBase<
         if (bags[i].vertex instanceof VertexIndex) {
           VertexIndex vertexIndex = (VertexIndex) bags[i].vertex;
           // Indexes are only added to the current graph's
-          vertexIndex.getGraphIndex().put(checkAndReturnGraphRef(), i);
+          vertexIndex.index(checkAndReturnGraphRef(), i);
         }
       }
     }
@@ -511,6 +541,7 @@ abstract class AdjVertexGraph<V> extends AbstractBaseGraph.AbstractVertexOpBase<
     @SuppressWarnings("all")
     public VertexBag<V> clone() {
       VertexBag<V> bag = new VertexBag<>(vertex);
+      bag.swapRemove = swapRemove;
       bag.loopNum = loopNum;
       bag.degree = degree;
       for (V e : this) {
@@ -16,7 +16,11 @@
 
 package org.graphper.def;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -25,7 +29,13 @@ import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
- * A data structure of a leader and its members, and the members are stored in a linked list.
+ * A data structure of a leader and its members, and the members are stored in an array which
+ * grows by half of its length when it is full.
+ *
+ * <p>By default, removing a member shifts the following members forward, so the members always
+ * keep the insertion order. When {@link #swapRemove} is set, the last member is moved into the
+ * slot of the removed member instead, which is <tt>O(1)</tt> after the member is found, but the
+ * order of members is changed.
  *
  * @param <V> the type of vertex
  * @param <E> the type of edge
@@ -33,15 +43,27 @@ import java.util.function.Predicate;
  */
 class Bag<V, E> implements Iterable<E>, Serializable {
 
-  private static final long serialVersionUID = -3433776704595616074L;
+  private static final long serialVersionUID = -3433776704595616075L;
+
+  private static final Object[] EMPTY_ELEMENTS = {};
+
+  /**
+   * The capacity of the first allocation.
+   */
+  private static final int DEFAULT_CAPACITY = 4;
 
   Boolean unmodify;
 
   final V vertex;
 
-  Node<E> header;
+  /**
+   * Fill the slot of the removed member with the last member.
+   */
+  boolean swapRemove;
 
-  Node<E> tail;
+  transient Object[] elements = EMPTY_ELEMENTS;
+
+  transient int size;
 
   transient int bModCount;
 
@@ -60,97 +82,82 @@ class Bag<V, E> implements Iterable<E>, Serializable {
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public void forEach(Consumer<? super E> action) {
     Objects.requireNonNull(action);
-    Node<E> current = header;
-    while (current != null) {
-      action.accept(current.value);
-      current = current.next;
+    Object[] es = elements;
+    int expectModCount = bModCount;
+    for (int i = 0; i < size && expectModCount == bModCount; i++) {
+      action.accept((E) es[i]);
+    }
+    if (expectModCount != bModCount) {
+      throw new ConcurrentModificationException();
     }
   }
 
   void add(E e) {
     checkIsUnmodify();
-    if (header == null) {
-      header = new Node<>(e, null, null);
-      tail = header;
-    } else {
-      tail = tail.next = new Node<>(e, tail, null);
+    if (size == elements.length) {
+      int capacity = elements.length;
+      elements = Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1)));
     }
+    elements[size++] = e;
     bModCount++;
   }
 
   boolean remove(Object obj) {
     checkIsUnmodify();
-    Node<E> pre;
-    Node<E> current = header;
-    // Find adjacent vertices that need to be deleted.
-    while (current != null) {
-      if (Objects.equals(current.value, obj)) {
-        break;
-      }
-      current = current.next;
-    }
-    if (current == null) {
+    int index = indexOf(obj);
+    if (index < 0) {
       return false;
     }
-    // Iteration complete
-    if (current == tail) {
-      tail = tail.pre;
-      if (tail != null) {
-        tail.next = null;
-      } else {
-        header = null;  // header and tail overlap
-      }
-    }
-    // Delete header
-    else if (current == header) {
-      header = header.next;
-      header.pre = null;
-    } else if ((pre = current.pre) != null) {
-      pre.next = current.next;
-      current.next.pre = pre;
-    }
-    bModCount++;
+    removeAt(index);
     return true;
   }
 
   /**
-   * Removes all the elements of this collection that satisfy the given predicate. Errors or runtime
-   * exceptions thrown during iteration or by the predicate are relayed to the caller.
+   * Removes the first element of this collection that satisfies the given predicate. Errors or
+   * runtime exceptions thrown during iteration or by the predicate are relayed to the caller.
    *
    * @param predicate a predicate which returns {@code true} for elements to be removed
    * @throws NullPointerException if the predicate is null
    */
+  @SuppressWarnings("unchecked")
   boolean removeIf(Predicate<E> predicate) {
     Objects.requireNonNull(predicate);
     checkIsUnmodify();
-    Node<E> point = header;
-    while (point != null) {
-      if (predicate.test(point.value)) {
-        Node<E> pre = point.pre;
-        Node<E> next = point.next;
-        if (pre != null) {
-          pre.next = next;
-        }
-        if (next != null) {
-          next.pre = pre;
-        }
-        if (point == header) {
-          header = next;
-        }
-        if (point == tail) {
-          tail = pre;
-        }
-        bModCount++;
+    for (int i = 0; i < size; i++) {
+      if (predicate.test((E) elements[i])) {
+        removeAt(i);
         return true;
       }
-      point = point.next;
     }
 
     return false;
   }
 
+  private int indexOf(Object obj) {
+    for (int i = 0; i < size; i++) {
+      if (Objects.equals(elements[i], obj)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void removeAt(int index) {
+    int last = --size;
+    if (index != last) {
+      if (swapRemove) {
+        elements[index] = elements[last];
+      } else {
+        System.arraycopy(elements, index + 1, elements, index, last - index);
+      }
+    }
+    elements[last] = null;
+    bModCount++;
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (obj == this) {
@@ -166,33 +173,27 @@ class Bag<V, E> implements Iterable<E>, Serializable {
     if (!Objects.equals(this.vertex, bag.vertex)) {
       return false;
     }
-    if (!Objects.equals(getNodeValue(header), getNodeValue(bag.header))) {
-      return false;
-    }
-    if (!Objects.equals(getNodeValue(tail), getNodeValue(bag.tail))) {
+    if (size != bag.size) {
       return false;
     }
 
-    Node<E> c1 = header;
-    Node<?> c2 = bag.header;
-    while (Objects.equals(getNodeValue(c1), getNodeValue(c2)) && Objects.nonNull(c1)) {
-      c1 = c1.next;
-      c2 = c2.next;
+    for (int i = 0; i < size; i++) {
+      if (!Objects.equals(elements[i], bag.elements[i])) {
+        return false;
+      }
     }
-    return c1 == null && c2 == null;
+    return true;
   }
 
   @Override
   public int hashCode() {
     int hashCode = vertex != null ? vertex.hashCode() : 1;
-    Node<E> point = header;
-    while (point != null) {
-      if (point.value != null) {
-        hashCode += point.value.hashCode();
+    for (int i = 0; i < size; i++) {
+      if (elements[i] != null) {
+        hashCode += elements[i].hashCode();
       } else {
         hashCode++;
       }
-      point = point.next;
     }
     hashCode += Bag.class.hashCode();
     return hashCode;
@@ -204,68 +205,65 @@ class Bag<V, E> implements Iterable<E>, Serializable {
     }
   }
 
-  private Object getNodeValue(Node<?> node) {
-    if (node == null) {
-      return null;
+  private void writeObject(ObjectOutputStream oos) throws IOException {
+    oos.defaultWriteObject();
+    // Only serialize the members, not the free capacity
+    oos.writeInt(size);
+    for (int i = 0; i < size; i++) {
+      oos.writeObject(elements[i]);
+    }
+  }
+
+  private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+    ois.defaultReadObject();
+    size = ois.readInt();
+    if (size < 0) {
+      throw new IOException("Illegal bag size: " + size);
+    }
+    elements = size == 0 ? EMPTY_ELEMENTS : new Object[size];
+    for (int i = 0; i < size; i++) {
+      elements[i] = ois.readObject();
     }
-    return node.value;
   }
 
   protected class BagIterator implements Iterator<E> {
 
-    Node<E> point; // Iterator pointer
+    int cursor; // Index of the next member
+    private int lastRet = -1; // Index of the last returned member
     private int exceptModCount = bModCount; // The number of next revisions
 
-    BagIterator() {
-      this.point = header;
-    }
-
     @Override
     public boolean hasNext() {
-      return point != null;
+      /*
+       * If the bag was modified outside the iterator, an unvisited member may have moved to the
+       * cursor - 1, let next() report the concurrent modification.
+       */
+      return cursor < size || (cursor == size && exceptModCount != bModCount);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public E next() {
       checkIsConcurrentModify();
-      if (point == null) {
+      if (cursor >= size) {
         throw new NoSuchElementException();
       }
-      E value = point.value;
-      point = point.next;
-      return value;
+      lastRet = cursor;
+      return (E) elements[cursor++];
     }
 
     @Override
     public void remove() {
       checkIsUnmodify();
-      checkIsConcurrentModify();
-      Node<E> pre;
-      Node<E> prepre;
-      if (point == header) {
+      if (lastRet < 0) {
         throw new IllegalStateException("Iterator not specified");
       }
-      // Iteration complete
-      if (point == null) {
-        if (tail != null) {
-          tail = tail.pre;
-          if (tail != null) {
-            tail.next = null;
-          } else {
-            header = null;  // header and tail overlap
-          }
-        }
-      }
-      // Delete header
-      else if ((pre = point.pre) == header) {
-        header = header.next;
-        header.pre = null;
-      } else if (pre != null && (prepre = pre.pre) != null) {
-        prepre.next = point;
-        point.pre = prepre;
-      }
-      exceptModCount++;
-      bModCount++;
+      checkIsConcurrentModify();
+      removeAt(lastRet);
+      // Both the shifted and the swapped member now in the removed slot have not been visited
+      cursor = lastRet;
+      lastRet = -1;
+      exceptModCount = bModCount;
     }
 
     private void checkIsConcurrentModify() {
@@ -274,28 +272,4 @@ class Bag<V, E> implements Iterable<E>, Serializable {
       }
     }
   }
-
-  /**
-   * A doubly linked list for retrieving all adjacent vertices of a vertex
-   */
-  private static final class Node<E> implements Serializable {
-
-    private static final long serialVersionUID = 6069018214912306217L;
-
-    final E value;
-
-    Node<E> pre;
-
-    Node<E> next;
-
-    Node(E value) {
-      this.value = value;
-    }
-
-    Node(E value, Node<E> pre, Node<E> next) {
-      this(value);
-      this.pre = pre;
-      this.next = next;
-    }
-  }
 }
@@ -129,10 +129,8 @@ public class DirectedEdgeGraph<V, E extends DirectedEdge<V, E>> extends AdjEdgeG
     int index = 0;
     EdgeBag<V, E> bag = null, tBag;
     if (vertex instanceof VertexIndex) {
-      Integer i = ((VertexIndex) vertex).getGraphIndex()
-          .get(checkAndReturnGraphRef());
-      if (i != null
-          && i >= 0
+      int i = ((VertexIndex) vertex).index(checkAndReturnGraphRef());
+      if (i >= 0
           && i < vertexNum
           && Objects.equals(bags[i].vertex, vertex)
       ) {
@@ -167,7 +165,7 @@ public class DirectedEdgeGraph<V, E extends DirectedEdge<V, E>> extends AdjEdgeG
     V bagVertex = bag.vertex;
     for (int i = 0; i < nv; i++) {
       if (bags[i].vertex instanceof VertexIndex) {
-        ((VertexIndex) bags[i].vertex).getGraphIndex().put(checkAndReturnGraphRef(), i);
+        ((VertexIndex) bags[i].vertex).index(checkAndReturnGraphRef(), i);
       }
       bags[i].removeIf(e -> Objects.equals(e.to(), bagVertex));
     }
@@ -228,6 +226,7 @@ public class DirectedEdgeGraph<V, E extends DirectedEdge<V, E>> extends AdjEdgeG
   public DirectedEdgeGraph<V, E> copy() {
     DirectedEdgeGraph<V, E> graph = new DirectedEdgeGraph<>(this.bags.length);
     graph.bags = bagRepl();
+    graph.swapRemove = swapRemove;
     graph.vertexNum = vertexNum;
     graph.edgeNum = edgeNum;
     if (vertexNum > 0
@@ -235,7 +234,7 @@ public class DirectedEdgeGraph<V, E extends DirectedEdge<V, E>> extends AdjEdgeG
       VertexIndex.GraphRef gf = graph.checkAndReturnGraphRef();
       for (int i = 0; i < graph.vertexNum; i++) {
         VertexIndex v = ((VertexIndex) graph.bags[i].vertex);
-        v.getGraphIndex().put(gf, v.index(checkAndReturnGraphRef()));
+        v.index(gf, i);
       }
     }
     return graph;
@@ -308,7 +307,7 @@ public class DirectedEdgeGraph<V, E extends DirectedEdge<V, E>> extends AdjEdgeG
       V bagVertex = bag.vertex;
       for (int i = 0; i < nv; i++) {
         if (bags[i].vertex instanceof VertexIndex) {
-          ((VertexIndex) bags[i].vertex).getGraphIndex().put(checkAndReturnGraphRef(), i);
+          ((VertexIndex) bags[i].vertex).index(checkAndReturnGraphRef(), i);
         }
         bags[i].removeIf(e -> Objects.equals(e.to(), bagVertex));
       }
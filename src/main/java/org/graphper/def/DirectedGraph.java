@@ -127,10 +127,8 @@ public class DirectedGraph<V> extends AdjVertexGraph<V>
     int index = 0;
     VertexBag<V> bag = null, tBag;
     if (vertex instanceof VertexIndex) {
-      Integer i = ((VertexIndex) vertex).getGraphIndex()
-          .get(checkAndReturnGraphRef());
-      if (i != null
-          && i >= 0
+      int i = ((VertexIndex) vertex).index(checkAndReturnGraphRef());
+      if (i >= 0
           && i < vertexNum
           && Objects.equals(bags[i].vertex, vertex)
       ) {
@@ -164,7 +162,7 @@ public class DirectedGraph<V> extends AdjVertexGraph<V>
     // update index and remove edge pointing to removed vertex
     for (int i = 0; i < nv; i++) {
       if (bags[i].vertex instanceof VertexIndex) {
-        ((VertexIndex) bags[i].vertex).getGraphIndex().put(checkAndReturnGraphRef(), i);
+        ((VertexIndex) bags[i].vertex).index(checkAndReturnGraphRef(), i);
       }
       bags[i].remove(bag.vertex);
     }
@@ -184,6 +182,7 @@ public class DirectedGraph<V> extends AdjVertexGraph<V>
   public DirectedGraph<V> copy() {
     DirectedGraph<V> directedGraph = new DirectedGraph<>(this.bags.length);
     directedGraph.bags = bagRepl();
+    directedGraph.swapRemove = swapRemove;
     directedGraph.vertexNum = vertexNum;
     directedGraph.edgeNum = edgeNum;
     if (vertexNum > 0
@@ -191,7 +190,7 @@ public class DirectedGraph<V> extends AdjVertexGraph<V>
       VertexIndex.GraphRef gf = directedGraph.checkAndReturnGraphRef();
       for (int i = 0; i < directedGraph.vertexNum; i++) {
         VertexIndex v = ((VertexIndex) directedGraph.bags[i].vertex);
-        v.getGraphIndex().put(gf, v.index(checkAndReturnGraphRef()));
+        v.index(gf, i);
       }
     }
     return directedGraph;
@@ -253,7 +252,7 @@ public class DirectedGraph<V> extends AdjVertexGraph<V>
       // Update index and remove edge pointing to removed vertex
       for (int i = 0; i < nv; i++) {
         if (bags[i].vertex instanceof VertexIndex) {
-          ((VertexIndex) bags[i].vertex).getGraphIndex().put(checkAndReturnGraphRef(), i);
+          ((VertexIndex) bags[i].vertex).index(checkAndReturnGraphRef(), i);
         }
         bags[i].remove(bag.vertex);
       }
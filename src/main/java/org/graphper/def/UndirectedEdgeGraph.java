@@ -130,10 +130,8 @@ public class UndirectedEdgeGraph<V, E extends Edge<V, E>> extends AdjEdgeGraph<V
     int index = 0;
     EdgeBag<V, E> bag = null, tBag;
     if (vertex instanceof VertexIndex) {
-      Integer i = ((VertexIndex) vertex).getGraphIndex()
-          .get(checkAndReturnGraphRef());
-      if (i != null
-          && i >= 0
+      int i = ((VertexIndex) vertex).index(checkAndReturnGraphRef());
+      if (i >= 0
           && i < vertexNum
           && Objects.equals(bags[i].vertex, vertex)
       ) {
@@ -170,9 +168,7 @@ public class UndirectedEdgeGraph<V, E extends Edge<V, E>> extends AdjEdgeGraph<V
     int nv = --vertexNum;
     if (bag.vertex instanceof VertexIndex) {
       for (int i = index; i < nv; i++) {
-        ((VertexIndex) bags[i].vertex)
-            .getGraphIndex()
-            .computeIfPresent(checkAndReturnGraphRef(), (k, v) -> v - 1);// Update index
+        ((VertexIndex) bags[i].vertex).index(checkAndReturnGraphRef(), i); // Update index
       }
     }
     bags[nv] = null;
@@ -191,6 +187,7 @@ public class UndirectedEdgeGraph<V, E extends Edge<V, E>> extends AdjEdgeGraph<V
   public UndirectedEdgeGraph<V, E> copy() {
     UndirectedEdgeGraph<V, E> graph = new UndirectedEdgeGraph<>(this.bags.length);
     graph.bags = bagRepl();
+    graph.swapRemove = swapRemove;
     graph.vertexNum = vertexNum;
     graph.edgeNum = edgeNum;
     if (vertexNum > 0
@@ -198,7 +195,7 @@ public class UndirectedEdgeGraph<V, E extends Edge<V, E>> extends AdjEdgeGraph<V
       VertexIndex.GraphRef gf = graph.checkAndReturnGraphRef();
       for (int i = 0; i < graph.vertexNum; i++) {
         VertexIndex v = ((VertexIndex) graph.bags[i].vertex);
-        v.getGraphIndex().put(gf, v.index(checkAndReturnGraphRef()));
+        v.index(gf, i);
       }
     }
     return graph;
@@ -252,9 +249,7 @@ public class UndirectedEdgeGraph<V, E extends Edge<V, E>> extends AdjEdgeGraph<V
       --index;
       if (bag.vertex instanceof VertexIndex) {
         for (int i = index; i < nv; i++) {
-          ((VertexIndex) bags[i].vertex)
-              .getGraphIndex()
-              .computeIfPresent(checkAndReturnGraphRef(), (k, v) -> v - 1);// Update index
+          ((VertexIndex) bags[i].vertex).index(checkAndReturnGraphRef(), i); // Update index
         }
       }
       bags[nv] = null;
@@ -127,10 +127,8 @@ public class UndirectedGraph<V> extends AdjVertexGraph<V>
     int index = 0;
     VertexBag<V> bag = null, tBag;
     if (vertex instanceof VertexIndex) {
-      Integer i = ((VertexIndex) vertex).getGraphIndex()
-          .get(checkAndReturnGraphRef());
-      if (i != null
-          && i >= 0
+      int i = ((VertexIndex) vertex).index(checkAndReturnGraphRef());
+      if (i >= 0
           && i < vertexNum
           && Objects.equals(bags[i].vertex, vertex)
       ) {
@@ -167,9 +165,7 @@ public class UndirectedGraph<V> extends AdjVertexGraph<V>
     int nv = --vertexNum;
     if (bag.vertex instanceof VertexIndex) {
       for (int i = index; i < nv; i++) {
-        ((VertexIndex) bags[i].vertex)
-            .getGraphIndex()
-            .computeIfPresent(checkAndReturnGraphRef(), (k, v) -> v - 1);// Update index
+        ((VertexIndex) bags[i].vertex).index(checkAndReturnGraphRef(), i); // Update index
       }
     }
     bags[nv] = null;
@@ -188,6 +184,7 @@ public class UndirectedGraph<V> extends AdjVertexGraph<V>
   public UndirectedGraph<V> copy() {
     UndirectedGraph<V> undirectedGraph = new UndirectedGraph<>(this.bags.length);
     undirectedGraph.bags = bagRepl();
+    undirectedGraph.swapRemove = swapRemove;
     undirectedGraph.vertexNum = vertexNum;
     undirectedGraph.edgeNum = edgeNum;
     if (vertexNum > 0
@@ -195,7 +192,7 @@ public class UndirectedGraph<V> extends AdjVertexGraph<V>
       VertexIndex.GraphRef gf = undirectedGraph.checkAndReturnGraphRef();
       for (int i = 0; i < undirectedGraph.vertexNum; i++) {
         VertexIndex v = ((VertexIndex) undirectedGraph.bags[i].vertex);
-        v.getGraphIndex().put(gf, v.index(checkAndReturnGraphRef()));
+        v.index(gf, i);
       }
     }
     return undirectedGraph;
@@ -249,9 +246,7 @@ public class UndirectedGraph<V> extends AdjVertexGraph<V>
       --index;
       if (bag.vertex instanceof VertexIndex) {
         for (int i = index; i < nv; i++) {
-          ((VertexIndex) bags[i].vertex)
-              .getGraphIndex()
-              .computeIfPresent(checkAndReturnGraphRef(), (k, v) -> v - 1);
+          ((VertexIndex) bags[i].vertex).index(checkAndReturnGraphRef(), i);
         }
       }
       bags[nv] = null;
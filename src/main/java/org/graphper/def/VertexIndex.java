@@ -38,6 +38,21 @@ public class VertexIndex implements Serializable {
    */
   private transient volatile Map<GraphRef, Integer> graphIndex;
 
+  /*
+   * Inline index slots of the two most recently used graphs, so the graphs that are queried
+   * alternately (such as a digraph and its reverse digraph) locate the vertex without any hash
+   * lookup. A slot is only a hint, the graph always confirms that the bag at the slot holds this
+   * vertex, so a stale slot, or a torn slot written by another thread, only falls back to the
+   * graphIndex.
+   */
+  private transient GraphRef slotRef;
+
+  private transient int slot;
+
+  private transient GraphRef prevSlotRef;
+
+  private transient int prevSlot;
+
   public VertexIndex() {
   }
 
@@ -53,8 +68,55 @@ public class VertexIndex implements Serializable {
     return graphIndex;
   }
 
-  Integer index(GraphRef graphRef) {
-    return graphIndex.get(graphRef);
+  /**
+   * Returns the index of the vertex in the graph, or -1 if the vertex has never been indexed by the
+   * graph. The caller needs to check that the graph really holds this vertex at the index.
+   *
+   * @param graphRef the positioning key of graph
+   * @return the index of the vertex in the graph
+   */
+  int index(GraphRef graphRef) {
+    if (slotRef == graphRef) {
+      return slot;
+    }
+    if (prevSlotRef == graphRef) {
+      return prevSlot;
+    }
+
+    Map<GraphRef, Integer> gi = graphIndex;
+    Integer index = gi != null ? gi.get(graphRef) : null;
+    if (index == null) {
+      return -1;
+    }
+    cacheSlot(graphRef, index);
+    return index;
+  }
+
+  /**
+   * Record the index of the vertex in the graph.
+   *
+   * @param graphRef the positioning key of graph
+   * @param index    the index of the vertex in the graph
+   */
+  void index(GraphRef graphRef, int index) {
+    getGraphIndex().put(graphRef, index);
+    cacheSlot(graphRef, index);
+  }
+
+  private void cacheSlot(GraphRef graphRef, int index) {
+    if (slotRef == graphRef) {
+      slot = index;
+      return;
+    }
+    if (prevSlotRef == graphRef) {
+      prevSlot = index;
+      return;
+    }
+
+    prevSlot = slot;
+    prevSlotRef = slotRef;
+    slot = index;
+    slotRef = graphRef;
   }
 
   /**
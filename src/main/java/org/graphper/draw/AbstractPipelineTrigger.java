@@ -55,10 +55,23 @@ public abstract class AbstractPipelineTrigger<
    *                     corresponding type of element
    */
   public void trigger(Function<I, B> brushFactory) {
+    trigger(renderItems(), brushFactory);
+  }
+
+  /**
+   * Trigger all editors of the specified elements, the order of triggering is equal to the
+   * iteration order of {@code items}.
+   *
+   * @param items        the elements to render
+   * @param brushFactory brush factory, which produces the corresponding {@link Brush} for the
+   *                     corresponding type of element
+   */
+  public void trigger(Iterable<? extends I> items, Function<I, B> brushFactory) {
+    Asserts.nullArgument(items, "items");
     Asserts.nullArgument(brushFactory, "brushFactory");
 
     // All graph items
-    for (I item : renderItems()) {
+    for (I item : items) {
       B brush = brushFactory.apply(item);
 
       Asserts.illegalArgument(brush == null, "BrushFactory cannot create null brush!");
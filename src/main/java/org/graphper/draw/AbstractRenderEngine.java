@@ -31,6 +31,20 @@ public abstract class AbstractRenderEngine implements RenderEngine {
 
   @Override
   public GraphResource render(Graphviz graphviz, Object attach) throws ExecuteException {
+    DrawGraph drawGraph = layout(graphviz);
+    drawGraph.setAttach(attach);
+    return render(drawGraph, attach);
+  }
+
+  /**
+   * Only execute the layout engine of graphviz, the returned {@link DrawGraph} can be rendered by
+   * {@link #render(DrawGraph, Object)} as many times as needed.
+   *
+   * @param graphviz the graphviz
+   * @return the graph description object after layout
+   * @throws ExecuteException layout exception
+   */
+  public DrawGraph layout(Graphviz graphviz) throws ExecuteException {
     Asserts.nullArgument(graphviz, "graphviz");
 
     // Get layout
@@ -39,14 +53,34 @@ public abstract class AbstractRenderEngine implements RenderEngine {
 
     try {
       LayoutEngine layoutEngine = layout.getLayoutEngine();
-      DrawGraph drawGraph = layoutEngine.layout(graphviz, this);
-      drawGraph.setAttach(attach);
-      return render0(drawGraph);
+      return layoutEngine.layout(graphviz, this);
     } catch (Exception e) {
       throw new ExecuteException("Layout engine execute error: ", e);
     }
   }
 
+  /**
+   * Render a {@link DrawGraph} that has been laid out by this engine. The attachment only belongs
+   * to this render, so the same {@code DrawGraph} can be rendered with different attachments at the
+   * same time.
+   *
+   * @param drawGraph the graph description object after layout
+   * @param attach    any attachment of render
+   * @return render the result of graph
+   * @throws ExecuteException rendering exception
+   */
+  public GraphResource render(DrawGraph drawGraph, Object attach) throws ExecuteException {
+    Asserts.nullArgument(drawGraph, "drawGraph");
+
+    try {
+      return render0(drawGraph, attach);
+    } catch (ExecuteException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ExecuteException("Render engine execute error: ", e);
+    }
+  }
+
   /**
    * Render the graph according to {@link DrawGraph} and return the rendered result.
    *
@@ -55,4 +89,19 @@ public abstract class AbstractRenderEngine implements RenderEngine {
    * @throws ExecuteException rendering exception
    */
   protected abstract GraphResource render0(DrawGraph drawGraph) throws ExecuteException;
+
+  /**
+   * Render the graph with the attachment of this render. The default implementation puts the
+   * attachment to the {@code DrawGraph}, the engines that support concurrent rendering of the same
+   * {@code DrawGraph} need to override it.
+   *
+   * @param drawGraph the graph description object after layout
+   * @param attach    any attachment of render
+   * @return render the result of graph
+   * @throws ExecuteException rendering exception
+   */
+  protected GraphResource render0(DrawGraph drawGraph, Object attach) throws ExecuteException {
+    drawGraph.setAttach(attach);
+    return render0(drawGraph);
+  }
 }
@@ -21,6 +21,7 @@ import org.graphper.api.Assemble;
 import org.graphper.def.FlatPoint;
 import org.graphper.util.Asserts;
 import org.graphper.api.Cluster;
+import org.graphper.api.ClusterAttrs;
 import org.graphper.api.attributes.Labelloc;
 
 /**
@@ -28,7 +29,7 @@ import org.graphper.api.attributes.Labelloc;
  *
  * @author Jamison Jiang
  */
-public class ClusterDrawProp extends ContainerDrawProp implements Serializable {
+public class ClusterDrawProp extends ContainerDrawProp implements Serializable, Cloneable {
 
   private static final long serialVersionUID = -1571306141541457089L;
 
@@ -36,10 +37,13 @@ public class ClusterDrawProp extends ContainerDrawProp implements Serializable {
 
   private final Cluster cluster;
 
+  private ClusterAttrs clusterAttrs;
+
   public ClusterDrawProp(Cluster cluster) {
     Asserts.nullArgument(cluster, "cluster");
     this.cluster = cluster;
-    convertTable(cluster.clusterAttrs().getTable());
+    this.clusterAttrs = cluster.clusterAttrs();
+    convertTable(clusterAttrs.getTable());
   }
 
   /**
@@ -51,6 +55,35 @@ public class ClusterDrawProp extends ContainerDrawProp implements Serializable {
     return cluster;
   }
 
+  /**
+   * Returns the attributes to draw current cluster, which are the attributes of the cluster unless
+   * this is a copy returned by {@link #repaint(ClusterAttrs)}.
+   *
+   * @return the attributes to draw
+   */
+  public ClusterAttrs clusterAttrs() {
+    return clusterAttrs;
+  }
+
+  /**
+   * Returns a copy which shares the geometry of this cluster and is drawn with the specified
+   * attributes, this cluster is not changed.
+   *
+   * @param clusterAttrs the attributes to draw
+   * @return the copy of this cluster
+   * @throws NullPointerException null attributes
+   */
+  public ClusterDrawProp repaint(ClusterAttrs clusterAttrs) {
+    Asserts.nullArgument(clusterAttrs, "clusterAttrs");
+    try {
+      ClusterDrawProp copy = (ClusterDrawProp) super.clone();
+      copy.clusterAttrs = clusterAttrs;
+      return copy;
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   /**
    * Returns the number of current cluster, this is set by the system according to the order of the
    * cluster.
@@ -72,12 +105,12 @@ public class ClusterDrawProp extends ContainerDrawProp implements Serializable {
 
   @Override
   protected Labelloc labelloc() {
-    return cluster.clusterAttrs().getLabelloc();
+    return clusterAttrs.getLabelloc();
   }
 
   @Override
   protected FlatPoint margin() {
-    return cluster.clusterAttrs().getMargin();
+    return clusterAttrs.getMargin();
   }
 
   @Override
@@ -87,6 +120,6 @@ public class ClusterDrawProp extends ContainerDrawProp implements Serializable {
 
   @Override
   protected Assemble assemble() {
-    return cluster.clusterAttrs().getAssemble();
+    return clusterAttrs.getAssemble();
   }
 }
@@ -0,0 +1,553 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.IntConsumer;
+import org.apache_gs.commons.lang3.StringUtils;
+import org.graphper.api.Assemble;
+import org.graphper.api.FloatLabel;
+import org.graphper.api.LineAttrs;
+import org.graphper.api.attributes.NodeShape;
+import org.graphper.api.ext.Box;
+import org.graphper.def.FlatPoint;
+import org.graphper.layout.dot.RouterBox;
+import org.graphper.util.Asserts;
+import org.graphper.util.FontUtils;
+
+/**
+ * Spatial index of the final geometry of {@link DrawGraph}, used to find the graph elements in an
+ * area without scanning all of them. The index is a packed R-tree, the node boxes, cluster borders
+ * and line bounds are sorted by the hilbert value of their centers, and every tree node groups
+ * {@code nodeSize} consecutive entries of the lower level.
+ *
+ * <p>The bounds of a line contain its control points, arrows, labels and {@link RouterBox}es.
+ * The index is a snapshot of the geometry when it is created, and it is safe to query in multiple
+ * threads.
+ *
+ * @author Jamison Jiang
+ */
+public class DrawGraphIndex {
+
+  public static final int DEFAULT_NODE_SIZE = 16;
+
+  private static final int HILBERT_ORDER = 16;
+
+  private static final int HILBERT_MAX = (1 << HILBERT_ORDER) - 1;
+
+  // Sampling segments of a cubic bezier curve when measure the distance to a line
+  private static final int CURVE_SEGMENTS = 16;
+
+  private final DrawGraph drawGraph;
+
+  private final int nodeSize;
+
+  // Graph elements in the drawing order: clusters, nodes and lines
+  private final Object[] items;
+
+  // Min x, min y, max x and max y of all tree nodes, the leaves are the first items.length
+  private final double[] bounds;
+
+  // Item index of a leaf, or the position of the first child of an internal node
+  private final int[] indices;
+
+  // The end position of every level, from the leaves to the root
+  private final int[] levelEnds;
+
+  public DrawGraphIndex(DrawGraph drawGraph) {
+    this(drawGraph, DEFAULT_NODE_SIZE);
+  }
+
+  public DrawGraphIndex(DrawGraph drawGraph, int nodeSize) {
+    Asserts.nullArgument(drawGraph, "drawGraph");
+    Asserts.illegalArgument(nodeSize < 2, "nodeSize must be at least 2");
+    this.drawGraph = drawGraph;
+    this.nodeSize = nodeSize;
+
+    // Clusters are drawn in the same order as ClusterPipelineTrigger
+    List<Object> elements = new ArrayList<>(drawGraph.clusters());
+    elements.sort(Comparator.comparing(c -> ((ClusterDrawProp) c).getClusterNo()).reversed());
+    for (NodeDrawProp node : drawGraph.nodes()) {
+      elements.add(node);
+    }
+    elements.addAll(drawGraph.lines());
+    this.items = elements.toArray();
+
+    int n = items.length;
+    double[] itemBounds = new double[n * 4];
+    for (int i = 0; i < n; i++) {
+      Object item = items[i];
+      if (item instanceof LineDrawProp) {
+        lineBounds((LineDrawProp) item, itemBounds, i * 4);
+      } else {
+        Box box = (Box) item;
+        setBounds(itemBounds, i * 4, box.getLeftBorder(), box.getUpBorder(),
+                  box.getRightBorder(), box.getDownBorder());
+      }
+    }
+
+    int total = n;
+    List<Integer> ends = new ArrayList<>();
+    ends.add(n);
+    if (n > 0) {
+      int count = n;
+      do {
+        count = (count + nodeSize - 1) / nodeSize;
+        total += count;
+        ends.add(total);
+      } while (count > 1);
+    }
+    this.levelEnds = ends.stream().mapToInt(Integer::intValue).toArray();
+    this.bounds = new double[total * 4];
+    this.indices = new int[total];
+
+    Integer[] order = hilbertOrder(itemBounds);
+    for (int i = 0; i < n; i++) {
+      indices[i] = order[i];
+      System.arraycopy(itemBounds, order[i] * 4, bounds, i * 4, 4);
+    }
+
+    int pos = n;
+    for (int l = 0; l + 1 < levelEnds.length; l++) {
+      int levelStart = l == 0 ? 0 : levelEnds[l - 1];
+      for (int i = levelStart; i < levelEnds[l]; i += nodeSize) {
+        int end = Math.min(i + nodeSize, levelEnds[l]);
+        setBounds(bounds, pos * 4, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                  Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        for (int c = i; c < end; c++) {
+          expand(bounds, pos * 4, bounds[c * 4], bounds[c * 4 + 1]);
+          expand(bounds, pos * 4, bounds[c * 4 + 2], bounds[c * 4 + 3]);
+        }
+        indices[pos++] = i;
+      }
+    }
+  }
+
+  public DrawGraph getDrawGraph() {
+    return drawGraph;
+  }
+
+  /**
+   * Returns the number of indexed graph elements.
+   *
+   * @return number of graph elements
+   */
+  public int size() {
+    return items.length;
+  }
+
+  /**
+   * Returns the graph elements intersecting the area as a {@link Viewport}, which can be the
+   * attachment of a render to draw only the graph elements of this area.
+   *
+   * @param area the area of layout coordinates
+   * @return viewport of area
+   * @throws NullPointerException area is null
+   */
+  public Viewport viewport(Box area) {
+    List<ClusterDrawProp> clusters = new ArrayList<>();
+    List<NodeDrawProp> nodes = new ArrayList<>();
+    List<LineDrawProp> lines = new ArrayList<>();
+    for (int i : query(area)) {
+      Object item = items[i];
+      if (item instanceof ClusterDrawProp) {
+        clusters.add((ClusterDrawProp) item);
+      } else if (item instanceof NodeDrawProp) {
+        nodes.add((NodeDrawProp) item);
+      } else {
+        lines.add((LineDrawProp) item);
+      }
+    }
+    return new Viewport(area, clusters, nodes, lines);
+  }
+
+  /**
+   * Returns the nodes intersecting the area in the drawing order.
+   *
+   * @param area the area of layout coordinates
+   * @return nodes of area
+   * @throws NullPointerException area is null
+   */
+  public List<NodeDrawProp> nodes(Box area) {
+    return viewport(area).nodes();
+  }
+
+  /**
+   * Returns the lines whose bounds intersect the area in the drawing order.
+   *
+   * @param area the area of layout coordinates
+   * @return lines of area
+   * @throws NullPointerException area is null
+   */
+  public List<LineDrawProp> lines(Box area) {
+    return viewport(area).lines();
+  }
+
+  /**
+   * Returns the clusters intersecting the area in the drawing order.
+   *
+   * @param area the area of layout coordinates
+   * @return clusters of area
+   * @throws NullPointerException area is null
+   */
+  public List<ClusterDrawProp> clusters(Box area) {
+    return viewport(area).clusters();
+  }
+
+  /**
+   * Returns the top node containing the point, the shape of node is used to check the point.
+   *
+   * @param x x-coordinate of the point
+   * @param y y-coordinate of the point
+   * @return the top node containing the point, or null if there is none
+   */
+  public NodeDrawProp nodeAt(double x, double y) {
+    FlatPoint point = new FlatPoint(x, y);
+    int[] hit = {-1};
+    search(x, y, x, y, i -> {
+      if (!(items[i] instanceof NodeDrawProp) || i < hit[0]) {
+        return;
+      }
+      NodeDrawProp node = (NodeDrawProp) items[i];
+      NodeShape nodeShape = node.nodeShape();
+      if (nodeShape == null || nodeShape.in(node, point)) {
+        hit[0] = i;
+      }
+    });
+    return hit[0] >= 0 ? (NodeDrawProp) items[hit[0]] : null;
+  }
+
+  /**
+   * Returns the innermost cluster containing the point.
+   *
+   * @param x x-coordinate of the point
+   * @param y y-coordinate of the point
+   * @return the innermost cluster containing the point, or null if there is none
+   */
+  public ClusterDrawProp clusterAt(double x, double y) {
+    ClusterDrawProp[] hit = new ClusterDrawProp[1];
+    search(x, y, x, y, i -> {
+      if (!(items[i] instanceof ClusterDrawProp)) {
+        return;
+      }
+      ClusterDrawProp cluster = (ClusterDrawProp) items[i];
+      if (hit[0] == null
+          || cluster.getWidth() * cluster.getHeight() < hit[0].getWidth() * hit[0].getHeight()) {
+        hit[0] = cluster;
+      }
+    });
+    return hit[0];
+  }
+
+  /**
+   * Returns the nearest line whose path or arrows are within the tolerance of the point, the pen
+   * width of line is added to the tolerance.
+   *
+   * @param x         x-coordinate of the point
+   * @param y         y-coordinate of the point
+   * @param tolerance max distance to the line
+   * @return the nearest line, or null if there is none
+   * @throws IllegalArgumentException tolerance is negative
+   */
+  public LineDrawProp lineAt(double x, double y, double tolerance) {
+    Asserts.illegalArgument(tolerance < 0, "tolerance can not be negative");
+    LineDrawProp[] hit = new LineDrawProp[1];
+    double[] minDist = {Double.MAX_VALUE};
+    search(x - tolerance, y - tolerance, x + tolerance, y + tolerance, i -> {
+      if (!(items[i] instanceof LineDrawProp)) {
+        return;
+      }
+      LineDrawProp line = (LineDrawProp) items[i];
+      double dist = distance(line, x, y);
+      if (dist <= tolerance + penWidth(line.lineAttrs()) / 2 && dist < minDist[0]) {
+        minDist[0] = dist;
+        hit[0] = line;
+      }
+    });
+    return hit[0];
+  }
+
+  // Indices of the items intersecting the area in the drawing order
+  private int[] query(Box area) {
+    Asserts.nullArgument(area, "area");
+    BitSet result = new BitSet(items.length);
+    search(area.getLeftBorder(), area.getUpBorder(), area.getRightBorder(), area.getDownBorder(),
+           result::set);
+    return result.stream().toArray();
+  }
+
+  private void search(double minX, double minY, double maxX, double maxY, IntConsumer consumer) {
+    if (items.length == 0) {
+      return;
+    }
+
+    int[] stack = new int[16];
+    int top = 0;
+    stack[top++] = indices.length - 1;
+    while (top > 0) {
+      int node = stack[--top];
+      int b = node * 4;
+      if (bounds[b] > maxX || bounds[b + 1] > maxY || bounds[b + 2] < minX
+          || bounds[b + 3] < minY) {
+        continue;
+      }
+      if (node < items.length) {
+        consumer.accept(indices[node]);
+        continue;
+      }
+
+      int start = indices[node];
+      int end = Math.min(start + nodeSize, levelEnd(start));
+      for (int c = start; c < end; c++) {
+        if (top == stack.length) {
+          stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[top++] = c;
+      }
+    }
+  }
+
+  private int levelEnd(int pos) {
+    for (int end : levelEnds) {
+      if (end > pos) {
+        return end;
+      }
+    }
+    return indices.length;
+  }
+
+  private Integer[] hilbertOrder(double[] itemBounds) {
+    int n = items.length;
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < n * 4; i += 4) {
+      if (itemBounds[i] > itemBounds[i + 2]) {
+        continue;
+      }
+      minX = Math.min(minX, itemBounds[i]);
+      minY = Math.min(minY, itemBounds[i + 1]);
+      maxX = Math.max(maxX, itemBounds[i + 2]);
+      maxY = Math.max(maxY, itemBounds[i + 3]);
+    }
+
+    double width = maxX > minX ? maxX - minX : 1;
+    double height = maxY > minY ? maxY - minY : 1;
+    long[] values = new long[n];
+    for (int i = 0; i < n; i++) {
+      int b = i * 4;
+      if (itemBounds[b] > itemBounds[b + 2]) {
+        continue;
+      }
+      double cx = (itemBounds[b] + itemBounds[b + 2]) / 2;
+      double cy = (itemBounds[b + 1] + itemBounds[b + 3]) / 2;
+      values[i] = hilbert((int) (HILBERT_MAX * (cx - minX) / width),
+                          (int) (HILBERT_MAX * (cy - minY) / height));
+    }
+
+    Integer[] order = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingLong(i -> values[i]));
+    return order;
+  }
+
+  // The distance of the point along the hilbert curve in a 2^16 * 2^16 grid
+  private static long hilbert(int x, int y) {
+    long d = 0;
+    for (int s = 1 << (HILBERT_ORDER - 1); s > 0; s >>>= 1) {
+      int rx = (x & s) > 0 ? 1 : 0;
+      int ry = (y & s) > 0 ? 1 : 0;
+      d += (long) s * s * ((3 * rx) ^ ry);
+      if (ry == 0) {
+        if (rx == 1) {
+          x = HILBERT_MAX - x;
+          y = HILBERT_MAX - y;
+        }
+        int t = x;
+        x = y;
+        y = t;
+      }
+    }
+    return d;
+  }
+
+  private static void lineBounds(LineDrawProp line, double[] b, int offset) {
+    setBounds(b, offset, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+              Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+    for (FlatPoint point : line) {
+      expand(b, offset, point.getX(), point.getY());
+    }
+    if (line.getStart() != null) {
+      expand(b, offset, line.getStart().getX(), line.getStart().getY());
+    }
+    if (line.getEnd() != null) {
+      expand(b, offset, line.getEnd().getX(), line.getEnd().getY());
+    }
+    arrowBounds(line.getArrowHead(), b, offset);
+    arrowBounds(line.getArrowTail(), b, offset);
+
+    LineAttrs lineAttrs = line.lineAttrs();
+    FlatPoint labelCenter = line.getLabelCenter();
+    if (labelCenter != null) {
+      Assemble assemble = line.getAssemble();
+      if (assemble != null) {
+        sizeBounds(labelCenter, assemble.size(), b, offset);
+      } else if (StringUtils.isNotEmpty(lineAttrs.getLabel())) {
+        Double fontSize = lineAttrs.getFontSize();
+        sizeBounds(labelCenter, FontUtils.measure(lineAttrs.getLabel(), lineAttrs.getFontName(),
+                                                  fontSize == null ? 0 : fontSize, 0), b, offset);
+      }
+    }
+
+    for (Entry<FloatLabel, FlatPoint> entry : line.getFloatLabelFlatCenters().entrySet()) {
+      FloatLabel floatLabel = entry.getKey();
+      Assemble assemble = line.getFloatAssemble(floatLabel);
+      if (assemble != null) {
+        sizeBounds(entry.getValue(), assemble.size(), b, offset);
+      } else if (StringUtils.isNotEmpty(floatLabel.getLabel())) {
+        sizeBounds(entry.getValue(), FontUtils.measure(floatLabel.getLabel(),
+                                                       lineAttrs.getFontName(),
+                                                       floatLabel.getFontSize(), 0), b, offset);
+      }
+    }
+
+    if (line.getBoxes() != null) {
+      for (RouterBox box : line.getBoxes()) {
+        expand(b, offset, box.getLeftBorder(), box.getUpBorder());
+        expand(b, offset, box.getRightBorder(), box.getDownBorder());
+      }
+    }
+
+    if (b[offset] <= b[offset + 2]) {
+      double margin = penWidth(lineAttrs) / 2;
+      setBounds(b, offset, b[offset] - margin, b[offset + 1] - margin,
+                b[offset + 2] + margin, b[offset + 3] + margin);
+    }
+  }
+
+  private static void arrowBounds(ArrowDrawProp arrow, double[] b, int offset) {
+    if (arrow == null || arrow.getAxisBegin() == null || arrow.getAxisEnd() == null) {
+      return;
+    }
+    // The width of the arrow is not longer than its axis
+    FlatPoint begin = arrow.getAxisBegin();
+    FlatPoint end = arrow.getAxisEnd();
+    double half = FlatPoint.twoFlatPointDistance(begin, end) / 2;
+    FlatPoint size = new FlatPoint(2 * half, 2 * half);
+    sizeBounds(begin, size, b, offset);
+    sizeBounds(end, size, b, offset);
+  }
+
+  private static void sizeBounds(FlatPoint center, FlatPoint size, double[] b, int offset) {
+    if (size == null) {
+      return;
+    }
+    expand(b, offset, center.getX() - size.getWidth() / 2, center.getY() - size.getHeight() / 2);
+    expand(b, offset, center.getX() + size.getWidth() / 2, center.getY() + size.getHeight() / 2);
+  }
+
+  private static double distance(LineDrawProp line, double x, double y) {
+    double dist = Double.MAX_VALUE;
+    int size = line.size();
+    if (size > 0) {
+      FlatPoint start = line.getStart() != null ? line.getStart() : line.get(0);
+      if (line.isBesselCurve()) {
+        for (int i = 0; i + 3 < size; i += 3) {
+          FlatPoint p0 = i == 0 ? start : line.get(i);
+          dist = Math.min(dist, curveDistance(p0, line.get(i + 1), line.get(i + 2),
+                                              line.get(i + 3), x, y));
+        }
+      } else {
+        FlatPoint pre = start;
+        for (int i = 1; i < size; i++) {
+          FlatPoint p = line.get(i);
+          dist = Math.min(dist, segmentDistance(pre.getX(), pre.getY(), p.getX(), p.getY(), x, y));
+          pre = p;
+        }
+      }
+    }
+
+    for (ArrowDrawProp arrow : new ArrowDrawProp[]{line.getArrowHead(), line.getArrowTail()}) {
+      if (arrow != null && arrow.getAxisBegin() != null && arrow.getAxisEnd() != null) {
+        FlatPoint begin = arrow.getAxisBegin();
+        FlatPoint end = arrow.getAxisEnd();
+        dist = Math.min(dist, segmentDistance(begin.getX(), begin.getY(),
+                                              end.getX(), end.getY(), x, y));
+      }
+    }
+    return dist;
+  }
+
+  private static double curveDistance(FlatPoint p0, FlatPoint p1, FlatPoint p2, FlatPoint p3,
+                                      double x, double y) {
+    double dist = Double.MAX_VALUE;
+    double preX = p0.getX();
+    double preY = p0.getY();
+    for (int s = 1; s <= CURVE_SEGMENTS; s++) {
+      double t = (double) s / CURVE_SEGMENTS;
+      double u = 1 - t;
+      double a = u * u * u;
+      double b = 3 * u * u * t;
+      double c = 3 * u * t * t;
+      double d = t * t * t;
+      double curX = a * p0.getX() + b * p1.getX() + c * p2.getX() + d * p3.getX();
+      double curY = a * p0.getY() + b * p1.getY() + c * p2.getY() + d * p3.getY();
+      dist = Math.min(dist, segmentDistance(preX, preY, curX, curY, x, y));
+      preX = curX;
+      preY = curY;
+    }
+    return dist;
+  }
+
+  private static double segmentDistance(double x1, double y1, double x2, double y2,
+                                        double x, double y) {
+    double dx = x2 - x1;
+    double dy = y2 - y1;
+    double len = dx * dx + dy * dy;
+    double t = len == 0 ? 0 : ((x - x1) * dx + (y - y1) * dy) / len;
+    t = Math.max(0, Math.min(1, t));
+    return Math.hypot(x - x1 - t * dx, y - y1 - t * dy);
+  }
+
+  private static double penWidth(LineAttrs lineAttrs) {
+    Double penWidth = lineAttrs.getPenWidth();
+    return penWidth != null ? penWidth : 1;
+  }
+
+  private static void setBounds(double[] b, int offset, double minX, double minY,
+                                double maxX, double maxY) {
+    b[offset] = minX;
+    b[offset + 1] = minY;
+    b[offset + 2] = maxX;
+    b[offset + 3] = maxY;
+  }
+
+  private static void expand(double[] b, int offset, double x, double y) {
+    b[offset] = Math.min(b[offset], x);
+    b[offset + 1] = Math.min(b[offset + 1], y);
+    b[offset + 2] = Math.max(b[offset + 2], x);
+    b[offset + 3] = Math.max(b[offset + 3], y);
+  }
+}
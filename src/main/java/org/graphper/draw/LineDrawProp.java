@@ -63,7 +63,7 @@ public class LineDrawProp extends ArrayList<FlatPoint> implements Serializable {
 
   private ArrowDrawProp arrowTail;
 
-  private final LineAttrs lineAttrs;
+  private LineAttrs lineAttrs;
 
   private String id;
 
@@ -126,6 +126,21 @@ public class LineDrawProp extends ArrayList<FlatPoint> implements Serializable {
     return super.add(point);
   }
 
+  public void addAndNotRefreshDrawGraph(int index, FlatPoint point) {
+    super.add(index, point);
+  }
+
+  /**
+   * Expand the area of {@link DrawGraph} by all points of line, used after the points are added
+   * by {@link #addAndNotRefreshDrawGraph(FlatPoint)}, such as the points are computed in parallel
+   * and the area of {@link DrawGraph} can only be updated by one thread.
+   */
+  public void refreshDrawGraphArea() {
+    for (FlatPoint point : this) {
+      refreshDrawGraphArea(point);
+    }
+  }
+
   public void addFloatLabelCenter(FloatLabel floatLabel, FlatPoint center) {
     if (floatLabel == null || center == null) {
       return;
@@ -238,10 +253,30 @@ public class LineDrawProp extends ArrayList<FlatPoint> implements Serializable {
     this.labelCenter = labelCenter;
   }
 
+  public void setLineAttrs(LineAttrs lineAttrs) {
+    Asserts.nullArgument(lineAttrs, "lineAttrs");
+    this.lineAttrs = lineAttrs;
+  }
+
   public LineAttrs lineAttrs() {
     return lineAttrs;
   }
 
+  /**
+   * Returns a copy which shares the points and the geometry of this line and is drawn with the
+   * specified attributes, this line is not changed.
+   *
+   * @param lineAttrs the attributes to draw
+   * @return the copy of this line
+   * @throws NullPointerException null attributes
+   */
+  public LineDrawProp repaint(LineAttrs lineAttrs) {
+    Asserts.nullArgument(lineAttrs, "lineAttrs");
+    LineDrawProp copy = (LineDrawProp) clone();
+    copy.lineAttrs = lineAttrs;
+    return copy;
+  }
+
   public boolean isBesselCurve() {
     return isBesselCurve;
   }
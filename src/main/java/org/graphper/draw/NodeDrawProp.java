@@ -32,7 +32,7 @@ import org.graphper.util.Asserts;
  *
  * @author Jamison Jiang
  */
-public class NodeDrawProp extends ContainerDrawProp implements Serializable {
+public class NodeDrawProp extends ContainerDrawProp implements Serializable, Cloneable {
 
   private static final long serialVersionUID = 2785583326128769032L;
 
@@ -76,6 +76,25 @@ public class NodeDrawProp extends ContainerDrawProp implements Serializable {
     return nodeAttrs;
   }
 
+  /**
+   * Returns a copy which shares the geometry of this node and is drawn with the specified
+   * attributes, this node is not changed.
+   *
+   * @param nodeAttrs the attributes to draw
+   * @return the copy of this node
+   * @throws NullPointerException null attributes
+   */
+  public NodeDrawProp repaint(NodeAttrs nodeAttrs) {
+    Asserts.nullArgument(nodeAttrs, "nodeAttrs");
+    try {
+      NodeDrawProp copy = (NodeDrawProp) super.clone();
+      copy.nodeAttrs = nodeAttrs;
+      return copy;
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   public String id() {
     return String.valueOf(id);
   }
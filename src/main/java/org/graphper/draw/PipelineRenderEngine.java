@@ -56,6 +56,12 @@ public abstract class PipelineRenderEngine<
   @Override
   public GraphResource render0(DrawGraph drawGraph) throws ExecuteException {
     Asserts.nullArgument(drawGraph, "drawGraph");
+    return render0(drawGraph, drawGraph.getAttach());
+  }
+
+  @Override
+  protected GraphResource render0(DrawGraph drawGraph, Object attach) throws ExecuteException {
+    Asserts.nullArgument(drawGraph, "drawGraph");
 
     GraphPipelineTrigger<GB, GraphEditor<GB>> graphExecutePipeline = pipelineFactory
         .graphExecutePipeline(graphEditors(), drawGraph);
@@ -68,11 +74,19 @@ public abstract class PipelineRenderEngine<
 
     try {
       // Triggle all editors of graph items
-      DrawBoard<NB, LB, CB, GB> board = drawBoard(drawGraph);
+      DrawBoard<NB, LB, CB, GB> board = drawBoard(drawGraph, attach);
       graphExecutePipeline.trigger(board::drawGraph);
-      clusterExecutePipeline.trigger(board::drawCluster);
-      nodeExecutePipeline.trigger(board::drawNode);
-      lineExecutePipeline.trigger(board::drawLine);
+      if (attach instanceof Viewport) {
+        // Only the graph elements of viewport
+        Viewport viewport = (Viewport) attach;
+        clusterExecutePipeline.trigger(viewport.clusters(), board::drawCluster);
+        nodeExecutePipeline.trigger(viewport.nodes(), board::drawNode);
+        lineExecutePipeline.trigger(viewport.lines(), board::drawLine);
+      } else {
+        clusterExecutePipeline.trigger(board::drawCluster);
+        nodeExecutePipeline.trigger(board::drawNode);
+        lineExecutePipeline.trigger(board::drawLine);
+      }
 
       return board.graphResource();
     } catch (FailInitResourceException ex) {
@@ -80,6 +94,29 @@ public abstract class PipelineRenderEngine<
     }
   }
 
+  /**
+   * Trigger the editors of the specified graph elements on a board which has drawn the graph, the
+   * elements are drawn in the order of clusters, nodes and lines.
+   *
+   * @param drawGraph the graph description object after layout
+   * @param board     the board of a previous render
+   * @param clusters  clusters to draw
+   * @param nodes     nodes to draw
+   * @param lines     lines to draw
+   */
+  protected void redraw(DrawGraph drawGraph, DrawBoard<NB, LB, CB, GB> board,
+                        Iterable<ClusterDrawProp> clusters, Iterable<NodeDrawProp> nodes,
+                        Iterable<LineDrawProp> lines) {
+    Asserts.nullArgument(drawGraph, "drawGraph");
+    Asserts.nullArgument(board, "board");
+    pipelineFactory.clusterExecutePipeline(clusterEditors(), drawGraph)
+        .trigger(clusters, board::drawCluster);
+    pipelineFactory.nodeExecutePipeline(nodeEditors(), drawGraph)
+        .trigger(nodes, board::drawNode);
+    pipelineFactory.lineExecutePipeline(lineEditors(), drawGraph)
+        .trigger(lines, board::drawLine);
+  }
+
   private synchronized List<NodeEditor<NB>> nodeEditors() {
     if (nodeEditors == null) {
       nodeEditors = initNodeEditors();
@@ -121,4 +158,16 @@ public abstract class PipelineRenderEngine<
   protected abstract List<GraphEditor<GB>> initGraphEditors();
 
   protected abstract DrawBoard<NB, LB, CB, GB> drawBoard(DrawGraph drawGraph);
+
+  /**
+   * Create the board of one render, the attachment is the one of this render and not always the
+   * same as {@link DrawGraph#getAttach()}.
+   *
+   * @param drawGraph the graph description object after layout
+   * @param attach    any attachment of render
+   * @return draw board
+   */
+  protected DrawBoard<NB, LB, CB, GB> drawBoard(DrawGraph drawGraph, Object attach) {
+    return drawBoard(drawGraph);
+  }
 }
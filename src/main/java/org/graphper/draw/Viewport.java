@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw;
+
+import java.util.Collections;
+import java.util.List;
+import org.graphper.api.ext.Box;
+import org.graphper.util.Asserts;
+
+/**
+ * A rectangle area of the {@link DrawGraph} and the graph elements intersecting it, created by
+ * {@link DrawGraphIndex#viewport(Box)}. The graph elements are in the drawing order.
+ *
+ * <p>When a viewport is the attachment of a render, only the graph elements of the viewport are
+ * drawn, and the svg only shows the area of the viewport.
+ *
+ * @author Jamison Jiang
+ */
+public class Viewport implements Box {
+
+  private final double leftBorder;
+
+  private final double rightBorder;
+
+  private final double upBorder;
+
+  private final double downBorder;
+
+  private final List<ClusterDrawProp> clusters;
+
+  private final List<NodeDrawProp> nodes;
+
+  private final List<LineDrawProp> lines;
+
+  Viewport(Box area, List<ClusterDrawProp> clusters, List<NodeDrawProp> nodes,
+           List<LineDrawProp> lines) {
+    Asserts.nullArgument(area, "area");
+    this.leftBorder = area.getLeftBorder();
+    this.rightBorder = area.getRightBorder();
+    this.upBorder = area.getUpBorder();
+    this.downBorder = area.getDownBorder();
+    this.clusters = Collections.unmodifiableList(clusters);
+    this.nodes = Collections.unmodifiableList(nodes);
+    this.lines = Collections.unmodifiableList(lines);
+  }
+
+  @Override
+  public double getLeftBorder() {
+    return leftBorder;
+  }
+
+  @Override
+  public double getRightBorder() {
+    return rightBorder;
+  }
+
+  @Override
+  public double getUpBorder() {
+    return upBorder;
+  }
+
+  @Override
+  public double getDownBorder() {
+    return downBorder;
+  }
+
+  /**
+   * Returns the clusters intersecting the viewport.
+   *
+   * @return clusters of viewport
+   */
+  public List<ClusterDrawProp> clusters() {
+    return clusters;
+  }
+
+  /**
+   * Returns the nodes intersecting the viewport.
+   *
+   * @return nodes of viewport
+   */
+  public List<NodeDrawProp> nodes() {
+    return nodes;
+  }
+
+  /**
+   * Returns the lines intersecting the viewport.
+   *
+   * @return lines of viewport
+   */
+  public List<LineDrawProp> lines() {
+    return lines;
+  }
+}
@@ -22,6 +22,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.ServiceLoader;
 import org.graphper.api.FileType;
+import org.graphper.api.ext.Box;
 import org.graphper.draw.DrawGraph;
 import org.graphper.draw.FailInitResourceException;
 import org.graphper.api.GraphResource;
@@ -61,6 +62,25 @@ public class CommonDrawBoard extends SvgDrawBoard {
     super(drawGraph);
   }
 
+  public CommonDrawBoard(DrawGraph drawGraph, Box viewport) {
+    super(drawGraph, viewport);
+  }
+
+  /**
+   * Returns the converter with the highest priority that supports the file type.
+   *
+   * @param fileType file type
+   * @return converter of the file type, or null if there is no one
+   */
+  public static SvgConverter converter(FileType fileType) {
+    for (SvgConverter converter : converters) {
+      if (converter.support(fileType)) {
+        return converter;
+      }
+    }
+    return null;
+  }
+
   public void setImageType(FileType fileType) {
     this.fileType = fileType;
   }
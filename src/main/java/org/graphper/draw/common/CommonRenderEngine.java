@@ -16,13 +16,19 @@
 
 package org.graphper.draw.common;
 
+import java.io.Writer;
 import org.graphper.api.FileType;
+import org.graphper.api.GraphResource;
 import org.graphper.draw.DefaultPipelineFactory;
 import org.graphper.draw.DrawBoard;
 import org.graphper.draw.DrawGraph;
+import org.graphper.draw.ExecuteException;
 import org.graphper.draw.PipelineFactory;
+import org.graphper.draw.Viewport;
+import org.graphper.draw.raster.RasterRenderEngine;
 import org.graphper.draw.svg.SvgBrush;
 import org.graphper.draw.svg.SvgRenderEngine;
+import org.graphper.draw.svg.SvgRenderResult;
 
 public class CommonRenderEngine extends SvgRenderEngine {
 
@@ -40,13 +46,44 @@ public class CommonRenderEngine extends SvgRenderEngine {
     super(pipelineFactory);
   }
 
+  @Override
+  protected GraphResource render0(DrawGraph drawGraph, Object attach) throws ExecuteException {
+    if (attach instanceof FileType && useRasterRender(drawGraph, (FileType) attach)) {
+      return RasterRenderEngine.getInstance().render(drawGraph, attach);
+    }
+    return super.render0(drawGraph, attach);
+  }
+
   @Override
   protected DrawBoard<SvgBrush, SvgBrush, SvgBrush, SvgBrush> drawBoard(DrawGraph drawGraph) {
-    CommonDrawBoard drawBoard = new CommonDrawBoard(drawGraph);
-    Object attach = drawGraph.getAttach();
+    return drawBoard(drawGraph, drawGraph.getAttach());
+  }
+
+  @Override
+  protected DrawBoard<SvgBrush, SvgBrush, SvgBrush, SvgBrush> drawBoard(DrawGraph drawGraph,
+                                                                        Object attach) {
+    if (attach instanceof Writer || attach instanceof SvgRenderResult) {
+      return super.drawBoard(drawGraph, attach);
+    }
+
+    CommonDrawBoard drawBoard = new CommonDrawBoard(
+        drawGraph, attach instanceof Viewport ? (Viewport) attach : null);
     if (attach instanceof FileType) {
       drawBoard.setImageType((FileType) attach);
     }
     return drawBoard;
   }
+
+  /*
+   * The raster engine paints the same figures as the DefaultImgConverter without generating and
+   * parsing the svg, so it replaces the converter whenever the converter would be chosen.
+   */
+  private static boolean useRasterRender(DrawGraph drawGraph, FileType fileType) {
+    if (!RasterRenderEngine.support(fileType)
+        || Boolean.TRUE.toString().equalsIgnoreCase(System.getProperty("use.svg.img.converter"))) {
+      return false;
+    }
+    return CommonDrawBoard.converter(fileType) instanceof DefaultImgConverter
+        && RasterRenderEngine.support(drawGraph);
+  }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.graphper.api.ext.Box;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.ArrowDrawProp;
+import org.graphper.draw.DrawGraph;
+
+/**
+ * Write the geometry as little-endian numbers to an {@link OutputStream}, see
+ * {@link GeometryFormat#BINARY}.
+ *
+ * @author Jamison Jiang
+ */
+class BinaryGeometryWriter implements GeometryWriter {
+
+  static final int VERSION = 1;
+
+  static final byte END = (byte) 0xff;
+
+  private static final byte[] MAGIC = {'G', 'S', 'G', 'B'};
+
+  private static final byte CURVE_FLAG = 1;
+
+  private static final byte ARROW_HEAD_FLAG = 2;
+
+  private static final byte ARROW_TAIL_FLAG = 4;
+
+  private final OutputStream out;
+
+  private final ByteBuffer buffer;
+
+  private final Map<String, Integer> strings;
+
+  private final StringTable stringTable;
+
+  BinaryGeometryWriter(OutputStream out) {
+    this.out = out;
+    this.buffer = ByteBuffer.allocate(1 << 13).order(ByteOrder.LITTLE_ENDIAN);
+    this.strings = new HashMap<>();
+    this.stringTable = new StringTable();
+  }
+
+  @Override
+  public void start(DrawGraph drawGraph) throws IOException {
+    ensure(MAGIC.length + 4 * 5);
+    buffer.put(MAGIC);
+    buffer.putInt(VERSION);
+    buffer.putFloat((float) drawGraph.width());
+    buffer.putFloat((float) drawGraph.height());
+    FlatPoint scale = drawGraph.getGraphviz().graphAttrs().getScale();
+    buffer.putFloat(scale != null ? (float) scale.getX() : 1);
+    buffer.putFloat(scale != null ? (float) scale.getY() : 1);
+  }
+
+  @Override
+  public void write(GeometryBrush brush) throws IOException {
+    ensure(1 + 4 * 8);
+    buffer.put(brush.type());
+    buffer.putInt(string(brush.id()));
+    Box box = brush.box();
+    if (box != null) {
+      buffer.putFloat((float) box.getLeftBorder());
+      buffer.putFloat((float) box.getUpBorder());
+      buffer.putFloat((float) box.getRightBorder());
+      buffer.putFloat((float) box.getDownBorder());
+    } else {
+      for (int i = 0; i < 4; i++) {
+        buffer.putFloat(Float.NaN);
+      }
+    }
+    boolean hasLabel = brush.label() != null && brush.labelCenter() != null;
+    buffer.putInt(hasLabel ? string(brush.label()) : -1);
+    point(hasLabel ? brush.labelCenter() : null);
+
+    if (brush.type() == GeometryBrush.NODE) {
+      ensure(4);
+      buffer.putInt(brush.shape() != null ? string(brush.shape()) : -1);
+    } else if (brush.type() == GeometryBrush.LINE) {
+      writeLine(brush);
+    }
+  }
+
+  @Override
+  public void finish() throws IOException {
+    ensure(1 + 4);
+    buffer.put(END);
+    buffer.putInt(strings.size());
+    int tableLength = 4 + stringTable.size();
+    drain();
+    stringTable.writeTo(out);
+    ensure(4);
+    buffer.putInt(tableLength);
+    drain();
+    out.flush();
+  }
+
+  private void writeLine(GeometryBrush brush) throws IOException {
+    ArrowDrawProp arrowHead = validArrow(brush.arrowHead());
+    ArrowDrawProp arrowTail = validArrow(brush.arrowTail());
+    byte flags = 0;
+    if (brush.curve()) {
+      flags |= CURVE_FLAG;
+    }
+    if (arrowHead != null) {
+      flags |= ARROW_HEAD_FLAG;
+    }
+    if (arrowTail != null) {
+      flags |= ARROW_TAIL_FLAG;
+    }
+
+    ensure(4 * 2 + 1 + 4);
+    buffer.putInt(brush.tail() != null ? string(brush.tail()) : -1);
+    buffer.putInt(brush.head() != null ? string(brush.head()) : -1);
+    buffer.put(flags);
+    List<FlatPoint> points = brush.points();
+    buffer.putInt(points != null ? points.size() : 0);
+    if (points != null) {
+      for (FlatPoint p : points) {
+        point(p);
+      }
+    }
+    arrow(arrowHead);
+    arrow(arrowTail);
+
+    List<String> floatLabels = brush.floatLabels();
+    ensure(4);
+    buffer.putInt(floatLabels != null ? floatLabels.size() : 0);
+    if (floatLabels != null) {
+      for (int i = 0; i < floatLabels.size(); i++) {
+        ensure(4);
+        buffer.putInt(string(floatLabels.get(i)));
+        point(brush.floatLabelCenters().get(i));
+      }
+    }
+  }
+
+  private void arrow(ArrowDrawProp arrow) throws IOException {
+    if (arrow != null) {
+      point(arrow.getAxisBegin());
+      point(arrow.getAxisEnd());
+    }
+  }
+
+  private static ArrowDrawProp validArrow(ArrowDrawProp arrow) {
+    if (arrow == null || arrow.getAxisBegin() == null || arrow.getAxisEnd() == null) {
+      return null;
+    }
+    return arrow;
+  }
+
+  private void point(FlatPoint point) throws IOException {
+    ensure(8);
+    buffer.putFloat(point != null ? (float) point.getX() : Float.NaN);
+    buffer.putFloat(point != null ? (float) point.getY() : Float.NaN);
+  }
+
+  private int string(String s) {
+    Integer index = strings.get(s);
+    if (index != null) {
+      return index;
+    }
+    index = strings.size();
+    strings.put(s, index);
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    stringTable.putInt(bytes.length);
+    stringTable.put(bytes);
+    return index;
+  }
+
+  private void ensure(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      drain();
+    }
+  }
+
+  private void drain() throws IOException {
+    out.write(buffer.array(), 0, buffer.position());
+    buffer.clear();
+  }
+
+  // The encoded strings, they are written after all elements
+  private static class StringTable extends ByteArrayOutputStream {
+
+    void putInt(int v) {
+      write(v);
+      write(v >>> 8);
+      write(v >>> 16);
+      write(v >>> 24);
+    }
+
+    void put(byte[] bytes) {
+      write(bytes, 0, bytes.length);
+    }
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+import org.graphper.draw.ClusterDrawProp;
+import org.graphper.draw.ClusterEditor;
+
+public class ClusterGeometryEditor implements ClusterEditor<GeometryBrush> {
+
+  @Override
+  public boolean edit(ClusterDrawProp cluster, GeometryBrush brush) {
+    brush.box(cluster);
+    brush.label(cluster.clusterAttrs().getLabel(), cluster.getLabelCenter());
+    return true;
+  }
+}
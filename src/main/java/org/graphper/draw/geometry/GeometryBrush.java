@@ -0,0 +1,176 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.graphper.api.ext.Box;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.ArrowDrawProp;
+import org.graphper.draw.Brush;
+
+/**
+ * Brush that records the geometry of one graph element, the record is written by the
+ * {@link GeometryDrawBoard} after all editors of the graph element are executed.
+ *
+ * @author Jamison Jiang
+ */
+public class GeometryBrush implements Brush {
+
+  static final byte GRAPH = 0;
+
+  static final byte CLUSTER = 1;
+
+  static final byte NODE = 2;
+
+  static final byte LINE = 3;
+
+  private final GeometryDrawBoard drawBoard;
+
+  private final byte type;
+
+  private final String id;
+
+  private Box box;
+
+  private String label;
+
+  private FlatPoint labelCenter;
+
+  private String shape;
+
+  private String tail;
+
+  private String head;
+
+  private boolean curve;
+
+  private List<FlatPoint> points;
+
+  private ArrowDrawProp arrowHead;
+
+  private ArrowDrawProp arrowTail;
+
+  private List<String> floatLabels;
+
+  private List<FlatPoint> floatLabelCenters;
+
+  GeometryBrush(GeometryDrawBoard drawBoard, byte type, String id) {
+    this.drawBoard = drawBoard;
+    this.type = type;
+    this.id = id;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public GeometryDrawBoard drawBoard() {
+    return drawBoard;
+  }
+
+  void box(Box box) {
+    this.box = box;
+  }
+
+  void label(String label, FlatPoint labelCenter) {
+    this.label = label;
+    this.labelCenter = labelCenter;
+  }
+
+  void shape(String shape) {
+    this.shape = shape;
+  }
+
+  void endpoints(String tail, String head) {
+    this.tail = tail;
+    this.head = head;
+  }
+
+  void path(boolean curve, List<FlatPoint> points) {
+    this.curve = curve;
+    this.points = points;
+  }
+
+  void arrows(ArrowDrawProp arrowHead, ArrowDrawProp arrowTail) {
+    this.arrowHead = arrowHead;
+    this.arrowTail = arrowTail;
+  }
+
+  void floatLabel(String label, FlatPoint center) {
+    if (floatLabels == null) {
+      floatLabels = new ArrayList<>(2);
+      floatLabelCenters = new ArrayList<>(2);
+    }
+    floatLabels.add(label);
+    floatLabelCenters.add(center);
+  }
+
+  byte type() {
+    return type;
+  }
+
+  String id() {
+    return id;
+  }
+
+  Box box() {
+    return box;
+  }
+
+  String label() {
+    return label;
+  }
+
+  FlatPoint labelCenter() {
+    return labelCenter;
+  }
+
+  String shape() {
+    return shape;
+  }
+
+  String tail() {
+    return tail;
+  }
+
+  String head() {
+    return head;
+  }
+
+  boolean curve() {
+    return curve;
+  }
+
+  List<FlatPoint> points() {
+    return points;
+  }
+
+  ArrowDrawProp arrowHead() {
+    return arrowHead;
+  }
+
+  ArrowDrawProp arrowTail() {
+    return arrowTail;
+  }
+
+  List<String> floatLabels() {
+    return floatLabels;
+  }
+
+  List<FlatPoint> floatLabelCenters() {
+    return floatLabelCenters;
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import org.graphper.api.GraphResource;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.draw.ClusterDrawProp;
+import org.graphper.draw.DefaultGraphResource;
+import org.graphper.draw.DrawBoard;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.FailInitResourceException;
+import org.graphper.draw.GraphvizDrawProp;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.util.Asserts;
+
+/**
+ * Draw board that writes the geometry of graph elements to a stream while drawing. The geometry
+ * of a graph element is retained by its {@link GeometryBrush} until the next graph element is
+ * drawn, so only the graph element being edited can be removed.
+ *
+ * <p>If the output stream is specified, {@link #graphResource()} only finishes the writing and
+ * returns null.
+ *
+ * @author Jamison Jiang
+ */
+public class GeometryDrawBoard implements
+    DrawBoard<GeometryBrush, GeometryBrush, GeometryBrush, GeometryBrush> {
+
+  private static final String GRAPH_ID = "graph_0";
+
+  private final DrawGraph drawGraph;
+
+  private final GeometryFormat format;
+
+  private final ByteArrayOutputStream os;
+
+  private final GeometryWriter writer;
+
+  private GeometryBrush current;
+
+  private Object currentOwner;
+
+  private boolean started;
+
+  public GeometryDrawBoard(DrawGraph drawGraph, GeometryFormat format, OutputStream outputStream) {
+    Asserts.nullArgument(drawGraph, "drawGraph");
+    Asserts.nullArgument(format, "format");
+    this.drawGraph = drawGraph;
+    this.format = format;
+    this.os = outputStream == null ? new ByteArrayOutputStream() : null;
+    OutputStream out = outputStream != null ? outputStream : os;
+    if (format == GeometryFormat.JSON) {
+      this.writer = new JsonGeometryWriter(
+          new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    } else {
+      this.writer = new BinaryGeometryWriter(out);
+    }
+  }
+
+  @Override
+  public GeometryBrush drawGraph(GraphvizDrawProp graphviz) {
+    return newBrush(graphviz, GeometryBrush.GRAPH, GRAPH_ID);
+  }
+
+  @Override
+  public GeometryBrush drawCluster(ClusterDrawProp cluster) {
+    return newBrush(cluster.getCluster(), GeometryBrush.CLUSTER,
+                    drawGraph.clusterId(cluster.getCluster()));
+  }
+
+  @Override
+  public GeometryBrush drawNode(NodeDrawProp node) {
+    return newBrush(node.getNode(), GeometryBrush.NODE, drawGraph.nodeId(node.getNode()));
+  }
+
+  @Override
+  public GeometryBrush drawLine(LineDrawProp line) {
+    return newBrush(line.getLine(), GeometryBrush.LINE, drawGraph.lineId(line.getLine()));
+  }
+
+  @Override
+  public boolean removeNode(Node node) {
+    return removeCurrent(node);
+  }
+
+  @Override
+  public boolean removeLine(Line line) {
+    return removeCurrent(line);
+  }
+
+  @Override
+  public GraphResource graphResource() throws FailInitResourceException {
+    try {
+      flush();
+      start();
+      writer.finish();
+    } catch (IOException | UncheckedIOException e) {
+      throw new FailInitResourceException(e);
+    }
+
+    if (os == null) {
+      return null;
+    }
+    String label = drawGraph.getGraphviz().graphAttrs().getLabel();
+    return new DefaultGraphResource(label != null ? label : "graphviz", format.getType(), os);
+  }
+
+  public DrawGraph drawGraph() {
+    return drawGraph;
+  }
+
+  private GeometryBrush newBrush(Object owner, byte type, String id) {
+    flush();
+    current = new GeometryBrush(this, type, id);
+    currentOwner = owner;
+    return current;
+  }
+
+  private boolean removeCurrent(Object owner) {
+    if (current == null || !Objects.equals(currentOwner, owner)) {
+      return false;
+    }
+    current = null;
+    currentOwner = null;
+    return true;
+  }
+
+  private void flush() {
+    try {
+      start();
+      if (current != null) {
+        writer.write(current);
+        current = null;
+        currentOwner = null;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void start() throws IOException {
+    if (!started) {
+      writer.start(drawGraph);
+      started = true;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+/**
+ * The output formats of {@link GeometryRenderEngine}.
+ *
+ * <p>{@link #JSON} writes an object with the graph size and an array of elements, every element
+ * has a {@code type} of graph, cluster, node or line, its {@code id} and the geometry of it, the
+ * coordinates are rounded to two decimal places.
+ *
+ * <p>{@link #BINARY} writes the same elements as little-endian 32 bits numbers, the strings are
+ * referenced by their index in the string table, which is at the end of the stream:
+ * <pre>{@code
+ * header:   'G' 'S' 'G' 'B', int version, float width, float height, float scaleX, float scaleY
+ * element:  byte type (0 graph, 1 cluster, 2 node, 3 line), int id,
+ *           float left, float up, float right, float down, int label, float labelX, float labelY
+ *           node: int shape
+ *           line: int tail, int head, byte flags (1 curve, 2 arrow head, 4 arrow tail),
+ *                 int n, float[2n] points, [float[4] arrow head axis], [float[4] arrow tail axis],
+ *                 int m, m * (int label, float x, float y) float labels
+ * end:      byte 0xff, int n, n * (int length, utf-8 bytes) strings, int byte length of strings
+ * }</pre>
+ * The missing strings are -1 and the missing coordinates are NaN.
+ *
+ * @author Jamison Jiang
+ */
+public enum GeometryFormat {
+  JSON("json"), BINARY("bin");
+
+  GeometryFormat(String type) {
+    this.type = type;
+  }
+
+  private final String type;
+
+  public String getType() {
+    return type;
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import org.graphper.draw.ClusterEditor;
+import org.graphper.draw.DefaultPipelineFactory;
+import org.graphper.draw.DrawBoard;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.ExecuteException;
+import org.graphper.draw.GraphEditor;
+import org.graphper.draw.LineEditor;
+import org.graphper.draw.NodeEditor;
+import org.graphper.draw.PipelineFactory;
+import org.graphper.draw.PipelineRenderEngine;
+import org.graphper.layout.FlatShifterStrategy;
+import org.graphper.layout.ShifterStrategy;
+import org.graphper.util.Asserts;
+
+/**
+ * Geometry rendering engine, write the coordinates of the {@link DrawGraph} as json or binary
+ * without formatting any svg, for the clients drawing the graph by themselves. The attachment of
+ * render is the {@link GeometryFormat}, use json if it is not a geometry format.
+ *
+ * @author Jamison Jiang
+ */
+public class GeometryRenderEngine extends
+    PipelineRenderEngine<GeometryBrush, GeometryBrush, GeometryBrush, GeometryBrush> {
+
+  private static final GeometryRenderEngine geometryRenderEngine;
+
+  static {
+    geometryRenderEngine = new GeometryRenderEngine(new DefaultPipelineFactory());
+  }
+
+  protected GeometryRenderEngine(PipelineFactory pipelineFactory) {
+    super(pipelineFactory);
+  }
+
+  public static GeometryRenderEngine getInstance() {
+    return geometryRenderEngine;
+  }
+
+  /**
+   * Write the geometry of {@link DrawGraph} to the output stream while the editors are executing.
+   * The output stream is flushed but not closed.
+   *
+   * @param drawGraph    the graph description object after layout
+   * @param format       output format
+   * @param outputStream geometry output stream
+   * @throws ExecuteException rendering exception or an I/O error occurs
+   */
+  public void writeGeometry(DrawGraph drawGraph, GeometryFormat format, OutputStream outputStream)
+      throws ExecuteException {
+    Asserts.nullArgument(format, "format");
+    Asserts.nullArgument(outputStream, "outputStream");
+    render(drawGraph, new GeometryOutput(format, outputStream));
+  }
+
+  @Override
+  protected List<NodeEditor<GeometryBrush>> initNodeEditors() {
+    return Collections.singletonList(new NodeGeometryEditor());
+  }
+
+  @Override
+  protected List<LineEditor<GeometryBrush>> initLineEditors() {
+    return Collections.singletonList(new LineGeometryEditor());
+  }
+
+  @Override
+  protected List<ClusterEditor<GeometryBrush>> initClusterEditors() {
+    return Collections.singletonList(new ClusterGeometryEditor());
+  }
+
+  @Override
+  protected List<GraphEditor<GeometryBrush>> initGraphEditors() {
+    return Collections.singletonList(new GraphGeometryEditor());
+  }
+
+  @Override
+  protected DrawBoard<GeometryBrush, GeometryBrush, GeometryBrush, GeometryBrush> drawBoard(
+      DrawGraph drawGraph) {
+    return drawBoard(drawGraph, drawGraph.getAttach());
+  }
+
+  @Override
+  protected DrawBoard<GeometryBrush, GeometryBrush, GeometryBrush, GeometryBrush> drawBoard(
+      DrawGraph drawGraph, Object attach) {
+    if (attach instanceof GeometryOutput) {
+      GeometryOutput output = (GeometryOutput) attach;
+      return new GeometryDrawBoard(drawGraph, output.format, output.outputStream);
+    }
+
+    GeometryFormat format = attach instanceof GeometryFormat
+        ? (GeometryFormat) attach : GeometryFormat.JSON;
+    return new GeometryDrawBoard(drawGraph, format, null);
+  }
+
+  @Override
+  public List<ShifterStrategy> shifterStrategies(DrawGraph drawGraph) {
+    return Collections.singletonList(
+        new FlatShifterStrategy(-drawGraph.getMinX(), -drawGraph.getMinY())
+    );
+  }
+
+  @Override
+  public boolean needShift(DrawGraph drawGraph) {
+    if (drawGraph == null) {
+      return false;
+    }
+
+    return drawGraph.getLeftBorder() < 0 || drawGraph.getUpBorder() < 0;
+  }
+
+  private static class GeometryOutput {
+
+    private final GeometryFormat format;
+
+    private final OutputStream outputStream;
+
+    private GeometryOutput(GeometryFormat format, OutputStream outputStream) {
+      this.format = format;
+      this.outputStream = outputStream;
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+import java.io.IOException;
+import org.graphper.draw.DrawGraph;
+
+/**
+ * Writer of the geometry records in a {@link GeometryFormat}.
+ *
+ * @author Jamison Jiang
+ */
+interface GeometryWriter {
+
+  /**
+   * Write the beginning of the output.
+   *
+   * @param drawGraph the graph description object after layout
+   * @throws IOException an I/O error occurs
+   */
+  void start(DrawGraph drawGraph) throws IOException;
+
+  /**
+   * Write the geometry record of one graph element.
+   *
+   * @param brush brush of the graph element
+   * @throws IOException an I/O error occurs
+   */
+  void write(GeometryBrush brush) throws IOException;
+
+  /**
+   * Write the end of the output and flush it.
+   *
+   * @throws IOException an I/O error occurs
+   */
+  void finish() throws IOException;
+}
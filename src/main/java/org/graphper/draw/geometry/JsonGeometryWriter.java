@@ -0,0 +1,216 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import org.graphper.api.ext.Box;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.ArrowDrawProp;
+import org.graphper.draw.DrawGraph;
+
+/**
+ * Write the geometry as json directly to a {@link Writer}, see {@link GeometryFormat#JSON}.
+ *
+ * @author Jamison Jiang
+ */
+class JsonGeometryWriter implements GeometryWriter {
+
+  private static final String[] TYPES = {"graph", "cluster", "node", "line"};
+
+  private final Writer writer;
+
+  private boolean first = true;
+
+  JsonGeometryWriter(Writer writer) {
+    this.writer = writer;
+  }
+
+  @Override
+  public void start(DrawGraph drawGraph) throws IOException {
+    writer.write("{\"width\":");
+    number(drawGraph.width());
+    writer.write(",\"height\":");
+    number(drawGraph.height());
+    FlatPoint scale = drawGraph.getGraphviz().graphAttrs().getScale();
+    if (scale != null) {
+      writer.write(",\"scale\":[");
+      number(scale.getX());
+      writer.write(',');
+      number(scale.getY());
+      writer.write(']');
+    }
+    writer.write(",\"elements\":[");
+  }
+
+  @Override
+  public void write(GeometryBrush brush) throws IOException {
+    if (!first) {
+      writer.write(',');
+    }
+    first = false;
+
+    writer.write("{\"type\":\"");
+    writer.write(TYPES[brush.type()]);
+    writer.write("\",\"id\":");
+    string(brush.id());
+
+    Box box = brush.box();
+    if (box != null) {
+      writer.write(",\"box\":[");
+      number(box.getLeftBorder());
+      writer.write(',');
+      number(box.getUpBorder());
+      writer.write(',');
+      number(box.getRightBorder());
+      writer.write(',');
+      number(box.getDownBorder());
+      writer.write(']');
+    }
+    if (brush.shape() != null) {
+      writer.write(",\"shape\":");
+      string(brush.shape());
+    }
+    if (brush.tail() != null) {
+      writer.write(",\"tail\":");
+      string(brush.tail());
+      writer.write(",\"head\":");
+      string(brush.head());
+    }
+    if (brush.points() != null) {
+      writer.write(",\"curve\":");
+      writer.write(String.valueOf(brush.curve()));
+      writer.write(",\"points\":");
+      points(brush.points());
+    }
+    arrow("arrowHead", brush.arrowHead());
+    arrow("arrowTail", brush.arrowTail());
+    if (brush.label() != null && brush.labelCenter() != null) {
+      writer.write(",\"label\":");
+      string(brush.label());
+      writer.write(",\"labelCenter\":");
+      point(brush.labelCenter());
+    }
+
+    List<String> floatLabels = brush.floatLabels();
+    if (floatLabels != null) {
+      writer.write(",\"floatLabels\":[");
+      for (int i = 0; i < floatLabels.size(); i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writer.write("{\"label\":");
+        string(floatLabels.get(i));
+        writer.write(",\"center\":");
+        point(brush.floatLabelCenters().get(i));
+        writer.write('}');
+      }
+      writer.write(']');
+    }
+    writer.write('}');
+  }
+
+  @Override
+  public void finish() throws IOException {
+    writer.write("]}");
+    writer.flush();
+  }
+
+  private void arrow(String key, ArrowDrawProp arrow) throws IOException {
+    if (arrow == null || arrow.getAxisBegin() == null || arrow.getAxisEnd() == null) {
+      return;
+    }
+    writer.write(",\"");
+    writer.write(key);
+    writer.write("\":[");
+    number(arrow.getAxisBegin().getX());
+    writer.write(',');
+    number(arrow.getAxisBegin().getY());
+    writer.write(',');
+    number(arrow.getAxisEnd().getX());
+    writer.write(',');
+    number(arrow.getAxisEnd().getY());
+    writer.write(']');
+  }
+
+  private void points(List<FlatPoint> points) throws IOException {
+    writer.write('[');
+    for (int i = 0; i < points.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      number(points.get(i).getX());
+      writer.write(',');
+      number(points.get(i).getY());
+    }
+    writer.write(']');
+  }
+
+  private void point(FlatPoint point) throws IOException {
+    writer.write('[');
+    number(point.getX());
+    writer.write(',');
+    number(point.getY());
+    writer.write(']');
+  }
+
+  // Round to two decimal places, and omit the fraction of integers
+  private void number(double v) throws IOException {
+    if (Double.isNaN(v) || Double.isInfinite(v)) {
+      writer.write("null");
+      return;
+    }
+    long r = Math.round(v * 100);
+    if (r % 100 == 0) {
+      writer.write(Long.toString(r / 100));
+    } else {
+      writer.write(Double.toString(r / 100.0));
+    }
+  }
+
+  private void string(String s) throws IOException {
+    writer.write('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"':
+          writer.write("\\\"");
+          break;
+        case '\\':
+          writer.write("\\\\");
+          break;
+        case '\n':
+          writer.write("\\n");
+          break;
+        case '\r':
+          writer.write("\\r");
+          break;
+        case '\t':
+          writer.write("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            writer.write(String.format("\\u%04x", (int) c));
+          } else {
+            writer.write(c);
+          }
+      }
+    }
+    writer.write('"');
+  }
+}
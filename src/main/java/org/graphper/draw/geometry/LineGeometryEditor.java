@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import org.graphper.api.FloatLabel;
+import org.graphper.api.Line;
+import org.graphper.api.LineAttrs;
+import org.graphper.api.attributes.LineStyle;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.LineEditor;
+
+public class LineGeometryEditor implements LineEditor<GeometryBrush> {
+
+  @Override
+  public boolean edit(LineDrawProp lineDrawProp, GeometryBrush brush) {
+    LineAttrs lineAttrs = lineDrawProp.lineAttrs();
+    if (lineAttrs.getStyle() == LineStyle.INVIS) {
+      brush.drawBoard().removeLine(lineDrawProp.getLine());
+      return false;
+    }
+
+    Line line = lineDrawProp.getLine();
+    DrawGraph drawGraph = brush.drawBoard().drawGraph();
+    brush.endpoints(drawGraph.nodeId(line.tail()), drawGraph.nodeId(line.head()));
+
+    // The same points as the svg path, the start replaces the first point
+    if (!lineDrawProp.isEmpty()) {
+      List<FlatPoint> points = new ArrayList<>(lineDrawProp);
+      if (lineDrawProp.getStart() != null) {
+        points.set(0, lineDrawProp.getStart());
+      }
+      brush.path(lineDrawProp.isBesselCurve(), points);
+    }
+    brush.arrows(lineDrawProp.getArrowHead(), lineDrawProp.getArrowTail());
+    brush.label(lineAttrs.getLabel(), lineDrawProp.getLabelCenter());
+
+    for (Entry<FloatLabel, FlatPoint> entry : lineDrawProp.getFloatLabelFlatCenters().entrySet()) {
+      FloatLabel floatLabel = entry.getKey();
+      if (floatLabel.ignoreTextLabel() || floatLabel.getLabel() == null) {
+        continue;
+      }
+      brush.floatLabel(floatLabel.getLabel(), entry.getValue());
+    }
+    return true;
+  }
+}
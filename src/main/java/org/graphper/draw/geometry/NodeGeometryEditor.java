@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+import org.graphper.api.NodeAttrs;
+import org.graphper.api.attributes.NodeShape;
+import org.graphper.api.attributes.NodeStyle;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.draw.NodeEditor;
+
+public class NodeGeometryEditor implements NodeEditor<GeometryBrush> {
+
+  @Override
+  public boolean edit(NodeDrawProp node, GeometryBrush brush) {
+    NodeAttrs nodeAttrs = node.nodeAttrs();
+    if (nodeAttrs.getStyle() == NodeStyle.INVIS) {
+      brush.drawBoard().removeNode(node.getNode());
+      return false;
+    }
+
+    brush.box(node);
+    NodeShape nodeShape = node.nodeShape();
+    if (nodeShape != null) {
+      brush.shape(nodeShape.getName());
+    }
+    brush.label(nodeAttrs.getLabel(), node.getLabelCenter());
+    return true;
+  }
+}
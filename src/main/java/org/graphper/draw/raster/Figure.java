@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * A figure that retained by {@link RasterBrush}, all figures of a graph element are painted
+ * together after all editors of the graph element are executed.
+ *
+ * @author Jamison Jiang
+ */
+interface Figure {
+
+  /**
+   * Paint the figure to the graphics.
+   *
+   * @param g2d       graphics of the image
+   * @param drawBoard draw board of the image
+   */
+  void paint(Graphics2D g2d, RasterDrawBoard drawBoard);
+
+  /**
+   * Returns a rectangle in the layout coordinates that contains all pixels painted by this figure,
+   * it can be larger than the real painted area.
+   *
+   * @return bounds of figure
+   */
+  Rectangle2D bounds();
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Png encoder that writes the image row by row, only the current and the previous rows are kept
+ * in memory. The image is 8 bits RGBA without interlace. Every row chooses the filter type whose
+ * filtered bytes have the minimum sum of absolute values, which is the adaptive filtering suggested
+ * by the png specification.
+ *
+ * @author Jamison Jiang
+ */
+class PngEncoder {
+
+  private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+  private static final byte[] IHDR = "IHDR".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte[] IDAT = "IDAT".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte[] IEND = "IEND".getBytes(StandardCharsets.US_ASCII);
+
+  private static final int IDAT_SIZE = 1 << 15;
+
+  // Bytes of a pixel
+  private static final int BPP = 4;
+
+  private static final int FILTER_NONE = 0;
+
+  private static final int FILTER_SUB = 1;
+
+  private static final int FILTER_UP = 2;
+
+  private static final int FILTER_AVERAGE = 3;
+
+  private static final int FILTER_PAETH = 4;
+
+  private final OutputStream out;
+
+  private final int height;
+
+  // The raw bytes of current row and the previous row, the first byte is the filter type
+  private byte[] row;
+
+  private byte[] prior;
+
+  // The filtered bytes of current row of every filter type
+  private final byte[][] filtered;
+
+  private final Deflater deflater;
+
+  private final DeflaterOutputStream idat;
+
+  private int rows;
+
+  PngEncoder(OutputStream out, int width, int height) throws IOException {
+    this.out = out;
+    this.height = height;
+    this.row = new byte[1 + width * BPP];
+    this.prior = new byte[row.length];
+    this.filtered = new byte[FILTER_PAETH + 1][row.length];
+    for (int i = 0; i < filtered.length; i++) {
+      filtered[i][0] = (byte) i;
+    }
+    this.deflater = new Deflater();
+    this.idat = new DeflaterOutputStream(new IdatOutputStream(), deflater, IDAT_SIZE);
+
+    out.write(SIGNATURE);
+    byte[] header = new byte[13];
+    writeInt(header, 0, width);
+    writeInt(header, 4, height);
+    // Bit depth 8, color type RGBA, and default compression, filter and interlace method
+    header[8] = 8;
+    header[9] = 6;
+    writeChunk(IHDR, header, header.length);
+  }
+
+  /**
+   * Set the pixels of current row from the ARGB pixels.
+   *
+   * @param x      the first pixel of current row to set
+   * @param argb   ARGB pixels
+   * @param offset offset of the first pixel in argb
+   * @param len    number of pixels
+   */
+  void setPixels(int x, int[] argb, int offset, int len) {
+    int p = 1 + x * BPP;
+    for (int i = offset; i < offset + len; i++) {
+      int c = argb[i];
+      row[p++] = (byte) (c >>> 16);
+      row[p++] = (byte) (c >>> 8);
+      row[p++] = (byte) c;
+      row[p++] = (byte) (c >>> 24);
+    }
+  }
+
+  /**
+   * Write current row and start the next one.
+   *
+   * @throws IOException an I/O error occurs
+   */
+  void writeRow() throws IOException {
+    if (rows == height) {
+      throw new IllegalStateException("All rows have been written");
+    }
+    idat.write(filter());
+    byte[] tmp = prior;
+    prior = row;
+    row = tmp;
+    rows++;
+  }
+
+  private byte[] filter() {
+    long[] sums = new long[filtered.length];
+    for (int i = 1; i < row.length; i++) {
+      int x = row[i] & 0xff;
+      int a = i > BPP ? row[i - BPP] & 0xff : 0;
+      int b = prior[i] & 0xff;
+      int c = i > BPP ? prior[i - BPP] & 0xff : 0;
+
+      sums[FILTER_NONE] += put(FILTER_NONE, i, x);
+      sums[FILTER_SUB] += put(FILTER_SUB, i, x - a);
+      sums[FILTER_UP] += put(FILTER_UP, i, x - b);
+      sums[FILTER_AVERAGE] += put(FILTER_AVERAGE, i, x - ((a + b) >>> 1));
+      sums[FILTER_PAETH] += put(FILTER_PAETH, i, x - paeth(a, b, c));
+    }
+
+    int type = FILTER_NONE;
+    for (int i = 1; i < sums.length; i++) {
+      if (sums[i] < sums[type]) {
+        type = i;
+      }
+    }
+    return filtered[type];
+  }
+
+  // Put the filtered byte and returns its absolute value as a signed byte
+  private int put(int type, int i, int v) {
+    byte f = (byte) v;
+    filtered[type][i] = f;
+    return Math.abs((int) f);
+  }
+
+  private static int paeth(int a, int b, int c) {
+    int p = a + b - c;
+    int pa = Math.abs(p - a);
+    int pb = Math.abs(p - b);
+    int pc = Math.abs(p - c);
+    if (pa <= pb && pa <= pc) {
+      return a;
+    }
+    return pb <= pc ? b : c;
+  }
+
+  /**
+   * Finish the image after all rows are written, the output stream is flushed but not closed.
+   *
+   * @throws IOException an I/O error occurs
+   */
+  void finish() throws IOException {
+    if (rows != height) {
+      throw new IllegalStateException("Only " + rows + " of " + height + " rows are written");
+    }
+    try {
+      idat.finish();
+      idat.flush();
+    } finally {
+      deflater.end();
+    }
+    writeChunk(IEND, row, 0);
+    out.flush();
+  }
+
+  private void writeChunk(byte[] type, byte[] data, int len) throws IOException {
+    byte[] num = new byte[4];
+    writeInt(num, 0, len);
+    out.write(num);
+    out.write(type);
+    out.write(data, 0, len);
+
+    CRC32 crc = new CRC32();
+    crc.update(type);
+    crc.update(data, 0, len);
+    writeInt(num, 0, (int) crc.getValue());
+    out.write(num);
+  }
+
+  private static void writeInt(byte[] bytes, int offset, int v) {
+    bytes[offset] = (byte) (v >>> 24);
+    bytes[offset + 1] = (byte) (v >>> 16);
+    bytes[offset + 2] = (byte) (v >>> 8);
+    bytes[offset + 3] = (byte) v;
+  }
+
+  // Split the compressed data to IDAT chunks
+  private class IdatOutputStream extends OutputStream {
+
+    private final byte[] buf = new byte[IDAT_SIZE];
+
+    private int count;
+
+    @Override
+    public void write(int b) throws IOException {
+      if (count == buf.length) {
+        flush();
+      }
+      buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+        if (count == buf.length) {
+          flush();
+        }
+        int n = Math.min(len, buf.length - count);
+        System.arraycopy(b, off, buf, count, n);
+        count += n;
+        off += n;
+        len -= n;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (count > 0) {
+        writeChunk(IDAT, buf, count);
+        count = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.graphper.api.attributes.Color;
+import org.graphper.draw.Brush;
+import org.graphper.util.Asserts;
+import org.graphper.util.CollectionUtils;
+
+/**
+ * Raster brush for graph element. The brush retains the figures of the graph element, the editors
+ * can still adjust the figures created by the previous editors, they are painted to the image by
+ * {@link RasterDrawBoard} after all editors of the graph element are executed.
+ *
+ * @author Jamison Jiang
+ */
+public class RasterBrush implements Brush {
+
+  public static final String SHAPE_GROUP_KEY = "shapeGroupKey";
+
+  public static final String PATH_GROUP_KEY = "pathGroupKey";
+
+  public static final String TAIL_ARROW_GROUP_KEY = "tailArrowGroupKey";
+
+  public static final String HEAD_ARROW_GROUP_KEY = "headArrowGroupKey";
+
+  private final Object owner;
+
+  private final RasterDrawBoard drawBoard;
+
+  private final List<Figure> figures;
+
+  private Map<String, List<ShapeFigure>> figureGroups;
+
+  RasterBrush(Object owner, RasterDrawBoard drawBoard) {
+    Asserts.nullArgument(drawBoard, "drawBoard");
+    this.owner = owner;
+    this.drawBoard = drawBoard;
+    this.figures = new ArrayList<>(4);
+  }
+
+  /**
+   * Draw a shape, the shape has no fill and stroke until they are set to the returned figure.
+   *
+   * @param shape shape to draw
+   * @return shape figure
+   * @throws NullPointerException null shape
+   */
+  public ShapeFigure draw(Shape shape) {
+    ShapeFigure figure = new ShapeFigure(shape);
+    figures.add(figure);
+    return figure;
+  }
+
+  /**
+   * Draw a shape and put it into the {@link #SHAPE_GROUP_KEY} group.
+   *
+   * @param shape shape to draw
+   * @return shape figure
+   * @throws NullPointerException null shape
+   */
+  public ShapeFigure drawShape(Shape shape) {
+    ShapeFigure figure = draw(shape);
+    addGroup(SHAPE_GROUP_KEY, Collections.singletonList(figure));
+    return figure;
+  }
+
+  /**
+   * Draw one line of text, the x coordinate is the middle of the text and the y coordinate is the
+   * baseline.
+   *
+   * @param text      text
+   * @param x         middle of the text
+   * @param y         baseline of the text
+   * @param fontName  font name, use the default font if null
+   * @param fontSize  font size
+   * @param fontColor font color, use black if null
+   * @throws NullPointerException null text
+   */
+  public void drawText(String text, double x, double y, String fontName,
+                       double fontSize, Color fontColor) {
+    Asserts.nullArgument(text, "text");
+    figures.add(new TextFigure(text, x, y, fontName, fontSize, fontColor));
+  }
+
+  /**
+   * Add figures to a group list, the group will be replaced if the key already exists.
+   *
+   * @param key   group key
+   * @param group figures group
+   * @throws IllegalArgumentException group is null or empty
+   */
+  public void addGroup(String key, ShapeFigure... group) {
+    Asserts.illegalArgument(group == null || group.length == 0, "Group is empty");
+    addGroup(key, Arrays.asList(group));
+  }
+
+  /**
+   * Add figures to a group list, the group will be replaced if the key already exists.
+   *
+   * @param key   group key
+   * @param group figures group
+   */
+  public void addGroup(String key, List<ShapeFigure> group) {
+    if (CollectionUtils.isEmpty(group)) {
+      return;
+    }
+
+    if (figureGroups == null) {
+      figureGroups = new HashMap<>(1);
+    }
+    figureGroups.put(key, group);
+  }
+
+  /**
+   * Return all figures in a group according to the group key.
+   *
+   * @param groupKey group key
+   * @return all figures in this group
+   */
+  public List<ShapeFigure> getFigureGroup(String groupKey) {
+    if (figureGroups == null) {
+      return Collections.emptyList();
+    }
+
+    List<ShapeFigure> group = figureGroups.get(groupKey);
+    return CollectionUtils.isEmpty(group) ? Collections.emptyList() : group;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public RasterDrawBoard drawBoard() {
+    return drawBoard;
+  }
+
+  Object owner() {
+    return owner;
+  }
+
+  List<Figure> figures() {
+    return figures;
+  }
+
+  void paint(Graphics2D g2d) {
+    for (Figure figure : figures) {
+      figure.paint(g2d, drawBoard);
+    }
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import static org.graphper.util.FontUtils.DEFAULT_FONT;
+
+import java.awt.BasicStroke;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+import org.graphper.api.FileType;
+import org.graphper.api.GraphResource;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.attributes.Color;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.ClusterDrawProp;
+import org.graphper.draw.DefaultGraphResource;
+import org.graphper.draw.DrawBoard;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.FailInitResourceException;
+import org.graphper.draw.GraphvizDrawProp;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.util.Asserts;
+
+/**
+ * Raster draw board, paint the graph elements to a {@link BufferedImage} by {@link Graphics2D}
+ * directly. The figures of a graph element are retained by its {@link RasterBrush} until the next
+ * graph element is drawn, so only the graph element being edited can be removed. The image is
+ * created when the first graph element is painted.
+ *
+ * @author Jamison Jiang
+ */
+public class RasterDrawBoard implements DrawBoard<RasterBrush, RasterBrush, RasterBrush, RasterBrush> {
+
+  /**
+   * The pixels of one point, the same as the svg converted image.
+   */
+  public static final double PX_PER_PT = 1.3333;
+
+  protected final DrawGraph drawGraph;
+
+  protected final FileType fileType;
+
+  // Image size in pixels
+  protected final int width;
+
+  protected final int height;
+
+  // Pixels of one unit of the layout coordinates
+  protected final double pxScaleX;
+
+  protected final double pxScaleY;
+
+  private final Map<Color, java.awt.Color> colors;
+
+  private final Map<String, Font> fonts;
+
+  private BufferedImage image;
+
+  private Graphics2D g2d;
+
+  private RasterBrush current;
+
+  public RasterDrawBoard(DrawGraph drawGraph, FileType fileType) {
+    Asserts.nullArgument(drawGraph, "drawGraph");
+    Asserts.nullArgument(fileType, "fileType");
+    Asserts.illegalArgument(!RasterRenderEngine.support(fileType),
+                            "Unsupported raster file type " + fileType);
+    this.drawGraph = drawGraph;
+    this.fileType = fileType;
+    this.colors = new ConcurrentHashMap<>();
+    this.fonts = new ConcurrentHashMap<>();
+
+    double scaleX = 1;
+    double scaleY = 1;
+    FlatPoint scale = drawGraph.getGraphviz().graphAttrs().getScale();
+    if (scale != null) {
+      scaleX = scale.getX();
+      scaleY = scale.getY();
+    }
+    this.width = Math.max((int) ((int) (drawGraph.width() * scaleX) * PX_PER_PT), 1);
+    this.height = Math.max((int) ((int) (drawGraph.height() * scaleY) * PX_PER_PT), 1);
+    this.pxScaleX = scaleX * PX_PER_PT;
+    this.pxScaleY = scaleY * PX_PER_PT;
+  }
+
+  @Override
+  public RasterBrush drawGraph(GraphvizDrawProp graphviz) {
+    return newBrush(graphviz);
+  }
+
+  @Override
+  public RasterBrush drawCluster(ClusterDrawProp cluster) {
+    return newBrush(cluster.getCluster());
+  }
+
+  @Override
+  public RasterBrush drawNode(NodeDrawProp node) {
+    return newBrush(node.getNode());
+  }
+
+  @Override
+  public RasterBrush drawLine(LineDrawProp line) {
+    return newBrush(line.getLine());
+  }
+
+  @Override
+  public boolean removeNode(Node node) {
+    return removeCurrent(node);
+  }
+
+  @Override
+  public boolean removeLine(Line line) {
+    return removeCurrent(line);
+  }
+
+  @Override
+  public GraphResource graphResource() throws FailInitResourceException {
+    paintCurrent();
+    graphics().dispose();
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    try {
+      if (!ImageIO.write(image, fileType.getType(), os)) {
+        throw new FailInitResourceException("Can not find image writer of " + fileType);
+      }
+    } catch (IOException e) {
+      throw new FailInitResourceException(e);
+    }
+    return new DefaultGraphResource(label(), fileType.getType(), os);
+  }
+
+  public DrawGraph drawGraph() {
+    return drawGraph;
+  }
+
+  /**
+   * Returns the image width in pixels.
+   *
+   * @return image width
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Returns the image height in pixels.
+   *
+   * @return image height
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Paint all figures of a graph element, it is called after all editors of the graph element are
+   * executed and the graph element is not removed.
+   *
+   * @param brush brush of the graph element
+   */
+  protected void paint(RasterBrush brush) {
+    brush.paint(graphics());
+  }
+
+  /**
+   * Create a graphics for an image whose left up corner is at the (x, y) pixel of the whole
+   * image, the graphics uses the layout coordinates.
+   *
+   * @param img image to paint
+   * @param x   x pixel of the left up corner in the whole image
+   * @param y   y pixel of the left up corner in the whole image
+   * @return graphics of the image
+   */
+  protected Graphics2D createGraphics(BufferedImage img, int x, int y) {
+    Graphics2D graphics = img.createGraphics();
+    graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    graphics.setBackground(java.awt.Color.WHITE);
+    graphics.clearRect(0, 0, img.getWidth(), img.getHeight());
+    graphics.translate(-x, -y);
+    graphics.scale(pxScaleX, pxScaleY);
+    return graphics;
+  }
+
+  protected String label() {
+    String label = drawGraph.getGraphviz().graphAttrs().getLabel();
+    return label != null ? label : "graphviz";
+  }
+
+  java.awt.Color toAwtColor(Color color) {
+    return colors.computeIfAbsent(color, c -> new java.awt.Color(
+        Integer.parseInt(c.value().substring(1), 16)));
+  }
+
+  Font font(String fontName, double fontSize) {
+    String name = fontName != null ? fontName : DEFAULT_FONT;
+    return fonts.computeIfAbsent(name + ':' + fontSize, n -> new Font(name, Font.PLAIN, 1)
+        .deriveFont((float) fontSize));
+  }
+
+  BasicStroke stroke(double width, float[] dashArray) {
+    if (dashArray == null) {
+      return new BasicStroke((float) width);
+    }
+    return new BasicStroke((float) width, BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND,
+                           5.0f, dashArray, 0);
+  }
+
+  private RasterBrush newBrush(Object owner) {
+    paintCurrent();
+    current = new RasterBrush(owner, this);
+    return current;
+  }
+
+  private boolean removeCurrent(Object owner) {
+    if (current == null || !Objects.equals(current.owner(), owner)) {
+      return false;
+    }
+    current = null;
+    return true;
+  }
+
+  protected void paintCurrent() {
+    if (current == null) {
+      return;
+    }
+    paint(current);
+    current = null;
+  }
+
+  private Graphics2D graphics() {
+    if (g2d == null) {
+      int imageType = fileType == FileType.PNG
+          ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+      image = new BufferedImage(width, height, imageType);
+      g2d = createGraphics(image, 0, 0);
+    }
+    return g2d;
+  }
+}
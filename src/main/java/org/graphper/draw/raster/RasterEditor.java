@@ -0,0 +1,230 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.util.List;
+import org.graphper.api.attributes.Color;
+import org.graphper.api.ext.Box;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.svg.SvgEditor;
+import org.graphper.draw.svg.SvgEditor.TextAttribute;
+import org.graphper.util.Asserts;
+import org.graphper.util.CollectionUtils;
+
+/**
+ * Raster editor for graph element, the shapes are the same as the ones generated by
+ * {@link SvgEditor}.
+ *
+ * @author Jamison Jiang
+ */
+public class RasterEditor {
+
+  public static final float[] DASHED = {5, 2};
+
+  public static final float[] DOTTED = {1, 5};
+
+  /**
+   * Draw a multi-line label, every line is placed the same as {@link SvgEditor#text}.
+   *
+   * @param brush       brush of the graph element
+   * @param centerPoint center of label
+   * @param fontSize    font size
+   * @param label       label
+   * @param fontColor   font color
+   * @param fontName    font name
+   * @throws NullPointerException     null brush or center
+   * @throws IllegalArgumentException empty label
+   */
+  public static void text(RasterBrush brush, FlatPoint centerPoint, double fontSize,
+                          String label, Color fontColor, String fontName) {
+    Asserts.nullArgument(brush, "brush");
+    SvgEditor.text(new TextAttribute(
+        centerPoint, fontSize, label, fontColor, fontName,
+        line -> brush.drawText(line.getLine(), line.getX(), line.getY(),
+                               fontName, fontSize, fontColor)
+    ));
+  }
+
+  /**
+   * Returns an ellipse by the center and radius.
+   *
+   * @param x  x coordinate of center
+   * @param y  y coordinate of center
+   * @param rx horizontal radius
+   * @param ry vertical radius
+   * @return ellipse
+   */
+  public static Ellipse2D ellipse(double x, double y, double rx, double ry) {
+    return new Ellipse2D.Double(x - rx, y - ry, 2 * rx, 2 * ry);
+  }
+
+  /**
+   * Returns a closed polygon.
+   *
+   * @param positions the polygon border points
+   * @return polygon
+   * @throws NullPointerException     positions is null
+   * @throws IllegalArgumentException positions is empty or positions size is not even
+   */
+  public static Path2D polygon(double... positions) {
+    Path2D path = path(false, positions);
+    path.closePath();
+    return path;
+  }
+
+  /**
+   * Returns a closed polygon.
+   *
+   * @param positions the polygon border points
+   * @return polygon
+   * @throws NullPointerException     positions is null
+   * @throws IllegalArgumentException positions is empty
+   */
+  public static Path2D polygon(List<FlatPoint> positions) {
+    Asserts.nullArgument(positions, "positions");
+    Asserts.illegalArgument(CollectionUtils.isEmpty(positions), "positions can not be empty");
+    Path2D path = new Path2D.Double();
+    for (int i = 0; i < positions.size(); i++) {
+      FlatPoint p = positions.get(i);
+      if (i == 0) {
+        path.moveTo(p.getX(), p.getY());
+      } else {
+        path.lineTo(p.getX(), p.getY());
+      }
+    }
+    path.closePath();
+    return path;
+  }
+
+  /**
+   * Returns the border of a {@link Box}.
+   *
+   * @param box the box that needs to be drawn
+   * @return box border
+   * @throws NullPointerException null box
+   */
+  public static Path2D box(Box box) {
+    Asserts.nullArgument(box, "box");
+    return polygon(box.getLeftBorder(), box.getUpBorder(),
+                   box.getRightBorder(), box.getUpBorder(),
+                   box.getRightBorder(), box.getDownBorder(),
+                   box.getLeftBorder(), box.getDownBorder());
+  }
+
+  /**
+   * Returns an open path, if the path is curve, every three points after the first point make up
+   * a cubic bezier curve, the same as {@link SvgEditor#pointsToSvgPath(boolean, double...)}.
+   *
+   * @param isCurve   the path whether is curve
+   * @param positions the path points
+   * @return path
+   * @throws NullPointerException     positions is null
+   * @throws IllegalArgumentException positions is empty or positions size is not even
+   */
+  public static Path2D path(boolean isCurve, double... positions) {
+    Asserts.nullArgument(positions, "positions");
+    Asserts.illegalArgument(positions.length == 0 || positions.length % 2 != 0,
+                            "Wrong positions length, can not be empty and must be even");
+
+    Path2D path = new Path2D.Double();
+    path.moveTo(positions[0], positions[1]);
+    if (isCurve) {
+      for (int i = 2; i + 5 < positions.length; i += 6) {
+        path.curveTo(positions[i], positions[i + 1], positions[i + 2],
+                     positions[i + 3], positions[i + 4], positions[i + 5]);
+      }
+    } else {
+      for (int i = 2; i < positions.length; i += 2) {
+        path.lineTo(positions[i], positions[i + 1]);
+      }
+    }
+    return path;
+  }
+
+  /**
+   * Returns an open path of the line points, the same as
+   * {@link SvgEditor#pointsToSvgLine(FlatPoint, List, boolean)}.
+   *
+   * @param start   start point, use the first point if null
+   * @param points  line points
+   * @param isCurve if true, is a curve line
+   * @return line path, or null if points is empty
+   */
+  public static Path2D line(FlatPoint start, List<FlatPoint> points, boolean isCurve) {
+    if (CollectionUtils.isEmpty(points)) {
+      return null;
+    }
+
+    start = start == null ? points.get(0) : start;
+    Path2D path = new Path2D.Double();
+    path.moveTo(start.getX(), start.getY());
+    if (isCurve) {
+      for (int i = 3; i < points.size(); i += 3) {
+        FlatPoint c1 = points.get(i - 2);
+        FlatPoint c2 = points.get(i - 1);
+        FlatPoint p = points.get(i);
+        path.curveTo(c1.getX(), c1.getY(), c2.getX(), c2.getY(), p.getX(), p.getY());
+      }
+    } else {
+      for (int i = 1; i < points.size(); i++) {
+        FlatPoint p = points.get(i);
+        path.lineTo(p.getX(), p.getY());
+      }
+    }
+    return path;
+  }
+
+  /**
+   * Return a box with rounded corners, the same as {@link SvgEditor#roundedBox(int, Box)}.
+   *
+   * @param maxRoundedLen maximum rounded length
+   * @param box           box
+   * @return rounded box
+   * @throws NullPointerException     null box
+   * @throws IllegalArgumentException wring maximum rounded length
+   */
+  public static Path2D roundedBox(int maxRoundedLen, Box box) {
+    Asserts.nullArgument(box, "box");
+    Asserts.illegalArgument(maxRoundedLen <= 0, "Max rounded length less than 0");
+
+    double leftBorder = box.getLeftBorder();
+    double rightBorder = box.getRightBorder();
+    double upBorder = box.getUpBorder();
+    double downBorder = box.getDownBorder();
+    int cornerLen = Math.min(maxRoundedLen, (int) box.getWidth() / 2);
+    cornerLen = Math.min(cornerLen, (int) box.getHeight() / 2);
+
+    Path2D path = new Path2D.Double();
+    path.moveTo(leftBorder, upBorder + cornerLen);
+    path.lineTo(leftBorder, downBorder - cornerLen);
+    path.curveTo(leftBorder, downBorder, leftBorder, downBorder,
+                 leftBorder + cornerLen, downBorder);
+    path.lineTo(rightBorder - cornerLen, downBorder);
+    path.curveTo(rightBorder, downBorder, rightBorder, downBorder,
+                 rightBorder, downBorder - cornerLen);
+    path.lineTo(rightBorder, upBorder + cornerLen);
+    path.curveTo(rightBorder, upBorder, rightBorder, upBorder,
+                 rightBorder - cornerLen, upBorder);
+    path.lineTo(leftBorder + cornerLen, upBorder);
+    path.curveTo(leftBorder, upBorder, leftBorder, upBorder,
+                 leftBorder, upBorder + cornerLen);
+    path.closePath();
+    return path;
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import org.graphper.api.FileType;
+import org.graphper.api.attributes.NodeShape;
+import org.graphper.draw.ClusterEditor;
+import org.graphper.draw.CustomizeShapeRender;
+import org.graphper.draw.DefaultPipelineFactory;
+import org.graphper.draw.DrawBoard;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.ExecuteException;
+import org.graphper.draw.GraphEditor;
+import org.graphper.draw.LineEditor;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.draw.NodeEditor;
+import org.graphper.draw.PipelineFactory;
+import org.graphper.draw.PipelineRenderEngine;
+import org.graphper.draw.raster.cluster.ClusterBorderEditor;
+import org.graphper.draw.raster.cluster.ClusterColorEditor;
+import org.graphper.draw.raster.cluster.ClusterLabelEditor;
+import org.graphper.draw.raster.cluster.ClusterStyleEditor;
+import org.graphper.draw.raster.graphviz.GraphBasicEditor;
+import org.graphper.draw.raster.graphviz.GraphGridEditor;
+import org.graphper.draw.raster.graphviz.GraphLabelEditor;
+import org.graphper.draw.raster.line.LineArrowEditor;
+import org.graphper.draw.raster.line.LineBoxesEditor;
+import org.graphper.draw.raster.line.LineControlPointsEditor;
+import org.graphper.draw.raster.line.LineFloatLabelsEditor;
+import org.graphper.draw.raster.line.LineLabelEditor;
+import org.graphper.draw.raster.line.LinePathEditor;
+import org.graphper.draw.raster.line.LineStyleEditor;
+import org.graphper.draw.raster.node.NodeColorEditor;
+import org.graphper.draw.raster.node.NodeLabelEditor;
+import org.graphper.draw.raster.node.NodeShapeEditor;
+import org.graphper.draw.raster.node.NodeStyleEditor;
+import org.graphper.layout.FlatShifterStrategy;
+import org.graphper.layout.ShifterStrategy;
+import org.graphper.util.Asserts;
+
+/**
+ * Raster rendering engine, paint the {@link DrawGraph} to png, jpg or gif by
+ * {@link java.awt.Graphics2D} directly, the svg document is never generated. The attachment of
+ * render is the {@link FileType}, use png if it is not a file type.
+ *
+ * <p>The node shapes drawn by {@link CustomizeShapeRender} only support svg, use
+ * {@link #support(DrawGraph)} to check whether a graph can be rendered by this engine.
+ *
+ * <p>The png whose pixels exceed {@link #TILED_PNG_PIXELS} is rendered by
+ * {@link TiledRasterDrawBoard}, the image of the whole graph is never created.
+ *
+ * @author Jamison Jiang
+ */
+public class RasterRenderEngine extends
+    PipelineRenderEngine<RasterBrush, RasterBrush, RasterBrush, RasterBrush> {
+
+  /**
+   * The minimum pixels of the png rendered by tiles.
+   */
+  public static final long TILED_PNG_PIXELS = 1L << 24;
+
+  private static final RasterRenderEngine rasterRenderEngine;
+
+  static {
+    rasterRenderEngine = new RasterRenderEngine(new DefaultPipelineFactory());
+  }
+
+  protected RasterRenderEngine(PipelineFactory pipelineFactory) {
+    super(pipelineFactory);
+  }
+
+  public static RasterRenderEngine getInstance() {
+    return rasterRenderEngine;
+  }
+
+  /**
+   * Returns whether the file type can be rendered by this engine.
+   *
+   * @param fileType file type
+   * @return <tt>true</tt> if the file type is png, jpg, jpeg or gif
+   */
+  public static boolean support(FileType fileType) {
+    return fileType == FileType.PNG || fileType == FileType.JPG
+        || fileType == FileType.JPEG || fileType == FileType.GIF;
+  }
+
+  /**
+   * Returns whether all nodes of the graph can be drawn by this engine.
+   *
+   * @param drawGraph the graph description object after layout
+   * @return <tt>false</tt> if any node shape is drawn by {@link CustomizeShapeRender}
+   */
+  public static boolean support(DrawGraph drawGraph) {
+    if (drawGraph == null) {
+      return false;
+    }
+
+    for (NodeDrawProp node : drawGraph.nodes()) {
+      NodeShape nodeShape = node.nodeAttrs().getNodeShape();
+      if (nodeShape != null && CustomizeShapeRender.registered(nodeShape.getName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  protected List<NodeEditor<RasterBrush>> initNodeEditors() {
+    return Arrays.asList(
+        new NodeShapeEditor(),
+        new NodeLabelEditor(),
+        new NodeStyleEditor(),
+        new NodeColorEditor()
+    );
+  }
+
+  @Override
+  protected List<LineEditor<RasterBrush>> initLineEditors() {
+    return Arrays.asList(
+        new LinePathEditor(),
+        new LineArrowEditor(),
+        new LineStyleEditor(),
+        new LineLabelEditor(),
+        new LineBoxesEditor(),
+        new LineFloatLabelsEditor(),
+        new LineControlPointsEditor()
+    );
+  }
+
+  @Override
+  protected List<ClusterEditor<RasterBrush>> initClusterEditors() {
+    return Arrays.asList(
+        new ClusterBorderEditor(),
+        new ClusterLabelEditor(),
+        new ClusterColorEditor(),
+        new ClusterStyleEditor()
+    );
+  }
+
+  @Override
+  protected List<GraphEditor<RasterBrush>> initGraphEditors() {
+    return Arrays.asList(
+        new GraphBasicEditor(),
+        new GraphLabelEditor(),
+        new GraphGridEditor()
+    );
+  }
+
+  @Override
+  protected DrawBoard<RasterBrush, RasterBrush, RasterBrush, RasterBrush> drawBoard(
+      DrawGraph drawGraph) {
+    return drawBoard(drawGraph, drawGraph.getAttach());
+  }
+
+  @Override
+  protected DrawBoard<RasterBrush, RasterBrush, RasterBrush, RasterBrush> drawBoard(
+      DrawGraph drawGraph, Object attach) {
+    if (attach instanceof PngOutput) {
+      PngOutput output = (PngOutput) attach;
+      return new TiledRasterDrawBoard(drawGraph, output.outputStream, output.executor,
+                                      TiledRasterDrawBoard.DEFAULT_TILE_SIZE);
+    }
+
+    FileType fileType = attach instanceof FileType ? (FileType) attach : FileType.PNG;
+    RasterDrawBoard drawBoard = new RasterDrawBoard(drawGraph, fileType);
+    if (fileType == FileType.PNG
+        && (long) drawBoard.getWidth() * drawBoard.getHeight() >= TILED_PNG_PIXELS) {
+      return new TiledRasterDrawBoard(drawGraph, null, ForkJoinPool.commonPool(),
+                                      TiledRasterDrawBoard.DEFAULT_TILE_SIZE);
+    }
+    return drawBoard;
+  }
+
+  /**
+   * Render the png of {@link DrawGraph} to the output stream by tiles, the tiles are painted in
+   * parallel by the executor and the image of the whole graph is never created. The output stream
+   * is flushed but not closed.
+   *
+   * @param drawGraph    the graph description object after layout
+   * @param outputStream png output stream
+   * @param executor     executor of tiles
+   * @throws ExecuteException rendering exception or an I/O error occurs
+   */
+  public void writePng(DrawGraph drawGraph, OutputStream outputStream, Executor executor)
+      throws ExecuteException {
+    Asserts.nullArgument(outputStream, "outputStream");
+    Asserts.nullArgument(executor, "executor");
+    if (!support(drawGraph)) {
+      throw new ExecuteException("The graph contains node shapes only supported by svg");
+    }
+    render(drawGraph, new PngOutput(outputStream, executor));
+  }
+
+  @Override
+  public List<ShifterStrategy> shifterStrategies(DrawGraph drawGraph) {
+    return Collections.singletonList(
+        new FlatShifterStrategy(-drawGraph.getMinX(), -drawGraph.getMinY())
+    );
+  }
+
+  @Override
+  public boolean needShift(DrawGraph drawGraph) {
+    if (drawGraph == null) {
+      return false;
+    }
+
+    return drawGraph.getLeftBorder() < 0 || drawGraph.getUpBorder() < 0;
+  }
+
+  private static class PngOutput {
+
+    private final OutputStream outputStream;
+
+    private final Executor executor;
+
+    private PngOutput(OutputStream outputStream, Executor executor) {
+      this.outputStream = outputStream;
+      this.executor = executor;
+    }
+  }
+}
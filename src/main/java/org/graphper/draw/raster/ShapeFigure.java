@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import org.graphper.api.attributes.Color;
+import org.graphper.util.Asserts;
+
+/**
+ * A shape figure, it is filled and then stroked in order, the fill or the stroke is ignored if the
+ * corresponding color is null.
+ *
+ * @author Jamison Jiang
+ */
+public class ShapeFigure implements Figure {
+
+  private final Shape shape;
+
+  private Color fill;
+
+  private Color stroke;
+
+  private double strokeWidth = 1;
+
+  private float[] dashArray;
+
+  public ShapeFigure(Shape shape) {
+    Asserts.nullArgument(shape, "shape");
+    this.shape = shape;
+  }
+
+  public Shape getShape() {
+    return shape;
+  }
+
+  public void setFill(Color fill) {
+    this.fill = fill;
+  }
+
+  public void setStroke(Color stroke) {
+    this.stroke = stroke;
+  }
+
+  public void setStrokeWidth(double strokeWidth) {
+    this.strokeWidth = strokeWidth;
+  }
+
+  public void setDashArray(float[] dashArray) {
+    this.dashArray = dashArray;
+  }
+
+  @Override
+  public void paint(Graphics2D g2d, RasterDrawBoard drawBoard) {
+    if (fill != null) {
+      g2d.setColor(drawBoard.toAwtColor(fill));
+      g2d.fill(shape);
+    }
+
+    if (stroke == null || strokeWidth <= 0) {
+      return;
+    }
+    g2d.setStroke(drawBoard.stroke(strokeWidth, dashArray));
+    g2d.setColor(drawBoard.toAwtColor(stroke));
+    g2d.draw(shape);
+  }
+
+  @Override
+  public Rectangle2D bounds() {
+    Rectangle2D bounds = shape.getBounds2D();
+    // The miter join of stroke can reach 5 times of the stroke width, and one more for antialias
+    double margin = stroke != null ? Math.max(strokeWidth, 0) * 5 + 1 : 1;
+    return new Rectangle2D.Double(bounds.getX() - margin, bounds.getY() - margin,
+                                  bounds.getWidth() + 2 * margin,
+                                  bounds.getHeight() + 2 * margin);
+  }
+}
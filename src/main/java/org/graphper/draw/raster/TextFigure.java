@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import org.graphper.api.attributes.Color;
+
+/**
+ * One line of text, the x coordinate is the middle of text and the y coordinate is the baseline.
+ *
+ * @author Jamison Jiang
+ */
+class TextFigure implements Figure {
+
+  private final String text;
+
+  private final double x;
+
+  private final double y;
+
+  private final String fontName;
+
+  private final double fontSize;
+
+  private final Color fontColor;
+
+  TextFigure(String text, double x, double y, String fontName, double fontSize, Color fontColor) {
+    this.text = text;
+    this.x = x;
+    this.y = y;
+    this.fontName = fontName;
+    this.fontSize = fontSize;
+    this.fontColor = fontColor;
+  }
+
+  @Override
+  public void paint(Graphics2D g2d, RasterDrawBoard drawBoard) {
+    if (text.isEmpty()) {
+      return;
+    }
+
+    // Measured by the font of graphics, which is the font really used to draw
+    Font font = drawBoard.font(fontName, fontSize);
+    double width = font.getStringBounds(text, g2d.getFontRenderContext()).getWidth();
+    g2d.setFont(font);
+    g2d.setColor(drawBoard.toAwtColor(fontColor != null ? fontColor : Color.BLACK));
+    g2d.drawString(text, (float) (x - width / 2), (float) y);
+  }
+
+  @Override
+  public Rectangle2D bounds() {
+    // No glyph is wider than twice the font size, avoid measuring the text again
+    double halfWidth = (text.length() + 1) * fontSize;
+    return new Rectangle2D.Double(x - halfWidth, y - 2 * fontSize, 2 * halfWidth, 3 * fontSize);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import org.graphper.api.FileType;
+import org.graphper.api.GraphResource;
+import org.graphper.draw.DefaultGraphResource;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.FailInitResourceException;
+import org.graphper.util.Asserts;
+
+/**
+ * Png draw board that never creates the image of the whole graph. The figures of all graph
+ * elements are kept, then the image is split to square tiles and rendered band by band, the tiles
+ * of one band are rendered in parallel and only paint the figures intersecting them, then the
+ * rows of the band are encoded to the png. The memory of pixels is the image width times the tile
+ * size.
+ *
+ * <p>If the output stream is specified, {@link #graphResource()} writes the png to it and
+ * returns null.
+ *
+ * @author Jamison Jiang
+ */
+public class TiledRasterDrawBoard extends RasterDrawBoard {
+
+  public static final int DEFAULT_TILE_SIZE = 512;
+
+  private final OutputStream outputStream;
+
+  private final Executor executor;
+
+  private final int tileSize;
+
+  private final List<Figure> figures;
+
+  private final List<Rectangle2D> bounds;
+
+  public TiledRasterDrawBoard(DrawGraph drawGraph, OutputStream outputStream,
+                              Executor executor, int tileSize) {
+    super(drawGraph, FileType.PNG);
+    Asserts.nullArgument(executor, "executor");
+    Asserts.illegalArgument(tileSize <= 0, "tileSize must be positive");
+    this.outputStream = outputStream;
+    this.executor = executor;
+    this.tileSize = tileSize;
+    this.figures = new ArrayList<>();
+    this.bounds = new ArrayList<>();
+  }
+
+  @Override
+  protected void paint(RasterBrush brush) {
+    for (Figure figure : brush.figures()) {
+      figures.add(figure);
+      bounds.add(figure.bounds());
+    }
+  }
+
+  @Override
+  public GraphResource graphResource() throws FailInitResourceException {
+    paintCurrent();
+
+    ByteArrayOutputStream os = outputStream == null ? new ByteArrayOutputStream() : null;
+    try {
+      write(outputStream != null ? outputStream : os);
+    } catch (IOException | CompletionException e) {
+      throw new FailInitResourceException(e.getCause() != null ? e.getCause() : e);
+    }
+    return os != null ? new DefaultGraphResource(label(), fileType.getType(), os) : null;
+  }
+
+  private void write(OutputStream os) throws IOException {
+    int cols = (width + tileSize - 1) / tileSize;
+    BufferedImage[] tiles = new BufferedImage[cols];
+    for (int c = 0; c < cols; c++) {
+      tiles[c] = new BufferedImage(Math.min(tileSize, width - c * tileSize),
+                                   Math.min(tileSize, height), BufferedImage.TYPE_INT_ARGB);
+    }
+
+    PngEncoder encoder = new PngEncoder(os, width, height);
+    List<CompletableFuture<Void>> futures = new ArrayList<>(cols);
+    for (int y = 0; y < height; y += tileSize) {
+      int bandHeight = Math.min(tileSize, height - y);
+      List<Integer> band = intersect(0, y, width, bandHeight, null);
+      for (int c = 0; c < cols; c++) {
+        BufferedImage tile = tiles[c];
+        int x = c * tileSize;
+        int tileY = y;
+        futures.add(CompletableFuture.runAsync(() -> paintTile(tile, x, tileY, band), executor));
+      }
+      for (CompletableFuture<Void> future : futures) {
+        future.join();
+      }
+      futures.clear();
+
+      for (int r = 0; r < bandHeight; r++) {
+        for (int c = 0; c < cols; c++) {
+          int tileWidth = tiles[c].getWidth();
+          int[] pixels = ((DataBufferInt) tiles[c].getRaster().getDataBuffer()).getData();
+          encoder.setPixels(c * tileSize, pixels, r * tileWidth, tileWidth);
+        }
+        encoder.writeRow();
+      }
+    }
+    encoder.finish();
+  }
+
+  private void paintTile(BufferedImage tile, int x, int y, List<Integer> band) {
+    Graphics2D g2d = createGraphics(tile, x, y);
+    try {
+      for (Integer i : intersect(x, y, tile.getWidth(), tile.getHeight(), band)) {
+        figures.get(i).paint(g2d, this);
+      }
+    } finally {
+      g2d.dispose();
+    }
+  }
+
+  // Returns the figures intersecting the pixel area in painting order
+  private List<Integer> intersect(int x, int y, int w, int h, List<Integer> candidates) {
+    Rectangle2D area = new Rectangle2D.Double(x / pxScaleX, y / pxScaleY,
+                                              w / pxScaleX, h / pxScaleY);
+    List<Integer> result = new ArrayList<>();
+    int size = candidates != null ? candidates.size() : figures.size();
+    for (int i = 0; i < size; i++) {
+      int idx = candidates != null ? candidates.get(i) : i;
+      if (bounds.get(idx).intersects(area)) {
+        result.add(idx);
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.cluster;
+
+import org.graphper.api.ClusterAttrs;
+import org.graphper.api.attributes.ClusterStyle;
+import org.graphper.draw.ClusterDrawProp;
+import org.graphper.draw.ClusterEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+import org.graphper.draw.raster.ShapeFigure;
+
+public class ClusterBorderEditor extends RasterEditor implements ClusterEditor<RasterBrush> {
+
+  private static final int MAX_CLUSTER_ROUNDED = 60;
+
+  @Override
+  public boolean edit(ClusterDrawProp cluster, RasterBrush brush) {
+    cluster.check();
+
+    ClusterAttrs clusterAttrs = cluster.clusterAttrs();
+    ShapeFigure figure = clusterAttrs.getStyle() == ClusterStyle.ROUNDED
+        ? brush.drawShape(roundedBox(MAX_CLUSTER_ROUNDED, cluster))
+        : brush.drawShape(box(cluster));
+    figure.setStrokeWidth(clusterAttrs.getPenWidth());
+    return true;
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.cluster;
+
+import org.graphper.api.ClusterAttrs;
+import org.graphper.api.attributes.Color;
+import org.graphper.draw.ClusterDrawProp;
+import org.graphper.draw.ClusterEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+import org.graphper.draw.raster.ShapeFigure;
+
+public class ClusterColorEditor extends RasterEditor implements ClusterEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(ClusterDrawProp cluster, RasterBrush brush) {
+    ClusterAttrs clusterAttrs = cluster.clusterAttrs();
+    Color color = clusterAttrs.getColor();
+    for (ShapeFigure figure : brush.getFigureGroup(RasterBrush.SHAPE_GROUP_KEY)) {
+      figure.setFill(clusterAttrs.getBgColor());
+      figure.setStroke(color != null ? color : Color.BLACK);
+    }
+    return true;
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.cluster;
+
+import org.apache_gs.commons.lang3.StringUtils;
+import org.graphper.api.ClusterAttrs;
+import org.graphper.draw.ClusterDrawProp;
+import org.graphper.draw.ClusterEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+
+public class ClusterLabelEditor extends RasterEditor implements ClusterEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(ClusterDrawProp cluster, RasterBrush brush) {
+    ClusterAttrs clusterAttrs = cluster.clusterAttrs();
+    String label = clusterAttrs.getLabel();
+    if (StringUtils.isEmpty(label)) {
+      return true;
+    }
+
+    text(brush, cluster.getLabelCenter(), clusterAttrs.getFontSize(), label,
+         clusterAttrs.getFontColor(), clusterAttrs.getFontName());
+    return true;
+  }
+}
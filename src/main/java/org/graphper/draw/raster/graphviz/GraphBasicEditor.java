@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.graphviz;
+
+import org.graphper.api.attributes.Color;
+import org.graphper.draw.GraphEditor;
+import org.graphper.draw.GraphvizDrawProp;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+
+public class GraphBasicEditor extends RasterEditor implements GraphEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(GraphvizDrawProp graphvizDrawProp, RasterBrush brush) {
+    Color bgColor = graphvizDrawProp.getGraphviz().graphAttrs().getBgColor();
+    brush.draw(box(graphvizDrawProp)).setFill(bgColor != null ? bgColor : Color.WHITE);
+    return true;
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.line;
+
+import java.awt.Shape;
+import org.graphper.api.attributes.ArrowShape;
+import org.graphper.api.attributes.Color;
+import org.graphper.def.FlatPoint;
+import org.graphper.def.Vectors;
+import org.graphper.draw.ArrowDrawProp;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.LineEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+import org.graphper.draw.raster.ShapeFigure;
+
+public class LineArrowEditor extends RasterEditor implements LineEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(LineDrawProp lineDrawProp, RasterBrush brush) {
+    if (lineDrawProp.getArrowHead() != null) {
+      drawArrow(brush, lineDrawProp.getArrowHead(), lineDrawProp.lineAttrs().getArrowHead());
+    }
+
+    if (lineDrawProp.getArrowTail() != null) {
+      drawArrow(brush, lineDrawProp.getArrowTail(), lineDrawProp.lineAttrs().getArrowTail());
+    }
+
+    return true;
+  }
+
+  private void drawArrow(RasterBrush brush, ArrowDrawProp arrow, ArrowShape shape) {
+    String group = arrow.isHead()
+        ? RasterBrush.HEAD_ARROW_GROUP_KEY : RasterBrush.TAIL_ARROW_GROUP_KEY;
+    switch (shape) {
+      case NORMAL:
+        brush.addGroup(group, setBasicProp(brush.draw(normal(arrow)), true));
+        break;
+      case BOX:
+        brush.addGroup(group, setBasicProp(brush.draw(boxArrow(arrow)), true));
+        break;
+      case DOT:
+        brush.addGroup(group, setBasicProp(brush.draw(dot(arrow)), true));
+        break;
+      case VEE:
+        brush.addGroup(group, setBasicProp(brush.draw(vee(arrow)), true));
+        break;
+      case CURVE:
+        curve(brush, arrow, group);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private Shape normal(ArrowDrawProp arrow) {
+    FlatPoint axisBegin = arrow.getAxisBegin();
+    FlatPoint axisEnd = arrow.getAxisEnd();
+
+    FlatPoint axis = Vectors.sub(axisBegin, axisEnd);
+    FlatPoint dirVector = new FlatPoint(-axis.getY(), axis.getX());
+
+    double offsetX = axis.dist() * Math.abs(dirVector.getX()) / (3 * dirVector.dist());
+    double offsetY = axis.dist() * Math.abs(dirVector.getY()) / (3 * dirVector.dist());
+    FlatPoint[] side = getArrowSidePoint(posSlope(axisBegin, axisEnd), offsetX, offsetY,
+                                         true, axisBegin);
+    return polygon(axisEnd.getX(), axisEnd.getY(),
+                   side[0].getX(), side[0].getY(),
+                   side[1].getX(), side[1].getY());
+  }
+
+  private Shape boxArrow(ArrowDrawProp arrow) {
+    FlatPoint axisBegin = arrow.getAxisBegin();
+    FlatPoint axisEnd = arrow.getAxisEnd();
+
+    FlatPoint axis = Vectors.sub(axisBegin, axisEnd);
+    FlatPoint dirVector = new FlatPoint(-axis.getY(), axis.getX());
+
+    double offsetX = axis.dist() * Math.abs(dirVector.getX()) / (2 * dirVector.dist());
+    double offsetY = axis.dist() * Math.abs(dirVector.getY()) / (2 * dirVector.dist());
+    boolean posSlope = posSlope(axisBegin, axisEnd);
+    FlatPoint[] begin = getArrowSidePoint(posSlope, offsetX, offsetY, true, axisBegin);
+    FlatPoint[] end = getArrowSidePoint(posSlope, offsetX, offsetY, false, axisEnd);
+    return polygon(begin[0].getX(), begin[0].getY(), begin[1].getX(), begin[1].getY(),
+                   end[0].getX(), end[0].getY(), end[1].getX(), end[1].getY());
+  }
+
+  private Shape dot(ArrowDrawProp arrow) {
+    FlatPoint axisBegin = arrow.getAxisBegin();
+    FlatPoint axisEnd = arrow.getAxisEnd();
+
+    double radius = Vectors.sub(axisBegin, axisEnd).dist() / 2;
+    return ellipse((axisBegin.getX() + axisEnd.getX()) / 2,
+                   (axisBegin.getY() + axisEnd.getY()) / 2, radius, radius);
+  }
+
+  private Shape vee(ArrowDrawProp arrow) {
+    FlatPoint axisBegin = arrow.getAxisBegin();
+    FlatPoint axisEnd = arrow.getAxisEnd();
+
+    FlatPoint axis = Vectors.sub(axisBegin, axisEnd);
+    FlatPoint veeEndPoint = Vectors.add(axisBegin, axis);
+    axis.setX(axis.getX() * 2);
+    axis.setY(axis.getY() * 2);
+    FlatPoint dirVector = new FlatPoint(-axis.getY(), axis.getX());
+
+    double offsetX = axis.dist() * Math.abs(dirVector.getX()) / (3 * dirVector.dist());
+    double offsetY = axis.dist() * Math.abs(dirVector.getY()) / (3 * dirVector.dist());
+    FlatPoint[] side = getArrowSidePoint(posSlope(axisBegin, axisEnd), offsetX, offsetY,
+                                         true, veeEndPoint);
+    return polygon(side[0].getX(), side[0].getY(),
+                   axisBegin.getX(), axisBegin.getY(),
+                   side[1].getX(), side[1].getY(),
+                   axisEnd.getX(), axisEnd.getY());
+  }
+
+  private void curve(RasterBrush brush, ArrowDrawProp arrow, String group) {
+    FlatPoint axisBegin = arrow.getAxisBegin();
+    FlatPoint axisEnd = arrow.getAxisEnd();
+
+    FlatPoint axis = Vectors.sub(axisBegin, axisEnd);
+    FlatPoint dirVector = new FlatPoint(-axis.getY(), axis.getX());
+
+    double offsetX = axis.dist() * Math.abs(dirVector.getX()) / (2 * dirVector.dist());
+    double offsetY = axis.dist() * Math.abs(dirVector.getY()) / (2 * dirVector.dist());
+    boolean posSlope = posSlope(axisBegin, axisEnd);
+    FlatPoint[] pair1 = getArrowSidePoint(posSlope, offsetX, offsetY, true, axisBegin);
+    FlatPoint[] pair2 = getArrowSidePoint(posSlope, offsetX, offsetY, true, axisEnd);
+
+    ShapeFigure axisFigure = brush.draw(path(false, axisBegin.getX(), axisBegin.getY(),
+                                             axisEnd.getX(), axisEnd.getY()));
+    ShapeFigure side1 = brush.draw(path(true, pair1[0].getX(), pair1[0].getY(),
+                                        pair1[0].getX(), pair1[0].getY(),
+                                        pair2[0].getX(), pair2[0].getY(),
+                                        axisEnd.getX(), axisEnd.getY()));
+    ShapeFigure side2 = brush.draw(path(true, pair1[1].getX(), pair1[1].getY(),
+                                        pair1[1].getX(), pair1[1].getY(),
+                                        pair2[1].getX(), pair2[1].getY(),
+                                        axisEnd.getX(), axisEnd.getY()));
+    brush.addGroup(group, setBasicProp(axisFigure, false), setBasicProp(side1, false),
+                   setBasicProp(side2, false));
+  }
+
+  private ShapeFigure setBasicProp(ShapeFigure figure, boolean needFill) {
+    if (needFill) {
+      figure.setFill(Color.BLACK);
+    }
+    figure.setStroke(Color.BLACK);
+    return figure;
+  }
+
+  private FlatPoint[] getArrowSidePoint(boolean posSlope, double offsetX, double offsetY,
+                                        boolean pos, FlatPoint point) {
+    if (posSlope) {
+      if (pos) {
+        return new FlatPoint[]{
+            new FlatPoint(point.getX() - offsetX, point.getY() + offsetY),
+            new FlatPoint(point.getX() + offsetX, point.getY() - offsetY)
+        };
+      }
+
+      return new FlatPoint[]{
+          new FlatPoint(point.getX() + offsetX, point.getY() - offsetY),
+          new FlatPoint(point.getX() - offsetX, point.getY() + offsetY)
+      };
+    }
+
+    if (pos) {
+      return new FlatPoint[]{
+          new FlatPoint(point.getX() - offsetX, point.getY() - offsetY),
+          new FlatPoint(point.getX() + offsetX, point.getY() + offsetY)
+      };
+    }
+
+    return new FlatPoint[]{
+        new FlatPoint(point.getX() + offsetX, point.getY() + offsetY),
+        new FlatPoint(point.getX() - offsetX, point.getY() - offsetY)
+    };
+  }
+
+  private boolean posSlope(FlatPoint start, FlatPoint end) {
+    return start.getY() - end.getY() < 0 == start.getX() - end.getX() < 0;
+  }
+}
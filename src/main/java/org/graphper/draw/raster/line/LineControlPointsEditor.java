@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.line;
+
+import java.util.Objects;
+import org.graphper.api.attributes.Color;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.LineEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+
+public class LineControlPointsEditor extends RasterEditor implements LineEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(LineDrawProp lineDrawProp, RasterBrush brush) {
+    if (!Objects.equals(lineDrawProp.lineAttrs().getControlPoints(), Boolean.TRUE)) {
+      return true;
+    }
+
+    for (FlatPoint point : lineDrawProp) {
+      brush.draw(ellipse(point.getX(), point.getY(), 2, 2)).setFill(Color.RED);
+    }
+    return true;
+  }
+}
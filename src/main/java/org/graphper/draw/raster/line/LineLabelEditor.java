@@ -0,0 +1,41 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.line;
+
+import org.apache_gs.commons.lang3.StringUtils;
+import org.graphper.api.LineAttrs;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.LineEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+
+public class LineLabelEditor extends RasterEditor implements LineEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(LineDrawProp lineDrawProp, RasterBrush brush) {
+    LineAttrs lineAttrs = lineDrawProp.lineAttrs();
+    String label = lineAttrs.getLabel();
+    if (StringUtils.isEmpty(label) || lineDrawProp.getLabelCenter() == null) {
+      return true;
+    }
+
+    Double fontSize = lineAttrs.getFontSize();
+    text(brush, lineDrawProp.getLabelCenter(), fontSize == null ? 0D : fontSize, label,
+         lineAttrs.getFontColor(), lineAttrs.getFontName());
+    return true;
+  }
+}
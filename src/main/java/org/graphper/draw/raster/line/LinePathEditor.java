@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.line;
+
+import java.awt.geom.Path2D;
+import org.graphper.api.LineAttrs;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.LineEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+import org.graphper.draw.raster.ShapeFigure;
+
+public class LinePathEditor extends RasterEditor implements LineEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(LineDrawProp lineDrawProp, RasterBrush brush) {
+    Path2D path = line(lineDrawProp.getStart(), lineDrawProp, lineDrawProp.isBesselCurve());
+    if (path == null) {
+      return true;
+    }
+
+    LineAttrs lineAttrs = lineDrawProp.lineAttrs();
+    ShapeFigure figure = brush.draw(path);
+    figure.setStroke(lineAttrs.getColor());
+    if (lineAttrs.getPenWidth() != null) {
+      figure.setStrokeWidth(lineAttrs.getPenWidth());
+    }
+    brush.addGroup(RasterBrush.PATH_GROUP_KEY, figure);
+    return true;
+  }
+}
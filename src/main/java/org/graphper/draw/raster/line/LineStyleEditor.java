@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.line;
+
+import org.graphper.api.LineAttrs;
+import org.graphper.api.attributes.ArrowShape;
+import org.graphper.api.attributes.Color;
+import org.graphper.api.attributes.LineStyle;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.LineEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+import org.graphper.draw.raster.ShapeFigure;
+
+public class LineStyleEditor extends RasterEditor implements LineEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(LineDrawProp line, RasterBrush brush) {
+    LineAttrs lineAttrs = line.lineAttrs();
+    setArrowProp(lineAttrs, brush);
+
+    LineStyle style = lineAttrs.getStyle();
+    if (style == LineStyle.INVIS) {
+      brush.drawBoard().removeLine(line.getLine());
+      return false;
+    }
+
+    for (ShapeFigure figure : brush.getFigureGroup(RasterBrush.PATH_GROUP_KEY)) {
+      if (style == LineStyle.DASHED) {
+        figure.setDashArray(DASHED);
+      } else if (style == LineStyle.DOTTED) {
+        figure.setDashArray(DOTTED);
+      } else if (style == LineStyle.BOLD) {
+        figure.setStrokeWidth(2);
+      }
+    }
+    return true;
+  }
+
+  private void setArrowProp(LineAttrs lineAttrs, RasterBrush brush) {
+    Double penWidth = lineAttrs.getPenWidth();
+    Color color = lineAttrs.getColor();
+    ArrowShape arrowHead = lineAttrs.getArrowHead();
+    ArrowShape arrowTail = lineAttrs.getArrowTail();
+    for (ShapeFigure figure : brush.getFigureGroup(RasterBrush.TAIL_ARROW_GROUP_KEY)) {
+      setArrowStyle(penWidth, color, figure, arrowTail.isNeedFill());
+    }
+    for (ShapeFigure figure : brush.getFigureGroup(RasterBrush.HEAD_ARROW_GROUP_KEY)) {
+      setArrowStyle(penWidth, color, figure, arrowHead.isNeedFill());
+    }
+  }
+
+  private static void setArrowStyle(Double penWidth, Color color, ShapeFigure figure,
+                                    boolean needFill) {
+    figure.setStroke(color);
+    if (needFill) {
+      figure.setFill(color);
+    }
+    if (penWidth != null) {
+      figure.setStrokeWidth(penWidth);
+    }
+  }
+}
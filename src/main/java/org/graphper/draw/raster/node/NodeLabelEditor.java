@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.node;
+
+import org.apache_gs.commons.lang3.StringUtils;
+import org.graphper.api.NodeAttrs;
+import org.graphper.api.attributes.NodeShapeEnum;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.draw.NodeEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+
+public class NodeLabelEditor extends RasterEditor implements NodeEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(NodeDrawProp nodeDrawProp, RasterBrush brush) {
+    NodeAttrs nodeAttrs = nodeDrawProp.nodeAttrs();
+    String label = nodeAttrs.getLabel();
+
+    if (StringUtils.isEmpty(label)
+        || nodeDrawProp.getCell() != null
+        || nodeDrawProp.getLabelCenter() == null
+        || nodeAttrs.getNodeShape().ignoreLabel()) {
+      return true;
+    }
+
+    double fontSize = nodeAttrs.getFontSize() == null ? 0D : nodeAttrs.getFontSize();
+    text(brush, nodeDrawProp.getLabelCenter(), fontSize, label,
+         nodeAttrs.getFontColor(), nodeAttrs.getFontName());
+    return nodeAttrs.getNodeShape() != NodeShapeEnum.PLAIN_TEXT;
+  }
+}
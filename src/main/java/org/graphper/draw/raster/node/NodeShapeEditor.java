@@ -0,0 +1,229 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.node;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache_gs.commons.lang3.StringUtils;
+import org.graphper.api.NodeAttrs;
+import org.graphper.api.attributes.NodeShape;
+import org.graphper.api.attributes.NodeShapeEnum;
+import org.graphper.api.ext.CylinderPropCalc;
+import org.graphper.api.ext.NotePropCalc;
+import org.graphper.api.ext.RecordPropCalc;
+import org.graphper.api.ext.StarPropCalc;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.draw.NodeEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+import org.graphper.draw.raster.ShapeFigure;
+import org.graphper.layout.Cell;
+import org.graphper.layout.Cell.RootCell;
+
+public class NodeShapeEditor extends RasterEditor implements NodeEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(NodeDrawProp nodeDrawProp, RasterBrush brush) {
+    NodeShape nodeShape = nodeDrawProp.nodeAttrs().getNodeShape();
+    if (!(nodeShape instanceof NodeShapeEnum)) {
+      return true;
+    }
+
+    switch ((NodeShapeEnum) nodeShape) {
+      case ELLIPSE:
+        brush.drawShape(ellipse(nodeDrawProp.getX(), nodeDrawProp.getY(),
+                                nodeDrawProp.getWidth() / 2, nodeDrawProp.getHeight() / 2));
+        break;
+      case UNDERLINE:
+        brush.drawShape(polygon(nodeDrawProp.getLeftBorder(), nodeDrawProp.getDownBorder(),
+                                nodeDrawProp.getRightBorder(), nodeDrawProp.getDownBorder()));
+        break;
+      case RECT:
+        brush.drawShape(box(nodeDrawProp));
+        break;
+      case TRIANGLE:
+        brush.drawShape(polygon(nodeDrawProp.getX(), nodeDrawProp.getUpBorder(),
+                                nodeDrawProp.getLeftBorder(), nodeDrawProp.getDownBorder(),
+                                nodeDrawProp.getRightBorder(), nodeDrawProp.getDownBorder()));
+        break;
+      case DIAMOND:
+        brush.drawShape(polygon(nodeDrawProp.getLeftBorder(), nodeDrawProp.getY(),
+                                nodeDrawProp.getX(), nodeDrawProp.getUpBorder(),
+                                nodeDrawProp.getRightBorder(), nodeDrawProp.getY(),
+                                nodeDrawProp.getX(), nodeDrawProp.getDownBorder()));
+        break;
+      case TRAPEZIUM:
+        trapezium(nodeDrawProp, brush);
+        break;
+      case PARALLELOGRAM:
+        parallelogram(nodeDrawProp, brush);
+        break;
+      case STAR:
+        star(nodeDrawProp, brush);
+        break;
+      case NOTE:
+        note(nodeDrawProp, brush);
+        break;
+      case CYLINDER:
+        cylinder(nodeDrawProp, brush);
+        break;
+      case RECORD:
+        record(nodeDrawProp, brush, false);
+        break;
+      case M_RECORD:
+        record(nodeDrawProp, brush, true);
+        break;
+      default:
+        // Circle, point and the shapes without own drawing
+        double radius = nodeDrawProp.getHeight() / 2;
+        brush.drawShape(ellipse(nodeDrawProp.getX(), nodeDrawProp.getY(), radius, radius));
+        break;
+    }
+    return true;
+  }
+
+  private void trapezium(NodeDrawProp nodeDrawProp, RasterBrush brush) {
+    double leftTopX = nodeDrawProp.getLeftBorder() + nodeDrawProp.getWidth() / 4;
+    double rightTopX = nodeDrawProp.getRightBorder() - nodeDrawProp.getWidth() / 4;
+    brush.drawShape(polygon(nodeDrawProp.getLeftBorder(), nodeDrawProp.getDownBorder(),
+                            leftTopX, nodeDrawProp.getUpBorder(),
+                            rightTopX, nodeDrawProp.getUpBorder(),
+                            nodeDrawProp.getRightBorder(), nodeDrawProp.getDownBorder()));
+  }
+
+  private void parallelogram(NodeDrawProp nodeDrawProp, RasterBrush brush) {
+    double leftTopX = nodeDrawProp.getLeftBorder() + nodeDrawProp.getWidth() / 5;
+    double rightDownX = nodeDrawProp.getRightBorder() - nodeDrawProp.getWidth() / 5;
+    brush.drawShape(polygon(nodeDrawProp.getLeftBorder(), nodeDrawProp.getDownBorder(),
+                            leftTopX, nodeDrawProp.getUpBorder(),
+                            nodeDrawProp.getRightBorder(), nodeDrawProp.getUpBorder(),
+                            rightDownX, nodeDrawProp.getDownBorder()));
+  }
+
+  private void star(NodeDrawProp nodeDrawProp, RasterBrush brush) {
+    double outerRadius = nodeDrawProp.getHeight() / 2;
+    double innerRadius = outerRadius / StarPropCalc.IN_OUT_RATIO;
+
+    double arc = StarPropCalc.START_ARC;
+    double[] ps = new double[20];
+    for (int i = 0; i < 10; i++) {
+      double radius = i % 2 == 0 ? outerRadius : innerRadius;
+      ps[i * 2] = nodeDrawProp.getX() + Math.cos(arc) * radius;
+      ps[i * 2 + 1] = nodeDrawProp.getY() - Math.sin(arc) * radius;
+      arc += StarPropCalc.UNIT_ARC;
+    }
+    brush.drawShape(polygon(ps));
+  }
+
+  private void note(NodeDrawProp nodeDrawProp, RasterBrush brush) {
+    double left = nodeDrawProp.getLeftBorder();
+    double right = nodeDrawProp.getRightBorder();
+    double up = nodeDrawProp.getUpBorder();
+    double down = nodeDrawProp.getDownBorder();
+    ShapeFigure first = brush.draw(polygon(left, up,
+                                           right - NotePropCalc.RIGHT_UP_LEN, up,
+                                           right, up + NotePropCalc.RIGHT_UP_LEN,
+                                           right, down,
+                                           left, down));
+    ShapeFigure second = brush.draw(polygon(right - NotePropCalc.RIGHT_UP_LEN, up,
+                                            right - NotePropCalc.RIGHT_UP_LEN,
+                                            up + NotePropCalc.RIGHT_UP_LEN,
+                                            right, up + NotePropCalc.RIGHT_UP_LEN));
+    brush.addGroup(RasterBrush.SHAPE_GROUP_KEY, first, second);
+  }
+
+  private void cylinder(NodeDrawProp nodeDrawProp, RasterBrush brush) {
+    double left = nodeDrawProp.getLeftBorder();
+    double right = nodeDrawProp.getRightBorder();
+    double up = nodeDrawProp.getUpBorder() + CylinderPropCalc.TOP_LEN;
+    double down = nodeDrawProp.getDownBorder() - CylinderPropCalc.TOP_LEN;
+    double v2x = left + nodeDrawProp.getWidth() / 4;
+    double v3x = right - nodeDrawProp.getWidth() / 4;
+    ShapeFigure first = brush.draw(path(true, left, up,
+                                        left, up, left, down, left, down,
+                                        v2x, nodeDrawProp.getDownBorder(),
+                                        v3x, nodeDrawProp.getDownBorder(), right, down,
+                                        right, down, right, up, right, up,
+                                        v3x, nodeDrawProp.getUpBorder(),
+                                        v2x, nodeDrawProp.getUpBorder(), left, up));
+    ShapeFigure second = brush.draw(path(true, left, up,
+                                         v2x, up + CylinderPropCalc.TOP_LEN,
+                                         v3x, up + CylinderPropCalc.TOP_LEN,
+                                         right, up));
+    brush.addGroup(RasterBrush.SHAPE_GROUP_KEY, first, second);
+  }
+
+  private void record(NodeDrawProp nodeDrawProp, RasterBrush brush, boolean radianCorner) {
+    RootCell cell = nodeDrawProp.getCell();
+    if (cell == null) {
+      return;
+    }
+
+    // Draw border of node
+    ShapeFigure border = radianCorner
+        ? brush.draw(roundedBox(RecordPropCalc.CORNER_LEN, nodeDrawProp))
+        : brush.draw(box(nodeDrawProp));
+
+    List<ShapeFigure> cellFigures = new ArrayList<>(cell.childrenSize());
+    cellFigures.add(border);
+
+    if (!nodeDrawProp.haveChildrenCell()) {
+      // Draw cell
+      record(nodeDrawProp, cell, brush, cellFigures);
+    }
+    brush.addGroup(RasterBrush.SHAPE_GROUP_KEY, cellFigures);
+  }
+
+  private void record(NodeDrawProp nodeDrawProp, Cell cell, RasterBrush brush,
+                      List<ShapeFigure> cellFigures) {
+    if (cell.isLeaf()) {
+      return;
+    }
+
+    for (int i = 0; i < cell.childrenSize(); i++) {
+      Cell child = cell.getChild(i);
+      record(nodeDrawProp, child, brush, cellFigures);
+
+      // Get the leftUp position by offset
+      FlatPoint offset = child.getOffset();
+      double upBorder = nodeDrawProp.getUpBorder() + offset.getY();
+      double leftBorder = nodeDrawProp.getLeftBorder() + offset.getX();
+
+      if (child.isLeaf() && StringUtils.isNotEmpty(child.getLabel())) {
+        NodeAttrs nodeAttrs = nodeDrawProp.nodeAttrs();
+        double fontSize = nodeAttrs.getFontSize() == null ? 0D : nodeAttrs.getFontSize();
+        text(brush, child.getCenter(nodeDrawProp), fontSize, child.getLabel(),
+             nodeAttrs.getFontColor(), nodeAttrs.getFontName());
+      }
+
+      // Select whether to ignore drawing of the split symbol based on isHor().
+      if ((child.isHor() && i == cell.childrenSize() - 1) || (!child.isHor() && i == 0)) {
+        continue;
+      }
+
+      double cellRightBorder = leftBorder + child.getWidth();
+      if (child.isHor()) {
+        cellFigures.add(brush.draw(path(false, cellRightBorder, upBorder,
+                                        cellRightBorder, upBorder + cell.getHeight())));
+      } else {
+        cellFigures.add(brush.draw(path(false, leftBorder, upBorder,
+                                        cellRightBorder, upBorder)));
+      }
+    }
+  }
+}
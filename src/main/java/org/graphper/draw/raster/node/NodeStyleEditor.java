@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster.node;
+
+import org.graphper.api.NodeAttrs;
+import org.graphper.api.attributes.NodeStyle;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.draw.NodeEditor;
+import org.graphper.draw.raster.RasterBrush;
+import org.graphper.draw.raster.RasterEditor;
+import org.graphper.draw.raster.ShapeFigure;
+
+public class NodeStyleEditor extends RasterEditor implements NodeEditor<RasterBrush> {
+
+  @Override
+  public boolean edit(NodeDrawProp node, RasterBrush brush) {
+    NodeAttrs nodeAttrs = node.nodeAttrs();
+    NodeStyle style = nodeAttrs.getStyle();
+    if (style == NodeStyle.INVIS) {
+      brush.drawBoard().removeNode(node.getNode());
+      return false;
+    }
+
+    Double penWidth = nodeAttrs.getPenWidth();
+    for (ShapeFigure figure : brush.getFigureGroup(RasterBrush.SHAPE_GROUP_KEY)) {
+      if (penWidth != null) {
+        figure.setStrokeWidth(penWidth);
+      }
+
+      if (style == NodeStyle.DASHED) {
+        figure.setDashArray(DASHED);
+      } else if (style == NodeStyle.DOTTED) {
+        figure.setDashArray(DOTTED);
+      } else if (style == NodeStyle.BOLD) {
+        figure.setStrokeWidth(2);
+      }
+    }
+    return true;
+  }
+}
@@ -177,6 +177,15 @@ public class SvgBrush implements Brush {
     this.wrapEle = wrapEle;
   }
 
+  /**
+   * Returns the element created by the draw board for the graph element of this brush.
+   *
+   * @return element of the graph element
+   */
+  public Element getElement() {
+    return element;
+  }
+
   // -------------------------------------------- static ------------------------------------------
 
   public static String getId(String parentElementId, String elementName) {
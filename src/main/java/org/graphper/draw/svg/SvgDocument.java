@@ -16,18 +16,26 @@
 
 package org.graphper.draw.svg;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import org.graphper.util.Asserts;
-import org.graphper.util.CollectionUtils;
 
+/**
+ * The elements keep their children, so a traversal never needs to group the elements by parent.
+ * Only the elements with an id are indexed, the order of the children is the order in which their
+ * ids were last set, and the order of creation for the children without id.
+ *
+ * @author Jamison Jiang
+ */
 public final class SvgDocument implements SvgConstants, Document, Serializable {
 
   private static final long serialVersionUID = -9126509188726886245L;
@@ -37,13 +45,17 @@ public final class SvgDocument implements SvgConstants, Document, Serializable {
 
   private final Map<String, SvgElement> elementMap;
 
+  // Elements without parent
+  private final List<Element> roots;
+
   public SvgDocument() {
-    this.elementMap = new LinkedHashMap<>();
+    this.elementMap = new HashMap<>();
+    this.roots = new ArrayList<>(1);
   }
 
   @Override
-  public Iterable<SvgElement> children() {
-    return elementMap.values();
+  public Iterable<Element> children() {
+    return roots;
   }
 
   @Override
@@ -55,19 +67,23 @@ public final class SvgDocument implements SvgConstants, Document, Serializable {
   public SvgElement createElement(String tagName) {
     Asserts.nullArgument(tagName, "tagName is null");
     SvgElement ele = new SvgElement(tagName, this);
-    int size = elementMap.size();
-    ele.setId(String.valueOf(size));
+    roots.add(ele);
     return ele;
   }
 
   @Override
   public boolean removeEle(String id) {
-    return elementMap.remove(id) != null;
+    SvgElement ele = elementMap.remove(id);
+    if (ele == null) {
+      return false;
+    }
+    detach(ele);
+    return true;
   }
 
   @Override
   public String toXml() {
-    if (elementMap.size() == 0) {
+    if (roots.isEmpty()) {
       return null;
     }
 
@@ -97,56 +113,146 @@ public final class SvgDocument implements SvgConstants, Document, Serializable {
 
   private void accessEles(BiConsumer<Element, List<Element>> preConsumer,
                           Consumer<Element> postConsumer) {
-    if (preConsumer == null || elementMap.size() == 0) {
-      return;
-    }
-
-    Map<Element, List<Element>> groups = new LinkedHashMap<>();
-    for (SvgElement element : elementMap.values()) {
-      groups.compute(element.parent(), (k, v) -> {
-        if (v == null) {
-          v = new ArrayList<>();
-        }
-        v.add(element);
-        return v;
-      });
-    }
-    List<Element> roots = groups.get(null);
-    if (CollectionUtils.isEmpty(roots)) {
+    if (preConsumer == null) {
       return;
     }
 
     for (Element root : roots) {
-      accessEle(root, groups, preConsumer, postConsumer);
+      accessEle(root, preConsumer, postConsumer);
     }
   }
 
-  private void accessEle(Element element, Map<Element, List<Element>> groups,
-                         BiConsumer<Element, List<Element>> preConsumer,
+  private void accessEle(Element element, BiConsumer<Element, List<Element>> preConsumer,
                          Consumer<Element> postConsumer) {
-    if (element == null) {
-      return;
-    }
-    List<Element> children = groups.get(element);
-    children = CollectionUtils.isEmpty(children) ? Collections.emptyList() : children;
+    List<Element> children = ((SvgElement) element).children();
     preConsumer.accept(element, children);
     for (Element child : children) {
-      accessEle(child, groups, preConsumer, postConsumer);
+      accessEle(child, preConsumer, postConsumer);
     }
     if (postConsumer != null) {
       postConsumer.accept(element);
     }
   }
 
+  /*
+   * Write the xml declaration and doctype, same as the head of toXml.
+   */
+  void writeHead(Writer writer) throws IOException {
+    writer.write(XML_VERSION);
+    writer.write(DOC_TYPE);
+  }
+
+  /*
+   * Write the start tag and text of an element, same as the start of an element in toXml.
+   */
+  void writeStart(Element ele, Writer writer) throws IOException {
+    String attr = ele.toAttrStr();
+    writer.write(LT);
+    writer.write(ele.tagName());
+    if (attr != null) {
+      writer.write(attr);
+    }
+    writer.write(GT);
+    if (ele.textContext() != null) {
+      writer.write(ele.textContext());
+    }
+  }
+
+  void writeEnd(Element ele, Writer writer) throws IOException {
+    writer.write(LT);
+    writer.write(SLASH);
+    writer.write(ele.tagName());
+    writer.write(GT);
+  }
+
+  /*
+   * Write the element and all its descendants in the same order as toXml, nothing is written if
+   * the element has been removed.
+   */
+  void writeTree(Element root, Writer writer) throws IOException {
+    if (root == null || ((SvgElement) root).removed) {
+      return;
+    }
+
+    writeStart(root, writer);
+    for (Element child : ((SvgElement) root).children()) {
+      writeTree(child, writer);
+    }
+    writeEnd(root, writer);
+  }
+
+  /*
+   * Remove the element and the ids of all its descendants, so the descendants are not reused by
+   * the brush when the element is drawn again.
+   */
+  boolean removeTree(String id) {
+    SvgElement ele = elementMap.get(id);
+    if (ele == null) {
+      return false;
+    }
+    removeIds(ele);
+    detach(ele);
+    return true;
+  }
+
+  private void removeIds(SvgElement element) {
+    if (element.id() != null) {
+      elementMap.remove(element.id(), element);
+    }
+    for (Element child : element.children()) {
+      removeIds((SvgElement) child);
+    }
+  }
+
+  /*
+   * Remove all elements except the retained ones.
+   */
+  void retain(SvgElement... elements) {
+    List<SvgElement> retained = Arrays.asList(elements);
+    elementMap.clear();
+    roots.removeIf(e -> !retained.contains(e));
+    for (SvgElement element : elements) {
+      element.retainChildren(retained);
+      if (element.id() != null) {
+        elementMap.put(element.id(), element);
+      }
+    }
+  }
+
   void setId(String oldId, String id, SvgElement element) {
     Asserts.nullArgument(id, "id");
     Asserts.nullArgument(element, "element");
     Asserts.illegalArgument(Objects.equals(oldId, id), "The id equals to oldKey");
 
-    elementMap.put(id, element);
+    SvgElement replaced = elementMap.put(id, element);
+    if (replaced != null && replaced != element) {
+      detach(replaced);
+    }
     if (oldId != null) {
       elementMap.remove(oldId);
     }
+
+    // The element moves to the last of its siblings as an element that just got an id
+    SvgElement parent = (SvgElement) element.parent();
+    if (element.removed) {
+      return;
+    }
+    if (parent != null) {
+      parent.moveToLast(element);
+    } else if (roots.get(roots.size() - 1) != element) {
+      roots.remove(element);
+      roots.add(element);
+    }
+  }
+
+  private void detach(SvgElement element) {
+    element.removed = true;
+    SvgElement parent = (SvgElement) element.parent();
+    if (parent != null) {
+      parent.removeChild(element);
+    } else {
+      roots.remove(element);
+    }
   }
 
   @Override
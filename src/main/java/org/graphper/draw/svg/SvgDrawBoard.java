@@ -26,6 +26,7 @@ import org.graphper.api.FileType;
 import org.graphper.api.GraphAttrs;
 import org.graphper.api.Line;
 import org.graphper.api.Node;
+import org.graphper.api.ext.Box;
 import org.graphper.def.FlatPoint;
 import org.graphper.draw.ClusterDrawProp;
 import org.graphper.draw.DrawBoard;
@@ -49,6 +50,8 @@ public class SvgDrawBoard implements DrawBoard<SvgBrush, SvgBrush, SvgBrush, Svg
 
   private static final String VIEWBOX_VAL = "0.00 0.00 %s %s";
 
+  private static final String VIEWPORT_VAL = "%s %s %s %s";
+
   private static final String XMLNS_VAL = "http://www.w3.org/2000/svg";
 
   private static final String XMLNS_XLINK_VAL = "http://www.w3.org/1999/xlink";
@@ -60,13 +63,28 @@ public class SvgDrawBoard implements DrawBoard<SvgBrush, SvgBrush, SvgBrush, Svg
   protected final DrawGraph drawGraph;
 
   public SvgDrawBoard(DrawGraph drawGraph) {
+    this(drawGraph, null);
+  }
+
+  /**
+   * Create a board whose svg only shows the area of viewport, show the whole graph if the
+   * viewport is null.
+   *
+   * @param drawGraph the graph description object after layout
+   * @param viewport  the area of layout coordinates
+   */
+  public SvgDrawBoard(DrawGraph drawGraph, Box viewport) {
     Asserts.nullArgument(drawGraph, "DrawGraph");
     this.drawGraph = drawGraph;
 
-    double width = drawGraph.width();
-    double height = drawGraph.height();
+    double x = viewport != null ? viewport.getLeftBorder() : 0;
+    double y = viewport != null ? viewport.getUpBorder() : 0;
+    double width = viewport != null ? viewport.getWidth() : drawGraph.width();
+    double height = viewport != null ? viewport.getHeight() : drawGraph.height();
     FlatPoint scale = drawGraph.getGraphviz().graphAttrs().getScale();
     if (scale != null) {
+      x *= scale.getX();
+      y *= scale.getY();
       width *= scale.getX();
       height *= scale.getY();
     }
@@ -77,7 +95,11 @@ public class SvgDrawBoard implements DrawBoard<SvgBrush, SvgBrush, SvgBrush, Svg
     svg.setAttribute(SvgConstants.XMLNS_XLINK, XMLNS_XLINK_VAL);
     svg.setAttribute(SvgConstants.HEIGHT, height + SvgConstants.PT);
     svg.setAttribute(SvgConstants.WIDTH, width + SvgConstants.PT);
-    svg.setAttribute(SvgConstants.VIEWBOX, String.format(VIEWBOX_VAL, width, height));
+    if (viewport != null) {
+      svg.setAttribute(SvgConstants.VIEWBOX, String.format(VIEWPORT_VAL, x, y, width, height));
+    } else {
+      svg.setAttribute(SvgConstants.VIEWBOX, String.format(VIEWBOX_VAL, width, height));
+    }
 
     graphElement = svg.createChildElement(SvgConstants.G_ELE);
     graphElement.setAttribute(SvgConstants.ID, GRAPH_ROOT);
@@ -130,12 +152,12 @@ public class SvgDrawBoard implements DrawBoard<SvgBrush, SvgBrush, SvgBrush, Svg
 
   @Override
   public boolean removeNode(Node node) {
-    return svgDocument.removeEle(nodeId(node));
+    return svgDocument.removeTree(nodeId(node));
   }
 
   @Override
   public boolean removeLine(Line line) {
-    return svgDocument.removeEle(lineId(line));
+    return svgDocument.removeTree(lineId(line));
   }
 
   @Override
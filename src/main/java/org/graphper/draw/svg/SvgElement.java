@@ -17,9 +17,10 @@
 package org.graphper.draw.svg;
 
 import java.io.Serializable;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import org.apache_gs.commons.text.StringEscapeUtils;
 import org.graphper.util.Asserts;
@@ -34,10 +35,21 @@ public final class SvgElement implements SvgConstants, Element, Serializable {
 
   private String textContext;
 
-  private Map<String, String> attr;
+  // Attribute names and escaped values, in the order of the first setting
+  private String[] attrNames;
+
+  private String[] attrValues;
+
+  private int attrSize;
 
   private SvgElement parent;
 
+  // Children in the order of the last id setting, same as the order of creation without ids
+  private List<Element> children;
+
+  // Removed from the document, or replaced by another element with the same id
+  boolean removed;
+
   private final SvgDocument document;
 
   SvgElement(String tagName, SvgDocument document) {
@@ -75,25 +87,36 @@ public final class SvgElement implements SvgConstants, Element, Serializable {
   @Override
   public Element createChildElement(String tagName) {
     Asserts.nullArgument(tagName, "tagName");
-    SvgElement childElement = document.createElement(tagName);
+    SvgElement childElement = new SvgElement(tagName, document);
     childElement.parent = this;
+    addChild(childElement);
     return childElement;
   }
 
   @Override
   public void setTextContent(String textContent) {
-    this.textContext = StringEscapeUtils.escapeXml11(textContent);
+    this.textContext = escape(textContent);
   }
 
   @Override
   public void setAttribute(String attrName, String value) {
     Asserts.nullArgument(attrName, "attrName");
     Asserts.nullArgument(value, "value");
-    value = StringEscapeUtils.escapeXml11(value);
-    if (attr == null) {
-      attr = new LinkedHashMap<>(2);
+    value = escape(value);
+    int idx = attrIndex(attrName);
+    if (idx >= 0) {
+      attrValues[idx] = value;
+    } else {
+      if (attrNames == null) {
+        attrNames = new String[2];
+        attrValues = new String[2];
+      } else if (attrSize == attrNames.length) {
+        attrNames = Arrays.copyOf(attrNames, attrSize << 1);
+        attrValues = Arrays.copyOf(attrValues, attrSize << 1);
+      }
+      attrNames[attrSize] = attrName;
+      attrValues[attrSize++] = value;
     }
-    attr.put(attrName, value);
     if (Objects.equals(attrName, ID)) {
       setId(value);
     }
@@ -101,22 +124,20 @@ public final class SvgElement implements SvgConstants, Element, Serializable {
 
   @Override
   public String getAttribute(String attrName) {
-    if (attr == null) {
-      return null;
-    }
-    return attr.get(attrName);
+    int idx = attrIndex(attrName);
+    return idx >= 0 ? attrValues[idx] : null;
   }
 
   @Override
   public String toAttrStr() {
-    if (attr == null) {
+    if (attrSize == 0) {
       return null;
     }
     StringBuilder attrVal = new StringBuilder();
-    for (Entry<String, String> entry : attr.entrySet()) {
-      attrVal.append(SPACE).append(entry.getKey())
+    for (int i = 0; i < attrSize; i++) {
+      attrVal.append(SPACE).append(attrNames[i])
           .append(EQUAL_SIGN).append(SEMICOLON)
-          .append(entry.getValue()).append(SEMICOLON);
+          .append(attrValues[i]).append(SEMICOLON);
     }
     return attrVal.toString();
   }
@@ -131,6 +152,76 @@ public final class SvgElement implements SvgConstants, Element, Serializable {
     return document;
   }
 
+  List<Element> children() {
+    return children != null ? children : Collections.emptyList();
+  }
+
+  void addChild(Element child) {
+    if (children == null) {
+      children = new ArrayList<>(2);
+    }
+    children.add(child);
+  }
+
+  // Move the child to the last, it is usually the last one already
+  void moveToLast(Element child) {
+    int last = children.size() - 1;
+    if (children.get(last) == child) {
+      return;
+    }
+    children.remove(child);
+    children.add(child);
+  }
+
+  // Move the child to the index of children
+  void moveTo(Element child, int index) {
+    children.remove(child);
+    children.add(Math.min(index, children.size()), child);
+  }
+
+  int indexOf(Element child) {
+    return children != null ? children.indexOf(child) : -1;
+  }
+
+  void removeChild(Element child) {
+    if (children != null) {
+      children.remove(child);
+    }
+  }
+
+  void retainChildren(List<? extends Element> retained) {
+    if (children != null) {
+      children.removeIf(c -> !retained.contains(c));
+    }
+  }
+
+  private int attrIndex(String attrName) {
+    for (int i = 0; i < attrSize; i++) {
+      if (attrNames[i].equals(attrName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /*
+   * Most values are numbers, colors or ids that need no escaping, only the values with any other
+   * character go through escapeXml11.
+   */
+  static String escape(String value) {
+    if (value == null) {
+      return null;
+    }
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x20 || c > 0x7e || c == '&' || c == '<' || c == '>' || c == '"' || c == '\'') {
+        return StringEscapeUtils.escapeXml11(value);
+      }
+    }
+    return value;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -143,12 +234,29 @@ public final class SvgElement implements SvgConstants, Element, Serializable {
     return Objects.equals(id, that.id)
         && Objects.equals(tagName, that.tagName)
         && Objects.equals(textContext, that.textContext)
-        && Objects.equals(attr, that.attr)
+        && attrEquals(that)
         && Objects.equals(parent, that.parent);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, tagName, textContext, attr, parent);
+    int result = Objects.hash(id, tagName, textContext, parent);
+    for (int i = 0; i < attrSize; i++) {
+      result = 31 * result + attrNames[i].hashCode();
+      result = 31 * result + attrValues[i].hashCode();
+    }
+    return result;
+  }
+
+  private boolean attrEquals(SvgElement that) {
+    if (attrSize != that.attrSize) {
+      return false;
+    }
+    for (int i = 0; i < attrSize; i++) {
+      if (!attrNames[i].equals(that.attrNames[i]) || !attrValues[i].equals(that.attrValues[i])) {
+        return false;
+      }
+    }
+    return true;
   }
 }
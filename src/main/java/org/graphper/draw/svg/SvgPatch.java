@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.svg;
+
+/**
+ * An element-level change of the svg document produced by {@link SvgRenderResult#rerender}, the
+ * changed element is a child of the {@link SvgDrawBoard#GRAPH_ROOT} element.
+ *
+ * @author Jamison Jiang
+ */
+public final class SvgPatch {
+
+  public enum Op {
+    /**
+     * Replace the element of the id by the xml.
+     */
+    REPLACE,
+    /**
+     * Insert the xml before the element of {@link #getBefore()}, or append it to the graph root
+     * if there is no such element.
+     */
+    INSERT,
+    /**
+     * Remove the element of the id.
+     */
+    REMOVE
+  }
+
+  private final Op op;
+
+  private final String id;
+
+  private final String xml;
+
+  private final String before;
+
+  SvgPatch(Op op, String id, String xml, String before) {
+    this.op = op;
+    this.id = id;
+    this.xml = xml;
+    this.before = before;
+  }
+
+  public Op getOp() {
+    return op;
+  }
+
+  /**
+   * Returns the id of the changed element.
+   *
+   * @return element id
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Returns the xml of the new element, null if the element is removed.
+   *
+   * @return element xml
+   */
+  public String getXml() {
+    return xml;
+  }
+
+  /**
+   * Returns the id of the element before which the new element is inserted, null if it is
+   * appended to the graph root or the operation is not {@link Op#INSERT}.
+   *
+   * @return id of the next element
+   */
+  public String getBefore() {
+    return before;
+  }
+
+  @Override
+  public String toString() {
+    return "SvgPatch{op=" + op + ", id='" + id + "', before='" + before + "'}";
+  }
+}
@@ -16,6 +16,8 @@
 
 package org.graphper.draw.svg;
 
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -35,15 +37,21 @@ import org.graphper.draw.svg.node.NodeLabelEditor;
 import org.graphper.draw.svg.node.NodeStyleEditor;
 import org.graphper.layout.FlatShifterStrategy;
 import org.graphper.layout.ShifterStrategy;
+import org.graphper.util.Asserts;
+import org.graphper.draw.ClusterDrawProp;
 import org.graphper.draw.ClusterEditor;
 import org.graphper.draw.DefaultPipelineFactory;
 import org.graphper.draw.DrawBoard;
 import org.graphper.draw.DrawGraph;
+import org.graphper.draw.ExecuteException;
 import org.graphper.draw.GraphEditor;
+import org.graphper.draw.LineDrawProp;
 import org.graphper.draw.LineEditor;
+import org.graphper.draw.NodeDrawProp;
 import org.graphper.draw.NodeEditor;
 import org.graphper.draw.PipelineFactory;
 import org.graphper.draw.PipelineRenderEngine;
+import org.graphper.draw.Viewport;
 import org.graphper.draw.svg.line.LineArrowEditor;
 import org.graphper.draw.svg.line.LineBoxesEditor;
 import org.graphper.draw.svg.line.LineControlPointsEditor;
@@ -126,6 +134,75 @@ public class SvgRenderEngine extends
     return new SvgDrawBoard(drawGraph);
   }
 
+  @Override
+  protected DrawBoard<SvgBrush, SvgBrush, SvgBrush, SvgBrush> drawBoard(DrawGraph drawGraph,
+                                                                        Object attach) {
+    if (attach instanceof Writer) {
+      return new SvgStreamDrawBoard(drawGraph, (Writer) attach);
+    }
+    if (attach instanceof Viewport) {
+      return new SvgDrawBoard(drawGraph, (Viewport) attach);
+    }
+    if (attach instanceof SvgRenderResult) {
+      return ((SvgRenderResult) attach).drawBoard();
+    }
+    return drawBoard(drawGraph);
+  }
+
+  /**
+   * Render the svg of {@link DrawGraph} and keep the document, the graph elements whose
+   * appearance is changed can be drawn again by {@link SvgRenderResult#rerender} without
+   * rendering the whole graph.
+   *
+   * @param drawGraph the graph description object after layout
+   * @return svg document for re-rendering
+   * @throws ExecuteException rendering exception
+   */
+  public SvgRenderResult renderResult(DrawGraph drawGraph) throws ExecuteException {
+    SvgRenderResult result = new SvgRenderResult(this, drawGraph);
+    render(drawGraph, result);
+    return result;
+  }
+
+  void redraw(DrawGraph drawGraph, SvgDrawBoard board, Object drawProp) {
+    List<ClusterDrawProp> clusters = Collections.emptyList();
+    List<NodeDrawProp> nodes = Collections.emptyList();
+    List<LineDrawProp> lines = Collections.emptyList();
+    if (drawProp instanceof ClusterDrawProp) {
+      clusters = Collections.singletonList((ClusterDrawProp) drawProp);
+    } else if (drawProp instanceof NodeDrawProp) {
+      nodes = Collections.singletonList((NodeDrawProp) drawProp);
+    } else {
+      lines = Collections.singletonList((LineDrawProp) drawProp);
+    }
+    redraw(drawGraph, board, clusters, nodes, lines);
+  }
+
+  // All clusters, nodes and lines in the order of drawing
+  List<Object> drawItems(DrawGraph drawGraph) {
+    List<Object> items = new ArrayList<>();
+    pipelineFactory.clusterExecutePipeline(Collections.<ClusterEditor<SvgBrush>>emptyList(),
+                                           drawGraph).renderItems().forEach(items::add);
+    pipelineFactory.nodeExecutePipeline(Collections.<NodeEditor<SvgBrush>>emptyList(), drawGraph)
+        .renderItems().forEach(items::add);
+    pipelineFactory.lineExecutePipeline(Collections.<LineEditor<SvgBrush>>emptyList(), drawGraph)
+        .renderItems().forEach(items::add);
+    return items;
+  }
+
+  /**
+   * Render the svg of {@link DrawGraph} to the writer while the editors are executing, the whole
+   * svg document is never kept in memory. The writer is flushed but not closed.
+   *
+   * @param drawGraph the graph description object after layout
+   * @param writer    svg writer
+   * @throws ExecuteException rendering exception or an I/O error occurs
+   */
+  public void writeSvg(DrawGraph drawGraph, Writer writer) throws ExecuteException {
+    Asserts.nullArgument(writer, "writer");
+    render(drawGraph, writer);
+  }
+
   @Override
   public List<ShifterStrategy> shifterStrategies(DrawGraph drawGraph) {
     return Collections.singletonList(
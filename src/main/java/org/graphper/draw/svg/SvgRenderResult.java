@@ -0,0 +1,317 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.svg;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.graphper.api.Cluster;
+import org.graphper.api.ClusterAttrs;
+import org.graphper.api.GraphResource;
+import org.graphper.api.Line;
+import org.graphper.api.LineAttrs;
+import org.graphper.api.Node;
+import org.graphper.api.NodeAttrs;
+import org.graphper.draw.ClusterDrawProp;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.ExecuteException;
+import org.graphper.draw.FailInitResourceException;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.util.Asserts;
+
+/**
+ * The svg document of a render which is kept for re-rendering. When only the appearance of some
+ * graph elements is changed, {@link #rerender(Collection)} triggers the editors of these elements
+ * only, patches the document and returns the changes as {@link SvgPatch}es, which can be applied
+ * by clients to the svg they already have.
+ *
+ * <p>{@link Node}, {@link Line} and {@link Cluster} are immutable, so passing an element of the
+ * layout draws it again with the attributes it was laid out with. To change the appearance, pass a
+ * new {@link Node}, {@link Line} or {@link Cluster} with the same id as the one of the layout. The
+ * non-null attributes of the new element which do not affect the layout, see
+ * {@link NodeAttrs#repaint}, {@link LineAttrs#repaint} and {@link ClusterAttrs#repaint}, replace
+ * the current attributes of the element in this result. The null attributes keep the current
+ * values, so an attribute is reset by setting its default value explicitly. Other attributes are
+ * ignored because the geometry is not computed again.
+ *
+ * <p>The changed attributes only belong to this result, the {@link DrawGraph} shared with the
+ * layout and the other renders is never changed.
+ *
+ * @author Jamison Jiang
+ */
+public class SvgRenderResult {
+
+  private final SvgRenderEngine renderEngine;
+
+  private final DrawGraph drawGraph;
+
+  private final SvgDrawBoard drawBoard;
+
+  private final SvgElement graphElement;
+
+  // The svg element ids of graph elements in the order of drawing
+  private List<String> drawOrder;
+
+  private Map<String, ClusterDrawProp> clusterIds;
+
+  private Map<String, NodeDrawProp> nodeIds;
+
+  private Map<String, LineDrawProp> lineIds;
+
+  // The repainted copies of the draw props of the layout
+  private final Map<ClusterDrawProp, ClusterDrawProp> clusterRepaints =
+      new IdentityHashMap<>();
+
+  private final Map<NodeDrawProp, NodeDrawProp> nodeRepaints = new IdentityHashMap<>();
+
+  private final Map<LineDrawProp, LineDrawProp> lineRepaints = new IdentityHashMap<>();
+
+  SvgRenderResult(SvgRenderEngine renderEngine, DrawGraph drawGraph) {
+    Asserts.nullArgument(renderEngine, "renderEngine");
+    Asserts.nullArgument(drawGraph, "drawGraph");
+    this.renderEngine = renderEngine;
+    this.drawGraph = drawGraph;
+    this.drawBoard = new SvgDrawBoard(drawGraph);
+    this.graphElement = (SvgElement) drawBoard.graphElement;
+  }
+
+  public DrawGraph getDrawGraph() {
+    return drawGraph;
+  }
+
+  /**
+   * Returns the current svg document.
+   *
+   * @return svg xml
+   */
+  public synchronized String toXml() {
+    return drawBoard.svgDocument.toXml();
+  }
+
+  /**
+   * Returns the current svg resource.
+   *
+   * @return svg graph resource
+   * @throws ExecuteException conversion execution error
+   */
+  public synchronized GraphResource toSvg() throws ExecuteException {
+    try {
+      return drawBoard.graphResource();
+    } catch (FailInitResourceException e) {
+      throw new ExecuteException(e);
+    }
+  }
+
+  /**
+   * Draw the changed graph elements again, the document is patched and the changes of the
+   * children of {@link SvgDrawBoard#GRAPH_ROOT} are returned in the order of applying.
+   *
+   * @param changed the elements of the layout, or new elements with the ids of the layout
+   * @return element-level changes of the document
+   * @throws NullPointerException     null changed elements
+   * @throws IllegalArgumentException an element is not in the layout
+   * @throws ExecuteException         rendering exception
+   */
+  public synchronized List<SvgPatch> rerender(Collection<?> changed) throws ExecuteException {
+    Asserts.nullArgument(changed, "changed");
+    List<Object> drawProps = new ArrayList<>(changed.size());
+    for (Object c : changed) {
+      drawProps.add(resolve(c));
+    }
+
+    List<SvgPatch> patches = new ArrayList<>(drawProps.size());
+    try {
+      for (Object drawProp : drawProps) {
+        SvgPatch patch = redraw(drawProp);
+        if (patch != null) {
+          patches.add(patch);
+        }
+      }
+    } catch (RuntimeException e) {
+      throw new ExecuteException("Render engine execute error: ", e);
+    }
+    return patches;
+  }
+
+  SvgDrawBoard drawBoard() {
+    return drawBoard;
+  }
+
+  private SvgPatch redraw(Object drawProp) {
+    String id;
+    if (drawProp instanceof ClusterDrawProp) {
+      id = drawBoard.clusterId((ClusterDrawProp) drawProp);
+    } else if (drawProp instanceof NodeDrawProp) {
+      id = drawBoard.nodeId((NodeDrawProp) drawProp);
+    } else {
+      id = drawBoard.lineId((LineDrawProp) drawProp);
+    }
+
+    SvgDocument svgDocument = drawBoard.svgDocument;
+    Element old = svgDocument.getElementById(id);
+    int index = old != null ? graphElement.indexOf(old) : -1;
+    svgDocument.removeTree(id);
+
+    renderEngine.redraw(drawGraph, drawBoard, drawProp);
+
+    Element current = svgDocument.getElementById(id);
+    if (current == null) {
+      return old != null ? new SvgPatch(SvgPatch.Op.REMOVE, id, null, null) : null;
+    }
+    if (old != null) {
+      graphElement.moveTo(current, index);
+      return new SvgPatch(SvgPatch.Op.REPLACE, id, xml(current), null);
+    }
+
+    // Insert before the next element in the order of drawing
+    String before = null;
+    List<String> order = drawOrder();
+    for (int i = order.indexOf(id) + 1; i < order.size(); i++) {
+      Element next = svgDocument.getElementById(order.get(i));
+      if (next != null && next.parent() == graphElement) {
+        graphElement.moveTo(current, graphElement.indexOf(next));
+        before = order.get(i);
+        break;
+      }
+    }
+    return new SvgPatch(SvgPatch.Op.INSERT, id, xml(current), before);
+  }
+
+  private String xml(Element element) {
+    StringWriter writer = new StringWriter();
+    try {
+      drawBoard.svgDocument.writeTree(element, writer);
+    } catch (IOException e) {
+      // StringWriter never throws
+      throw new IllegalStateException(e);
+    }
+    return writer.toString();
+  }
+
+  private Object resolve(Object changed) {
+    Asserts.nullArgument(changed, "changed element");
+    if (changed instanceof Cluster) {
+      Cluster cluster = (Cluster) changed;
+      ClusterDrawProp clusterDrawProp = drawGraph.getClusterDrawProp(cluster);
+      if (clusterDrawProp != null) {
+        clusterRepaints.remove(clusterDrawProp);
+        return clusterDrawProp;
+      }
+      clusterDrawProp = cluster.id() != null ? clusterIds().get(cluster.id()) : null;
+      Asserts.illegalArgument(clusterDrawProp == null, "Cluster is not in the layout: " + changed);
+      ClusterDrawProp current = clusterRepaints.getOrDefault(clusterDrawProp, clusterDrawProp);
+      ClusterDrawProp repaint = clusterDrawProp.repaint(
+          current.clusterAttrs().repaint(cluster.clusterAttrs()));
+      clusterRepaints.put(clusterDrawProp, repaint);
+      return repaint;
+    }
+
+    if (changed instanceof Node) {
+      Node node = (Node) changed;
+      NodeDrawProp nodeDrawProp = drawGraph.getNodeDrawProp(node);
+      if (nodeDrawProp != null) {
+        nodeRepaints.remove(nodeDrawProp);
+        return nodeDrawProp;
+      }
+      nodeDrawProp = node.nodeAttrs().getId() != null
+          ? nodeIds().get(node.nodeAttrs().getId()) : null;
+      Asserts.illegalArgument(nodeDrawProp == null, "Node is not in the layout: " + changed);
+      NodeDrawProp current = nodeRepaints.getOrDefault(nodeDrawProp, nodeDrawProp);
+      NodeDrawProp repaint = nodeDrawProp.repaint(current.nodeAttrs().repaint(node.nodeAttrs()));
+      nodeRepaints.put(nodeDrawProp, repaint);
+      return repaint;
+    }
+
+    if (changed instanceof Line) {
+      Line line = (Line) changed;
+      LineDrawProp lineDrawProp = drawGraph.getLineDrawProp(line);
+      if (lineDrawProp != null) {
+        lineRepaints.remove(lineDrawProp);
+        return lineDrawProp;
+      }
+      lineDrawProp = line.lineAttrs().getId() != null
+          ? lineIds().get(line.lineAttrs().getId()) : null;
+      Asserts.illegalArgument(lineDrawProp == null, "Line is not in the layout: " + changed);
+      LineDrawProp current = lineRepaints.getOrDefault(lineDrawProp, lineDrawProp);
+      LineDrawProp repaint = lineDrawProp.repaint(current.lineAttrs().repaint(line.lineAttrs()));
+      lineRepaints.put(lineDrawProp, repaint);
+      return repaint;
+    }
+
+    throw new IllegalArgumentException("Unsupported graph element: " + changed.getClass());
+  }
+
+  private Map<String, ClusterDrawProp> clusterIds() {
+    if (clusterIds == null) {
+      clusterIds = new HashMap<>();
+      for (ClusterDrawProp cluster : drawGraph.clusters()) {
+        if (cluster.getCluster().id() != null) {
+          clusterIds.put(cluster.getCluster().id(), cluster);
+        }
+      }
+    }
+    return clusterIds;
+  }
+
+  private Map<String, NodeDrawProp> nodeIds() {
+    if (nodeIds == null) {
+      nodeIds = new HashMap<>();
+      for (NodeDrawProp node : drawGraph.nodes()) {
+        if (node.nodeAttrs().getId() != null) {
+          nodeIds.put(node.nodeAttrs().getId(), node);
+        }
+      }
+    }
+    return nodeIds;
+  }
+
+  private Map<String, LineDrawProp> lineIds() {
+    if (lineIds == null) {
+      lineIds = new HashMap<>();
+      for (LineDrawProp line : drawGraph.lines()) {
+        if (line.lineAttrs().getId() != null) {
+          lineIds.put(line.lineAttrs().getId(), line);
+        }
+      }
+    }
+    return lineIds;
+  }
+
+  private List<String> drawOrder() {
+    if (drawOrder == null) {
+      List<String> order = new ArrayList<>();
+      for (Object item : renderEngine.drawItems(drawGraph)) {
+        if (item instanceof ClusterDrawProp) {
+          order.add(drawBoard.clusterId((ClusterDrawProp) item));
+        } else if (item instanceof NodeDrawProp) {
+          order.add(drawBoard.nodeId((NodeDrawProp) item));
+        } else {
+          order.add(drawBoard.lineId((LineDrawProp) item));
+        }
+      }
+      drawOrder = Collections.unmodifiableList(order);
+    }
+    return drawOrder;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.svg;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import org.graphper.api.GraphResource;
+import org.graphper.draw.ClusterDrawProp;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.FailInitResourceException;
+import org.graphper.draw.GraphvizDrawProp;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.util.Asserts;
+
+/**
+ * Svg draw board that writes the svg to a {@link Writer} while drawing. All editors of a graph
+ * element are triggered before the next element is drawn, so when the next element is drawn, the
+ * svg elements of the previous one are complete, they are written and removed from the document.
+ * The document never holds more than the svg elements of one graph element.
+ *
+ * <p>The output is the same as {@link SvgDrawBoard}, but {@link #graphResource()} only finishes
+ * the writing and returns null.
+ *
+ * @author Jamison Jiang
+ */
+public class SvgStreamDrawBoard extends SvgDrawBoard {
+
+  private final Writer writer;
+
+  private final SvgElement svgElement;
+
+  // The svg element of the graph element being edited
+  private Element current;
+
+  private boolean headWritten;
+
+  public SvgStreamDrawBoard(DrawGraph drawGraph, Writer writer) {
+    super(drawGraph);
+    Asserts.nullArgument(writer, "writer");
+    this.writer = writer;
+    this.svgElement = (SvgElement) graphElement.parent();
+  }
+
+  @Override
+  public synchronized SvgBrush drawGraph(GraphvizDrawProp graphvizDrawProp) {
+    flush();
+    SvgBrush brush = super.drawGraph(graphvizDrawProp);
+    current = brush.getElement();
+    return brush;
+  }
+
+  @Override
+  public synchronized SvgBrush drawCluster(ClusterDrawProp cluster) {
+    flush();
+    SvgBrush brush = super.drawCluster(cluster);
+    current = brush.getElement();
+    return brush;
+  }
+
+  @Override
+  public synchronized SvgBrush drawNode(NodeDrawProp nodeDrawProp) {
+    flush();
+    SvgBrush brush = super.drawNode(nodeDrawProp);
+    current = brush.getElement();
+    return brush;
+  }
+
+  @Override
+  public synchronized SvgBrush drawLine(LineDrawProp line) {
+    flush();
+    SvgBrush brush = super.drawLine(line);
+    current = brush.getElement();
+    return brush;
+  }
+
+  @Override
+  public synchronized GraphResource graphResource() throws FailInitResourceException {
+    try {
+      flush();
+      writeHead();
+      svgDocument.writeEnd(graphElement, writer);
+      svgDocument.writeEnd(svgElement, writer);
+      writer.flush();
+    } catch (IOException | UncheckedIOException e) {
+      throw new FailInitResourceException(e);
+    }
+    return null;
+  }
+
+  private void flush() {
+    try {
+      // The transform of graph root is set by the graph element, it is the first one to be drawn
+      if (current == null) {
+        return;
+      }
+      writeHead();
+      svgDocument.writeTree(current, writer);
+      svgDocument.retain(svgElement, (SvgElement) graphElement);
+      current = null;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void writeHead() throws IOException {
+    if (headWritten) {
+      return;
+    }
+    svgDocument.writeHead(writer);
+    svgDocument.writeStart(svgElement, writer);
+    svgDocument.writeStart(graphElement, writer);
+    headWritten = true;
+  }
+}
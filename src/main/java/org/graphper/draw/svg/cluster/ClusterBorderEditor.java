@@ -32,7 +32,7 @@ public class ClusterBorderEditor extends SvgEditor implements ClusterEditor<SvgB
     cluster.check();
 
     Element clusterEle;
-    ClusterStyle style = cluster.getCluster().clusterAttrs().getStyle();
+    ClusterStyle style = cluster.clusterAttrs().getStyle();
     String points;
     if (style == ClusterStyle.ROUNDED) {
       clusterEle = brush.getOrCreateChildElementById(SvgBrush.getId(cluster.id(), PATH_ELE),
@@ -47,7 +47,7 @@ public class ClusterBorderEditor extends SvgEditor implements ClusterEditor<SvgB
     }
 
     brush.addGroup(SHAPE_GROUP_KEY, clusterEle);
-    double penWidth = cluster.getCluster().clusterAttrs().getPenWidth();
+    double penWidth = cluster.clusterAttrs().getPenWidth();
     clusterEle.setAttribute(STROKE_WIDTH, String.valueOf(penWidth));
     return true;
   }
@@ -32,7 +32,7 @@ public class ClusterColorEditor extends SvgEditor implements ClusterEditor<SvgBr
     cluster.check();
 
     for (Element clusterEle : brush.getEleGroup(SHAPE_GROUP_KEY)) {
-      ClusterAttrs clusterAttrs = cluster.getCluster().clusterAttrs();
+      ClusterAttrs clusterAttrs = cluster.clusterAttrs();
       Color bgColor = clusterAttrs.getBgColor();
       if (bgColor != null) {
         clusterEle.setAttribute(SvgConstants.FILL, bgColor.value());
@@ -28,7 +28,7 @@ public class ClusterHrefEditor extends SvgEditor implements ClusterEditor<SvgBru
 
   @Override
   public boolean edit(ClusterDrawProp cluster, SvgBrush brush) {
-    ClusterAttrs clusterAttrs = cluster.getCluster().clusterAttrs();
+    ClusterAttrs clusterAttrs = cluster.clusterAttrs();
     if (clusterAttrs.getStyle() == ClusterStyle.INVIS) {
       return false;
     }
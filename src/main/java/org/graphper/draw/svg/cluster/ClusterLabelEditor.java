@@ -30,7 +30,7 @@ public class ClusterLabelEditor extends SvgEditor implements ClusterEditor<SvgBr
 
   @Override
   public boolean edit(ClusterDrawProp cluster, SvgBrush brush) {
-    ClusterAttrs clusterAttrs = cluster.getCluster().clusterAttrs();
+    ClusterAttrs clusterAttrs = cluster.clusterAttrs();
     String label = clusterAttrs.getLabel();
 
     if (StringUtils.isEmpty(label)) {
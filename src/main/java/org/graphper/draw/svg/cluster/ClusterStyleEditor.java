@@ -29,7 +29,7 @@ public class ClusterStyleEditor extends SvgEditor implements ClusterEditor<SvgBr
 
   @Override
   public boolean edit(ClusterDrawProp cluster, SvgBrush brush) {
-    ClusterAttrs clusterAttrs = cluster.getCluster().clusterAttrs();
+    ClusterAttrs clusterAttrs = cluster.clusterAttrs();
     ClusterStyle style = clusterAttrs.getStyle();
     if (style == null) {
       return true;
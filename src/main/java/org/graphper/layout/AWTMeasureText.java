@@ -22,6 +22,9 @@ import java.awt.Font;
 import java.awt.font.FontRenderContext;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache_gs.commons.lang3.StringUtils;
 import org.graphper.def.FlatPoint;
 
@@ -32,6 +35,15 @@ import org.graphper.def.FlatPoint;
  */
 public class AWTMeasureText implements MeasureText, FontSelector {
 
+  // Fonts are immutable, the same font is shared by all measurements of the same name and size
+  private static final int MAX_FONT_CACHE_SIZE = 256;
+
+  private static final Map<FontKey, Font> FONTS = new ConcurrentHashMap<>();
+
+  // A plain font created by name and size always has the identity transform
+  private static final FontRenderContext RENDER_CONTEXT =
+      new FontRenderContext(new AffineTransform(), true, true);
+
   @Override
   public int order() {
     return 0;
@@ -54,19 +66,80 @@ public class AWTMeasureText implements MeasureText, FontSelector {
     }
 
     fontName = fontName == null ? DEFAULT_FONT : fontName;
-    Font font = new Font(fontName, Font.PLAIN, (int) fontSize);
-    AffineTransform transform = font.getTransform();
-    FontRenderContext render = new FontRenderContext(transform, true, true);
-    Rectangle2D rectangle = font.getStringBounds(text, render);
+    Font font = font(fontName, (int) fontSize);
+    Rectangle2D rectangle = font.getStringBounds(text, RENDER_CONTEXT);
 
     double w = rectangle.getWidth();
-    double h = rectangle.getHeight() * text.split("\n").length;
+    double h = rectangle.getHeight() * lineNum(text);
 
     return new FlatPoint(h, w);
   }
 
+  private static Font font(String fontName, int fontSize) {
+    FontKey key = new FontKey(fontName, fontSize);
+    Font font = FONTS.get(key);
+    if (font != null) {
+      return font;
+    }
+
+    if (FONTS.size() >= MAX_FONT_CACHE_SIZE) {
+      FONTS.clear();
+    }
+    font = new Font(fontName, Font.PLAIN, fontSize);
+    FONTS.put(key, font);
+    return font;
+  }
+
+  // Same as text.split("\n").length, trailing empty lines are not counted
+  private static int lineNum(String text) {
+    int end = text.length();
+    while (end > 0 && text.charAt(end - 1) == '\n') {
+      end--;
+    }
+    if (end == 0) {
+      return 0;
+    }
+
+    int num = 1;
+    for (int i = 0; i < end; i++) {
+      if (text.charAt(i) == '\n') {
+        num++;
+      }
+    }
+    return num;
+  }
+
   @Override
   public String defaultFont() {
     return "Default";
   }
+
+  private static class FontKey {
+
+    private final String fontName;
+
+    private final int fontSize;
+
+    private FontKey(String fontName, int fontSize) {
+      this.fontName = fontName;
+      this.fontSize = fontSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      FontKey fontKey = (FontKey) o;
+      return fontSize == fontKey.fontSize && Objects.equals(fontName, fontKey.fontName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(fontName, fontSize);
+    }
+  }
 }
@@ -16,15 +16,13 @@
 
 package org.graphper.layout;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import org.graphper.api.Assemble;
 import org.graphper.api.Cluster;
@@ -48,14 +46,13 @@ import org.graphper.draw.GraphvizDrawProp;
 import org.graphper.draw.LineDrawProp;
 import org.graphper.draw.NodeDrawProp;
 import org.graphper.draw.RenderEngine;
+import org.graphper.layout.AttrsTemplate.Templates;
 import org.graphper.layout.Cell.RootCell;
 import org.graphper.util.Asserts;
 import org.graphper.util.ClassUtils;
 import org.graphper.util.CollectionUtils;
 import org.graphper.util.GraphvizUtils;
 import org.graphper.util.FontUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Layout engine common template.
@@ -64,33 +61,66 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class AbstractLayoutEngine implements LayoutEngine {
 
-  private static final Logger log = LoggerFactory.getLogger(AbstractLayoutEngine.class);
-
   /**
-   * Node default attribute value map.
+   * Node default attribute template.
    */
-  private static final Map<String, Object> DEFAULT_NODE_ATTRS_MAP;
+  private static final AttrsTemplate DEFAULT_NODE_TEMPLATE;
 
   /**
-   * Node default attribute value map.
+   * Cell default attribute template.
    */
-  private static final Map<String, Object> DEFAULT_CELL_ATTRS_MAP;
+  private static final AttrsTemplate DEFAULT_CELL_TEMPLATE;
 
   /**
-   * Line default attribute value map.
+   * Line default attribute template.
    */
-  private static final Map<String, Object> DEFAULT_LINE_ATTRS_MAP;
+  private static final AttrsTemplate DEFAULT_LINE_TEMPLATE;
 
   static {
     try {
-      DEFAULT_NODE_ATTRS_MAP = ClassUtils.propValMap(DefaultVal.DEFAULT_NODE_ATTRS);
-      DEFAULT_CELL_ATTRS_MAP = ClassUtils.propValMap(DefaultVal.DEFAULT_CELL_ATTRS);
-      DEFAULT_LINE_ATTRS_MAP = ClassUtils.propValMap(DefaultVal.DEFAULT_LINE_ATTRS);
+      DEFAULT_NODE_TEMPLATE = new AttrsTemplate(
+          NodeAttrs.class, null, ClassUtils.propValMap(DefaultVal.DEFAULT_NODE_ATTRS));
+      DEFAULT_CELL_TEMPLATE = new AttrsTemplate(
+          NodeAttrs.class, null, ClassUtils.propValMap(DefaultVal.DEFAULT_CELL_ATTRS));
+      DEFAULT_LINE_TEMPLATE = new AttrsTemplate(
+          LineAttrs.class, null, ClassUtils.propValMap(DefaultVal.DEFAULT_LINE_ATTRS));
     } catch (IllegalAccessException e) {
       throw new RuntimeException("Unable to set default properties", e);
     }
   }
 
+  /**
+   * Executor of the parallel work of layout, null is the common pool.
+   */
+  private final Executor executor;
+
+  protected AbstractLayoutEngine() {
+    this(null);
+  }
+
+  /**
+   * Create a layout engine which runs the parallel work of layout on the specified executor, such
+   * as the connected components when {@link GraphAttrs#isPackComponents()} is true, and the parallel
+   * steps of the engine itself. {@code null} means using
+   * {@link java.util.concurrent.ForkJoinPool#commonPool()}. The executor never changes after the
+   * engine is created, so an engine can be shared by threads, and the layout result does not
+   * depend on the executor.
+   *
+   * @param executor executor of the parallel work of layout
+   */
+  protected AbstractLayoutEngine(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Returns the executor of the parallel work of layout, null is the common pool.
+   *
+   * @return executor of layout
+   */
+  public Executor getExecutor() {
+    return executor;
+  }
+
   public static void nodeLabelSet(NodeDrawProp nodeDrawProp, DrawGraph drawGraph,
                                   boolean needSetCenter) {
     if (nodeDrawProp == null || drawGraph == null) {
@@ -164,6 +194,17 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
     Asserts.nullArgument(graphviz, "Graphviz");
     Asserts.illegalArgument(graphviz.nodeNum() == 0, "Graphviz container is empty!");
 
+    // Lay out and pack the connected components separately
+    GraphAttrs graphAttrs = graphviz.graphAttrs();
+    if (graphAttrs.isPackComponents() && graphAttrs.getTable() == null
+        && graphAttrs.getAssemble() == null) {
+      List<Graphviz> components = graphviz.components();
+      if (components.size() > 1) {
+        return new ComponentPacker(this, graphviz, components)
+            .layout(renderEngine, executor);
+      }
+    }
+
     // Create DrawGraph and initialize some properties of GraphvizDrawProp.
     DrawGraph drawGraph = new DrawGraph(graphviz);
     LayoutAttach attachment = attachment(drawGraph);
@@ -173,12 +214,15 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
     Map<Line, Integer> lineId = new HashMap<>(graphviz.lineNum());
     Map<GraphContainer, Integer> clusterId = new HashMap<>(graphviz.clusters().size());
 
+    // Attribute templates resolved once per container
+    Templates templates = new Templates(graphviz, DEFAULT_NODE_TEMPLATE, DEFAULT_LINE_TEMPLATE);
+
     /*
      * For each container it recurses into, get all nodes and lines, and initialize node and line
      * attributes, and finally initialize the attributes of the current container.
      */
     Consumer<GraphContainer> containerConsumer = c ->
-        nodeLineClusterHandle(attachment, drawGraph, c, nodeId, lineId, clusterId);
+        nodeLineClusterHandle(attachment, drawGraph, c, nodeId, lineId, clusterId, templates);
 
     // Traverse all containers in depth.
     GraphvizUtils.dfs(
@@ -193,10 +237,10 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
     );
 
     // Finally execute the root container (Graphviz).
-    nodeLineClusterHandle(attachment, drawGraph, graphviz, nodeId, lineId, clusterId);
+    nodeLineClusterHandle(attachment, drawGraph, graphviz, nodeId, lineId, clusterId, templates);
 
     // Graphviz handle
-    handleGraphviz(attachment, nodeId, drawGraph);
+    handleGraphviz(attachment, nodeId, templates, drawGraph);
 
     // The corresponding layout engine executes.
     layout(drawGraph, attachment);
@@ -308,7 +352,8 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
 
   // -------------------------------- private method --------------------------------
 
-  private void handleGraphviz(LayoutAttach attach, Map<Node, Integer> nodeId, DrawGraph drawGraph) {
+  private void handleGraphviz(LayoutAttach attach, Map<Node, Integer> nodeId,
+                              Templates templates, DrawGraph drawGraph) {
     GraphvizDrawProp graphvizDrawProp = drawGraph.getGraphvizDrawProp();
     Graphviz graphviz = graphvizDrawProp.getGraphviz();
     GraphAttrs graphAttrs = graphviz.graphAttrs();
@@ -323,7 +368,7 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
       }
     } else {
       labelSize = assemble.size();
-      assembleHandle(attach, drawGraph, null, nodeId, assemble);
+      assembleHandle(attach, drawGraph, null, nodeId, templates, assemble);
     }
 
     graphvizDrawProp.setLabelSize(labelSize);
@@ -353,7 +398,8 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
                                      GraphContainer container,
                                      Map<Node, Integer> nodeId,
                                      Map<Line, Integer> lineId,
-                                     Map<GraphContainer, Integer> clusterId) {
+                                     Map<GraphContainer, Integer> clusterId,
+                                     Templates templates) {
     Iterable<Node> nodes;
     Iterable<Line> lines;
     /*
@@ -371,27 +417,28 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
 
     // Handle all nodes
     for (Node node : nodes) {
-      nodeHandle(attachment, drawGraph, container, nodeId, node, null, null, false, true, 0);
+      nodeHandle(attachment, drawGraph, container, nodeId, templates, node, null, null, false, true, 0);
     }
 
     // Handle all lines
     for (Line line : lines) {
       // Handle the tail and head node
-      nodeHandle(attachment, drawGraph, container, nodeId, line.head(), null, null, false, true, 0);
-      nodeHandle(attachment, drawGraph, container, nodeId, line.tail(), null, null, false, true, 0);
+      nodeHandle(attachment, drawGraph, container, nodeId, templates, line.head(), null, null, false, true, 0);
+      nodeHandle(attachment, drawGraph, container, nodeId, templates, line.tail(), null, null, false, true, 0);
 
       // Handle line
-      lineHandle(attachment, drawGraph, container, lineId, nodeId, line);
+      lineHandle(attachment, drawGraph, container, lineId, nodeId, templates, line);
     }
 
     // Handle all clusters
     if (container.isCluster()) {
-      clusterHandle(attachment, drawGraph, (Cluster) container, nodeId, clusterId);
+      clusterHandle(attachment, drawGraph, (Cluster) container, nodeId, templates, clusterId);
     }
   }
 
   private void nodeHandle(LayoutAttach attachment, DrawGraph drawGraph, GraphContainer container,
-                          Map<Node, Integer> nodeId, Node node, RootCell rootCell, FlatPoint offset,
+                          Map<Node, Integer> nodeId, Templates templates, Node node,
+                          RootCell rootCell, FlatPoint offset,
                           boolean isCell, boolean needCalcOffset, int depth) {
     Asserts.illegalArgument(depth > Graphviz.MAX_DEPTH,
                             "The nesting depth of cell exceeds the upper limit");
@@ -401,19 +448,11 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
         ? nodeDrawProp.nodeAttrs()
         : node.nodeAttrs().clone();
 
-    try {
-      if (isCell) {
-        copyTempProperties(nodeAttrs, null, DEFAULT_CELL_ATTRS_MAP);
-      } else {
-        // Set template properties
-        copyTempProperties(
-            nodeAttrs,
-            findFirstHaveTempParent(drawGraph.getGraphviz(), true, container),
-            DEFAULT_NODE_ATTRS_MAP
-        );
-      }
-    } catch (IllegalAccessException e) {
-      throw new IllegalArgumentException("Failed to access template property", e);
+    if (isCell) {
+      DEFAULT_CELL_TEMPLATE.copyTo(nodeAttrs);
+    } else {
+      // Set template properties
+      templates.nodeTemplate(container).copyTo(nodeAttrs);
     }
 
     if (nodeDrawProp == null) {
@@ -489,7 +528,7 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
                   offset.getY() + verOffset
               );
 
-              nodeHandle(attachment, drawGraph, container, nodeId, c, rootCell,
+              nodeHandle(attachment, drawGraph, container, nodeId, templates, c, rootCell,
                          of, true, needCalcOffset, depth + 1);
               NodeDrawProp cellProp = drawGraph.getNodeDrawProp(c);
               cellProp.setCellContainer(nodeDrawProp);
@@ -497,7 +536,7 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
           }
         } else {
           for (Node c : assemble.getCells()) {
-            nodeHandle(attachment, drawGraph, container, nodeId, c, null,
+            nodeHandle(attachment, drawGraph, container, nodeId, templates, c, null,
                        null, true, needCalcOffset, depth + 1);
             NodeDrawProp cellProp = drawGraph.getNodeDrawProp(c);
             cellProp.setCellContainer(nodeDrawProp);
@@ -517,23 +556,16 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
   }
 
   private void lineHandle(LayoutAttach attachment, DrawGraph drawGraph, GraphContainer container,
-                          Map<Line, Integer> lineId, Map<Node, Integer> nodeId, Line line) {
+                          Map<Line, Integer> lineId, Map<Node, Integer> nodeId,
+                          Templates templates, Line line) {
     LineDrawProp lineDrawProp = drawGraph.getLineDrawProp(line);
 
     LineAttrs lineAttrs = lineDrawProp != null
         ? lineDrawProp.lineAttrs()
         : line.lineAttrs().clone();
 
-    try {
-      // Set template properties
-      copyTempProperties(
-          lineAttrs,
-          findFirstHaveTempParent(drawGraph.getGraphviz(), false, container),
-          DEFAULT_LINE_ATTRS_MAP
-      );
-    } catch (IllegalAccessException e) {
-      throw new IllegalArgumentException("Failed to access template property", e);
-    }
+    // Set template properties
+    templates.lineTemplate(container).copyTo(lineAttrs);
 
     if (lineDrawProp == null) {
       lineDrawProp = new LineDrawProp(line, lineAttrs, drawGraph);
@@ -541,9 +573,9 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
 
       // Set line assemble
       Assemble assemble = lineDrawProp.getAssemble();
-      assembleHandle(attachment, drawGraph, container, nodeId, assemble);
+      assembleHandle(attachment, drawGraph, container, nodeId, templates, assemble);
       for (Assemble floatAssemble : lineDrawProp.getFloatAssembles()) {
-        assembleHandle(attachment, drawGraph, container, nodeId, floatAssemble);
+        assembleHandle(attachment, drawGraph, container, nodeId, templates, floatAssemble);
       }
     }
 
@@ -560,18 +592,19 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
   }
 
   private void assembleHandle(LayoutAttach attach, DrawGraph drawGraph, GraphContainer container,
-                              Map<Node, Integer> nodeId, Assemble assemble) {
+                              Map<Node, Integer> nodeId, Templates templates, Assemble assemble) {
     if (assemble == null) {
       return;
     }
 
     for (Node cell : assemble.getCells()) {
-      nodeHandle(attach, drawGraph, container, nodeId, cell, null, null, true, false, 0);
+      nodeHandle(attach, drawGraph, container, nodeId, templates, cell, null, null, true, false, 0);
     }
   }
 
   private void clusterHandle(LayoutAttach attach, DrawGraph drawGraph, Cluster cluster,
-                             Map<Node, Integer> nodeId, Map<GraphContainer, Integer> clusterId) {
+                             Map<Node, Integer> nodeId, Templates templates,
+                             Map<GraphContainer, Integer> clusterId) {
     if (drawGraph.haveCluster(cluster)) {
       return;
     }
@@ -590,7 +623,7 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
 
     // Set cluster assemble
     Assemble assemble = clusterDrawProp.getAssemble();
-    assembleHandle(attach, drawGraph, null, nodeId, assemble);
+    assembleHandle(attach, drawGraph, null, nodeId, templates, assemble);
 
     ClusterAttrs clusterAttrs = cluster.clusterAttrs();
     String label = clusterAttrs.getLabel();
@@ -701,21 +734,6 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
     }
   }
 
-  private GraphContainer findFirstHaveTempParent(Graphviz graphviz, boolean nodeTemp,
-                                                 GraphContainer container) {
-    GraphContainer p = container;
-
-    while (p != null) {
-      if ((nodeTemp && p.haveNodeTemp()) || (!nodeTemp && p.haveLineTemp())) {
-        break;
-      }
-
-      p = graphviz.father(p);
-    }
-
-    return p;
-  }
-
   private FlatPoint sizeInit(Assemble assemble, NodeAttrs nodeAttrs) {
     if (assemble != null) {
       return assemble.size();
@@ -729,66 +747,6 @@ public abstract class AbstractLayoutEngine implements LayoutEngine {
     return nodeAttrs.getFontSize() != null ? nodeAttrs.getFontSize() : 0D;
   }
 
-  @SuppressWarnings("all")
-  private void copyTempProperties(Object attrs, GraphContainer container,
-                                  Map<String, Object> defaultVal) throws IllegalAccessException {
-    Objects.requireNonNull(defaultVal);
-    if (attrs == null) {
-      return;
-    }
-
-    NodeShape nodeShape = null;
-    Field nodeShapeField = null;
-    Class<?> cls = attrs.getClass();
-    Field[] fields = cls.getDeclaredFields();
-    for (Field field : fields) {
-      if (Modifier.isStatic(field.getModifiers())) {
-        continue;
-      }
-
-      field.setAccessible(true);
-      Object v = field.get(attrs);
-      if (v == null) {
-        Object propVal;
-        if (container == null) {
-          propVal = null;
-        } else if (attrs instanceof NodeAttrs) {
-          propVal = container.getNodeAttr(field.getName());
-        } else {
-          propVal = container.getLineAttr(field.getName());
-        }
-        propVal = propVal != null ? propVal : defaultVal.get(field.getName());
-
-        if (propVal == null) {
-          field.setAccessible(false);
-          continue;
-        } else if (Objects.equals("assemble", field.getName())
-            || Objects.equals("table", field.getName())) {
-          log.warn("Can not copy " + field.getName() + " attribute!");
-          field.setAccessible(false);
-          continue;
-        }
-
-        field.set(attrs, propVal);
-        field.setAccessible(false);
-        v = propVal;
-      }
-
-      if (v instanceof NodeShape) {
-        nodeShape = (NodeShape) v;
-        nodeShapeField = field;
-      }
-    }
-
-    // Compile a new NodeShape description function
-    if (nodeShape != null && attrs instanceof NodeAttrs) {
-      nodeShapeField.setAccessible(true);
-      // Node post shape
-      nodeShapeField.set(attrs, nodeShape.post((NodeAttrs) attrs));
-      nodeShapeField.setAccessible(false);
-    }
-  }
-
   private void moveGraph(DrawGraph drawGraph, RenderEngine renderEngine, LayoutAttach attach) {
     List<ShifterStrategy> layoutShifters = shifterStrategies(drawGraph);
 
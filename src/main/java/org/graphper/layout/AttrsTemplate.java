@@ -0,0 +1,241 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.graphper.api.GraphContainer;
+import org.graphper.api.Graphviz;
+import org.graphper.api.NodeAttrs;
+import org.graphper.api.attributes.NodeShape;
+import org.graphper.util.Asserts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The resolved template values of an attribute class, used to fill the null attributes of nodes
+ * and lines. The getters and setters of the instance fields of an attribute class are
+ * {@link MethodHandle}s created only once, and the template values of a container are resolved
+ * only once, so filling the attributes of an element is a loop over arrays without any reflection,
+ * access check or map lookup.
+ *
+ * @author Jamison Jiang
+ */
+final class AttrsTemplate {
+
+  private static final Logger log = LoggerFactory.getLogger(AttrsTemplate.class);
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private static final MethodType SETTER_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  // The accessors of the instance fields of the attribute classes
+  private static final Map<Class<?>, Accessors> ACCESSORS = new ConcurrentHashMap<>();
+
+  private final Class<?> cls;
+
+  private final Map<String, Object> defaultVal;
+
+  private final Accessors accessors;
+
+  // The template value of every field, null if the field has no template value
+  private final Object[] values;
+
+  // The index of the NodeShape field, -1 if absent
+  private final int shapeIndex;
+
+  /**
+   * Resolve the template values, the value of a field is the one of the template, or the default
+   * value if the template does not have it.
+   *
+   * @param cls        attribute class
+   * @param template   template value of the field name, can be null
+   * @param defaultVal default values
+   */
+  AttrsTemplate(Class<?> cls, Function<String, Object> template, Map<String, Object> defaultVal) {
+    Asserts.nullArgument(cls, "cls");
+    Asserts.nullArgument(defaultVal, "defaultVal");
+    this.cls = cls;
+    this.defaultVal = defaultVal;
+    this.accessors = ACCESSORS.computeIfAbsent(cls, Accessors::new);
+    this.values = new Object[accessors.names.length];
+
+    int shape = -1;
+    for (int i = 0; i < values.length; i++) {
+      String name = accessors.names[i];
+      if (NodeShape.class.isAssignableFrom(accessors.types[i])) {
+        shape = i;
+      }
+
+      Object v = template != null ? template.apply(name) : null;
+      v = v != null ? v : defaultVal.get(name);
+      if (v != null && (Objects.equals("assemble", name) || Objects.equals("table", name))) {
+        log.warn("Can not copy " + name + " attribute!");
+        continue;
+      }
+      values[i] = v;
+    }
+    this.shapeIndex = shape;
+  }
+
+  /**
+   * Fill the null attributes by the template values, and compile a new {@link NodeShape}
+   * description function for node attributes.
+   *
+   * @param attrs attributes of node or line
+   */
+  void copyTo(Object attrs) {
+    if (attrs == null) {
+      return;
+    }
+
+    MethodHandle[] getters = accessors.getters;
+    MethodHandle[] setters = accessors.setters;
+    try {
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != null && (Object) getters[i].invokeExact(attrs) == null) {
+          setters[i].invokeExact(attrs, values[i]);
+        }
+      }
+
+      if (shapeIndex >= 0 && attrs instanceof NodeAttrs) {
+        NodeShape nodeShape = (NodeShape) (Object) getters[shapeIndex].invokeExact(attrs);
+        if (nodeShape != null) {
+          setters[shapeIndex].invokeExact(attrs, (Object) nodeShape.post((NodeAttrs) attrs));
+        }
+      }
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Failed to access template property", e);
+    }
+  }
+
+  // The names, types, getters and setters of the instance fields of an attribute class
+  private static final class Accessors {
+
+    private final String[] names;
+
+    private final Class<?>[] types;
+
+    private final MethodHandle[] getters;
+
+    private final MethodHandle[] setters;
+
+    private Accessors(Class<?> cls) {
+      List<Field> fields = new ArrayList<>();
+      for (Field field : cls.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          fields.add(field);
+        }
+      }
+
+      names = new String[fields.size()];
+      types = new Class<?>[fields.size()];
+      getters = new MethodHandle[fields.size()];
+      setters = new MethodHandle[fields.size()];
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      for (int i = 0; i < fields.size(); i++) {
+        Field field = fields.get(i);
+        names[i] = field.getName();
+        types[i] = field.getType();
+        field.setAccessible(true);
+        try {
+          getters[i] = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+          setters[i] = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+          throw new IllegalStateException("Failed to access attribute " + field, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * The templates of containers in one layout, a container uses the template of the nearest
+   * container which has a template, which is only searched once per container.
+   */
+  static final class Templates {
+
+    private final Graphviz graphviz;
+
+    private final AttrsTemplate defaultNodeTemplate;
+
+    private final AttrsTemplate defaultLineTemplate;
+
+    private final Map<GraphContainer, AttrsTemplate> nodeTemplates;
+
+    private final Map<GraphContainer, AttrsTemplate> lineTemplates;
+
+    Templates(Graphviz graphviz, AttrsTemplate defaultNodeTemplate,
+              AttrsTemplate defaultLineTemplate) {
+      Asserts.nullArgument(graphviz, "graphviz");
+      Asserts.nullArgument(defaultNodeTemplate, "defaultNodeTemplate");
+      Asserts.nullArgument(defaultLineTemplate, "defaultLineTemplate");
+      this.graphviz = graphviz;
+      this.defaultNodeTemplate = defaultNodeTemplate;
+      this.defaultLineTemplate = defaultLineTemplate;
+      this.nodeTemplates = new HashMap<>();
+      this.lineTemplates = new HashMap<>();
+    }
+
+    AttrsTemplate nodeTemplate(GraphContainer container) {
+      return template(container, true);
+    }
+
+    AttrsTemplate lineTemplate(GraphContainer container) {
+      return template(container, false);
+    }
+
+    private AttrsTemplate template(GraphContainer container, boolean nodeTemp) {
+      Map<GraphContainer, AttrsTemplate> templates = nodeTemp ? nodeTemplates : lineTemplates;
+      AttrsTemplate template = templates.get(container);
+      if (template != null) {
+        return template;
+      }
+
+      GraphContainer p = container;
+      while (p != null && !(nodeTemp ? p.haveNodeTemp() : p.haveLineTemp())) {
+        p = graphviz.father(p);
+      }
+
+      AttrsTemplate defaultTemplate = nodeTemp ? defaultNodeTemplate : defaultLineTemplate;
+      if (p == null) {
+        template = defaultTemplate;
+      } else if (p != container) {
+        template = template(p, nodeTemp);
+      } else {
+        GraphContainer tp = p;
+        template = new AttrsTemplate(defaultTemplate.cls,
+                                     nodeTemp ? tp::getNodeAttr : tp::getLineAttr,
+                                     defaultTemplate.defaultVal);
+      }
+      templates.put(container, template);
+      return template;
+    }
+  }
+}
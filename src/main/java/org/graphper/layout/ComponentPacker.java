@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.Executor;
+import org.graphper.api.GraphAttrs;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Line;
+import org.graphper.api.attributes.Labelloc;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.ClusterDrawProp;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.GraphvizDrawProp;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.draw.RenderEngine;
+import org.graphper.layout.OrthoVisGraph.Segment;
+import org.graphper.util.CollectionUtils;
+import org.graphper.util.ConcurrentUtils;
+
+/**
+ * Lay out the connected components of a {@link Graphviz} independently and pack them into one
+ * {@link DrawGraph}. Every component runs the whole layout of the engine in parallel, then the
+ * components are placed by shelves: sorted by height in descending order, put from left to right
+ * and start a new shelf when the width of the canvas is reached, the width of the canvas is chosen
+ * to make the packed graph close to a square.
+ *
+ * @author Jamison Jiang
+ */
+final class ComponentPacker {
+
+  private final AbstractLayoutEngine layoutEngine;
+
+  private final Graphviz graphviz;
+
+  private final List<Graphviz> components;
+
+  ComponentPacker(AbstractLayoutEngine layoutEngine, Graphviz graphviz,
+                  List<Graphviz> components) {
+    this.layoutEngine = layoutEngine;
+    this.graphviz = graphviz;
+    this.components = components;
+  }
+
+  DrawGraph layout(RenderEngine renderEngine, Executor executor) {
+    DrawGraph[] drawGraphs = new DrawGraph[components.size()];
+    ConcurrentUtils.stride(executor, drawGraphs.length,
+                           () -> i -> drawGraphs[i] = layoutEngine.layout(components.get(i),
+                                                                          renderEngine));
+    return pack(Arrays.asList(drawGraphs));
+  }
+
+  private DrawGraph pack(List<DrawGraph> drawGraphs) {
+    GraphAttrs graphAttrs = graphviz.graphAttrs();
+    double gap = graphAttrs.getNodeSep();
+
+    // Place the highest components first, ties keep the component order
+    List<Integer> order = new ArrayList<>(drawGraphs.size());
+    double area = 0;
+    double maxWidth = 0;
+    for (int i = 0; i < drawGraphs.size(); i++) {
+      GraphvizDrawProp prop = drawGraphs.get(i).getGraphvizDrawProp();
+      order.add(i);
+      area += (prop.getWidth() + gap) * (prop.getHeight() + gap);
+      maxWidth = Math.max(maxWidth, prop.getWidth());
+    }
+    order.sort((l, r) -> Double.compare(drawGraphs.get(r).getGraphvizDrawProp().getHeight(),
+                                        drawGraphs.get(l).getGraphvizDrawProp().getHeight()));
+    double canvasWidth = Math.max(maxWidth, Math.sqrt(area));
+
+    FlatPoint[] positions = new FlatPoint[drawGraphs.size()];
+    double x = 0;
+    double y = 0;
+    double shelfHeight = 0;
+    double width = 0;
+    for (Integer i : order) {
+      GraphvizDrawProp prop = drawGraphs.get(i).getGraphvizDrawProp();
+      if (x > 0 && x + prop.getWidth() > canvasWidth) {
+        x = 0;
+        y += shelfHeight + gap;
+        shelfHeight = 0;
+      }
+      positions[i] = new FlatPoint(x, y);
+      width = Math.max(width, x + prop.getWidth());
+      shelfHeight = Math.max(shelfHeight, prop.getHeight());
+      x += prop.getWidth() + gap;
+    }
+    double height = y + shelfHeight;
+
+    DrawGraph drawGraph = new DrawGraph(graphviz);
+    GraphvizDrawProp graphvizDrawProp = drawGraph.getGraphvizDrawProp();
+    FlatPoint labelSize = null;
+    if (graphAttrs.getLabel() != null) {
+      labelSize = layoutEngine.labelContainer(graphAttrs.getLabel(), graphAttrs.getFontName(),
+                                              graphAttrs.getFontSize());
+    }
+    double labelHeight = labelSize != null ? labelSize.getHeight() : 0;
+    boolean labelTop = graphAttrs.getLabelloc() == Labelloc.TOP;
+    double horMargin = graphvizDrawProp.getHorMargin();
+    double verMargin = graphvizDrawProp.getVerMargin();
+    double contentWidth = labelSize != null ? Math.max(width, labelSize.getWidth()) : width;
+    double xOffset = horMargin + (contentWidth - width) / 2;
+    double yOffset = verMargin + (labelTop ? labelHeight : 0);
+
+    int nodeNo = 0;
+    int lineNo = 0;
+    int clusterNo = 0;
+    for (int i = 0; i < drawGraphs.size(); i++) {
+      DrawGraph component = drawGraphs.get(i);
+      GraphvizDrawProp prop = component.getGraphvizDrawProp();
+      move(component, xOffset + positions[i].getX() - prop.getLeftBorder(),
+           yOffset + positions[i].getY() - prop.getUpBorder());
+
+      int nodeNum = 0;
+      for (NodeDrawProp node : component.nodes()) {
+        node.setId(nodeNo + node.nodeNo());
+        drawGraph.nodePut(node.getNode(), node);
+        nodeNum++;
+      }
+      nodeNo += nodeNum;
+
+      for (Entry<Line, LineDrawProp> entry : component.getLineDrawPropMap().entrySet()) {
+        entry.getValue().setId("line_" + lineNo++);
+        drawGraph.linePut(entry.getKey(), entry.getValue());
+      }
+
+      int clusterNum = 0;
+      for (ClusterDrawProp cluster : component.clusters()) {
+        int no = clusterNo + cluster.getClusterNo();
+        cluster.setClusterNo(no);
+        cluster.setId("cluster_" + no);
+        drawGraph.clusterPut(cluster.getCluster(), cluster);
+        clusterNum++;
+      }
+      clusterNo += clusterNum;
+
+      List<Segment> grid = prop.getGrid();
+      if (CollectionUtils.isNotEmpty(grid)) {
+        grid.forEach(graphvizDrawProp::addSegment);
+      }
+    }
+
+    drawGraph.updateXAxisRange(0);
+    drawGraph.updateXAxisRange(contentWidth + 2 * horMargin);
+    drawGraph.updateYAxisRange(0);
+    drawGraph.updateYAxisRange(height + labelHeight + 2 * verMargin);
+    drawGraph.syncToGraphvizBorder();
+
+    if (labelSize != null) {
+      graphvizDrawProp.setLabelSize(labelSize);
+      double labelY = labelTop
+          ? verMargin + labelHeight / 2
+          : drawGraph.getMaxY() - verMargin - labelHeight / 2;
+      double labelX = graphAttrs.getLabeljust().getX(
+          new FlatPoint(horMargin, 0),
+          new FlatPoint(drawGraph.getMaxX() - horMargin, 0),
+          labelSize
+      );
+      graphvizDrawProp.setLabelCenter(new FlatPoint(labelX, labelY));
+    }
+    return drawGraph;
+  }
+
+  private void move(DrawGraph drawGraph, double xOffset, double yOffset) {
+    Shifter shifter = new CombineShifter(new HashSet<>(), Collections.singletonList(
+        new FlatShifterStrategy(xOffset, yOffset)));
+    shifter.graph(drawGraph.getGraphvizDrawProp());
+    drawGraph.clusters().forEach(shifter::cluster);
+    drawGraph.nodes().forEach(shifter::node);
+    drawGraph.lines().forEach(shifter::line);
+  }
+}
@@ -16,26 +16,27 @@
 
 package org.graphper.layout;
 
-import java.util.HashSet;
-import java.util.Map.Entry;
-import java.util.Set;
-import java.util.TreeMap;
+import java.util.Arrays;
 import org.graphper.api.attributes.Splines;
 
 /**
- * Grid object for {@link Splines#ORTHO} router.
+ * Grid object for {@link Splines#ORTHO} router. The values of axes are kept in sorted arrays and
+ * found by binary search.
  *
  * @author Jamison Jiang
  */
 public class Grid {
 
-  private final TreeMap<Double, GridAxis> horAxes;
-  private final TreeMap<Double, GridAxis> verAxes;
+  private final double[] horVals;
+  private final GridAxis[] horAxes;
+  private final double[] verVals;
+  private final GridAxis[] verAxes;
 
-  private Grid(TreeMap<Double, GridAxis> horAxes,
-               TreeMap<Double, GridAxis> verAxes) {
-    this.horAxes = horAxes;
-    this.verAxes = verAxes;
+  private Grid(double[] horVals, double[] verVals) {
+    this.horVals = horVals;
+    this.verVals = verVals;
+    this.horAxes = axisInit(horVals);
+    this.verAxes = axisInit(verVals);
   }
 
   public static GridBuilder builder() {
@@ -43,33 +44,35 @@ public class Grid {
   }
 
   public GridAxis getVerAxis(double v) {
-    return verAxes.get(v);
+    return getAxis(verVals, verAxes, v);
   }
 
   public GridAxis getHorAxis(double v) {
-    return horAxes.get(v);
+    return getAxis(horVals, horAxes, v);
+  }
+
+  public GridAxis getHorAxisByIdx(int idx) {
+    return horAxes[idx];
+  }
+
+  public GridAxis getVerAxisByIdx(int idx) {
+    return verAxes[idx];
   }
 
   public GridAxis getFirstHorAxis() {
-    for (Entry<Double, GridAxis> entry : horAxes.entrySet()) {
-      return entry.getValue();
-    }
-    return null;
+    return horAxes.length > 0 ? horAxes[0] : null;
   }
 
   public GridAxis getFirstVerAxis() {
-    for (Entry<Double, GridAxis> entry : verAxes.entrySet()) {
-      return entry.getValue();
-    }
-    return null;
+    return verAxes.length > 0 ? verAxes[0] : null;
   }
 
   public int rowNum() {
-    return horAxes.size();
+    return horAxes.length;
   }
 
   public int colNum() {
-    return verAxes.size();
+    return verAxes.length;
   }
 
   public int coordToIdx(int row, int col) {
@@ -84,6 +87,28 @@ public class Grid {
     return idx - (idx / colNum()) * colNum();
   }
 
+  private static GridAxis getAxis(double[] vals, GridAxis[] axes, double v) {
+    int idx = Arrays.binarySearch(vals, v);
+    return idx >= 0 ? axes[idx] : null;
+  }
+
+  private static GridAxis[] axisInit(double[] vals) {
+    GridAxis[] axes = new GridAxis[vals.length];
+    GridAxis pre = null;
+    for (int i = 0; i < vals.length; i++) {
+      GridAxis axis = new GridAxis();
+      axis.idx = i;
+      axis.val = vals[i];
+      axis.pre = pre;
+      if (pre != null) {
+        pre.next = axis;
+      }
+      axes[i] = axis;
+      pre = axis;
+    }
+    return axes;
+  }
+
   public static class GridAxis {
 
     private int idx;
@@ -94,7 +119,11 @@ public class Grid {
 
     private GridAxis next;
 
-    private Set<Double> blockAxes;
+    private double[] blockAxes;
+
+    private int blockNum;
+
+    private boolean blockSorted;
 
     private GridAxis() {
     }
@@ -117,9 +146,12 @@ public class Grid {
 
     public void addBlockAxis(double blockAxis) {
       if (blockAxes == null) {
-        blockAxes = new HashSet<>();
+        blockAxes = new double[4];
+      } else if (blockNum == blockAxes.length) {
+        blockAxes = Arrays.copyOf(blockAxes, blockNum << 1);
       }
-      blockAxes.add(blockAxis);
+      blockAxes[blockNum++] = blockAxis;
+      blockSorted = false;
     }
 
     public boolean isNotBlock(double blockAxis) {
@@ -127,66 +159,97 @@ public class Grid {
     }
 
     public boolean isBlock(double blockAxis) {
-      return blockAxes != null && blockAxes.contains(blockAxis);
+      if (blockAxes == null) {
+        return false;
+      }
+      if (!blockSorted) {
+        blockNum = sortDistinct(blockAxes, blockNum);
+        blockSorted = true;
+      }
+      return Arrays.binarySearch(blockAxes, 0, blockNum, blockAxis) >= 0;
     }
   }
 
   public static class GridBuilder {
 
-    private final TreeMap<Double, GridAxis> horAxes;
+    private double[] horAxes;
+
+    private int horNum;
 
-    private final TreeMap<Double, GridAxis> verAxes;
+    private double[] verAxes;
+
+    private int verNum;
 
     private GridBuilder() {
-      this.horAxes = new TreeMap<>();
-      this.verAxes = new TreeMap<>();
+      this.horAxes = new double[16];
+      this.verAxes = new double[16];
     }
 
     public GridBuilder addHorAxis(double horAxis) {
-      horAxes.computeIfAbsent(horAxis, a -> new GridAxis());
+      if (horNum == horAxes.length) {
+        horAxes = Arrays.copyOf(horAxes, horNum << 1);
+      }
+      horAxes[horNum++] = horAxis;
       return this;
     }
 
     public GridBuilder addVerAxis(double verAxis) {
-      verAxes.computeIfAbsent(verAxis, a -> new GridAxis());
+      if (verNum == verAxes.length) {
+        verAxes = Arrays.copyOf(verAxes, verNum << 1);
+      }
+      verAxes[verNum++] = verAxis;
       return this;
     }
 
     public Double minHorAxis() {
-      return horAxes.firstKey();
+      return bound(horAxes, horNum, true);
     }
 
     public Double maxHorAxis() {
-      return horAxes.lastKey();
+      return bound(horAxes, horNum, false);
     }
 
     public Double minVerAxis() {
-      return verAxes.firstKey();
+      return bound(verAxes, verNum, true);
     }
 
     public Double maxVerAxis() {
-      return verAxes.lastKey();
+      return bound(verAxes, verNum, false);
     }
 
     public Grid build() {
-      // Supplement the hor/ver axis info
-      axisInit(horAxes);
-      axisInit(verAxes);
-      return new Grid(horAxes, verAxes);
-    }
-
-    private void axisInit(TreeMap<Double, GridAxis> axises) {
-      int i = 0;
-      GridAxis pre = null;
-      for (Entry<Double, GridAxis> entry : axises.entrySet()) {
-        if (pre != null) {
-          pre.next = entry.getValue();
+      double[] hor = Arrays.copyOf(horAxes, horNum);
+      double[] ver = Arrays.copyOf(verAxes, verNum);
+      return new Grid(Arrays.copyOf(hor, sortDistinct(hor, hor.length)),
+                      Arrays.copyOf(ver, sortDistinct(ver, ver.length)));
+    }
+
+    private static Double bound(double[] axes, int num, boolean min) {
+      if (num == 0) {
+        return null;
+      }
+      double b = axes[0];
+      for (int i = 1; i < num; i++) {
+        int c = Double.compare(axes[i], b);
+        if (min ? c < 0 : c > 0) {
+          b = axes[i];
         }
-        entry.getValue().pre = pre;
-        entry.getValue().val = entry.getKey();
-        pre = entry.getValue();
-        pre.idx = i++;
+      }
+      return b;
+    }
+  }
+
+  /*
+   * Sort the first num values and move the distinct values to the head, return the distinct count.
+   */
+  private static int sortDistinct(double[] vals, int num) {
+    Arrays.sort(vals, 0, num);
+    int n = 0;
+    for (int i = 0; i < num; i++) {
+      if (n == 0 || Double.compare(vals[n - 1], vals[i]) != 0) {
+        vals[n++] = vals[i];
       }
     }
+    return n;
   }
 }
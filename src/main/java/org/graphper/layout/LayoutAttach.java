@@ -16,5 +16,22 @@
 
 package org.graphper.layout;
 
+import java.util.concurrent.Executor;
+
 public class LayoutAttach {
+
+  // Executor of the parallel work of layout, null is the common pool
+  private final Executor executor;
+
+  public LayoutAttach() {
+    this(null);
+  }
+
+  public LayoutAttach(Executor executor) {
+    this.executor = executor;
+  }
+
+  public Executor getExecutor() {
+    return executor;
+  }
 }
@@ -32,6 +32,9 @@ public class OrthoVisGraph {
 
 	private final TreeSet<GridVertex> nodes;
 
+	// The number of vertex indexes assigned, see GridVertex#getIndex()
+	private int indexNum;
+
 	public OrthoVisGraph() {
 			this.nodes = new TreeSet<>();
 	}
@@ -44,8 +47,20 @@ public class OrthoVisGraph {
 		return nodes.size();
 	}
 
+	/**
+	 * Returns the number of the vertex indexes assigned, all indexes are less than it.
+	 *
+	 * @return vertex index number
+	 */
+	public int indexNum() {
+		return indexNum;
+	}
+
 	public void add(GridVertex vertex) {
 		Asserts.nullArgument(vertex, "vertex");
+		if (vertex.index < 0) {
+			vertex.index = indexNum++;
+		}
 		nodes.add(vertex);
 	}
 
@@ -90,6 +105,8 @@ public class OrthoVisGraph {
 
 		private boolean nodeInternal;
 
+		private int index = -1;
+
 		private GridVertex left;
 
 		private GridVertex right;
@@ -152,6 +169,17 @@ public class OrthoVisGraph {
 			return rightDown;
 		}
 
+		/**
+		 * Returns the dense index of the vertex in the {@link OrthoVisGraph} it was added to, or -1
+		 * if it was not added to any graph. The index is used to keep the state of vertexes in
+		 * arrays.
+		 *
+		 * @return vertex index
+		 */
+		public int getIndex() {
+			return index;
+		}
+
 		public boolean isNodeInternal() {
 			return nodeInternal;
 		}
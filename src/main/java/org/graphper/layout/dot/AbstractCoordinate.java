@@ -187,9 +187,17 @@ abstract class AbstractCoordinate {
   }
 
   protected RankContent networkSimplex(DotDigraph auxGraph, boolean needRankContent) {
-    FeasibleTree feasibleTree = new FeasibleTree(auxGraph);
-    NetworkSimplex networkSimplex = new NetworkSimplex(feasibleTree, nslimit, false,
-                                                       needRankContent, Double.MAX_VALUE, null);
+    if (NetworkSimplex.useV1()) {
+      FeasibleTree feasibleTree = new FeasibleTree(auxGraph);
+      NetworkSimplex networkSimplex = new NetworkSimplex(feasibleTree, nslimit, false,
+                                                         needRankContent, Double.MAX_VALUE, null);
+      return networkSimplex.getRankContent();
+    }
+
+    int searchSize = dotAttachment.getGraphviz().graphAttrs().getSearchsize();
+    CsrNetworkSimplex networkSimplex = new CsrNetworkSimplex(auxGraph, nslimit, searchSize, false,
+                                                             needRankContent, Double.MAX_VALUE,
+                                                             null);
     return networkSimplex.getRankContent();
   }
 
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import org.graphper.api.Line;
 import org.graphper.api.attributes.NodeShape;
@@ -57,6 +58,9 @@ public abstract class AbstractDotLineRouter extends LineClip implements DotLineR
   protected RankContent rankContent;
   protected EdgeDedigraph<DNode, DLine> digraphProxy;
 
+  // Executor of the parallel work of router, null is the common pool
+  protected Executor executor;
+
   @Override
   public void route() {
     Object attach = attach();
@@ -788,7 +792,7 @@ public abstract class AbstractDotLineRouter extends LineClip implements DotLineR
 
     @Override
     public T newInstance(DrawGraph drawGraph, DotDigraph dotDigraph, RankContent rankContent,
-                         EdgeDedigraph<DNode, DLine> digraphProxy) {
+                         EdgeDedigraph<DNode, DLine> digraphProxy, Executor executor) {
       Asserts.nullArgument(drawGraph, "drawGraph");
       Asserts.nullArgument(dotDigraph, "dotDigraph");
       Asserts.nullArgument(rankContent, "rankContent");
@@ -800,6 +804,7 @@ public abstract class AbstractDotLineRouter extends LineClip implements DotLineR
       t.dotDigraph = dotDigraph;
       t.rankContent = rankContent;
       t.digraphProxy = digraphProxy;
+      t.executor = executor;
       return t;
     }
 
@@ -16,40 +16,50 @@
 
 package org.graphper.layout.dot;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import org.graphper.api.GraphContainer;
 import org.graphper.util.Asserts;
-import org.graphper.util.CollectionUtils;
 
+/**
+ * The node order of every rank. Every rank is an array of nodes, and the rank index of every node
+ * is recorded in an int array indexed by {@link DNode#getCrossId()}, so the lookups and exchanges
+ * of the crossing minimization neither box nor hash.
+ *
+ * @author Jamison Jiang
+ */
 class BasicCrossRank implements CrossRank, Cloneable {
 
+  private static final DNode[] EMPTY = new DNode[0];
+
   private int minRank = Integer.MAX_VALUE;
 
   private int maxRank = Integer.MIN_VALUE;
 
-  protected Map<Integer, List<DNode>> rankNode;
+  // The nodes of rank minRank + i are the first rankSizes[i] elements of rankNodes[i]
+  private DNode[][] rankNodes;
+
+  private int[] rankSizes;
 
-  protected Map<DNode, Integer> nodeRankIndex;
+  // The rank index of every cross id, -1 means the node is not in this cross rank
+  private int[] position;
 
   protected final GraphContainer container;
 
   BasicCrossRank(GraphContainer container) {
-    this.rankNode = new HashMap<>();
-    this.nodeRankIndex = new HashMap<>();
+    this.rankNodes = new DNode[0][];
+    this.rankSizes = new int[0];
+    this.position = new int[0];
     this.container = container;
   }
 
   @Override
   public int getRankIndex(DNode node) {
-    Integer idx = nodeRankIndex.get(node);
-    if (idx == null) {
+    int idx = indexOf(node);
+    if (idx < 0) {
       throw new NoSuchElementException();
     }
 
@@ -58,42 +68,86 @@ class BasicCrossRank implements CrossRank, Cloneable {
 
   @Override
   public Integer safeGetRankIndex(DNode node) {
-    return nodeRankIndex.get(node);
+    int idx = indexOf(node);
+    return idx < 0 ? null : idx;
+  }
+
+  /**
+   * Returns the rank index of node, or -1 if the node is not in this cross rank.
+   *
+   * @param node node
+   * @return rank index of node, or -1 if not exists
+   */
+  int indexOf(DNode node) {
+    int id = node.getCrossId();
+    return id >= 0 && id < position.length ? position[id] : -1;
   }
 
   @Override
   public DNode getNode(int rank, int rankIdx) {
-    List<DNode> nodes = rankNode.get(rank);
-
-    if (CollectionUtils.isEmpty(nodes) || rankIdx < 0 || rankIdx >= nodes.size()) {
+    int r = rank - minRank;
+    if (r < 0 || r >= rankSizes.length || rankIdx < 0 || rankIdx >= rankSizes[r]) {
       return null;
     }
 
-    return nodes.get(rankIdx);
+    return rankNodes[r][rankIdx];
   }
 
   @Override
   public void addNode(DNode node) {
     Asserts.nullArgument(node, "node");
-    List<DNode> nodes = rankNode.get(node.getRank());
-    if (nodes == null) {
-      nodes = new ArrayList<>(2);
-      rankNode.put(node.getRank(), nodes);
-      minRank = Math.min(minRank, node.getRank());
-      maxRank = Math.max(maxRank, node.getRank());
+    Asserts.illegalArgument(node.getCrossId() < 0, "node not have cross id");
+    int r = ensureRank(node.getRank());
+    DNode[] nodes = rankNodes[r];
+    if (rankSizes[r] == nodes.length) {
+      nodes = rankNodes[r] = Arrays.copyOf(nodes, Math.max(2, nodes.length << 1));
+    }
+
+    setPosition(node, rankSizes[r]);
+    nodes[rankSizes[r]++] = node;
+  }
+
+  /**
+   * Replace the node by the specified nodes in the same position, the nodes after it move back.
+   * Nothing changes if the replace nodes is empty.
+   *
+   * @param node         the node to be replaced
+   * @param replaceNodes replace nodes
+   */
+  void replace(DNode node, List<DNode> replaceNodes) {
+    if (replaceNodes.isEmpty()) {
+      return;
+    }
+
+    int rankIndex = getRankIndex(node);
+    int r = node.getRank() - minRank;
+    int size = rankSizes[r];
+    int newSize = size - 1 + replaceNodes.size();
+    DNode[] nodes = rankNodes[r];
+    if (newSize > nodes.length) {
+      nodes = rankNodes[r] = Arrays.copyOf(nodes, Math.max(newSize, nodes.length << 1));
+    }
+
+    System.arraycopy(nodes, rankIndex + 1, nodes, rankIndex + replaceNodes.size(),
+                     size - rankIndex - 1);
+    position[node.getCrossId()] = -1;
+    for (int i = 0; i < replaceNodes.size(); i++) {
+      nodes[rankIndex + i] = replaceNodes.get(i);
     }
+    rankSizes[r] = newSize;
 
-    nodeRankIndex.put(node, nodes.size());
-    nodes.add(node);
+    for (int j = rankIndex; j < newSize; j++) {
+      setPosition(nodes[j], j);
+    }
   }
 
   @Override
   public int rankSize(int rank) {
-    List<DNode> nodes = rankNode.get(rank);
-    if (CollectionUtils.isEmpty(nodes)) {
+    int r = rank - minRank;
+    if (r < 0 || r >= rankSizes.length) {
       return 0;
     }
-    return nodes.size();
+    return rankSizes[r];
   }
 
   @Override
@@ -119,19 +173,18 @@ class BasicCrossRank implements CrossRank, Cloneable {
       return;
     }
 
-    List<DNode> nodes = rankNode.get(v.getRank());
-
-    if (CollectionUtils.isEmpty(nodes)) {
+    if (rankSize(v.getRank()) == 0) {
       throw new IndexOutOfBoundsException("rank index out of bounds");
     }
 
+    DNode[] nodes = rankNodes[v.getRank() - minRank];
     int vi = getRankIndex(v);
     int wi = getRankIndex(w);
-    nodes.set(vi, w);
-    nodes.set(wi, v);
+    nodes[vi] = w;
+    nodes[wi] = v;
 
-    nodeRankIndex.put(v, wi);
-    nodeRankIndex.put(w, vi);
+    position[v.getCrossId()] = wi;
+    position[w.getCrossId()] = vi;
   }
 
   @Override
@@ -143,16 +196,16 @@ class BasicCrossRank implements CrossRank, Cloneable {
 
   @Override
   public void sort(int rank, Comparator<DNode> comparator) {
-    List<DNode> nodes = rankNode.get(rank);
-
-    if (CollectionUtils.isEmpty(nodes)) {
+    int size = rankSize(rank);
+    if (size == 0) {
       return;
     }
 
-    nodes.sort(comparator);
+    DNode[] nodes = rankNodes[rank - minRank];
+    Arrays.sort(nodes, 0, size, comparator);
 
-    for (int j = 0; j < nodes.size(); j++) {
-      nodeRankIndex.put(nodes.get(j), j);
+    for (int j = 0; j < size; j++) {
+      position[nodes[j].getCrossId()] = j;
     }
   }
 
@@ -166,10 +219,11 @@ class BasicCrossRank implements CrossRank, Cloneable {
     BasicCrossRank basicCrossRank;
     try {
       basicCrossRank = (BasicCrossRank) super.clone();
-      basicCrossRank.nodeRankIndex = new HashMap<>(this.nodeRankIndex);
-      basicCrossRank.rankNode = new HashMap<>(this.rankNode.size());
-      for (Entry<Integer, List<DNode>> entry : this.rankNode.entrySet()) {
-        basicCrossRank.rankNode.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+      basicCrossRank.position = position.clone();
+      basicCrossRank.rankSizes = rankSizes.clone();
+      basicCrossRank.rankNodes = new DNode[rankNodes.length][];
+      for (int i = 0; i < rankNodes.length; i++) {
+        basicCrossRank.rankNodes[i] = Arrays.copyOf(rankNodes[i], rankSizes[i]);
       }
     } catch (CloneNotSupportedException e) {
       return new BasicCrossRank(this.container);
@@ -177,4 +231,51 @@ class BasicCrossRank implements CrossRank, Cloneable {
 
     return basicCrossRank;
   }
+
+  private void setPosition(DNode node, int rankIndex) {
+    int id = node.getCrossId();
+    if (id >= position.length) {
+      int len = Math.max(id + 1, position.length << 1);
+      int oldLen = position.length;
+      position = Arrays.copyOf(position, len);
+      Arrays.fill(position, oldLen, len, -1);
+    }
+    position[id] = rankIndex;
+  }
+
+  // Make sure the arrays contain the rank, and returns the array index of the rank
+  private int ensureRank(int rank) {
+    if (rankSizes.length == 0) {
+      minRank = maxRank = rank;
+      rankNodes = new DNode[][]{EMPTY};
+      rankSizes = new int[1];
+      return 0;
+    }
+
+    if (rank < minRank) {
+      int shift = minRank - rank;
+      rankNodes = grow(rankNodes, shift, rankNodes.length + shift);
+      rankSizes = grow(rankSizes, shift, rankSizes.length + shift);
+      minRank = rank;
+    } else if (rank > maxRank) {
+      int len = rank - minRank + 1;
+      rankNodes = grow(rankNodes, 0, len);
+      rankSizes = Arrays.copyOf(rankSizes, len);
+      maxRank = rank;
+    }
+    return rank - minRank;
+  }
+
+  private static DNode[][] grow(DNode[][] rankNodes, int shift, int len) {
+    DNode[][] ranks = new DNode[len][];
+    Arrays.fill(ranks, EMPTY);
+    System.arraycopy(rankNodes, 0, ranks, shift, rankNodes.length);
+    return ranks;
+  }
+
+  private static int[] grow(int[] rankSizes, int shift, int len) {
+    int[] sizes = new int[len];
+    System.arraycopy(rankSizes, 0, sizes, shift, rankSizes.length);
+    return sizes;
+  }
 }
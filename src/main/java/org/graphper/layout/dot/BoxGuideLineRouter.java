@@ -19,6 +19,7 @@ package org.graphper.layout.dot;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -43,11 +44,18 @@ import org.graphper.layout.Cell.RootCell;
 import org.graphper.layout.FlatShifterStrategy;
 import org.graphper.layout.dot.RankContent.RankNode;
 import org.graphper.util.CollectionUtils;
+import org.graphper.util.ConcurrentUtils;
 import org.graphper.util.ValueUtils;
 
 /**
  * Common parent class for some routing algorithms that use box as bootstrap.
  *
+ * <p>The routing has two phases: the box corridors and the through points of all edges are
+ * computed one after another, because the boxes of different edges may be adjusted by each other;
+ * then the curves of the edges are fitted independently in parallel, and every edge only writes
+ * the points of its own {@link LineDrawProp}, the area of {@code DrawGraph} shared by all edges is
+ * expanded by the points after all curves are fitted.
+ *
  * @author Jamison Jiang
  * @see Splines#SPLINE
  * @see Splines#ROUNDED
@@ -59,6 +67,16 @@ abstract class BoxGuideLineRouter extends AbstractDotLineRouter {
 
   private static final int HALF_PORT_ADAPT_LEN = PORT_ADAPT_LEN / 2;
 
+  // The edges whose through points are computed and wait for the curve fitting
+  private Map<LineDrawProp, ThroughParam> fitParams;
+
+  @Override
+  public void route() {
+    fitParams = new IdentityHashMap<>();
+    super.route();
+    parallelThroughPointHandle();
+  }
+
   @Override
   protected Object attach() {
     return new ArrayList<RouterBox>();
@@ -87,7 +105,7 @@ abstract class BoxGuideLineRouter extends AbstractDotLineRouter {
     LineDrawProp lineDrawProp = drawGraph.getLineDrawProp(line.getLine());
 
     // Skip already drawn edges
-    if (CollectionUtils.isNotEmpty(lineDrawProp)) {
+    if (isDrawn(lineDrawProp)) {
       return;
     }
 
@@ -126,13 +144,15 @@ abstract class BoxGuideLineRouter extends AbstractDotLineRouter {
         target.remove(target.size() - 1);
       }
       for (int i = target.size() - 1; i >= 0; i--) {
-        lineDrawProp.add(0, target.get(i));
+        lineDrawProp.addAndNotRefreshDrawGraph(0, target.get(i));
       }
     } else {
       if (CollectionUtils.isNotEmpty(lineDrawProp)) {
         target.remove(0);
       }
-      lineDrawProp.addAll(target);
+      for (FlatPoint point : target) {
+        lineDrawProp.addAndNotRefreshDrawGraph(point);
+      }
     }
   }
 
@@ -244,6 +264,7 @@ abstract class BoxGuideLineRouter extends AbstractDotLineRouter {
 
   protected abstract boolean curveLine();
 
+  // Only writes the points of the line, the area of DrawGraph is expanded by the caller
   protected abstract void throughPointHandle(ThroughParam throughParam);
 
   // ----------------------------------------------------- private method -----------------------------------------------------
@@ -288,6 +309,7 @@ abstract class BoxGuideLineRouter extends AbstractDotLineRouter {
       if (!lineDrawProp.isEmpty()) {
         lineDrawProp.clear();
       }
+      fitParams.remove(lineDrawProp);
       FlatPoint labelSize = line.getLabelSize();
 
       boolean alternateDraw = isSameRank;
@@ -547,7 +569,7 @@ abstract class BoxGuideLineRouter extends AbstractDotLineRouter {
 
   private void lineCompute(Line line, LineDrawProp lineDrawProp,
                            List<RouterBox> lineRouterBoxes, DNode from, DNode to) {
-    if (CollectionUtils.isEmpty(lineRouterBoxes) || CollectionUtils.isNotEmpty(lineDrawProp)) {
+    if (CollectionUtils.isEmpty(lineRouterBoxes) || isDrawn(lineDrawProp)) {
       return;
     }
 
@@ -687,7 +709,46 @@ abstract class BoxGuideLineRouter extends AbstractDotLineRouter {
         }
       }
 
-      throughPointHandle(throughParam);
+      if (curveLine()) {
+        // The boxes may be reused or adjusted by the next edges before the curve is fitted
+        throughParam.lineRouterBoxes = copyBoxes(lineRouterBoxes);
+        fitParams.put(lineDrawProp, throughParam);
+      } else {
+        throughPointHandle(throughParam);
+        throughParam.lineDrawProp.refreshDrawGraphArea();
+      }
+    }
+  }
+
+  private boolean isDrawn(LineDrawProp lineDrawProp) {
+    return CollectionUtils.isNotEmpty(lineDrawProp) || fitParams.containsKey(lineDrawProp);
+  }
+
+  private List<RouterBox> copyBoxes(List<RouterBox> routerBoxes) {
+    List<RouterBox> boxes = new ArrayList<>(routerBoxes.size());
+    for (RouterBox box : routerBoxes) {
+      boxes.add(new RouterBox(box.getLeftBorder(), box.getRightBorder(), box.getUpBorder(),
+                              box.getDownBorder(), box.getNode()));
+    }
+    return boxes;
+  }
+
+  private void parallelThroughPointHandle() {
+    List<ThroughParam> throughParams = new ArrayList<>(fitParams.size());
+    for (ThroughParam throughParam : fitParams.values()) {
+      // The edge is drawn again in other ways after its through points are computed
+      if (throughParam.lineDrawProp.isEmpty()) {
+        throughParams.add(throughParam);
+      }
+    }
+    fitParams = null;
+
+    ConcurrentUtils.stride(executor, throughParams.size(),
+                           () -> i -> throughPointHandle(throughParams.get(i)));
+
+    // The area of DrawGraph is shared by all edges, expand it after all curves are fitted
+    for (ThroughParam throughParam : throughParams) {
+      throughParam.lineDrawProp.refreshDrawGraphArea();
     }
   }
 
@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.graphper.api.Cluster;
 import org.graphper.api.GraphAttrs;
 import org.graphper.api.GraphContainer;
@@ -85,18 +86,21 @@ class ContainerCollapse {
 
     GraphAttrs graphAttrs = dotAttachment.getDrawGraph().getGraphviz().graphAttrs();
     // Hierarchy the nodes using the network simplex method.
-    FeasibleTree feasibleTree = new FeasibleTree(digraph);
     SubgraphMerge subgraphMerge = subRankInfo != null ? subRankInfo.subgraphMerge : null;
-    NetworkSimplex networkSimplex = new NetworkSimplex(
-        feasibleTree,
-        graphAttrs.getNslimit1(),
-        graphAttrs.getRankSep(),
-        // Let border node feature take effect
-        nodes -> borderNodeHandle(nodes, subgraphMerge)
-    );
+    // Let border node feature take effect
+    Consumer<DNode[]> sortNodesConsumer = nodes -> borderNodeHandle(nodes, subgraphMerge);
+    RankContent rc;
+    if (NetworkSimplex.useV1()) {
+      FeasibleTree feasibleTree = new FeasibleTree(digraph);
+      rc = new NetworkSimplex(feasibleTree, graphAttrs.getNslimit1(), graphAttrs.getRankSep(),
+                              sortNodesConsumer).getRankContent();
+    } else {
+      rc = new CsrNetworkSimplex(digraph, graphAttrs.getNslimit1(), graphAttrs.getSearchsize(),
+                                 graphAttrs.getRankSep(), sortNodesConsumer).getRankContent();
+    }
 
     // RankContent maybe contain sub container's merge node,need restore
-    return restoreRankContent(networkSimplex.getRankContent(), subRankInfo);
+    return restoreRankContent(rc, subRankInfo);
   }
 
   private void borderNodeHandle(DNode[] nodes, SubgraphMerge subgraphMerge) {
@@ -0,0 +1,1416 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.graphper.layout.dot.RankContent.RankNode;
+import org.graphper.util.Asserts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The network simplex method over a compressed sparse row (CSR) graph. It does the work of
+ * {@link FeasibleTree} and {@link NetworkSimplex} in the same steps and the same order, but the
+ * nodes and lines are replaced by dense int ids:
+ * <ul>
+ *   <li>The id of a node is its index in the iteration order of the digraph, the id of a line is
+ *   the order in which the initial rank assignment visits it;
+ *   <li>The rank, (low, lim), minimum length, weight, cut value and tree membership are all
+ *   primitive arrays indexed by these ids;
+ *   <li>The undirected graph never changes and is a CSR adjacency array. The tree lines of a node
+ *   are always a subset of its graph lines, so the tree adjacency reuses the same offsets.
+ * </ul>
+ * The object graph version is still available by setting the system property
+ * <tt>dot.network.simplex.v1</tt> to true.
+ *
+ * <p>The leaving line is the most negative one of the first searchSize lines in the negative line
+ * queue, the lines not chosen go back to the tail of the queue, so the next search continues
+ * from the lines that were not examined yet. A searchSize of 1 takes the first negative line, the
+ * same as the object graph version. The entering line is always the line of the least slack among
+ * all lines between the two components.
+ *
+ * @author Jamison Jiang
+ */
+class CsrNetworkSimplex {
+
+  private static final Logger log = LoggerFactory.getLogger(CsrNetworkSimplex.class);
+
+  private RankContent rankContent;
+
+  private final DNode[] nodes;
+
+  private final int[] rank;
+
+  private final int[] low;
+
+  private final int[] lim;
+
+  private final DLine[] lines;
+
+  // The ids of DLine.from() and DLine.to()
+  private final int[] tail;
+
+  private final int[] head;
+
+  private final int[] minLen;
+
+  private final double[] weight;
+
+  private final double[] cutVal;
+
+  // Parallel lines with the same weight are equal ULines, so the tree is regarded as containing
+  // all of them when it contains one of them. The first line of the equal lines.
+  private final int[] twin;
+
+  private int lineNum;
+
+  // The undirected graph, the lines of node v are adjLines[adjStart[v], adjStart[v + 1])
+  private final int[] adjStart;
+
+  private final int[] adjLines;
+
+  // Nodes in the order of joining the undirected graph
+  private final int[] graphOrder;
+
+  private int graphNum;
+
+  private final boolean[] inGraph;
+
+  // The spanning tree, the lines of node v are treeLines[adjStart[v], adjStart[v] + treeDegree[v])
+  private final int[] treeLines;
+
+  private final int[] treeDegree;
+
+  // Nodes in the order of joining the spanning tree
+  private final int[] treeOrder;
+
+  private int treeNum;
+
+  private final boolean[] inTree;
+
+  private final boolean[] treeLine;
+
+  // Indexed by twin
+  private final boolean[] treeTwin;
+
+  // Connected component number of nodes, start from 1
+  private final int[] connectNo;
+
+  // Traverse start node of every connected component
+  private final int[] sources;
+
+  private int sourceNum;
+
+  // All tree lines with negative cut value
+  private final IntQueue negativeLine;
+
+  // The maximum number of negative lines examined to find the leaving line
+  private final int searchSize;
+
+  // The tree lines that need to modify the cut value
+  private final int[] updateCutvalLines;
+
+  private int updateNum;
+
+  // The starting node of the path to recalculate the cut value
+  private int calcCutvalHead;
+
+  // The component with fewer nodes of the last half dfs, and all lines straddling two components
+  private final int[] halfNodes;
+
+  private int halfNum;
+
+  private final int[] halfMark;
+
+  private int halfStamp;
+
+  private final int[] crossLines;
+
+  private int crossNum;
+
+  private final int[] mark;
+
+  private int markStamp;
+
+  // Explicit dfs stack
+  private final int[] stackNode;
+
+  private final int[] stackCursor;
+
+  private final int[] stackLow;
+
+  // Whether rank can only be a positive integer.
+  // In the abscissa layout, the rank can be non-integer.
+  private final boolean positiveRank;
+
+  private final double rankSep;
+
+  CsrNetworkSimplex(DotDigraph digraph, int nsLimit, int searchSize, double rankSep,
+                    Consumer<DNode[]> sortNodesConsumer) {
+    this(digraph, nsLimit, searchSize, true, true, rankSep, sortNodesConsumer);
+  }
+
+  CsrNetworkSimplex(DotDigraph digraph, int nsLimit, int searchSize, boolean positiveRank,
+                    boolean needRankContent, double rankSep,
+                    Consumer<DNode[]> sortNodesConsumer) {
+    if (digraph == null || digraph.vertexNum() == 0) {
+      throw new IllegalArgumentException("Graph can not be empty");
+    }
+    Asserts.illegalArgument(rankSep < 0, "rankSpace (" + rankSep + ") must be > 0");
+    Asserts.illegalArgument(searchSize < 1, "searchSize (" + searchSize + ") must be > 0");
+    this.searchSize = searchSize;
+    this.positiveRank = positiveRank;
+    this.rankSep = rankSep;
+
+    int n = digraph.vertexNum();
+    int m = digraph.edgeNum();
+    nodes = new DNode[n];
+    rank = new int[n];
+    low = new int[n];
+    lim = new int[n];
+    lines = new DLine[m];
+    tail = new int[m];
+    head = new int[m];
+    minLen = new int[m];
+    weight = new double[m];
+    cutVal = new double[m];
+    twin = new int[m];
+    adjStart = new int[n + 1];
+    adjLines = new int[2 * m];
+    graphOrder = new int[n];
+    inGraph = new boolean[n];
+    treeLines = new int[2 * m];
+    treeDegree = new int[n];
+    treeOrder = new int[n];
+    inTree = new boolean[n];
+    treeLine = new boolean[m];
+    treeTwin = new boolean[m];
+    connectNo = new int[n];
+    sources = new int[n];
+    negativeLine = new IntQueue(Math.max(16, Integer.highestOneBit(n)));
+    updateCutvalLines = new int[n];
+    halfNodes = new int[n];
+    halfMark = new int[n];
+    crossLines = new int[m];
+    mark = new int[n];
+    stackNode = new int[n];
+    stackCursor = new int[n];
+    stackLow = new int[n];
+
+    int id = 0;
+    for (DNode node : digraph) {
+      node.setSimplexId(id);
+      nodes[id] = node;
+      rank[id++] = node.getRank();
+    }
+
+    // Initial rank assignment, the undirected graph and the initial feasible tree
+    LineHeap minLines = initRank(digraph);
+    initGraph();
+    connectSource();
+    if (lineNum != 0) {
+      generateTree(minLines);
+
+      // Vertex (low, lim), initial cut value calculation of the edges of the spanning tree.
+      new PropInit();
+    }
+
+    // Network Simplex Method, Optimal Hierarchy Assignment
+    networkSimplex(nsLimit);
+
+    // Hierarchy of Balanced Vertices + Disconnected Graph Alignment
+    balance(needRankContent, sortNodesConsumer);
+
+    for (int i = 0; i < lineNum; i++) {
+      lines[i].setCutVal(cutVal[i]);
+    }
+  }
+
+  public RankContent getRankContent() {
+    return rankContent;
+  }
+
+  /*------------------------------------------ initial feasible tree ------------------------------------------*/
+
+  /*
+   * The initial level is generated to ensure that the level of the "from" is higher than that of
+   * the "to", and the line of every node with the least slack is offered to the returned heap.
+   */
+  private LineHeap initRank(DotDigraph digraph) {
+    int n = nodes.length;
+    int[] outStart = new int[n + 1];
+    DLine[] outLines = new DLine[lines.length];
+    int idx = 0;
+    for (int v = 0; v < n; v++) {
+      outStart[v] = idx;
+      for (DLine dLine : digraph.adjacent(nodes[v])) {
+        outLines[idx++] = dLine;
+      }
+    }
+    outStart[n] = idx;
+
+    LineHeap minLines = new LineHeap(n);
+    boolean[] visited = new boolean[n];
+    // The line whose "to" is in the dfs, the rank of "from" is updated when it returns
+    int[] pending = new int[n];
+    int[] minLine = new int[n];
+    int[] minRank = new int[n];
+
+    for (int s = 0; s < n; s++) {
+      if (visited[s]) {
+        continue;
+      }
+
+      int top = 0;
+      pushRankNode(s, top, visited, outStart, pending, minLine, minRank);
+      while (top >= 0) {
+        int v = stackNode[top];
+        int e = pending[top];
+        if (e >= 0) {
+          pending[top] = -1;
+          updateMinLine(top, v, e, minLine, minRank);
+        }
+
+        if (stackCursor[top] < outStart[v + 1]) {
+          e = newLine(outLines[stackCursor[top]++]);
+          if (!visited[head[e]]) {
+            pending[top] = e;
+            pushRankNode(head[e], ++top, visited, outStart, pending, minLine, minRank);
+          } else {
+            updateMinLine(top, v, e, minLine, minRank);
+          }
+          continue;
+        }
+
+        if (minLine[top] >= 0) {
+          minLines.offer(minLine[top]);
+        }
+        top--;
+      }
+    }
+
+    return minLines;
+  }
+
+  private void pushRankNode(int v, int top, boolean[] visited, int[] outStart,
+                            int[] pending, int[] minLine, int[] minRank) {
+    visited[v] = true;
+    addGraphNode(v);
+    stackNode[top] = v;
+    stackCursor[top] = outStart[v];
+    pending[top] = -1;
+    minLine[top] = -1;
+    minRank[top] = 0;
+  }
+
+  private void updateMinLine(int top, int v, int e, int[] minLine, int[] minRank) {
+    minRank[top] = Math.min(minRank[top], rank[head[e]] - minLen[e]);
+    rank[v] = minRank[top];
+
+    if (minLine[top] < 0 || reduceLen(minLine[top]) > reduceLen(e)) {
+      minLine[top] = e;
+    }
+  }
+
+  private int newLine(DLine dLine) {
+    int e = lineNum++;
+    lines[e] = dLine;
+    tail[e] = dLine.from().getSimplexId();
+    head[e] = dLine.to().getSimplexId();
+    minLen[e] = dLine.limit();
+    weight[e] = dLine.weight();
+    cutVal[e] = dLine.getCutVal();
+
+    // The undirected line joins the "from" first, and then the "to"
+    addGraphNode(tail[e]);
+    addGraphNode(head[e]);
+    return e;
+  }
+
+  private void addGraphNode(int v) {
+    if (!inGraph[v]) {
+      inGraph[v] = true;
+      graphOrder[graphNum++] = v;
+    }
+  }
+
+  /*
+   * Every node keeps its lines in the order of the line ids, which is the order they joined the
+   * undirected graph.
+   */
+  private void initGraph() {
+    int n = nodes.length;
+    for (int e = 0; e < lineNum; e++) {
+      adjStart[tail[e] + 1]++;
+      adjStart[head[e] + 1]++;
+    }
+    for (int v = 0; v < n; v++) {
+      adjStart[v + 1] += adjStart[v];
+    }
+
+    int[] cursor = Arrays.copyOf(adjStart, n);
+    for (int e = 0; e < lineNum; e++) {
+      adjLines[cursor[tail[e]]++] = e;
+      adjLines[cursor[head[e]]++] = e;
+      twin[e] = e;
+    }
+
+    // Find the equal parallel lines, the first out line of the node to each "to" is recorded
+    int[] firstOut = cursor;
+    for (int v = 0; v < n; v++) {
+      markStamp++;
+      for (int i = adjStart[v]; i < adjStart[v + 1]; i++) {
+        int e = adjLines[i];
+        int h = head[e];
+        if (tail[e] != v || (h == v && i > adjStart[v] && adjLines[i - 1] == e)) {
+          continue;
+        }
+
+        if (mark[h] != markStamp) {
+          mark[h] = markStamp;
+          firstOut[h] = i;
+          continue;
+        }
+
+        for (int j = firstOut[h]; j < i; j++) {
+          int f = adjLines[j];
+          if (tail[f] == v && head[f] == h && Double.compare(weight[f], weight[e]) == 0) {
+            twin[e] = twin[f];
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  private void connectSource() {
+    int no = 0;
+    for (int i = 0; i < graphNum; i++) {
+      int s = graphOrder[i];
+      if (connectNo[s] != 0) {
+        continue;
+      }
+
+      connectNo[s] = ++no;
+      int source = s;
+      int top = 0;
+      stackNode[top] = s;
+      stackCursor[top] = adjStart[s];
+      while (top >= 0) {
+        int v = stackNode[top];
+        if (stackCursor[top] == adjStart[v + 1]) {
+          top--;
+          continue;
+        }
+
+        int w = other(adjLines[stackCursor[top]++], v);
+        if (connectNo[w] != 0) {
+          continue;
+        }
+
+        connectNo[w] = no;
+        if (rank[w] < rank[source]) {
+          source = w;
+        }
+        stackNode[++top] = w;
+        stackCursor[top] = adjStart[w];
+      }
+
+      sources[sourceNum++] = source;
+    }
+  }
+
+  private void generateTree(LineHeap minLines) {
+    LineHeap treeAdjacentLines = new LineHeap(16);
+
+    while (treeNum < graphNum && !minLines.isEmpty()) {
+      treeAdjacentLines.clear();
+      treeAdjacentLines.offer(minLines.poll());
+
+      while (!treeAdjacentLines.isEmpty()) {
+        int e = treeAdjacentLines.poll();
+
+        if (isTreeLine(e)) {
+          continue;
+        }
+
+        int next = inTree[tail[e]] ? head[e] : tail[e];
+        if (inTree[next]) {
+          continue;
+        }
+
+        // If the added tree edge at this time is not "tight", reset the coordinates of all nodes in the tree to make it a "tight edge"
+        int reduceLen = reduceLen(e);
+        if (reduceLen != 0) {
+          int delta = next == tail[e] ? -reduceLen : reduceLen;
+
+          for (int i = 0; i < treeNum; i++) {
+            rank[treeOrder[i]] += delta;
+          }
+
+          // Reset the priority queue, the previous operation may destroy the sorting
+          treeAdjacentLines.rebuild();
+        }
+
+        // Add the adjacent non-entering tree edges to the newly entered tree vertex into the queue
+        if (!inTree[tail[e]]) {
+          addAdjLines(treeAdjacentLines, e, tail[e]);
+        }
+        if (!inTree[head[e]]) {
+          addAdjLines(treeAdjacentLines, e, head[e]);
+        }
+
+        addTreeLine(e);
+      }
+    }
+  }
+
+  private void addAdjLines(LineHeap treeAdjacentLines, int e, int v) {
+    for (int i = adjStart[v]; i < adjStart[v + 1]; i++) {
+      int f = adjLines[i];
+      if (f == e || (inTree[tail[f]] && inTree[head[f]])) {
+        continue;
+      }
+
+      treeAdjacentLines.offer(f);
+    }
+  }
+
+  private void addTreeLine(int e) {
+    addTreeNode(tail[e]);
+    addTreeNode(head[e]);
+    treeLines[adjStart[tail[e]] + treeDegree[tail[e]]++] = e;
+    treeLines[adjStart[head[e]] + treeDegree[head[e]]++] = e;
+    treeLine[e] = true;
+    treeTwin[twin[e]] = true;
+  }
+
+  private void addTreeNode(int v) {
+    if (!inTree[v]) {
+      inTree[v] = true;
+      treeOrder[treeNum++] = v;
+    }
+  }
+
+  private void removeTreeLine(int e) {
+    removeTreeLine(tail[e], e);
+    removeTreeLine(head[e], e);
+    treeLine[e] = false;
+    treeTwin[twin[e]] = false;
+  }
+
+  private void removeTreeLine(int v, int e) {
+    int start = adjStart[v];
+    int end = start + treeDegree[v];
+    for (int i = start; i < end; i++) {
+      if (treeLines[i] == e) {
+        System.arraycopy(treeLines, i + 1, treeLines, i, end - i - 1);
+        treeDegree[v]--;
+        return;
+      }
+    }
+  }
+
+  /*
+   * Set the low and lim and the initial cut value of the tree lines.
+   */
+  private class PropInit {
+
+    // Reverse stack node count
+    private int reserveCount;
+
+    // All boundary nodes, that is, among the two components after breaking the tree edge, there
+    // must be a component that contains only one vertex
+    private final int[] cutQueue;
+
+    private int cutQueueHead;
+
+    private int cutQueueTail;
+
+    private final boolean[] inCutQueue;
+
+    private final boolean[] isBorder;
+
+    // Record the number of tree lines of the node that have completed cut value calculations
+    private final int[] calcNum;
+
+    // Whether the cut value of the tree line has been calculated
+    private final boolean[] calcDone;
+
+    private PropInit() {
+      int n = nodes.length;
+      cutQueue = new int[n];
+      inCutQueue = new boolean[n];
+      isBorder = new boolean[n];
+      calcNum = new int[n];
+      calcDone = new boolean[lineNum];
+
+      markStamp++;
+      for (int i = 0; i < sourceNum; i++) {
+        if (mark[sources[i]] != markStamp) {
+          dfs(sources[i]);
+        }
+      }
+
+      // Calculate the tangent of all tree edges
+      computeCutVal();
+    }
+
+    private void dfs(int source) {
+      int top = 0;
+      pushTreeNode(source, top, reserveCount);
+      while (top >= 0) {
+        int v = stackNode[top];
+        if (stackCursor[top] < adjStart[v] + treeDegree[v]) {
+          int w = other(treeLines[stackCursor[top]++], v);
+          if (mark[w] != markStamp) {
+            pushTreeNode(w, ++top, reserveCount);
+          }
+          continue;
+        }
+
+        // The leaf node is a boundary node, or the source node has a degree of 1 in the spanning tree,
+        // and the source node is a boundary node
+        if (treeDegree[v] == 1) {
+          isBorder[v] = true;
+          offerCutQueue(v);
+        }
+
+        // All nodes of the subtree are numbered after the entry, so low is the first number of them
+        lim[v] = ++reserveCount;
+        low[v] = stackLow[top--];
+      }
+    }
+
+    private void computeCutVal() {
+      // Starting from the boundary node of the tree edge, the cut value is calculated by entering the inner node layer by layer
+      while (cutQueueHead < cutQueueTail) {
+        int v = cutQueue[cutQueueHead++];
+
+        if (isBorder[v]) {
+          calcBorderCutVal(v);
+        } else {
+          calcNormalCutVal(v);
+        }
+      }
+    }
+
+    private void calcNormalCutVal(int v) {
+      int degreeThreshold = treeDegree[v] - 1;
+      for (int i = adjStart[v]; i < adjStart[v] + treeDegree[v]; i++) {
+        int t = treeLines[i];
+        if (calcDone[t]) {
+          continue;
+        }
+
+        // Prove that the tangent values of all other tree edges at the current vertex have been calculated
+        int next;
+        int other = other(t, v);
+        if (calcNum[next = v] == degreeThreshold
+            || calcNum[next = other] == treeDegree[other] - 1) {
+          setCutValAndMarkTreeLine(calcCutValByAdjTreeLine(next, t), t);
+        } else {
+          // Directly loop over all edges straddling two components to compute the tangent
+          setCutValAndMarkTreeLine(halfDfsCalcCutVal(t), t);
+        }
+
+        offerCutQueue(other);
+      }
+    }
+
+    private void calcBorderCutVal(int border) {
+      if (treeDegree[border] == 0) {
+        throw new RuntimeException("Find the wrong border node!");
+      }
+
+      int t = treeLines[adjStart[border]];
+      // Skip if overcut is already calculated
+      if (calcDone[t]) {
+        return;
+      }
+
+      double val = 0;
+      boolean borderIsFrom = tail[t] == border;
+      for (int i = adjStart[border]; i < adjStart[border + 1]; i++) {
+        int e = adjLines[i];
+        if (borderIsFrom == (tail[e] == border)) {
+          val += weight[e];
+        } else {
+          val -= weight[e];
+        }
+      }
+
+      setCutValAndMarkTreeLine(val, t);
+
+      // Add another node on the edge of the tree to the access queue
+      offerCutQueue(other(t, border));
+    }
+
+    private void setCutValAndMarkTreeLine(double val, int t) {
+      cutVal[t] = val;
+      calcDone[t] = true;
+      calcNum[tail[t]]++;
+      calcNum[head[t]]++;
+
+      if (val < 0) {
+        negativeLine.offer(t);
+      }
+    }
+
+    private void offerCutQueue(int v) {
+      if (!inCutQueue[v]) {
+        cutQueue[cutQueueTail++] = v;
+        inCutQueue[v] = true;
+      }
+    }
+  }
+
+  /*------------------------------------------ network simplex ------------------------------------------*/
+
+  /*
+   * Network simplex method, calculate the tangent value of the undirected tree, and continuously
+   * replace the tree edges until the tangent value of all tree edges is not negative
+   */
+  private void networkSimplex(int nsLimit) {
+    String prefix = null;
+    long start = System.currentTimeMillis();
+    if (log.isDebugEnabled()) {
+      prefix = "network simplex: ";
+      log.debug("{} nodes={} edges={} maxiter={}", prefix, nodes.length, lineNum, nsLimit);
+    }
+
+    int out;
+    int count = 0;
+    while ((out = negativeTreeLine()) >= 0 && count++ < nsLimit) {
+      int enter = findEnterLine(out);
+
+      if (enter < 0) {
+        continue;
+      }
+
+      enterLine(enter, out);
+      if (log.isDebugEnabled() && count % 100 == 0) {
+        log.debug("{} {}", prefix, count);
+      }
+    }
+
+    if (log.isDebugEnabled()) {
+      log.debug("Network is done,total number of iterations is {},time is {}s", count,
+                (System.currentTimeMillis() - start) / 1000);
+    }
+  }
+
+  /*
+   * Finding negatively weighted edges in a tree. A line queued more than once may have left the
+   * tree since it was queued, it is no longer a candidate. Examine at most searchSize candidates
+   * and every queued line at most once, the candidates not chosen are queued again.
+   */
+  private int negativeTreeLine() {
+    int leave = -1;
+    int searched = 0;
+    for (int i = negativeLine.size(); i > 0 && searched < searchSize; i--) {
+      int e = negativeLine.poll();
+      if (cutVal[e] >= 0 || !treeLine[e]) {
+        continue;
+      }
+
+      searched++;
+      if (leave < 0 || cutVal[e] < cutVal[leave]) {
+        if (leave >= 0) {
+          negativeLine.offer(leave);
+        }
+        leave = e;
+      } else {
+        negativeLine.offer(e);
+      }
+    }
+    return leave;
+  }
+
+  /*
+   * Find all edges that span the tail and head components, and get the edge with the least slack
+   * as a replacement edge, the component with fewer nodes is left in halfNodes.
+   */
+  private int findEnterLine(int out) {
+    halfDfs(out);
+
+    int minSlackLine = -1;
+    int minSlack = Integer.MAX_VALUE;
+    for (int i = 0; i < crossNum; i++) {
+      int e = crossLines[i];
+      if (inTail(tail[e], out)) {
+        continue;
+      }
+
+      int slack = reduceLen(e);
+      if (minSlackLine < 0 || slack < minSlack) {
+        minSlackLine = e;
+        minSlack = slack;
+      }
+    }
+    return minSlackLine;
+  }
+
+  private void enterLine(int enter, int out) {
+    /*
+     * 1.Find all tree edges that need to change the cut value;
+     * 2.Remove old tree edges and add new ones;
+     * 3.Update the value of (low, lim) of the node;
+     * 4.Update cutoff.
+     * */
+    cutVal[enter] = -cutVal[out];
+
+    // Find all edges that need to modify the cut value.
+    int root = findNeedUpdateCutvalLines(enter);
+    int largeLimNode = lim[tail[out]] > lim[head[out]] ? tail[out] : head[out];
+
+    if (notInLimLowRange(root, largeLimNode)) {
+      root = publicRoot(root, largeLimNode, false);
+    }
+
+    removeTreeLine(out);
+    addTreeLine(enter);
+
+    // Reset rank
+    int r = reduceLen(enter);
+    if (r != 0) {
+      int t = inTail(tail[out], out) ? tail[out] : head[out];
+      if (halfMark[t] == halfStamp) {
+        r = -r;
+      }
+
+      for (int i = 0; i < halfNum; i++) {
+        rank[halfNodes[i]] += r;
+      }
+    }
+
+    // Change the value of low and lim, and reset the rank of some nodes.
+    lowLimCalc(root);
+
+    // update edge tangent.
+    updateCutval();
+  }
+
+  /*
+   * Find all the edges that need to change the cut value, start from the two nodes of the replaced
+   * edge, and find the common first parent node along the spanning tree, the path from the parent node
+   * to the two nodes in the spanning tree is all the edges that need to adjust the cut value.
+   * */
+  private int findNeedUpdateCutvalLines(int enter) {
+    int to = head[enter];
+    updateNum = 0;
+    calcCutvalHead = tail[enter];
+
+    // Find the common node of the two nodes of the replacement edge, and add from to the path of this node
+    int current = publicRoot(to, calcCutvalHead, true);
+    int root = current;
+
+    // Add public nodes to the path "to"
+    while (current != to) {
+      for (int i = adjStart[current]; i < adjStart[current] + treeDegree[current]; i++) {
+        int e = treeLines[i];
+        int other = other(e, current);
+        if (lim[other] > lim[current] || notInLimLowRange(other, to)) {
+          continue;
+        }
+
+        current = other;
+        updateCutvalLines[updateNum++] = e;
+        break;
+      }
+    }
+
+    return root;
+  }
+
+  private int publicRoot(int to, int current, boolean record) {
+    while (notInLimLowRange(current, to)) {
+      for (int i = adjStart[current]; i < adjStart[current] + treeDegree[current]; i++) {
+        int e = treeLines[i];
+        int other = other(e, current);
+        if (lim[other] < lim[current]) {
+          continue;
+        }
+
+        current = other;
+        if (record) {
+          updateCutvalLines[updateNum++] = e;
+        }
+        break;
+      }
+    }
+    return current;
+  }
+
+  /*
+   * Update the cut value of all edges that need to update the cut value. And the tangent values of
+   * these tree edges can be calculated by the tangent values of adjacent tree edges.
+   * */
+  private void updateCutval() {
+    // Calculate from the head of the node list composed of the edge paths that change the cut value.
+    int current = calcCutvalHead;
+    for (int i = 0; i < updateNum; i++) {
+      int e = updateCutvalLines[i];
+      double val = calcCutValByAdjTreeLine(current, e);
+      cutVal[e] = val;
+      current = other(e, current);
+
+      // If the modified tree edge cut value is less than 0, re-throw it into the queue for calculating the cut value.
+      if (val < 0) {
+        negativeLine.offer(e);
+      }
+    }
+    updateNum = 0;
+  }
+
+  /*
+   * Renumber (low, lim) of the subtree of root, its nodes keep the range [low, lim] of the root.
+   */
+  private void lowLimCalc(int root) {
+    int rootLow = low[root];
+    int rootLim = lim[root];
+    int reserveCount = rootLow - 1;
+
+    markStamp++;
+    int top = 0;
+    pushTreeNode(root, top, reserveCount);
+    while (top >= 0) {
+      int v = stackNode[top];
+      if (stackCursor[top] < adjStart[v] + treeDegree[v]) {
+        int w = other(treeLines[stackCursor[top]++], v);
+        if (mark[w] != markStamp && w != root && lim[w] >= rootLow && lim[w] < rootLim) {
+          pushTreeNode(w, ++top, reserveCount);
+        }
+        continue;
+      }
+
+      lim[v] = ++reserveCount;
+      low[v] = stackLow[top--];
+    }
+  }
+
+  private void pushTreeNode(int v, int top, int reserveCount) {
+    mark[v] = markStamp;
+    stackNode[top] = v;
+    stackCursor[top] = adjStart[v];
+    stackLow[top] = reserveCount + 1;
+  }
+
+  /*------------------------------------------ cut value ------------------------------------------*/
+
+  /*
+   * Determine whether the node is the tail part of the two components split at the tree edge.
+   */
+  private boolean inTail(int v, int treeLine) {
+    int from = tail[treeLine];
+    int to = head[treeLine];
+
+    boolean directed = lim[from] < lim[to];
+    int t = directed ? from : to;
+
+    return directed == (low[t] <= lim[v] && lim[t] >= lim[v]);
+  }
+
+  private boolean isCross(int treeLine, int e) {
+    return inTail(tail[e], treeLine) ^ inTail(head[e], treeLine);
+  }
+
+  // Determine whether the lim value of a node target is not within the interval [low, lim) of another node source
+  private boolean notInLimLowRange(int source, int target) {
+    return low[source] > lim[target] || lim[source] < lim[target];
+  }
+
+  /*
+   * Iterate only the component with fewer nodes, put its nodes to halfNodes and all lines
+   * straddling two components to crossLines.
+   */
+  private void halfDfs(int treeLine) {
+    int from = tail[treeLine];
+    int to = head[treeLine];
+
+    int tailNode = inTail(to, treeLine) ? to : from;
+    int headNode = to == tailNode ? from : to;
+
+    // Iterate the side components with fewer nodes
+    int startNode = lim[headNode] - low[headNode] < lim[tailNode] - low[tailNode]
+        ? headNode : tailNode;
+
+    halfStamp++;
+    halfNum = 0;
+    crossNum = 0;
+    halfNodes[halfNum++] = startNode;
+    halfMark[startNode] = halfStamp;
+
+    for (int q = 0; q < halfNum; q++) {
+      int v = halfNodes[q];
+      for (int i = adjStart[v]; i < adjStart[v + 1]; i++) {
+        int e = adjLines[i];
+        if (isCross(treeLine, e)) {
+          crossLines[crossNum++] = e;
+          continue;
+        }
+
+        int w = other(e, v);
+        if (halfMark[w] != halfStamp) {
+          halfMark[w] = halfStamp;
+          halfNodes[halfNum++] = w;
+        }
+      }
+    }
+  }
+
+  private double halfDfsCalcCutVal(int treeLine) {
+    halfDfs(treeLine);
+
+    double val = 0;
+    for (int i = 0; i < crossNum; i++) {
+      int e = crossLines[i];
+      val += inTail(tail[e], treeLine) ? weight[e] : -weight[e];
+    }
+    return val;
+  }
+
+  /*
+   * When the tangent values of all adjacent tree edges (except itself) of the node v on a tree
+   * edge are known, the tangent value of this tree edge can be calculated from them, see
+   * FeasibleTree#calcCutValByAdjTreeLine.
+   */
+  private double calcCutValByAdjTreeLine(int v, int treeLine) {
+    double val = 0;
+    for (int i = adjStart[v]; i < adjStart[v + 1]; i++) {
+      int e = adjLines[i];
+      if (e == treeLine) {
+        val += weight[treeLine];
+        continue;
+      }
+
+      // Consistent in and out
+      if (tail[treeLine] == tail[e] || head[treeLine] == head[e]) {
+        if (isTreeLine(e)) {
+          val = val - cutVal[e] + weight[e];
+        } else {
+          val += weight[e];
+        }
+      }
+      // Inconsistent in and out
+      else {
+        if (isTreeLine(e)) {
+          val = val + cutVal[e] - weight[e];
+        } else {
+          val -= weight[e];
+        }
+      }
+    }
+
+    return val;
+  }
+
+  /*------------------------------------------ balance ------------------------------------------*/
+
+  private void balance(boolean needRankContent, Consumer<DNode[]> sortNodesConsumer) {
+    if (positiveRank) {
+      syncRank();
+      alignUnconnectGraph(tbBalance(sortNodesConsumer));
+    } else {
+      lrBalance();
+      syncRank();
+
+      if (needRankContent) {
+        this.rankContent = new RankContent(graphNodes(), rankSep,
+                                           positiveRank, sortNodesConsumer);
+      }
+    }
+  }
+
+  /*
+   * In the case of not affecting the total span, the rank setting of some nodes is within a
+   * certain range. Balance this inner node so that the nodes are evenly distributed in the
+   * Within each rank, this can have a better aspect ratio. The RankContent moves the nodes, so
+   * this works on the ranks of DNode.
+   * */
+  private int[] tbBalance(Consumer<DNode[]> sortNodesConsumer) {
+    int[] connectLowRank = null;
+    if (sourceNum > 1) {
+      connectLowRank = new int[sourceNum + 1];
+      Arrays.fill(connectLowRank, -1);
+    }
+    this.rankContent = new RankContent(graphNodes(), rankSep, positiveRank, sortNodesConsumer);
+
+    // Each node has a greedy way to obtain the most balanced rank allocation in the current situation.
+    for (int i = 0; i < graphNum; i++) {
+      int v = graphOrder[i];
+      DNode node = nodes[v];
+      if (connectLowRank != null) {
+        int lowNode = connectLowRank[connectNo[v]];
+        if (lowNode < 0 || nodes[lowNode].getRank() >= node.getRank()) {
+          connectLowRank[connectNo[v]] = v;
+        }
+      }
+
+      int currentRank = node.getRank();
+      RankNode current = rankContent.get(currentRank);
+
+      // Hierarchy border nodes cannot participate in movement
+      if (current.pre == null || current.next == null) {
+        continue;
+      }
+      int preRank = current.pre.rankIndex();
+      int nextRank = current.next.rankIndex();
+
+      double inAndOutWeight = 0D;
+      // The maximum value of the upper node of the current node adjacent to the node.
+      int preMax = Integer.MIN_VALUE;
+      // The minimum value of the lower nodes of the adjacent nodes of the current node.
+      int nextMin = Integer.MAX_VALUE;
+
+      boolean canNotMove = false;
+
+      // Cycle all in- and out-degree edges of a node.
+      for (int j = adjStart[v]; j < adjStart[v + 1]; j++) {
+        int e = adjLines[j];
+        int otherRank = nodes[other(e, v)].getRank();
+
+        if (otherRank < currentRank) {
+          otherRank = otherRank + minLen[e] - 1;
+        } else {
+          otherRank = otherRank - minLen[e] + 1;
+        }
+
+        if (otherRank < currentRank && otherRank > preMax) {
+          preMax = otherRank;
+        }
+
+        if (otherRank > currentRank && otherRank < nextMin) {
+          nextMin = otherRank;
+        }
+
+        // If there is no room to move, skip the current node directly to avoid unnecessary loops.
+        if (canNotMove = (preMax == preRank && nextMin == nextRank)) {
+          break;
+        }
+
+        if (head[e] == v) {
+          inAndOutWeight += weight[e];
+        } else {
+          inAndOutWeight -= weight[e];
+        }
+      }
+
+      // If the node cannot be moved, or the total weight of the initial edge is inconsistent,
+      // or the sparsest rank is the current rank, or the node has only in-degree or out-degree
+      // edges, there is no need to move the rank
+      if (canNotMove
+          || inAndOutWeight != 0
+          || preMax == Integer.MIN_VALUE
+          || nextMin == Integer.MAX_VALUE) {
+        continue;
+      }
+
+      // Sparsest rank
+      RankNode sparsestRank = current;
+      // Select the smallest rank in the range
+      RankNode nextMinNode = rankContent.get(nextMin);
+      RankNode curNode = rankContent.get(preMax).next;
+
+      while (curNode != null && curNode != nextMinNode) {
+        if (curNode.size() < sparsestRank.size() - 1) {
+          // Record the sparsest rank and the number of nodes of the rank
+          sparsestRank = curNode;
+        }
+
+        curNode = curNode.next;
+      }
+
+      if (sparsestRank == current) {
+        continue;
+      }
+
+      updateRank(node, current, sparsestRank);
+    }
+
+    return connectLowRank;
+  }
+
+  private void updateRank(DNode node, RankNode sourceNode, RankNode targetRank) {
+    if (sourceNode == targetRank || node.getRank() != sourceNode.rankIndex()) {
+      return;
+    }
+
+    // Remove the record of the rank where the old node is located
+    sourceNode.remove(node);
+    node.setRank(targetRank.rankIndex());
+    targetRank.add(node);
+  }
+
+  /*
+   * Move every connected component to the rank of the component that has the lowest rank, the
+   * index of connectLowRank is the connected component number.
+   */
+  private void alignUnconnectGraph(int[] connectLowRank) {
+    if (connectLowRank == null) {
+      return;
+    }
+
+    int basic = -1;
+    for (int i = 1; i <= sourceNum; i++) {
+      if (nodes[connectLowRank[i]].getRank() == rankContent.minRank()) {
+        basic = connectLowRank[i];
+      }
+    }
+
+    markStamp++;
+    for (int i = 1; i <= sourceNum; i++) {
+      int source = connectLowRank[i];
+      if (basic < 0 || nodes[basic].getRank() == nodes[source].getRank()) {
+        basic = source;
+        continue;
+      }
+
+      int rankOffset = nodes[source].getRank() - nodes[basic].getRank();
+      alignDfs(source, rankOffset);
+    }
+  }
+
+  private void alignDfs(int source, int rankOffset) {
+    mark[source] = markStamp;
+    if (!moveRank(source, rankOffset)) {
+      return;
+    }
+
+    int top = 0;
+    stackNode[top] = source;
+    stackCursor[top] = adjStart[source];
+    while (top >= 0) {
+      int v = stackNode[top];
+      if (stackCursor[top] == adjStart[v] + treeDegree[v]) {
+        top--;
+        continue;
+      }
+
+      int w = other(treeLines[stackCursor[top]++], v);
+      if (mark[w] == markStamp) {
+        continue;
+      }
+
+      mark[w] = markStamp;
+      if (moveRank(w, rankOffset)) {
+        stackNode[++top] = w;
+        stackCursor[top] = adjStart[w];
+      }
+    }
+  }
+
+  private boolean moveRank(int v, int rankOffset) {
+    DNode node = nodes[v];
+    RankNode sourceRankNode = rankContent.get(node.getRank());
+    RankNode targetRankNode = rankContent.get(node.getRank() - rankOffset);
+    if (sourceRankNode == targetRankNode) {
+      return false;
+    }
+
+    updateRank(node, sourceRankNode, targetRankNode);
+    return true;
+  }
+
+  private void lrBalance() {
+    if (lineNum == 0) {
+      return;
+    }
+
+    boolean[] lineMarks = new boolean[lineNum];
+    for (int i = 0; i < treeNum; i++) {
+      int v = treeOrder[i];
+      for (int j = adjStart[v]; j < adjStart[v] + treeDegree[v]; j++) {
+        int e = treeLines[j];
+        if (cutVal[e] != 0 || lineMarks[e]) {
+          continue;
+        }
+
+        lineMarks[e] = true;
+
+        int enter = findEnterLine(e);
+        if (enter < 0) {
+          continue;
+        }
+
+        int delta = reduceLen(enter);
+        if (delta <= 1) {
+          continue;
+        }
+
+        if (halfMark[tail[enter]] == halfStamp) {
+          delta /= -2;
+        } else {
+          delta /= 2;
+        }
+
+        for (int k = 0; k < halfNum; k++) {
+          rank[halfNodes[k]] -= delta;
+        }
+      }
+    }
+  }
+
+  private void syncRank() {
+    for (int v = 0; v < nodes.length; v++) {
+      nodes[v].setRank(rank[v]);
+    }
+  }
+
+  private DNode[] graphNodes() {
+    DNode[] graphNodes = new DNode[graphNum];
+    for (int i = 0; i < graphNum; i++) {
+      graphNodes[i] = nodes[graphOrder[i]];
+    }
+    return graphNodes;
+  }
+
+  /*------------------------------------------ line ------------------------------------------*/
+
+  private int other(int e, int v) {
+    return tail[e] == v ? head[e] : tail[e];
+  }
+
+  private int reduceLen(int e) {
+    return Math.abs(rank[head[e]] - rank[tail[e]]) - minLen[e];
+  }
+
+  private boolean isTreeLine(int e) {
+    return treeTwin[twin[e]];
+  }
+
+  /*
+   * Binary min heap of lines ordered by the current slack, the sift steps are the same as
+   * java.util.PriorityQueue, so the lines of the same slack are polled in the same order.
+   */
+  private class LineHeap {
+
+    private int[] queue;
+
+    private int size;
+
+    private LineHeap(int capacity) {
+      queue = new int[Math.max(capacity, 1)];
+    }
+
+    private boolean isEmpty() {
+      return size == 0;
+    }
+
+    private void clear() {
+      size = 0;
+    }
+
+    private void offer(int e) {
+      if (size == queue.length) {
+        queue = Arrays.copyOf(queue, size + (size >> 1) + 1);
+      }
+      siftUp(size++, e);
+    }
+
+    private int poll() {
+      int result = queue[0];
+      int n = --size;
+      if (n > 0) {
+        siftDown(queue[n], n);
+      }
+      return result;
+    }
+
+    /*
+     * The slack of the lines has changed, offer them again in the order of the array. Offering the
+     * line at k only writes the slots before k, so this can be done in place.
+     */
+    private void rebuild() {
+      for (int k = 1; k < size; k++) {
+        siftUp(k, queue[k]);
+      }
+    }
+
+    private void siftUp(int k, int e) {
+      int key = reduceLen(e);
+      while (k > 0) {
+        int parent = (k - 1) >>> 1;
+        int p = queue[parent];
+        if (key >= reduceLen(p)) {
+          break;
+        }
+        queue[k] = p;
+        k = parent;
+      }
+      queue[k] = e;
+    }
+
+    private void siftDown(int e, int n) {
+      int key = reduceLen(e);
+      int k = 0;
+      int half = n >>> 1;
+      while (k < half) {
+        int child = (k << 1) + 1;
+        int c = queue[child];
+        int right = child + 1;
+        if (right < n && reduceLen(c) > reduceLen(queue[right])) {
+          c = queue[child = right];
+        }
+        if (key <= reduceLen(c)) {
+          break;
+        }
+        queue[k] = c;
+        k = child;
+      }
+      queue[k] = e;
+    }
+  }
+
+  // Ring buffer of lines, the capacity is always a power of two
+  private static class IntQueue {
+
+    private int[] queue;
+
+    private int head;
+
+    private int size;
+
+    private IntQueue(int capacity) {
+      queue = new int[capacity];
+    }
+
+    private int size() {
+      return size;
+    }
+
+    private void offer(int e) {
+      if (size == queue.length) {
+        int[] q = new int[queue.length << 1];
+        int first = queue.length - head;
+        System.arraycopy(queue, head, q, 0, first);
+        System.arraycopy(queue, 0, q, first, head);
+        queue = q;
+        head = 0;
+      }
+      queue[(head + size++) & (queue.length - 1)] = e;
+    }
+
+    private int poll() {
+      int e = queue[head];
+      head = (head + 1) & (queue.length - 1);
+      size--;
+      return e;
+    }
+  }
+}
@@ -53,6 +53,12 @@ class DNode extends VertexIndex implements Box, ShapePosition {
   // The rank index of the node
   private int rankIndex;
 
+  // Dense id in the crossing minimization, the index of the int arrays of BasicCrossRank
+  private int crossId = -1;
+
+  // Dense id in the network simplex, the index of the int arrays of CsrNetworkSimplex
+  private int simplexId = -1;
+
   // Auxiliary level for coordinate generation
   private int auxRank;
 
@@ -216,6 +222,22 @@ class DNode extends VertexIndex implements Box, ShapePosition {
     this.lim = lim;
   }
 
+  int getCrossId() {
+    return crossId;
+  }
+
+  void setCrossId(int crossId) {
+    this.crossId = crossId;
+  }
+
+  int getSimplexId() {
+    return simplexId;
+  }
+
+  void setSimplexId(int simplexId) {
+    this.simplexId = simplexId;
+  }
+
   double getMedian() {
     return median;
   }
@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import org.graphper.api.Cluster;
 import org.graphper.api.GraphContainer;
 import org.graphper.api.Graphviz;
@@ -62,7 +63,9 @@ class DotAttachment extends LayoutAttach {
 
   private SameRankAdjacentRecord sameRankAdjacentRecord;
 
-  public DotAttachment(DotDigraph dotDigraph, DrawGraph drawGraph, Map<Node, DNode> nodeRecord) {
+  public DotAttachment(DotDigraph dotDigraph, DrawGraph drawGraph, Map<Node, DNode> nodeRecord,
+                       Executor executor) {
+    super(executor);
     Asserts.nullArgument(drawGraph, "drawGraph");
     this.dotDigraph = dotDigraph;
     this.drawGraph = drawGraph;
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import org.apache_gs.commons.lang3.StringUtils;
 import org.graphper.api.Assemble;
 import org.graphper.api.GraphAttrs;
@@ -106,6 +107,25 @@ public class DotLayoutEngine extends AbstractLayoutEngine implements Serializabl
                                      new OrthogonalRouterFactory());
   }
 
+  public DotLayoutEngine() {
+  }
+
+  /**
+   * Create a dot layout engine with the executor of the parallel work of layout, see
+   * {@link AbstractLayoutEngine#AbstractLayoutEngine(Executor)}. Besides the connected components,
+   * the executor runs the independent starts of crossing minimization when
+   * {@link GraphAttrs#getMcstarts()} is greater than 1, the routing of
+   * {@link org.graphper.api.attributes.Splines#ORTHO} edges when
+   * {@link GraphAttrs#getOrthoRounds()} is greater than 0, and the curve fitting of
+   * {@link org.graphper.api.attributes.Splines#SPLINE} and
+   * {@link org.graphper.api.attributes.Splines#ROUNDED} edges.
+   *
+   * @param executor executor of the parallel work of layout
+   */
+  public DotLayoutEngine(Executor executor) {
+    super(executor);
+  }
+
   @Override
   public List<ShifterStrategy> shifterStrategies(DrawGraph drawGraph) {
     if (drawGraph.getGraphviz().graphAttrs().getRankdir() == Rankdir.TB) {
@@ -120,7 +140,7 @@ public class DotLayoutEngine extends AbstractLayoutEngine implements Serializabl
     DotDigraph dotDigraph = new DotDigraph(drawGraph.getGraphviz().nodeNum(),
                                            drawGraph.getGraphviz(), nodeRecord);
 
-    return new DotAttachment(dotDigraph, drawGraph, nodeRecord);
+    return new DotAttachment(dotDigraph, drawGraph, nodeRecord, getExecutor());
   }
 
   @Override
@@ -269,12 +289,10 @@ public class DotLayoutEngine extends AbstractLayoutEngine implements Serializabl
     if (!drawGraph.needFlip()) {
       containerLabelPos(drawGraph);
     }
-    splines(drawGraph, dotDigraph, rankContent, digraphProxy);
+    splines(drawGraph, dotDigraph, rankContent, digraphProxy, dotAttachment.getExecutor());
   }
 
-  // --------------------------------------------- private method ---------------------------------------------
-
-  private void handleLegalLine(DotDigraph dotDigraph) {
+  void handleLegalLine(DotDigraph dotDigraph) {
     List<DLine> reverseLines = null;
     List<DLine> selfLoopLines = null;
     for (DNode node : dotDigraph) {
@@ -312,7 +330,7 @@ public class DotLayoutEngine extends AbstractLayoutEngine implements Serializabl
     }
   }
 
-  private void autoGeneratePort(DotAttachment attach) {
+  void autoGeneratePort(DotAttachment attach) {
     GeneratePort generatePort = attach.getGeneratePort();
     if (generatePort == null) {
       return;
@@ -352,6 +370,8 @@ public class DotLayoutEngine extends AbstractLayoutEngine implements Serializabl
     }
   }
 
+  // --------------------------------------------- private method ---------------------------------------------
+
   private void setLinePort(LineDrawProp line, DNode node, Port port) {
     LineAttrs lineAttrs = line.lineAttrs();
     try {
@@ -413,7 +433,7 @@ public class DotLayoutEngine extends AbstractLayoutEngine implements Serializabl
   }
 
   private void splines(DrawGraph drawGraph, DotDigraph dotDigraph, RankContent rankContent,
-                       EdgeDedigraph<DNode, DLine> digraphProxy) {
+                       EdgeDedigraph<DNode, DLine> digraphProxy, Executor executor) {
     Splines splines = drawGraph.getGraphviz().graphAttrs().getSplines();
     Map<Line, LineDrawProp> lineDrawPropMap = drawGraph.getLineDrawPropMap();
 
@@ -425,7 +445,8 @@ public class DotLayoutEngine extends AbstractLayoutEngine implements Serializabl
     // spline handler hand out
     for (DotLineRouterFactory<?> linesHandlerFactory : SPLINES_HANDLERS) {
       DotLineRouter dotLineRouter = linesHandlerFactory.newInstance(drawGraph, dotDigraph,
-                                                                    rankContent, digraphProxy);
+                                                                    rankContent, digraphProxy,
+                                                                    executor);
 
       if (dotLineRouter.needDeal(splines)) {
         dotLineRouter.route();
@@ -16,6 +16,7 @@
 
 package org.graphper.layout.dot;
 
+import java.util.concurrent.Executor;
 import org.graphper.def.EdgeDedigraph;
 import org.graphper.api.attributes.Splines;
 import org.graphper.draw.DrawGraph;
@@ -52,6 +53,6 @@ public interface DotLineRouter {
   interface DotLineRouterFactory<T extends DotLineRouter> {
 
     T newInstance(DrawGraph drawGraph, DotDigraph dotDigraph, RankContent rankContent,
-                  EdgeDedigraph<DNode, DLine> digraphProxy);
+                  EdgeDedigraph<DNode, DLine> digraphProxy, Executor executor);
   }
 }
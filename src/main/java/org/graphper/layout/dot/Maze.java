@@ -17,8 +17,8 @@
 package org.graphper.layout.dot;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,8 +42,6 @@ public abstract class Maze {
   private static final int RIGHT = 0b0010;
   private static final int UP = 0b0100;
   private static final int DOWN = 0b1000;
-  private static final int RIGHT_ACCESSED = 0x10;
-  private static final int DOWN_ACCESSED = 0x20;
   private static final int LEFT_UP_CORNET = 0x40;
   private static final double INTERNAL_OFFSET = 0.01;
   private double minBorderExtendSize = 20;
@@ -77,6 +75,10 @@ public abstract class Maze {
     return cellMap.get(cellKey);
   }
 
+  int vertexIndexNum() {
+    return ovg != null ? ovg.indexNum() : 0;
+  }
+
   GridVertex getGuideVertex(Box sign) {
     if (sign == null || guideVertex == null) {
       return null;
@@ -151,7 +153,7 @@ public abstract class Maze {
   private void createOrthoVisGraph(GridBuilder builder) {
     Grid grid = builder.build();
     this.ovg = new OrthoVisGraph();
-    int[][] track = new int[grid.rowNum()][grid.colNum()];
+    Track track = new Track(grid.rowNum(), grid.colNum());
 
     // Mark corner track value
     for (Cell cell : cellMap.values()) {
@@ -209,7 +211,7 @@ public abstract class Maze {
     generateGrid(grid, track);
   }
 
-  private void initAxisLaunchItems(Grid grid, int[][] track, Box box, boolean isCell) {
+  private void initAxisLaunchItems(Grid grid, Track track, Box box, boolean isCell) {
     GridAxis leftAxis = grid.getVerAxis(box.getLeftBorder());
     GridAxis rightAxis = grid.getVerAxis(box.getRightBorder());
     GridAxis topAxis = grid.getHorAxis(box.getUpBorder());
@@ -252,7 +254,7 @@ public abstract class Maze {
   }
 
   private void directAccess(boolean isPre, boolean isHor, int dir,
-                            int[][] track, GridAxis firstAxis,
+                            Track track, GridAxis firstAxis,
                             GridAxis secondAxis, GridAxis startAxis) {
     boolean fc = true;
     boolean sc = true;
@@ -275,11 +277,11 @@ public abstract class Maze {
   }
 
   private boolean directAccess(boolean isHor, boolean isFirst, int dir,
-                               int[][] track, GridAxis axis, GridAxis startAxis,
+                               Track track, GridAxis axis, GridAxis startAxis,
                                GridAxis pre, GridAxis current) {
     int v = isHor
-        ? track[axis.getIdx()][current.getIdx()]
-        : track[current.getIdx()][axis.getIdx()];
+        ? track.get(axis.getIdx(), current.getIdx())
+        : track.get(current.getIdx(), axis.getIdx());
 
     if (!isFirst) {
       markDir(track, reverseDir(dir), isHor, axis, current);
@@ -292,84 +294,66 @@ public abstract class Maze {
         && (current.isNotBlock(axis.getVal()) || isFirst);
   }
 
-  private void initOvg(Grid grid, int[][] track) {
-    GridAxis firstHorAxis = grid.getFirstHorAxis();
-    GridAxis firstVerAxis = grid.getFirstVerAxis();
-    Map<Integer, GridVertex> vertexMap = new HashMap<>();
-
+  private void initOvg(Grid grid, Track track) {
     // Connect the out node and edge to ovg
-    generateOutCellVertexEdge(grid, track, firstVerAxis, firstHorAxis, vertexMap);
+    generateOutCellVertexEdge(grid, track);
 
     // Connect the internal cell node to ovg
-    generateInCellVertexEdge(grid, track, vertexMap);
+    generateInCellVertexEdge(grid, track);
 
     // Find the center grid vertex of guide box in the grid
-    generateGuideBoxVertex(grid, vertexMap);
+    generateGuideBoxVertex(grid, track);
 
     // Check ovg is correctly
     checkOvg();
   }
 
-  private void generateOutCellVertexEdge(Grid grid, int[][] track, GridAxis firstVerAxis,
-                                         GridAxis firstHorAxis,
-                                         Map<Integer, GridVertex> vertexMap) {
+  private void generateOutCellVertexEdge(Grid grid, Track track) {
     GridVertex pre = null;
-    GridAxis horAxis = firstHorAxis;
-    while (horAxis != null) {
-      GridAxis verAxis = firstVerAxis;
-      while (verAxis != null) {
-        int val = track[horAxis.getIdx()][verAxis.getIdx()];
-        if (!haveRight(val) || !haveDown(val) || isNodeLeftUpCorner(val)) {
-          verAxis = verAxis.next();
-          if (!haveRight(val) || isNodeLeftUpCorner(val)) {
-            pre = null;
+    for (int row = 0; row < grid.rowNum(); row++) {
+      Steps steps = track.horSteps(row);
+      if (steps == null) {
+        continue;
+      }
+
+      GridAxis horAxis = grid.getHorAxisByIdx(row);
+      for (int i = 0; i < steps.size(); i++) {
+        // The points out of steps have no right access, so they break the connection
+        pre = null;
+        for (int col = steps.start(i); col < steps.end(i); col++) {
+          int val = track.get(row, col);
+          if (!haveDown(val) || isNodeLeftUpCorner(val)) {
+            if (isNodeLeftUpCorner(val)) {
+              pre = null;
+            }
+            continue;
           }
-          continue;
-        }
 
-        FlatPoint leftUp = new FlatPoint(verAxis.getVal(), horAxis.getVal());
-        FlatPoint rightDown = findRightDown(track, horAxis, verAxis);
+          GridAxis verAxis = grid.getVerAxisByIdx(col);
+          FlatPoint leftUp = new FlatPoint(verAxis.getVal(), horAxis.getVal());
+          FlatPoint rightDown = findRightDown(track, horAxis, verAxis);
 
-        GridVertex vertex = new GridVertex(leftUp, rightDown);
-//        vertex.leftNo = verAxis.getIdx();
-//        vertex.topNo = horAxis.getIdx();
-        ovg.add(vertex);
-        vertexMap.put(grid.coordToIdx(horAxis.getIdx(), verAxis.getIdx()), vertex);
-        if (pre != null) {
-          ovg.addLeft(vertex, pre);
+          GridVertex vertex = new GridVertex(leftUp, rightDown);
+          ovg.add(vertex);
+          track.addVertex(row, col, vertex);
+          if (pre != null) {
+            ovg.addLeft(vertex, pre);
+          }
+          pre = vertex;
         }
-        pre = vertex;
-
-        verAxis = verAxis.next();
       }
-
-      horAxis = horAxis.next();
     }
 
     pre = null;
-    GridAxis verAxis = firstVerAxis;
-    while (verAxis != null) {
-      horAxis = firstHorAxis;
-      while (horAxis != null) {
-        GridVertex vertex = vertexMap.get(grid.coordToIdx(horAxis.getIdx(), verAxis.getIdx()));
-        if (vertex == null) {
-          horAxis = horAxis.next();
-          continue;
-        }
-
-        if (pre != null && isVerContinuous(pre, vertex)) {
-          ovg.addTop(vertex, pre);
-        }
-        pre = vertex;
-        horAxis = horAxis.next();
+    for (GridVertex vertex : track.vertexesByCol()) {
+      if (pre != null && isVerContinuous(pre, vertex)) {
+        ovg.addTop(vertex, pre);
       }
-
-      verAxis = verAxis.next();
+      pre = vertex;
     }
   }
 
-  private void generateInCellVertexEdge(Grid grid, int[][] track,
-                                        Map<Integer, GridVertex> vertexMap) {
+  private void generateInCellVertexEdge(Grid grid, Track track) {
     for (Cell cell : cellMap.values()) {
       if (!cell.needInternalVertex()) {
         continue;
@@ -382,22 +366,20 @@ public abstract class Maze {
 
       GridAxis current = leftAxis;
       while (current != null && current.getVal() <= rightAxis.getVal()) {
-        int val = track[topAxis.getIdx()][current.getIdx()];
+        int val = track.get(topAxis.getIdx(), current.getIdx());
         // Top axis, find the point which is right down point of cell vertex
         if (current.getVal() > leftAxis.getVal() && haveUp(val) && haveLeft(val)) {
-          Integer idx = findCellVertexByRightDown(track, grid, topAxis, current);
-          if (idx != null) {
-            GridVertex adjVertex = vertexMap.get(idx);
-            Asserts.illegalArgument(adjVertex == null, "Can not found ovg node");
+          GridVertex adjVertex = findCellVertexByRightDown(track, topAxis, current);
+          if (adjVertex != null) {
             connectNodeInternal(adjVertex, cell, UP);
           }
         }
 
-        val = track[bottomAxis.getIdx()][current.getIdx()];
+        val = track.get(bottomAxis.getIdx(), current.getIdx());
         // Bottom axis, find the point which is left up point of cell vertex
         if (current.getVal() < rightAxis.getVal()
             && haveDown(val) && haveRight(val) && isNotNodeLeftUpCorner(val)) {
-          GridVertex vertex = vertexMap.get(grid.coordToIdx(bottomAxis.getIdx(), current.getIdx()));
+          GridVertex vertex = track.getVertex(bottomAxis.getIdx(), current.getIdx());
           Asserts.illegalArgument(vertex == null, "Can not found ovg node");
           connectNodeInternal(vertex, cell, DOWN);
         }
@@ -407,22 +389,20 @@ public abstract class Maze {
 
       current = topAxis;
       while (current != null && current.getVal() <= bottomAxis.getVal()) {
-        int val = track[current.getIdx()][leftAxis.getIdx()];
+        int val = track.get(current.getIdx(), leftAxis.getIdx());
         // LEFT axis, find the point which is right down point of cell vertex
         if (current.getVal() > topAxis.getVal() && haveLeft(val) && haveUp(val)) {
-          Integer idx = findCellVertexByRightDown(track, grid, current, leftAxis);
-          if (idx != null) {
-            GridVertex adjVertex = vertexMap.get(idx);
-            Asserts.illegalArgument(adjVertex == null, "Can not found ovg node");
+          GridVertex adjVertex = findCellVertexByRightDown(track, current, leftAxis);
+          if (adjVertex != null) {
             connectNodeInternal(adjVertex, cell, LEFT);
           }
         }
 
-        val = track[current.getIdx()][rightAxis.getIdx()];
+        val = track.get(current.getIdx(), rightAxis.getIdx());
         // Right axis, find the point which is left up point of cell vertex
         if (current.getVal() < bottomAxis.getVal()
             && haveRight(val) && haveDown(val) && isNotNodeLeftUpCorner(val)) {
-          GridVertex vertex = vertexMap.get(grid.coordToIdx(current.getIdx(), rightAxis.getIdx()));
+          GridVertex vertex = track.getVertex(current.getIdx(), rightAxis.getIdx());
           Asserts.illegalArgument(vertex == null, "Can not found ovg node");
           connectNodeInternal(vertex, cell, RIGHT);
         }
@@ -479,11 +459,11 @@ public abstract class Maze {
     }
   }
 
-  private FlatPoint findRightDown(int[][] track, GridAxis hor, GridAxis ver) {
+  private FlatPoint findRightDown(Track track, GridAxis hor, GridAxis ver) {
     GridAxis verAxis = ver.next();
 
     while (verAxis != null) {
-      int val = track[hor.getIdx()][verAxis.getIdx()];
+      int val = track.get(hor.getIdx(), verAxis.getIdx());
       if (haveLeft(val) && haveDown(val)) {
         break;
       }
@@ -493,7 +473,7 @@ public abstract class Maze {
 
     GridAxis horAxis = hor.next();
     while (horAxis != null) {
-      int val = track[horAxis.getIdx()][verAxis.getIdx()];
+      int val = track.get(horAxis.getIdx(), verAxis.getIdx());
       if (haveLeft(val) && haveUp(val)) {
         break;
       }
@@ -504,11 +484,11 @@ public abstract class Maze {
     return new FlatPoint(verAxis.getVal(), horAxis.getVal());
   }
 
-  private Integer findCellVertexByRightDown(int[][] track, Grid grid, GridAxis hor, GridAxis ver) {
+  private GridVertex findCellVertexByRightDown(Track track, GridAxis hor, GridAxis ver) {
     GridAxis verAxis = ver.pre();
 
     while (verAxis != null) {
-      int val = track[hor.getIdx()][verAxis.getIdx()];
+      int val = track.get(hor.getIdx(), verAxis.getIdx());
       if (haveRight(val) && haveUp(val)) {
         break;
       }
@@ -518,33 +498,35 @@ public abstract class Maze {
 
     GridAxis horAxis = hor.pre();
     while (horAxis != null) {
-      int val = track[horAxis.getIdx()][verAxis.getIdx()];
+      int val = track.get(horAxis.getIdx(), verAxis.getIdx());
       if (haveRight(val) && haveDown(val)) {
         break;
       }
       horAxis = horAxis.pre();
     }
     Asserts.illegalArgument(horAxis == null, "Can not found left up vertex");
-    if (isNotNodeLeftUpCorner(track[horAxis.getIdx()][verAxis.getIdx()])) {
-      return grid.coordToIdx(horAxis.getIdx(), verAxis.getIdx());
+    if (isNodeLeftUpCorner(track.get(horAxis.getIdx(), verAxis.getIdx()))) {
+      return null;
     }
-    return null;
+    GridVertex vertex = track.getVertex(horAxis.getIdx(), verAxis.getIdx());
+    Asserts.illegalArgument(vertex == null, "Can not found ovg node");
+    return vertex;
   }
 
-  private void generateGuideBoxVertex(Grid grid, Map<Integer, GridVertex> vertexMap) {
+  private void generateGuideBoxVertex(Grid grid, Track track) {
     if (guideVertex == null) {
       return;
     }
 
     for (Box box : guideVertex.keySet()) {
-      GridVertex vertex = getBoxCenterVertex(box, grid, vertexMap);
+      GridVertex vertex = getBoxCenterVertex(box, grid, track);
       if (vertex != null) {
         guideVertex.put(box, vertex);
       }
     }
   }
 
-  private GridVertex getBoxCenterVertex(Box box, Grid grid, Map<Integer, GridVertex> vertexMap) {
+  private GridVertex getBoxCenterVertex(Box box, Grid grid, Track track) {
     GridAxis leftAxis = grid.getVerAxis(box.getLeftBorder());
     GridAxis rightAxis = grid.getVerAxis(box.getRightBorder());
     GridAxis topAxis = grid.getHorAxis(box.getUpBorder());
@@ -554,8 +536,7 @@ public abstract class Maze {
     while (currentVer != null && currentVer.getVal() < rightAxis.getVal()) {
       GridAxis currentHor = topAxis;
       while (currentHor != null && currentHor.getVal() < bottomAxis.getVal()) {
-        GridVertex vertex = vertexMap
-            .get(grid.coordToIdx(currentHor.getIdx(), currentVer.getIdx()));
+        GridVertex vertex = track.getVertex(currentHor.getIdx(), currentVer.getIdx());
         if (vertexOverlapBoxCenter(vertex, box)) {
           return vertex;
         }
@@ -615,61 +596,65 @@ public abstract class Maze {
         && pre.getRightDown().getX() == vertex.getRightDown().getX();
   }
 
-  private void generateGrid(Grid grid, int[][] track) {
+  private void generateGrid(Grid grid, Track track) {
     GraphvizDrawProp graphvizDrawProp = drawGraph.getGraphvizDrawProp();
     if (!graphvizDrawProp.getGraphviz().graphAttrs().isShowGrid()) {
       return;
     }
 
-    GridAxis firstHorAxis = grid.getFirstHorAxis();
-    GridAxis firstVerAxis = grid.getFirstVerAxis();
-    GridAxis horAxis = firstHorAxis;
+    // The points are visited by rows, so a point is accessed by the right access of the previous
+    // point in the row, or by the bottom access of the previous point in the column
+    int[] bottomAccessed = new int[grid.colNum()];
+    Arrays.fill(bottomAccessed, -1);
+    for (int row = 0; row < grid.rowNum(); row++) {
+      Steps steps = track.horSteps(row);
+      if (steps == null) {
+        continue;
+      }
 
-    while (horAxis != null) {
-      GridAxis verAxis = firstVerAxis;
-      while (verAxis != null) {
-        if (notHaveVertex(track[horAxis.getIdx()][verAxis.getIdx()])) {
-          verAxis = verAxis.next();
-          continue;
-        }
+      int rightAccessed = -1;
+      GridAxis horAxis = grid.getHorAxisByIdx(row);
+      for (int i = 0; i < steps.size(); i++) {
+        for (int col = steps.start(i); col <= steps.end(i); col++) {
+          if (notHaveVertex(track.get(row, col))) {
+            continue;
+          }
 
-        if (rightNotAccessed(track, horAxis.getIdx(), verAxis.getIdx())) {
-          Segment segment = new Segment();
-          double x = rightAccess(verAxis, horAxis.getIdx(), verAxis.getIdx(), track);
-          segment.setStart(new FlatPoint(verAxis.getVal(), horAxis.getVal()));
-          segment.setEnd(new FlatPoint(x, horAxis.getVal()));
-          addSegment(segment);
-        }
+          GridAxis verAxis = grid.getVerAxisByIdx(col);
+          if (col > rightAccessed) {
+            GridAxis end = rightAccess(track, horAxis, verAxis);
+            rightAccessed = end.getIdx();
+            Segment segment = new Segment();
+            segment.setStart(new FlatPoint(verAxis.getVal(), horAxis.getVal()));
+            segment.setEnd(new FlatPoint(end.getVal(), horAxis.getVal()));
+            addSegment(segment);
+          }
 
-        if (bottomNotAccessed(track, horAxis.getIdx(), verAxis.getIdx())) {
-          Segment segment = new Segment();
-          double y = bottomAccess(horAxis, horAxis.getIdx(), verAxis.getIdx(), track);
-          segment.setStart(new FlatPoint(verAxis.getVal(), horAxis.getVal()));
-          segment.setEnd(new FlatPoint(verAxis.getVal(), y));
-          addSegment(segment);
+          if (row > bottomAccessed[col]) {
+            GridAxis end = bottomAccess(track, horAxis, verAxis);
+            bottomAccessed[col] = end.getIdx();
+            Segment segment = new Segment();
+            segment.setStart(new FlatPoint(verAxis.getVal(), horAxis.getVal()));
+            segment.setEnd(new FlatPoint(verAxis.getVal(), end.getVal()));
+            addSegment(segment);
+          }
         }
-
-        verAxis = verAxis.next();
       }
-
-      horAxis = horAxis.next();
     }
   }
 
-  private double rightAccess(GridAxis axis, int row, int col, int[][] track) {
-    markAccessed(track, row, col, RIGHT_ACCESSED);
-    if (!haveRight(track[row][col])) {
-      return axis.getVal();
+  private GridAxis rightAccess(Track track, GridAxis horAxis, GridAxis verAxis) {
+    while (haveRight(track.get(horAxis.getIdx(), verAxis.getIdx()))) {
+      verAxis = verAxis.next();
     }
-    return rightAccess(axis.next(), row, col + 1, track);
+    return verAxis;
   }
 
-  private double bottomAccess(GridAxis axis, int row, int col, int[][] track) {
-    markAccessed(track, row, col, DOWN_ACCESSED);
-    if (!haveDown(track[row][col])) {
-      return axis.getVal();
+  private GridAxis bottomAccess(Track track, GridAxis horAxis, GridAxis verAxis) {
+    while (haveDown(track.get(horAxis.getIdx(), verAxis.getIdx()))) {
+      horAxis = horAxis.next();
     }
-    return bottomAccess(axis.next(), row + 1, col, track);
+    return horAxis;
   }
 
   private void addSegment(Segment segment) {
@@ -685,7 +670,7 @@ public abstract class Maze {
     graphvizDrawProp.addSegment(segment);
   }
 
-  private void nodeTrack(int[][] track, GridAxis leftAxis, GridAxis rightAxis,
+  private void nodeTrack(Track track, GridAxis leftAxis, GridAxis rightAxis,
                          GridAxis topAxis, GridAxis bottomAxis) {
     markRight(track, topAxis.getIdx(), leftAxis.getIdx());
     markDown(track, topAxis.getIdx(), leftAxis.getIdx());
@@ -700,18 +685,16 @@ public abstract class Maze {
     markUp(track, bottomAxis.getIdx(), rightAxis.getIdx());
   }
 
-  private int markDir(int[][] track, int dir, boolean isHor, GridAxis a1, GridAxis a2) {
-    int val;
+  private void markDir(Track track, int dir, boolean isHor, GridAxis a1, GridAxis a2) {
     if (isHor) {
-      val = track[a1.getIdx()][a2.getIdx()] |= dir;
+      track.mark(a1.getIdx(), a2.getIdx(), dir);
     } else {
-      val = track[a2.getIdx()][a1.getIdx()] |= dir;
+      track.mark(a2.getIdx(), a1.getIdx(), dir);
     }
-    return val;
   }
 
-  private void markNodeLeftUpCorner(int[][] track, int row, int col) {
-    track[row][col] |= LEFT_UP_CORNET;
+  private void markNodeLeftUpCorner(Track track, int row, int col) {
+    track.mark(row, col, LEFT_UP_CORNET);
   }
 
   private boolean isNotNodeLeftUpCorner(int val) {
@@ -739,20 +722,20 @@ public abstract class Maze {
     return haveUp(val) || haveDown(val);
   }
 
-  private void markLeft(int[][] track, int row, int col) {
-    track[row][col] |= LEFT;
+  private void markLeft(Track track, int row, int col) {
+    track.mark(row, col, LEFT);
   }
 
-  private void markRight(int[][] track, int row, int col) {
-    track[row][col] |= RIGHT;
+  private void markRight(Track track, int row, int col) {
+    track.mark(row, col, RIGHT);
   }
 
-  private void markUp(int[][] track, int row, int col) {
-    track[row][col] |= UP;
+  private void markUp(Track track, int row, int col) {
+    track.mark(row, col, UP);
   }
 
-  private void markDown(int[][] track, int row, int col) {
-    track[row][col] |= DOWN;
+  private void markDown(Track track, int row, int col) {
+    track.mark(row, col, DOWN);
   }
 
   private boolean haveLeft(int val) {
@@ -771,34 +754,6 @@ public abstract class Maze {
     return (val & DOWN) == DOWN;
   }
 
-  private boolean rightNotAccessed(int[][] track, int row, int col) {
-    return !rightAccessed(track, row, col);
-  }
-
-  private boolean bottomNotAccessed(int[][] track, int row, int col) {
-    return !bottomAccessed(track, row, col);
-  }
-
-  private boolean rightAccessed(int[][] track, int row, int col) {
-    return rightAccessed(track[row][col]);
-  }
-
-  private boolean bottomAccessed(int[][] track, int row, int col) {
-    return downAccessed(track[row][col]);
-  }
-
-  private boolean rightAccessed(int val) {
-    return (val & RIGHT_ACCESSED) == RIGHT_ACCESSED;
-  }
-
-  private boolean downAccessed(int val) {
-    return (val & DOWN_ACCESSED) == DOWN_ACCESSED;
-  }
-
-  private void markAccessed(int[][] track, int row, int col, int accessMark) {
-    track[row][col] |= accessMark;
-  }
-
   private int reverseDir(int dir) {
     switch (dir) {
       case LEFT:
@@ -814,6 +769,257 @@ public abstract class Maze {
     }
   }
 
+  /*
+   * The track values of the points of grid. Every access mark of a point is paired with the
+   * reverse mark of the adjacent point, so the marks of an axis are kept as the sorted intervals of
+   * the open steps between adjacent points, and the memory grows with the boxes and the access
+   * lines instead of the rows * cols of grid.
+   */
+  private static class Track {
+
+    private final int colNum;
+
+    private final Steps[] horSteps;
+
+    private final Steps[] verSteps;
+
+    private final Points corners;
+
+    private final Points vertexes;
+
+    private Track(int rowNum, int colNum) {
+      this.colNum = colNum;
+      this.horSteps = new Steps[rowNum];
+      this.verSteps = new Steps[colNum];
+      this.corners = new Points();
+      this.vertexes = new Points();
+    }
+
+    Steps horSteps(int row) {
+      return horSteps[row];
+    }
+
+    int get(int row, int col) {
+      int val = 0;
+      Steps steps = horSteps[row];
+      if (steps != null) {
+        val |= steps.access(col, LEFT, RIGHT);
+      }
+      steps = verSteps[col];
+      if (steps != null) {
+        val |= steps.access(row, UP, DOWN);
+      }
+
+      // The left up corner of node always has the right and down access
+      if ((val & (RIGHT | DOWN)) == (RIGHT | DOWN) && corners.contains(key(row, col))) {
+        val |= LEFT_UP_CORNET;
+      }
+      return val;
+    }
+
+    void mark(int row, int col, int mark) {
+      switch (mark) {
+        case LEFT:
+          open(horSteps, row, col - 1);
+          break;
+        case RIGHT:
+          open(horSteps, row, col);
+          break;
+        case UP:
+          open(verSteps, col, row - 1);
+          break;
+        case DOWN:
+          open(verSteps, col, row);
+          break;
+        case LEFT_UP_CORNET:
+          corners.add(key(row, col), null);
+          break;
+        default:
+          break;
+      }
+    }
+
+    GridVertex getVertex(int row, int col) {
+      return vertexes.get(key(row, col));
+    }
+
+    void addVertex(int row, int col, GridVertex vertex) {
+      vertexes.add(key(row, col), vertex);
+    }
+
+    /*
+     * The vertexes ordered by columns, the vertexes are added by rows so they are still ordered by
+     * rows in the same column.
+     */
+    List<GridVertex> vertexesByCol() {
+      int[] colStart = new int[colNum + 1];
+      for (int i = 0; i < vertexes.size; i++) {
+        colStart[(int) (vertexes.keys[i] % colNum) + 1]++;
+      }
+      for (int i = 1; i <= colNum; i++) {
+        colStart[i] += colStart[i - 1];
+      }
+
+      GridVertex[] byCol = new GridVertex[vertexes.size];
+      for (int i = 0; i < vertexes.size; i++) {
+        byCol[colStart[(int) (vertexes.keys[i] % colNum)]++] = vertexes.vals[i];
+      }
+      return Arrays.asList(byCol);
+    }
+
+    private void open(Steps[] axisSteps, int axis, int step) {
+      if (axisSteps[axis] == null) {
+        axisSteps[axis] = new Steps();
+      }
+      axisSteps[axis].open(step);
+    }
+
+    private long key(int row, int col) {
+      return (long) row * colNum + col;
+    }
+  }
+
+  /*
+   * The open steps of an axis, step p is between the point p and p + 1. The continuous steps are
+   * merged to an interval [start, end] of points, and the intervals are sorted by start.
+   */
+  private static class Steps {
+
+    private int[] starts = new int[2];
+
+    private int[] ends = new int[2];
+
+    private int size;
+
+    // The last found interval, the points are mostly visited one by one along the axis
+    private int hint;
+
+    int size() {
+      return size;
+    }
+
+    int start(int i) {
+      return starts[i];
+    }
+
+    int end(int i) {
+      return ends[i];
+    }
+
+    // The lowMark if step p - 1 is open, or with highMark if step p is open
+    int access(int p, int lowMark, int highMark) {
+      int i = floor(p);
+      if (i < 0 || ends[i] < p) {
+        return 0;
+      }
+      return (starts[i] < p ? lowMark : 0) | (ends[i] > p ? highMark : 0);
+    }
+
+    void open(int p) {
+      int i = floor(p);
+      if (i >= 0 && ends[i] > p) {
+        return;
+      }
+
+      boolean joinPre = i >= 0 && ends[i] == p;
+      boolean joinNext = i + 1 < size && starts[i + 1] == p + 1;
+      if (joinPre && joinNext) {
+        ends[i] = ends[i + 1];
+        System.arraycopy(starts, i + 2, starts, i + 1, size - i - 2);
+        System.arraycopy(ends, i + 2, ends, i + 1, size - i - 2);
+        size--;
+      } else if (joinPre) {
+        ends[i] = p + 1;
+      } else if (joinNext) {
+        starts[i + 1] = p;
+      } else {
+        if (size == starts.length) {
+          starts = Arrays.copyOf(starts, size << 1);
+          ends = Arrays.copyOf(ends, size << 1);
+        }
+        System.arraycopy(starts, i + 1, starts, i + 2, size - i - 1);
+        System.arraycopy(ends, i + 1, ends, i + 2, size - i - 1);
+        starts[i + 1] = p;
+        ends[i + 1] = p + 1;
+        size++;
+      }
+    }
+
+    // The last interval which start is not greater than p, or -1
+    private int floor(int p) {
+      int h = hint;
+      if (h < size && starts[h] <= p && (h + 1 == size || starts[h + 1] > p)) {
+        return h;
+      }
+
+      int low = 0;
+      int high = size - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        if (starts[mid] <= p) {
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      if (high >= 0) {
+        hint = high;
+      }
+      return high;
+    }
+  }
+
+  /*
+   * The points keyed by "row * colNum + col" in a sorted array. The points with value are always
+   * added by rows, other points are sorted at the first query.
+   */
+  private static class Points {
+
+    private long[] keys = new long[16];
+
+    private GridVertex[] vals;
+
+    private int size;
+
+    private boolean sorted = true;
+
+    void add(long key, GridVertex val) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size << 1);
+      }
+      if (size > 0 && keys[size - 1] >= key) {
+        sorted = false;
+      }
+      if (val != null) {
+        if (vals == null) {
+          vals = new GridVertex[keys.length];
+        } else if (vals.length < keys.length) {
+          vals = Arrays.copyOf(vals, keys.length);
+        }
+        vals[size] = val;
+      }
+      keys[size++] = key;
+    }
+
+    boolean contains(long key) {
+      return index(key) >= 0;
+    }
+
+    GridVertex get(long key) {
+      int i = index(key);
+      return i >= 0 && vals != null ? vals[i] : null;
+    }
+
+    private int index(long key) {
+      if (!sorted) {
+        Asserts.illegalArgument(vals != null, "The points with value are not added by rows");
+        Arrays.sort(keys, 0, size);
+        sorted = true;
+      }
+      return Arrays.binarySearch(keys, 0, size, key);
+    }
+  }
+
   public abstract static class Cell implements Box {
 
     private List<GridVertex> axisVertexes;
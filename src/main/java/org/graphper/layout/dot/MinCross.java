@@ -31,9 +31,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Function;
+import org.graphper.api.GraphAttrs;
 import org.graphper.api.Line;
 import org.graphper.draw.DrawGraph;
 import org.graphper.layout.dot.RootCrossRank.ExpandInfoProvider;
@@ -46,6 +48,7 @@ import org.graphper.def.EdgeDedigraph;
 import org.graphper.def.FlatPoint;
 import org.graphper.util.Asserts;
 import org.graphper.util.CollectionUtils;
+import org.graphper.util.ConcurrentUtils;
 import org.graphper.api.Cluster;
 import org.graphper.api.GraphContainer;
 import org.graphper.api.Graphviz;
@@ -312,6 +315,7 @@ class MinCross {
       return;
     }
 
+    RootCrossRank.indexNodes(digraphProxy);
     rootCrossRank = new RootCrossRank(dotAttachment.getDrawGraph());
     Graphviz graphviz = dotAttachment.getGraphviz();
     clusterExpand = new ClusterExpand(new ClusterMerge());
@@ -415,54 +419,99 @@ class MinCross {
   }
 
   private void mincross(int startPass, int endPass) {
+    GraphAttrs graphAttrs = dotAttachment.getGraphviz().graphAttrs();
+    int starts = graphAttrs.getMcstarts();
+    // Only the first pass of the root graph has different init sorts to start from
+    if (starts <= 1 || startPass > 0) {
+      mincross(rootCrossRank, startPass, endPass, null);
+      rootCrossRank.syncChildOrder();
+      return;
+    }
+
+    multiStartMincross(starts, graphAttrs.getMcseed(), startPass, endPass);
+  }
+
+  /*
+   * Run the specified number of independent mincross on the forks of RootCrossRank, and keep the
+   * order with the fewest crossings. The first start is the same as the single start, the others
+   * perturb the DFS of the init sort by a random derived from the seed. The best start is selected
+   * in the start order and ties keep the earlier start, so the result only depends on the seed and
+   * not on the thread scheduling.
+   */
+  private void multiStartMincross(int starts, long seed, int startPass, int endPass) {
+    RootCrossRank[] crossRanks = new RootCrossRank[starts];
+    for (int i = 0; i < starts; i++) {
+      crossRanks[i] = rootCrossRank.fork();
+    }
+    ConcurrentUtils.stride(dotAttachment.getExecutor(), starts, () -> i -> mincross(
+        crossRanks[i], startPass, endPass, i == 0 ? null : new Random(seed + i)));
+
+    RootCrossRank best = null;
+    int minCrossNum = Integer.MAX_VALUE;
+    for (RootCrossRank crossRank : crossRanks) {
+      int crossNum = crossRank.currentCrossNum();
+      if (crossNum < minCrossNum) {
+        best = crossRank;
+        minCrossNum = crossNum;
+      }
+    }
+
+    rootCrossRank.setSameRankAdjacentRecord(best.getSameRankAdjacentRecord());
+    rootCrossRank.clusterOrder = best.clusterOrder;
+    rootCrossRank.setBasicCrossRank(best.getBasicCrossRank());
+    rootCrossRank.syncChildOrder();
+  }
+
+  private void mincross(RootCrossRank crossRank, int startPass, int endPass, Random random) {
     int maxThisPass;
     int trying;
-    int minCrossNum = rootCrossRank.currentCrossNum();
+    int minCrossNum = crossRank.currentCrossNum();
     int currentNum = minCrossNum;
     BasicCrossRank tmp;
-    BasicCrossRank optimal = rootCrossRank.getBasicCrossRank();
-    int minQuit = dotAttachment.getDrawGraph().getGraphviz().graphAttrs().getMclimit();
+    BasicCrossRank optimal = crossRank.getBasicCrossRank();
+    DrawGraph drawGraph = dotAttachment.getDrawGraph();
+    int minQuit = drawGraph.getGraphviz().graphAttrs().getMclimit();
     int maxIter = 24;
 
     BasicCrossRank c = optimal.clone();
-    new InitSort(c, c.container(), dotAttachment.getDrawGraph(), true);
-    int cn = getCrossNum(c);
+    new InitSort(crossRank, c, c.container(), drawGraph, true, random);
+    int cn = getCrossNum(crossRank, c);
     if (cn <= minCrossNum) {
       optimal = c;
       minCrossNum = currentNum = cn;
-      rootCrossRank.setBasicCrossRank(optimal);
+      crossRank.setBasicCrossRank(optimal);
     }
 
     BasicCrossRank p = optimal.clone();
-    new InitSort(p, p.container(), dotAttachment.getDrawGraph(), false);
-    cn = getCrossNum(p);
+    new InitSort(crossRank, p, p.container(), drawGraph, false, random);
+    cn = getCrossNum(crossRank, p);
     if (cn < minCrossNum) {
       optimal = p;
       minCrossNum = currentNum = cn;
-      rootCrossRank.setBasicCrossRank(optimal);
+      crossRank.setBasicCrossRank(optimal);
     }
 
     for (int pass = startPass; pass <= endPass; pass++) {
       if (pass <= 1) {
         maxThisPass = Math.min(4, maxIter);
 
-        if (pass == 1 && (rootCrossRank.getSameRankAdjacentRecord() != null
+        if (pass == 1 && (crossRank.getSameRankAdjacentRecord() != null
             || optimal.container().haveChildCluster())) {
           BasicCrossRank repl = optimal.clone();
-          new InitSort(repl, repl.container(), dotAttachment.getDrawGraph(), false, false);
+          new InitSort(crossRank, repl, repl.container(), drawGraph, false, false, null);
 
-          tmp = rootCrossRank.getBasicCrossRank();
-          rootCrossRank.setBasicCrossRank(repl);
-          if (minCrossNum >= (currentNum = rootCrossRank.currentCrossNum())) {
+          tmp = crossRank.getBasicCrossRank();
+          crossRank.setBasicCrossRank(repl);
+          if (minCrossNum >= (currentNum = crossRank.currentCrossNum())) {
             optimal = repl;
           } else {
-            rootCrossRank.setBasicCrossRank(tmp);
+            crossRank.setBasicCrossRank(tmp);
           }
         }
 
-        flatOrder(optimal);
-        rootCrossRank.setBasicCrossRank(optimal);
-        minCrossNum = rootCrossRank.currentCrossNum();
+        flatOrder(crossRank, optimal);
+        crossRank.setBasicCrossRank(optimal);
+        minCrossNum = crossRank.currentCrossNum();
       } else {
         maxThisPass = maxIter;
       }
@@ -480,12 +529,12 @@ class MinCross {
           break;
         }
 
-        mincrossStep(i);
+        mincrossStep(crossRank, i);
 
         // If the number of intersections is less than the minimum number of
         // intersections at this time, update the optimal sort.
-        if (minCrossNum > (currentNum = rootCrossRank.currentCrossNum())) {
-          optimal = rootCrossRank.getBasicCrossRank().clone();
+        if (minCrossNum > (currentNum = crossRank.currentCrossNum())) {
+          optimal = crossRank.getBasicCrossRank().clone();
 
           if (currentNum < CONVERGENCE * minCrossNum) {
             trying = 0;
@@ -500,25 +549,24 @@ class MinCross {
       }
     }
 
-    rootCrossRank.setBasicCrossRank(optimal);
-    rootCrossRank.transpose(false);
-    rootCrossRank.syncChildOrder();
+    crossRank.setBasicCrossRank(optimal);
+    crossRank.transpose(false);
   }
 
-  private void mincrossStep(int iterNum) {
-    rootCrossRank.vmedian(iterNum);
-    rootCrossRank.transpose(iterNum % 4 >= 2);
+  private void mincrossStep(RootCrossRank crossRank, int iterNum) {
+    crossRank.vmedian(iterNum);
+    crossRank.transpose(iterNum % 4 >= 2);
   }
 
-  private int getCrossNum(BasicCrossRank basicCrossRank) {
-    BasicCrossRank tmp = rootCrossRank.getBasicCrossRank();
-    rootCrossRank.setBasicCrossRank(basicCrossRank);
-    int n = rootCrossRank.currentCrossNum();
-    rootCrossRank.setBasicCrossRank(tmp);
+  private int getCrossNum(RootCrossRank crossRank, BasicCrossRank basicCrossRank) {
+    BasicCrossRank tmp = crossRank.getBasicCrossRank();
+    crossRank.setBasicCrossRank(basicCrossRank);
+    int n = crossRank.currentCrossNum();
+    crossRank.setBasicCrossRank(tmp);
     return n;
   }
 
-  private void flatOrder(CrossRank crossRank) {
+  private void flatOrder(RootCrossRank rootCrossRank, CrossRank crossRank) {
     SameRankAdjacentRecord sameRankAdjacentRecord = rootCrossRank.getSameRankAdjacentRecord();
 
     int[] no = {0};
@@ -545,7 +593,8 @@ class MinCross {
           clusterOrder.addReorderNode(node);
         }
 
-        postOrder(connectNo++, no, node, mark, clusterOrder, fromCluster, postOrderRecord);
+        postOrder(sameRankAdjacentRecord, connectNo++, no, node, mark, clusterOrder, fromCluster,
+                  postOrderRecord);
       }
     }
 
@@ -571,17 +620,18 @@ class MinCross {
     }
   }
 
-  private int postOrder(int connectNo, int[] no, DNode node, Set<DNode> mark,
-                        ClusterOrder clusterOrder, GraphContainer fromCluster,
+  private int postOrder(SameRankAdjacentRecord sameRankAdjacentRecord, int connectNo, int[] no,
+                        DNode node, Set<DNode> mark, ClusterOrder clusterOrder,
+                        GraphContainer fromCluster,
                         Map<DNode, Map.Entry<Integer, Integer>> orderRecord) {
     mark.add(node);
 
-    if (rootCrossRank.getSameRankAdjacentRecord() == null) {
+    if (sameRankAdjacentRecord == null) {
       orderRecord.put(node, new AbstractMap.SimpleEntry<>(connectNo, no[0]++));
       return connectNo;
     }
 
-    Set<DNode> adjacent = rootCrossRank.getSameRankAdjacentRecord().outAdjacent(node);
+    Set<DNode> adjacent = sameRankAdjacentRecord.outAdjacent(node);
     if (CollectionUtils.isNotEmpty(adjacent)) {
       for (DNode dNode : adjacent) {
         if (mark.contains(dNode)) {
@@ -603,7 +653,8 @@ class MinCross {
           clusterOrder.addReorderNode(dNode);
         }
 
-        connectNo = postOrder(connectNo, no, dNode, mark, clusterOrder, toCluster, orderRecord);
+        connectNo = postOrder(sameRankAdjacentRecord, connectNo, no, dNode, mark, clusterOrder,
+                              toCluster, orderRecord);
       }
     }
 
@@ -766,6 +817,11 @@ class MinCross {
 
     private SameRankAdjacentRecord sameRankAdjacentRecord;
 
+    private final RootCrossRank rootCrossRank;
+
+    // Perturb the order of DFS, null is the same as the default order
+    private final Random random;
+
     private final Map<Integer, Integer> rankAccessIndex;
 
     private final boolean isOutDirection;
@@ -774,13 +830,15 @@ class MinCross {
 
     private final GraphContainer graphContainer;
 
-    InitSort(CrossRank crossRank, GraphContainer graphContainer,
-             DrawGraph drawGraph, boolean isOutDirection) {
-      this(crossRank, graphContainer, drawGraph, true, isOutDirection);
+    InitSort(RootCrossRank rootCrossRank, CrossRank crossRank, GraphContainer graphContainer,
+             DrawGraph drawGraph, boolean isOutDirection, Random random) {
+      this(rootCrossRank, crossRank, graphContainer, drawGraph, true, isOutDirection, random);
     }
 
-    InitSort(CrossRank crossRank, GraphContainer graphContainer, DrawGraph drawGraph,
-             boolean isNormal, boolean isOutDirection) {
+    InitSort(RootCrossRank rootCrossRank, CrossRank crossRank, GraphContainer graphContainer,
+             DrawGraph drawGraph, boolean isNormal, boolean isOutDirection, Random random) {
+      this.rootCrossRank = rootCrossRank;
+      this.random = random;
       this.isOutDirection = isOutDirection;
       this.rankAccessIndex = new HashMap<>();
       this.graphContainer = graphContainer;
@@ -815,18 +873,31 @@ class MinCross {
             if (dedigraph.outHavePort(n)) {
               return sortLines(n, drawGraph, dedigraph.outAdjacent(n));
             }
-            return dedigraph.outAdjacent(n);
+            return perturb(dedigraph.outAdjacent(n));
           }
           if (dedigraph.inHavePort(n)) {
             return sortLines(n, drawGraph, dedigraph.inAdjacent(n));
           }
-          return dedigraph.inAdjacent(n);
+          return perturb(dedigraph.inAdjacent(n));
         } else {
-          return isOutDirection ? digraph.outAdjacent(n) : digraph.inAdjacent(n);
+          return perturb(isOutDirection ? digraph.outAdjacent(n) : digraph.inAdjacent(n));
         }
       };
 
       for (int i = first; i != limit; i += addNum) {
+        if (random != null) {
+          List<DNode> nodes = new ArrayList<>(crossRank.rankSize(i));
+          for (int j = 0; j < crossRank.rankSize(i); j++) {
+            nodes.add(crossRank.getNode(i, j));
+          }
+          for (DNode node : perturb(nodes)) {
+            if (!isMark(node)) {
+              dfs(node, adjacentFunc);
+            }
+          }
+          continue;
+        }
+
         for (int j = 0; j < crossRank.rankSize(i); j++) {
           DNode node = crossRank.getNode(i, j);
           if (isMark(node)) {
@@ -914,6 +985,17 @@ class MinCross {
       }
     }
 
+    private <T> Iterable<T> perturb(Iterable<T> items) {
+      if (random == null) {
+        return items;
+      }
+
+      List<T> list = new ArrayList<>();
+      items.forEach(list::add);
+      Collections.shuffle(list, random);
+      return list;
+    }
+
     private Iterable<DLine> sortLines(DNode node, DrawGraph drawGraph, Iterable<DLine> lines) {
       Set<DLine> sortLines = new TreeSet<>((l, r) -> lineComp(l, r, node, drawGraph));
       lines.forEach(sortLines::add);
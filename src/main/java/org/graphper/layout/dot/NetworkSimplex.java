@@ -105,6 +105,17 @@ class NetworkSimplex {
     return rankContent;
   }
 
+  /**
+   * Returns whether the layout uses this object graph version instead of
+   * {@link CsrNetworkSimplex}, which is chosen by the system property
+   * <tt>dot.network.simplex.v1</tt>.
+   *
+   * @return <tt>true</tt> if use this version
+   */
+  static boolean useV1() {
+    return Boolean.TRUE.toString().equalsIgnoreCase(System.getProperty("dot.network.simplex.v1"));
+  }
+
   /*
    * Network simplex method, calculate the tangent value of the undirected tree, and continuously
    * replace the tree edges until the tangent value of all tree edges is not negative
@@ -17,27 +17,25 @@
 package org.graphper.layout.dot;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.PriorityQueue;
-import java.util.Queue;
-import java.util.TreeMap;
+import java.util.Set;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import org.graphper.api.Line;
 import org.graphper.api.attributes.Port;
 import org.graphper.api.attributes.Splines;
 import org.graphper.api.ext.Box;
-import org.graphper.def.DedirectedGraph;
 import org.graphper.def.FlatPoint;
-import org.graphper.def.VertexIndex;
 import org.graphper.draw.LineDrawProp;
 import org.graphper.layout.FlipShifterStrategy;
-import org.graphper.layout.Mark;
 import org.graphper.layout.OrthoVisGraph.GridVertex;
 import org.graphper.layout.dot.DotMaze.GuideInfo;
 import org.graphper.layout.dot.Maze.Cell;
@@ -45,6 +43,7 @@ import org.graphper.layout.dot.PortHelper.PortPoint;
 import org.graphper.layout.dot.RankContent.RankNode;
 import org.graphper.util.Asserts;
 import org.graphper.util.CollectionUtils;
+import org.graphper.util.ConcurrentUtils;
 import org.graphper.util.ValueUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -85,9 +84,22 @@ class OrthogonalRouter extends AbstractDotLineRouter {
       {LEFT, DOWN, LEFT, DOWN}, {DOWN, DOWN, DOWN, DOWN}, {DOWN, RIGHT, RIGHT, DOWN},
   };
 
-  private DotMaze maze;
+  /*
+   * The factor of the history cost added to an overused grid in every round of negotiation
+   */
+  private static final double HISTORY_FACTOR = 0.05;
 
-  private PathContent pathContent;
+  /*
+   * The factor of the present cost of the first round of negotiation
+   */
+  private static final double PRESENT_FACTOR = 0.1;
+
+  /*
+   * The growth of the factor of the present cost in every round of negotiation
+   */
+  private static final double PRESENT_GROWTH = 1.5;
+
+  private DotMaze maze;
 
   @Override
   public boolean needDeal(Splines splines) {
@@ -96,7 +108,6 @@ class OrthogonalRouter extends AbstractDotLineRouter {
 
   @Override
   public void route() {
-    this.pathContent = new PathContent();
     this.maze = new DotMaze(rankContent, drawGraph);
     generateEdge();
   }
@@ -114,7 +125,8 @@ class OrthogonalRouter extends AbstractDotLineRouter {
   }
 
   private void generateEdge() {
-    EdgeSegRecord edgeSegRecord = new EdgeSegRecord();
+    List<EdgeRoute> edgeRoutes = new ArrayList<>();
+    Set<Line> lines = new HashSet<>();
     for (int i = rankContent.minRank(); i <= rankContent.maxRank(); i++) {
       RankNode rankNode = rankContent.get(i);
 
@@ -130,7 +142,10 @@ class OrthogonalRouter extends AbstractDotLineRouter {
           }
 
           for (int j = 0; j < line.getParallelNums(); j++) {
-            ovgRouter(edgeSegRecord, line.parallelLine(j));
+            EdgeRoute edgeRoute = newEdgeRoute(line.parallelLine(j), lines);
+            if (edgeRoute != null) {
+              edgeRoutes.add(edgeRoute);
+            }
           }
         }
 
@@ -139,6 +154,22 @@ class OrthogonalRouter extends AbstractDotLineRouter {
       }
     }
 
+    int rounds = drawGraph.getGraphviz().graphAttrs().getOrthoRounds();
+    if (rounds <= 0) {
+      PathContent pathContent = new PathContent(maze.vertexIndexNum());
+      for (EdgeRoute edgeRoute : edgeRoutes) {
+        ovgRouter(pathContent, edgeRoute, null);
+      }
+    } else {
+      negotiate(edgeRoutes, rounds);
+    }
+
+    // The paths are added to record in the edge order, not depend on the routing order
+    EdgeSegRecord edgeSegRecord = new EdgeSegRecord();
+    for (EdgeRoute edgeRoute : edgeRoutes) {
+      addEdgeRecord(edgeSegRecord, edgeRoute);
+    }
+
     // Split the edge segment which have common area
     splitOverlapSegment(edgeSegRecord);
 
@@ -146,41 +177,33 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     edgeSegToLine(edgeSegRecord);
   }
 
-  private void ovgRouter(EdgeSegRecord edgeSegRecord, DLine line) {
+  private EdgeRoute newEdgeRoute(DLine line, Set<Line> lines) {
     if (line.isHide()) {
-      return;
+      return null;
     }
     LineDrawProp lineDrawProp = drawGraph.getLineDrawProp(line.getLine());
-    if (lineDrawProp == null || lineDrawProp.isInit()) {
-      return;
+    // The line may be reached again by the parallel lines of another DLine
+    if (lineDrawProp == null || lineDrawProp.isInit() || !lines.add(line.getLine())) {
+      return null;
     }
 
     List<GuideInfo> guideInfos = maze.getGuideInfos(line.getLine());
-    if (CollectionUtils.isEmpty(guideInfos)) {
-      ovgRouter(edgeSegRecord, lineDrawProp, Target::new);
-      return;
-    }
-
-    ovgRouter(edgeSegRecord, lineDrawProp, end -> new Target(end, guideInfos));
+    if (CollectionUtils.isNotEmpty(guideInfos)) {
+      // Set label position
+      for (GuideInfo guideInfo : guideInfos) {
+        if (!guideInfo.isLabelSign()) {
+          continue;
+        }
 
-    // Set label position
-    for (int i = 0; i < guideInfos.size(); i++) {
-      GuideInfo guideInfo = guideInfos.get(i);
-      if (!guideInfo.isLabelSign()) {
-        continue;
+        Box signPos = guideInfo.getSignPos();
+        lineDrawProp.setLabelCenter(new FlatPoint(signPos.getX(), signPos.getY()));
       }
-
-      Box signPos = guideInfo.getSignPos();
-      lineDrawProp.setLabelCenter(new FlatPoint(signPos.getX(), signPos.getY()));
     }
-  }
 
-  private void ovgRouter(EdgeSegRecord edgeSegRecord, LineDrawProp lineDrawProp,
-                         TargetConstructor targetConstructor) {
     DNode tail = dotDigraph.getDNode(lineDrawProp.getLine().tail());
     DNode head = dotDigraph.getDNode(lineDrawProp.getLine().head());
     if (tail == null || head == null) {
-      return;
+      return null;
     }
 
     DNode from = tail.getRank() < head.getRank() ? tail : head;
@@ -192,106 +215,97 @@ class OrthogonalRouter extends AbstractDotLineRouter {
       if (log.isWarnEnabled()) {
         log.warn("From Cell = {} or To Cell = {} is null", fromCell, toCell);
       }
-      return;
+      return null;
     }
 
-    Target target = targetConstructor.newTarget(toCell);
-    Asserts.nullArgument(target, "target");
+    Target target = CollectionUtils.isEmpty(guideInfos)
+        ? new Target(toCell) : new Target(toCell, guideInfos);
     PortPoint fromPoint = PortHelper.getPortPoint(lineDrawProp.getLine(), from, drawGraph);
     PortPoint toPoint = PortHelper.getPortPoint(lineDrawProp.getLine(), to, drawGraph);
-    EdgeDraw edgeDraw = ovgRouter(fromCell, target, fromPoint, toPoint, edgeSegRecord);
+    return new EdgeRoute(lineDrawProp, from, to, fromCell, target, fromPoint, toPoint);
+  }
+
+  /*
+   * Route the edges in parallel, the search of an edge only reads the maze, so the edges of a
+   * round are routed at the same time. After a round, the grids passed by more than one edge are
+   * overused, the edges passing the overused grids are routed again in the next round, with the
+   * history cost of grids accumulated in all rounds and the present cost of the occupancy of the
+   * last round, in the way of PathFinder. The costs only extend the length of route, so a
+   * negotiated route never has more bends. Every round only depends on the previous one, so the
+   * result not depends on the thread scheduling.
+   */
+  private void negotiate(List<EdgeRoute> edgeRoutes, int rounds) {
+    Congestion congestion = null;
+    List<EdgeRoute> routes = edgeRoutes;
+    for (int round = 0; ; round++) {
+      parallelRouter(routes, congestion);
+      if (round == rounds - 1) {
+        return;
+      }
+
+      if (congestion == null) {
+        congestion = new Congestion(maze.vertexIndexNum());
+      }
+      routes = congestion.negotiate(edgeRoutes);
+      if (routes.isEmpty()) {
+        return;
+      }
+    }
+  }
+
+  private void parallelRouter(List<EdgeRoute> edgeRoutes, Congestion congestion) {
+    // Every task has its own search state
+    ConcurrentUtils.stride(executor, edgeRoutes.size(), () -> {
+      PathContent pathContent = new PathContent(maze.vertexIndexNum());
+      return i -> ovgRouter(pathContent, edgeRoutes.get(i), congestion);
+    });
+  }
+
+  private void ovgRouter(PathContent pathContent, EdgeRoute edgeRoute, Congestion congestion) {
+    pathContent.begin(edgeRoute.target, congestion, edgeRoute.path);
+    edgeRoute.path = ovgRouter(pathContent, edgeRoute.fromCell, edgeRoute.target,
+                               edgeRoute.fromPoint, edgeRoute.toPoint);
     pathContent.clear();
+  }
 
-    if (edgeDraw == null) {
+  private void addEdgeRecord(EdgeSegRecord edgeSegRecord, EdgeRoute edgeRoute) {
+    if (edgeRoute.path == null) {
       return;
     }
+
+    EdgeDraw edgeDraw = terminateRouter(edgeSegRecord, edgeRoute.fromCell, edgeRoute.target.end,
+                                        edgeRoute.fromPoint, edgeRoute.toPoint, edgeRoute.path);
+    LineDrawProp lineDrawProp = edgeRoute.lineDrawProp;
     lineDrawProp.fakeInit();
-    edgeDraw.from = from;
-    edgeDraw.to = to;
+    edgeDraw.from = edgeRoute.from;
+    edgeDraw.to = edgeRoute.to;
     edgeSegRecord.addLineEdgeSeg(lineDrawProp.getLine(), edgeDraw);
   }
 
   private void splitOverlapSegment(EdgeSegRecord edgeSegRecord) {
-    ChannelSegRank channelSegRank = new ChannelSegRank();
-    DedirectedGraph<EdgeSeg> digraph = new DedirectedGraph<>();
-
+    ChannelSweep channelSweep = null;
     for (Channel channel : edgeSegRecord.channels()) {
       if (channel.segmentSize() <= 1) {
         continue;
       }
 
-      /*
-       * 1. group segments of channel
-       * 2. use top sort in per group
-       */
-      initDigraph(channel, digraph);
-      splitEdgeSegs(digraph, channelSegRank, channel);
-
-      digraph.clear();
-    }
-  }
-
-  private void splitEdgeSegs(DedirectedGraph<EdgeSeg> digraph,
-                             ChannelSegRank channelSegRank, Channel channel) {
-    Iterable<TreeMap<Integer, List<EdgeSeg>>> groups = channelSegRank.group(digraph);
-
-    // Visit each group, each group is a connected subgraph
-    for (Map<Integer, List<EdgeSeg>> group : groups) {
-      int idx = 0;
-      // All nodes in the same rank use the same offset
-      double moveUnit = channel.range() / (group.size() + 1);
-
-      // Access all nodes in the subgraph, and the nodes are sorted according to the rank
-      for (Entry<Integer, List<EdgeSeg>> rank : group.entrySet()) {
-        if (CollectionUtils.isEmpty(rank.getValue())) {
-          idx++;
-          continue;
-        }
-
-        idx++;
-        for (EdgeSeg edgeSeg : rank.getValue()) {
-          if (edgeSeg.canNotMove) {
-            continue;
-          }
-
-          double offset = moveUnit * idx - edgeSeg.axis + channel.min;
-          edgeSeg.moveAxis(offset);
-        }
-      }
-
-    }
-  }
-
-  private void initDigraph(Channel channel, DedirectedGraph<EdgeSeg> digraph) {
-    channel.sortEdgeSegs();
-
-    for (int i = 0; i < channel.segmentSize(); i++) {
-      EdgeSeg edgeSeg = channel.get(i);
-
-      for (int j = i + 1; j < channel.segmentSize(); j++) {
-        EdgeSeg overlapSeg = channel.get(j);
-        if (overlapSeg.isHor != edgeSeg.isHor || !edgeSeg.overlap(overlapSeg)) {
-          break;
-        }
-
-        if (overlapCmp(edgeSeg, overlapSeg) < 0) {
-          digraph.addEdge(edgeSeg, overlapSeg);
-        } else {
-          digraph.addEdge(overlapSeg, edgeSeg);
-        }
+      if (channelSweep == null) {
+        channelSweep = new ChannelSweep();
       }
+      channelSweep.split(channel);
     }
   }
 
-  private int overlapCmp(EdgeSeg source, EdgeSeg target) {
-    if (source.isHor != target.isHor || !source.overlap(target)) {
+  private static int overlapCmp(EdgeSeg source, EdgeSeg target) {
+    if (source.isHor != target.isHor
+        || (!source.overlap(target) && !target.overlap(source))) {
       return 0;
     }
 
     return crossNum(source, target, true) < crossNum(source, target, false) ? -1 : 1;
   }
 
-  private int crossNum(EdgeSeg source, EdgeSeg target, boolean origin) {
+  private static int crossNum(EdgeSeg source, EdgeSeg target, boolean origin) {
     EdgeSeg sourceStartPre = source.startPre();
     EdgeSeg sourceEndNext = source.endNext();
     EdgeSeg targetStartPre = target.startPre();
@@ -314,7 +328,7 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     return crossNum;
   }
 
-  private boolean isCross(EdgeSeg seg1, EdgeSeg seg2, boolean isAdd) {
+  private static boolean isCross(EdgeSeg seg1, EdgeSeg seg2, boolean isAdd) {
     if (seg1 == null || seg2 == null) {
       return false;
     }
@@ -364,14 +378,14 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     }
   }
 
-  private EdgeDraw ovgRouter(Cell from, Target target, PortPoint fromCenter,
-                             PortPoint toCenter, EdgeSegRecord edgeSegRecord) {
+  private Path ovgRouter(PathContent pathContent, Cell from, Target target,
+                         PortPoint fromCenter, PortPoint toCenter) {
     /*
      * 1.Put all start node to priority queen
      * 2.Take a node from priority queen
      * 3.The compare condition composed with: bends number,direction
      */
-    addStartVertexesToQueue(from, target, fromCenter);
+    addStartVertexesToQueue(pathContent, from, fromCenter);
 
     /*
      * path: s -> t, n is on the optimal path
@@ -381,26 +395,21 @@ class OrthogonalRouter extends AbstractDotLineRouter {
      *
      * Must have an estimate ^h(n) of h(n).
      */
+    Integer endHorDir = horDir(toCenter, target.end);
+    Integer endVerDir = verDir(toCenter, target.end);
     while (pathContent.isNotEmpty()) {
-      VertexDir vertexDir = pathContent.poll();
-      if (vertexDir == null) {
-        continue;
-      }
+      int state = pathContent.poll();
 
       // If arrive at destination, terminate the router process
-      if (arriveAtDestination(target, vertexDir, toCenter)) {
-        return terminateRouter(edgeSegRecord, from, target.end, fromCenter, toCenter, vertexDir);
+      if (arriveAtDestination(pathContent, target, state, toCenter, endHorDir, endVerDir)) {
+        return pathContent.path(state);
       }
 
-      GridVertex right = vertexDir.vertex.getRight();
-      GridVertex top = vertexDir.vertex.getTop();
-      GridVertex left = vertexDir.vertex.getLeft();
-      GridVertex bottom = vertexDir.vertex.getBottom();
-
-      successor(LEFT, left, vertexDir);
-      successor(RIGHT, right, vertexDir);
-      successor(UP, top, vertexDir);
-      successor(DOWN, bottom, vertexDir);
+      GridVertex vertex = pathContent.vertex(state);
+      successor(pathContent, LEFT, vertex.getLeft(), state);
+      successor(pathContent, RIGHT, vertex.getRight(), state);
+      successor(pathContent, UP, vertex.getTop(), state);
+      successor(pathContent, DOWN, vertex.getBottom(), state);
     }
 
     if (log.isWarnEnabled()) {
@@ -409,7 +418,7 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     return null;
   }
 
-  private void addStartVertexesToQueue(Cell from, Target target, PortPoint fromPoint) {
+  private void addStartVertexesToQueue(PathContent pathContent, Cell from, PortPoint fromPoint) {
     Integer horDir = horDir(fromPoint, from);
     Integer verDir = verDir(fromPoint, from);
     for (GridVertex vertex : from.getAxisVertexes()) {
@@ -417,7 +426,7 @@ class OrthogonalRouter extends AbstractDotLineRouter {
         continue;
       }
 
-      addStartVertexesToQueue(horDir, verDir, from, target, vertex);
+      addStartVertexesToQueue(pathContent, horDir, verDir, from, vertex);
     }
   }
 
@@ -425,74 +434,75 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     return horDir != null || verDir != null;
   }
 
-  private void addStartVertexesToQueue(Integer horDir, Integer verDir, Cell from,
-                                       Target target, GridVertex vertex) {
+  private void addStartVertexesToQueue(PathContent pathContent, Integer horDir, Integer verDir,
+                                       Cell from, GridVertex vertex) {
     int dir = getCellInternalNodeDir(vertex);
     if (notNodeCenter(horDir, verDir) && isNotExpectDir(horDir, dir)
         && isNotExpectDir(verDir, dir)) {
       return;
     }
 
-    VertexDir v = new VertexDir(dir, null, vertex, target);
-    v.centering = FlatPoint.twoPointDistance(vertex.getX(), vertex.getY(), from.getX(),
-                                             from.getY());
-    pathContent.offer(v);
+    int state = pathContent.state(vertex, dir);
+    pathContent.visit(state, vertex, -1);
+    pathContent.centering[state] = FlatPoint.twoPointDistance(vertex.getX(), vertex.getY(),
+                                                              from.getX(), from.getY());
+    pathContent.offer(state);
   }
 
-  private boolean arriveAtDestination(Target target, VertexDir vertexDir, PortPoint endPoint) {
-    Integer horDir = horDir(endPoint, target.end);
-    Integer verDir = verDir(endPoint, target.end);
-
-    if (notNodeCenter(horDir, verDir) && isNotContrary(horDir, vertexDir.dir)
-        && isNotContrary(verDir, vertexDir.dir)) {
+  private boolean arriveAtDestination(PathContent pathContent, Target target, int state,
+                                      PortPoint endPoint, Integer horDir, Integer verDir) {
+    int dir = PathContent.dir(state);
+    if (notNodeCenter(horDir, verDir) && isNotContrary(horDir, dir)
+        && isNotContrary(verDir, dir)) {
       return false;
     }
-    GridVertex vertex = vertexDir.vertex;
+    GridVertex vertex = pathContent.vertex(state);
     return target.end.in(vertex.getX(), vertex.getY()) && vertex.isNodeInternal()
         && vertex.in(endPoint.getX(), endPoint.getY());
   }
 
   private EdgeDraw terminateRouter(EdgeSegRecord edgeSegRecord, Cell from, Cell to,
-                                   PortPoint fromCenter, PortPoint toCenter, VertexDir end) {
-    VertexDir current = end;
+                                   PortPoint fromCenter, PortPoint toCenter, Path path) {
     // The edge segment connect node "to" center and node border point
     EdgeSeg edgeSeg = null;
     EdgeSeg lastSeg = null;
     GridVertex breakOffVertex = null;
 
-    do {
+    for (int i = 0; i < path.size(); i++) {
+      GridVertex vertex = path.vertexes[i];
+      int dir = path.dirs[i];
+
       // Refresh edge segment endpoint
       if (edgeSeg != null) {
-        edgeSeg.addVertex(current);
+        edgeSeg.addVertex(vertex);
       }
 
-      if (!current.vertex.isNodeInternal()) {
+      if (!vertex.isNodeInternal()) {
         if (breakOffVertex == null) {
-          breakOffVertex = current.vertex;
+          breakOffVertex = vertex;
         } else {
-          if (current.isHor()) {
-            if (breakOffVertex.getWidth() < current.vertex.getWidth()) {
-              breakOffVertex = current.vertex;
+          if (isHor(dir)) {
+            if (breakOffVertex.getWidth() < vertex.getWidth()) {
+              breakOffVertex = vertex;
             }
           } else {
-            if (breakOffVertex.getHeight() < current.vertex.getHeight()) {
-              breakOffVertex = current.vertex;
+            if (breakOffVertex.getHeight() < vertex.getHeight()) {
+              breakOffVertex = vertex;
             }
           }
         }
       }
 
       // If vertex dir is orthogonal with current segment, generate a new segment
-      if (edgeSeg != null && !current.isOrthogonal(edgeSeg.isHor)) {
-        current = current.parent;
+      if (edgeSeg != null && isHor(dir) == edgeSeg.isHor) {
         continue;
       }
 
       // Create a new edge segment
       EdgeSeg newEdgeSeg = new EdgeSeg(
-          current.isHor() ? current.vertex.getY() : current.vertex.getX(),
-          edgeSeg != null ? !edgeSeg.isHor : current.isHor(),
-          current.dir == RIGHT || current.dir == DOWN
+          isHor(dir) ? vertex.getY() : vertex.getX(),
+          edgeSeg != null ? !edgeSeg.isHor : isHor(dir),
+          dir == RIGHT || dir == DOWN
       );
       if (lastSeg == null) {
         lastSeg = newEdgeSeg;
@@ -504,17 +514,17 @@ class OrthogonalRouter extends AbstractDotLineRouter {
       }
       newEdgeSeg.next = edgeSeg;
       edgeSeg = newEdgeSeg;
-      edgeSeg.addVertex(current);
+      edgeSeg.addVertex(vertex);
 
       // Add pre segment to edgeSegRecord
-      setEdgeRecord(edgeSegRecord, current.vertex, edgeSeg);
-      current = current.parent;
-    } while (current != null);
+      setEdgeRecord(edgeSegRecord, vertex, edgeSeg);
+    }
 
     adjustPortSeg(fromCenter, edgeSeg, from);
     if (edgeSeg == lastSeg && toCenter.getPort() != null && breakOffVertex != null) {
-      EdgeDraw edgeDraw = splitWhenTailHeadAxisDiff(edgeSegRecord, to, toCenter, end,
-                                                    edgeSeg, breakOffVertex);
+      EdgeDraw edgeDraw = splitWhenTailHeadAxisDiff(edgeSegRecord, to, toCenter,
+                                                    path.vertexes[0], edgeSeg,
+                                                    breakOffVertex);
       if (edgeDraw != null) {
         return edgeDraw;
       }
@@ -526,7 +536,7 @@ class OrthogonalRouter extends AbstractDotLineRouter {
   }
 
   private EdgeDraw splitWhenTailHeadAxisDiff(EdgeSegRecord edgeSegRecord, Cell to,
-                                             PortPoint toCenter, VertexDir end,
+                                             PortPoint toCenter, GridVertex end,
                                              EdgeSeg edgeSeg, GridVertex breakOffVertex) {
     EdgeSeg lastSeg;
     double breakAxis = edgeSeg.isHor ? breakOffVertex.getX() : breakOffVertex.getY();
@@ -565,7 +575,7 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     second.next = lastSeg;
 
     setEdgeRecord(edgeSegRecord, breakOffVertex, second);
-    setEdgeRecord(edgeSegRecord, end.vertex, lastSeg);
+    setEdgeRecord(edgeSegRecord, end, lastSeg);
     return null;
   }
 
@@ -616,28 +626,27 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     edgeSegRecord.addSeg(min, max, edgeSeg);
   }
 
-  private void successor(int dir, GridVertex vertex, VertexDir parentDir) {
-    if (vertex == null || isContrary(dir, parentDir.dir)) {
+  private void successor(PathContent pathContent, int dir, GridVertex vertex, int parent) {
+    if (vertex == null || isContrary(dir, PathContent.dir(parent))) {
       return;
     }
 
-    AdjPair adjPair = pathContent.getOrNullCreateAdjPair(vertex);
-    VertexDir vertexDir = adjPair.get(dir);
+    int state = pathContent.state(vertex, dir);
 
     // Vertex direction pair not exist
-    if (vertexDir == null) {
-      vertexDir = new VertexDir(dir, parentDir, vertex, parentDir.target);
-      pathContent.offer(vertexDir);
+    if (!pathContent.visited(state)) {
+      pathContent.visit(state, vertex, parent);
+      pathContent.offer(state);
       return;
     }
 
-    if (vertexDir.compareCost(parentDir) <= 0) {
+    if (pathContent.compareCost(state, parent) <= 0) {
       return;
     }
 
-    vertexDir.setParent(parentDir);
-    // Entrance priority queue again
-    pathContent.offer(vertexDir);
+    pathContent.setParent(state, parent);
+    // Move in the heap, or enter the heap again if it has been polled
+    pathContent.offer(state);
   }
 
   private boolean isNotContrary(Integer srcDir, int dir) {
@@ -711,6 +720,14 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     throw new IllegalArgumentException("Vertex is not correct internal cell node");
   }
 
+  private static boolean isHor(int dir) {
+    return dir == LEFT || dir == RIGHT;
+  }
+
+  private static boolean isOrthogonal(int dir, int compareDir) {
+    return isHor(dir) != isHor(compareDir);
+  }
+
   private static boolean isContrary(int src, int tar) {
     switch (src) {
       case LEFT:
@@ -727,11 +744,6 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     return false;
   }
 
-  private interface TargetConstructor {
-
-    Target newTarget(Cell end);
-  }
-
   private static class Target {
 
     private final Cell end;
@@ -761,46 +773,33 @@ class OrthogonalRouter extends AbstractDotLineRouter {
       return CollectionUtils.isEmpty(lineSigns) ? 0 : lineSigns.size();
     }
 
-    int estimateBendNumToEnd(VertexDir vertexDir) {
-      if (vertexDir == null) {
-        return 0;
-      }
-
+    int estimateBendNumToEnd(GridVertex vertex, int signIdx, int dir) {
       int bendNum = Integer.MAX_VALUE;
-      bendNum = Math.min(estimateBendNumToEnd(vertexDir, LEFT), bendNum);
-      bendNum = Math.min(estimateBendNumToEnd(vertexDir, RIGHT), bendNum);
-      bendNum = Math.min(estimateBendNumToEnd(vertexDir, UP), bendNum);
-      bendNum = Math.min(estimateBendNumToEnd(vertexDir, DOWN), bendNum);
+      bendNum = Math.min(estimateBendNumToEnd(vertex, signIdx, dir, LEFT), bendNum);
+      bendNum = Math.min(estimateBendNumToEnd(vertex, signIdx, dir, RIGHT), bendNum);
+      bendNum = Math.min(estimateBendNumToEnd(vertex, signIdx, dir, UP), bendNum);
+      bendNum = Math.min(estimateBendNumToEnd(vertex, signIdx, dir, DOWN), bendNum);
       return bendNum;
     }
 
-    double estimateLenToEnd(VertexDir vertexDir) {
-      if (vertexDir == null) {
-        return 0;
-      }
-
+    double estimateLenToEnd(GridVertex vertex, int signIdx) {
       // The distance that current vertex to closest sign add the distance that closest sign to end
-      return signToEndLens(vertexDir.signIdx) + estimateLenToNextSign(vertexDir);
+      return signToEndLens(signIdx) + estimateLenToNextSign(vertex, signIdx);
     }
 
-    double estimateLenToNextSign(VertexDir vertexDir) {
-      Asserts.nullArgument(vertexDir, "vertexDir");
-      assertIdx(vertexDir.signIdx);
-      return lenBetweenTwoSign(vertexDir.vertex, getBox(vertexDir.signIdx));
+    double estimateLenToNextSign(GridVertex vertex, int signIdx) {
+      Asserts.nullArgument(vertex, "vertex");
+      assertIdx(signIdx);
+      return lenBetweenTwoSign(vertex, getBox(signIdx));
     }
 
-    void markSignIndex(VertexDir vertexDir) {
-      if (vertexDir == null || lineSigns == null) {
-        return;
-      }
-      if (vertexDir.signIdx < 0 || vertexDir.signIdx >= signSize()) {
-        return;
+    int markSignIndex(GridVertex vertex, int signIdx) {
+      if (lineSigns == null || signIdx < 0 || signIdx >= signSize()) {
+        return signIdx;
       }
 
-      GuideInfo guideInfo = lineSigns.get(vertexDir.signIdx);
-      if (guideInfo.getGuideVertex() == vertexDir.vertex) {
-        vertexDir.signIdx++;
-      }
+      GuideInfo guideInfo = lineSigns.get(signIdx);
+      return guideInfo.getGuideVertex() == vertex ? signIdx + 1 : signIdx;
     }
 
     // ~~~~~~~~~~~~~~~~~~~~~~~~~ internal method ~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -843,16 +842,15 @@ class OrthogonalRouter extends AbstractDotLineRouter {
       }
     }
 
-    private int estimateBendNumToEnd(VertexDir vertexDir, int dir) {
-      Box box = getBox(vertexDir.signIdx);
+    private int estimateBendNumToEnd(GridVertex vertex, int signIdx, int vertexDir, int dir) {
+      Box box = getBox(signIdx);
       // The bend number that vertex to next sign
-      int bendNum = bendNumBetweenTwoSign(vertexDir.vertex, box, dir);
+      int bendNum = bendNumBetweenTwoSign(vertex, box, dir);
       // The bend number that next sign to end
-      bendNum += signToEndBendNum(vertexDir.signIdx,
-                                  bendTargetOppositeSide(vertexDir.vertex, box, dir));
-      if (vertexDir.isOrthogonal(dir)) {
+      bendNum += signToEndBendNum(signIdx, bendTargetOppositeSide(vertex, box, dir));
+      if (isOrthogonal(vertexDir, dir)) {
         bendNum++;
-      } else if (isContrary(dir, vertexDir.dir)) {
+      } else if (isContrary(dir, vertexDir)) {
         bendNum += 3;
       }
       return bendNum;
@@ -968,243 +966,457 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     }
   }
 
-  private static class VertexDir implements Comparable<VertexDir> {
+  /*
+   * The search state of the route of an edge. A vertex is reached in four directions, the state
+   * of every direction of every vertex is kept in the arrays by the index "vertex index * 4 +
+   * direction", and the open states are kept in an indexed binary heap, so the key of a state in
+   * heap is updated in place when a better parent is found, and a polled state enters the heap
+   * again. The states of equal key are polled in the order they entered the heap. The arrays are
+   * shared by the routes of all edges, a state only belongs to the current route when its stamp
+   * is the current generation, so the state of a route is discarded by increasing the generation.
+   */
+  private static class PathContent {
+
+    private int generation = 1;
+
+    private int[] stamp;
+
+    private int[] parent;
+
+    private int[] signIdx;
+
+    /*
+     * The number of bends that has passed
+     */
+    private int[] costBendNum;
 
-    private boolean inQueue;
+    private int[] estimateRemainBendNum;
 
-    private int signIdx;
+    private double[] costLen;
+
+    private double[] estimateRemainLen;
 
     /*
-     * The current direction of the current route
+     * The distance between the start vertex and the center of the start cell, NaN if unknown
      */
-    private final int dir;
+    private double[] centering;
 
     /*
-     * The number of bends that has passed
+     * The index of state in heap, -1 if it is not in heap
      */
-    private int costBendNum;
+    private int[] heapIdx;
 
-    private int estimateRemainBendNum;
+    /*
+     * The sequence of state when it entered the heap, breaks the ties of key
+     */
+    private int[] seq;
 
-    private double costLen;
+    private int nextSeq;
 
-    private double estimateRemainLen;
+    private GridVertex[] vertexes;
 
-    private VertexDir parent;
+    private int[] heap;
 
-    private Double centering;
+    private int size;
 
-    private final GridVertex vertex;
+    private Target target;
 
-    private final Target target;
+    private Congestion congestion;
 
-    private VertexDir(int dir, VertexDir parent, GridVertex vertex, Target target) {
-      Asserts.nullArgument(vertex, "vertex");
-      Asserts.nullArgument(target, "target");
-      Asserts.illegalArgument(dir < LEFT || dir > DOWN, "Wrong direction value");
-      this.dir = dir;
-      this.vertex = vertex;
-      this.target = target;
-      setParent(parent);
+    /*
+     * The grids of the last path of the current edge are marked by the current generation, the
+     * occupancy of these grids excludes the current edge
+     */
+    private int[] own;
+
+    private PathContent(int vertexNum) {
+      int capacity = Math.max(vertexNum, 16) << 2;
+      stamp = new int[capacity];
+      parent = new int[capacity];
+      signIdx = new int[capacity];
+      costBendNum = new int[capacity];
+      estimateRemainBendNum = new int[capacity];
+      costLen = new double[capacity];
+      estimateRemainLen = new double[capacity];
+      centering = new double[capacity];
+      heapIdx = new int[capacity];
+      seq = new int[capacity];
+      vertexes = new GridVertex[capacity >> 2];
+      heap = new int[capacity];
     }
 
-    private void setParent(VertexDir p) {
-      if (p != null) {
-        this.centering = p.centering;
-        this.signIdx = p.signIdx;
-        target.markSignIndex(this);
-      }
+    private static int dir(int state) {
+      return state & 3;
+    }
 
-      this.parent = p;
-      this.costBendNum = parentBendNum(p);
-      this.estimateRemainBendNum = target.estimateBendNumToEnd(this);
-      this.costLen = parentLen(p) + lengthToParent(parent);
-      this.estimateRemainLen = target.estimateLenToEnd(this);
+    /*
+     * The grid of a state, it is the vertex in horizontal or vertical direction
+     */
+    private static int grid(int state) {
+      return state >> 1;
     }
 
-    private int parentBendNum(VertexDir p) {
-      if (p == null) {
-        return 0;
+    private void begin(Target target, Congestion congestion, Path last) {
+      Asserts.nullArgument(target, "target");
+      this.target = target;
+      this.congestion = congestion;
+      if (congestion == null || last == null) {
+        return;
+      }
+
+      if (own == null || own.length < stamp.length >> 1) {
+        own = new int[stamp.length >> 1];
+      }
+      for (int i = 0; i < last.size(); i++) {
+        int state = state(last.vertexes[i], last.dirs[i]);
+        if (grid(state) >= own.length) {
+          own = Arrays.copyOf(own, stamp.length >> 1);
+        }
+        own[grid(state)] = generation;
       }
-      return p.costBendNum + (dir == p.dir ? 0 : 1);
     }
 
-    private double parentLen(VertexDir p) {
-      if (p == null) {
-        return 0;
+    private int state(GridVertex vertex, int dir) {
+      Asserts.illegalArgument(vertex.getIndex() < 0, "Vertex is not in the ovg");
+      int state = (vertex.getIndex() << 2) | dir;
+      if (state >= stamp.length) {
+        grow(state + 1);
       }
-      return p.costLen;
+      return state;
     }
 
-    private boolean isHor() {
-      return dir == LEFT || dir == RIGHT;
+    private GridVertex vertex(int state) {
+      return vertexes[state >> 2];
     }
 
-    private boolean isOrthogonal(boolean isHor) {
-      return isOrthogonal(isHor ? LEFT : UP);
+    private boolean visited(int state) {
+      return stamp[state] == generation;
     }
 
-    private boolean isOrthogonal(int compareDir) {
-      if (dir == LEFT || dir == RIGHT) {
-        return compareDir == UP || compareDir == DOWN;
-      }
-      if (dir == UP || dir == DOWN) {
-        return compareDir == LEFT || compareDir == RIGHT;
+    private void visit(int state, GridVertex vertex, int p) {
+      stamp[state] = generation;
+      vertexes[state >> 2] = vertex;
+      heapIdx[state] = -1;
+      signIdx[state] = 0;
+      centering[state] = Double.NaN;
+      setParent(state, p);
+    }
+
+    private void setParent(int state, int p) {
+      GridVertex vertex = vertex(state);
+      if (p >= 0) {
+        centering[state] = centering[p];
+        signIdx[state] = target.markSignIndex(vertex, signIdx[p]);
       }
-      return false;
+
+      parent[state] = p;
+      costBendNum[state] = parentBendNum(state, p);
+      estimateRemainBendNum[state] = target.estimateBendNumToEnd(vertex, signIdx[state],
+                                                                 dir(state));
+      costLen[state] = parentLen(state, p);
+      estimateRemainLen[state] = target.estimateLenToEnd(vertex, signIdx[state]);
     }
 
-    private double lengthToParent(VertexDir p) {
-      if (p == null) {
+    private int parentBendNum(int state, int p) {
+      if (p < 0) {
         return 0;
       }
-      return FlatPoint.twoPointDistance(p.vertex.getX(), p.vertex.getY(),
-                                        vertex.getX(), vertex.getY());
+      return costBendNum[p] + (dir(state) == dir(p) ? 0 : 1);
     }
 
-    private int compareCentering(VertexDir dir) {
-      if (dir == null || Objects.equals(dir.centering, centering)
-          || dir.centering == null || centering == null) {
+    private double parentLen(int state, int p) {
+      if (p < 0) {
         return 0;
       }
-
-      return Double.compare(centering, dir.centering);
+      GridVertex pv = vertex(p);
+      GridVertex vertex = vertex(state);
+      double len = FlatPoint.twoPointDistance(pv.getX(), pv.getY(), vertex.getX(), vertex.getY());
+      if (congestion != null && !vertex.isNodeInternal()) {
+        int grid = grid(state);
+        boolean isOwn = own != null && grid < own.length && own[grid] == generation;
+        len *= congestion.cost(grid, isOwn);
+      }
+      return costLen[p] + len;
     }
 
-    private int compareCost(VertexDir compareParent) {
-      if (compareParent == null) {
-        return 1;
-      }
-      if (compareParent == parent) {
+    private int compareCost(int state, int p) {
+      if (p == parent[state]) {
         return 0;
       }
-      int r = Integer.compare(costBendNum, parentBendNum(compareParent));
+      int r = Integer.compare(costBendNum[state], parentBendNum(state, p));
       if (r != 0) {
         return r;
       }
-      return Double.compare(costLen - signIdx, parentLen(compareParent)
-          + lengthToParent(compareParent) - compareParent.signIdx);
+      return Double.compare(costLen[state] - signIdx[state], parentLen(state, p) - signIdx[p]);
     }
 
-    @Override
-    public int compareTo(VertexDir o) {
-      if (o == null) {
-        return 1;
-      }
-      int r = Integer.compare(costBendNum + estimateRemainBendNum,
-                              o.costBendNum + o.estimateRemainBendNum);
+    private int compare(int s1, int s2) {
+      int r = Integer.compare(costBendNum[s1] + estimateRemainBendNum[s1],
+                              costBendNum[s2] + estimateRemainBendNum[s2]);
       if (r != 0) {
         return r;
       }
-      r = compareCentering(o);
+      if (!Double.isNaN(centering[s1]) && !Double.isNaN(centering[s2])) {
+        r = Double.compare(centering[s1], centering[s2]);
+        if (r != 0) {
+          return r;
+        }
+      }
+
+      r = Double.compare(costLen[s1] + estimateRemainLen[s1],
+                         costLen[s2] + estimateRemainLen[s2]);
       if (r != 0) {
         return r;
       }
+      return Integer.compare(seq[s1], seq[s2]);
+    }
+
+    /*
+     * Put the state into heap, or move it in place if it is already in heap and its key changed
+     */
+    private void offer(int state) {
+      int i = heapIdx[state];
+      if (i < 0) {
+        seq[state] = nextSeq++;
+        siftUp(size++, state);
+        return;
+      }
 
-      return Double.compare(costLen + estimateRemainLen,
-                            o.costLen + o.estimateRemainLen);
+      siftUp(i, state);
+      if (heap[i] == state) {
+        siftDown(i, state);
+      }
     }
-  }
 
-  private static class PathContent {
+    private int poll() {
+      int state = heap[0];
+      heapIdx[state] = -1;
+      int last = heap[--size];
+      if (size > 0) {
+        siftDown(0, last);
+      }
+      return state;
+    }
 
-    private final Queue<VertexDir> queue;
+    private void siftUp(int i, int state) {
+      while (i > 0) {
+        int p = (i - 1) >>> 1;
+        if (compare(state, heap[p]) >= 0) {
+          break;
+        }
+        move(i, heap[p]);
+        i = p;
+      }
+      move(i, state);
+    }
 
-    private final Map<GridVertex, AdjPair> adjPairs;
+    private void siftDown(int i, int state) {
+      int half = size >>> 1;
+      while (i < half) {
+        int c = (i << 1) + 1;
+        if (c + 1 < size && compare(heap[c], heap[c + 1]) > 0) {
+          c++;
+        }
+        if (compare(state, heap[c]) <= 0) {
+          break;
+        }
+        move(i, heap[c]);
+        i = c;
+      }
+      move(i, state);
+    }
 
-    private PathContent() {
-      this.queue = new PriorityQueue<>();
-      this.adjPairs = new HashMap<>();
+    private void move(int i, int state) {
+      heap[i] = state;
+      heapIdx[state] = i;
     }
 
-    private void offer(VertexDir vertexDir) {
-      Asserts.nullArgument(vertexDir, "vertexDir");
-      vertexDir.inQueue = true;
-      queue.offer(vertexDir);
-      AdjPair adjPair = adjPairs.computeIfAbsent(vertexDir.vertex, k -> new AdjPair());
-      adjPair.set(vertexDir);
+    private void grow(int minCapacity) {
+      int capacity = Math.max(stamp.length << 1, (minCapacity + 3) & ~3);
+      stamp = Arrays.copyOf(stamp, capacity);
+      parent = Arrays.copyOf(parent, capacity);
+      signIdx = Arrays.copyOf(signIdx, capacity);
+      costBendNum = Arrays.copyOf(costBendNum, capacity);
+      estimateRemainBendNum = Arrays.copyOf(estimateRemainBendNum, capacity);
+      costLen = Arrays.copyOf(costLen, capacity);
+      estimateRemainLen = Arrays.copyOf(estimateRemainLen, capacity);
+      centering = Arrays.copyOf(centering, capacity);
+      heapIdx = Arrays.copyOf(heapIdx, capacity);
+      seq = Arrays.copyOf(seq, capacity);
+      vertexes = Arrays.copyOf(vertexes, capacity >> 2);
+      heap = Arrays.copyOf(heap, capacity);
     }
 
-    private VertexDir poll() {
-      VertexDir v = queue.poll();
-      if (v == null) {
-        return null;
+    private Path path(int end) {
+      int size = 0;
+      for (int state = end; state >= 0; state = parent[state]) {
+        size++;
       }
-      boolean inQueue = v.inQueue;
-      v.inQueue = false;
-      return inQueue ? v : null;
-    }
 
-    private AdjPair getOrNullCreateAdjPair(GridVertex vertex) {
-      return adjPairs.computeIfAbsent(vertex, k -> new AdjPair());
+      Path path = new Path(size);
+      int i = 0;
+      for (int state = end; state >= 0; state = parent[state]) {
+        path.vertexes[i] = vertex(state);
+        path.dirs[i++] = dir(state);
+      }
+      return path;
     }
 
     private boolean isNotEmpty() {
-      return !isEmpty();
+      return size > 0;
+    }
+
+    protected void clear() {
+      size = 0;
+      nextSeq = 0;
+      target = null;
+      congestion = null;
+      if (generation == Integer.MAX_VALUE) {
+        Arrays.fill(stamp, 0);
+        if (own != null) {
+          Arrays.fill(own, 0);
+        }
+        generation = 0;
+      }
+      generation++;
     }
+  }
+
+  /*
+   * The vertexes and directions of a route, from the end to the start.
+   */
+  private static class Path {
+
+    private final GridVertex[] vertexes;
 
-    private boolean isEmpty() {
-      return queue.isEmpty();
+    private final int[] dirs;
+
+    private Path(int size) {
+      this.vertexes = new GridVertex[size];
+      this.dirs = new int[size];
     }
 
-    protected void clear() {
-      queue.clear();
-      adjPairs.clear();
+    private int size() {
+      return vertexes.length;
     }
   }
 
-  private static class AdjPair {
+  private static class EdgeRoute {
+
+    private final LineDrawProp lineDrawProp;
+
+    private final DNode from;
 
-    private VertexDir left;
+    private final DNode to;
 
-    private VertexDir right;
+    private final Cell fromCell;
 
-    private VertexDir top;
+    private final Target target;
+
+    private final PortPoint fromPoint;
+
+    private final PortPoint toPoint;
 
-    private VertexDir bottom;
+    private Path path;
+
+    private EdgeRoute(LineDrawProp lineDrawProp, DNode from, DNode to, Cell fromCell,
+                      Target target, PortPoint fromPoint, PortPoint toPoint) {
+      this.lineDrawProp = lineDrawProp;
+      this.from = from;
+      this.to = to;
+      this.fromCell = fromCell;
+      this.target = target;
+      this.fromPoint = fromPoint;
+      this.toPoint = toPoint;
+    }
+  }
+
+  /*
+   * The congestion of grids for the negotiation of routes. A grid is a vertex outside the nodes
+   * in horizontal or vertical direction, the length passing a grid is multiplied by
+   * "1 + history + present factor * occupancy", the occupancy excludes the edge itself. The
+   * costs are only changed between rounds, so they are read by the routes of a round at the same
+   * time.
+   */
+  private static class Congestion {
 
-    private VertexDir get(int dir) {
-      if (dir == LEFT) {
-        return left;
+    private int[] occupancy;
+
+    private double[] history;
+
+    private double presentFactor;
+
+    private Congestion(int vertexNum) {
+      this.occupancy = new int[Math.max(vertexNum, 16) << 1];
+      this.history = new double[occupancy.length];
+    }
+
+    private double cost(int grid, boolean isOwn) {
+      if (grid >= occupancy.length) {
+        return 1;
       }
-      if (dir == RIGHT) {
-        return right;
+      int occ = isOwn ? occupancy[grid] - 1 : occupancy[grid];
+      return 1 + history[grid] + presentFactor * occ;
+    }
+
+    /*
+     * Count the occupancy of the routes, add history cost to the overused grids and return the
+     * routes passing any overused grid.
+     */
+    private List<EdgeRoute> negotiate(List<EdgeRoute> edgeRoutes) {
+      Arrays.fill(occupancy, 0);
+      for (EdgeRoute edgeRoute : edgeRoutes) {
+        forEachGrid(edgeRoute.path, grid -> occupancy[grid]++);
       }
-      if (dir == UP) {
-        return top;
+
+      for (int i = 0; i < occupancy.length; i++) {
+        if (occupancy[i] > 1) {
+          history[i] += HISTORY_FACTOR * (occupancy[i] - 1);
+        }
       }
-      if (dir == DOWN) {
-        return bottom;
+      presentFactor = presentFactor == 0 ? PRESENT_FACTOR : presentFactor * PRESENT_GROWTH;
+
+      List<EdgeRoute> congested = new ArrayList<>();
+      for (EdgeRoute edgeRoute : edgeRoutes) {
+        Path path = edgeRoute.path;
+        if (path == null) {
+          continue;
+        }
+        for (int i = 0; i < path.size(); i++) {
+          if (!path.vertexes[i].isNodeInternal()
+              && occupancy[grid(path.vertexes[i], path.dirs[i])] > 1) {
+            congested.add(edgeRoute);
+            break;
+          }
+        }
       }
-      return null;
+      return congested;
     }
 
-    private void set(VertexDir vertexDir) {
-      if (vertexDir == null) {
+    private void forEachGrid(Path path, IntConsumer consumer) {
+      if (path == null) {
         return;
       }
-      if (vertexDir.dir == LEFT) {
-        this.left = vertexDir;
-      }
-      if (vertexDir.dir == RIGHT) {
-        this.right = vertexDir;
-      }
-      if (vertexDir.dir == UP) {
-        this.top = vertexDir;
-      }
-      if (vertexDir.dir == DOWN) {
-        this.bottom = vertexDir;
+      for (int i = 0; i < path.size(); i++) {
+        if (path.vertexes[i].isNodeInternal()) {
+          continue;
+        }
+        int grid = grid(path.vertexes[i], path.dirs[i]);
+        if (grid >= occupancy.length) {
+          int capacity = Math.max(occupancy.length << 1, grid + 1);
+          occupancy = Arrays.copyOf(occupancy, capacity);
+          history = Arrays.copyOf(history, capacity);
+        }
+        consumer.accept(grid);
       }
     }
-  }
-
-  private static class EdgeSeg extends VertexIndex implements Comparable<EdgeSeg> {
 
-    private static final long serialVersionUID = -941291526419206546L;
-
-    private int rank;
+    private static int grid(GridVertex vertex, int dir) {
+      return PathContent.grid((vertex.getIndex() << 2) | dir);
+    }
+  }
 
-    private int group;
+  private static class EdgeSeg implements Comparable<EdgeSeg> {
 
     private double axis;
 
@@ -1248,11 +1460,11 @@ class OrthogonalRouter extends AbstractDotLineRouter {
       end = Math.max(newEndpoint, other);
     }
 
-    private void addVertex(VertexDir vertexDir) {
+    private void addVertex(GridVertex vertex) {
       if (isHor) {
-        addPoint(vertexDir.vertex.getX());
+        addPoint(vertex.getX());
       } else {
-        addPoint(vertexDir.vertex.getY());
+        addPoint(vertex.getY());
       }
     }
 
@@ -1466,79 +1678,266 @@ class OrthogonalRouter extends AbstractDotLineRouter {
     }
   }
 
-  private static class ChannelSegRank extends Mark<EdgeSeg> {
+  /*
+   * Put the overlapping segments of a channel on different tracks. The segments of the same
+   * direction are swept by their start, every segment is paired with the segments still open at
+   * its start, so only the overlapping pairs are visited. Every pair is oriented by overlapCmp to
+   * the order with fewer crossings, the segment put under the other one has a lower rank. The rank
+   * of a segment is the negative length of the longest path from it in the constraints, and every
+   * connected group of segments divides the range of channel by its ranks.
+   */
+  private static class ChannelSweep {
+
+    private EdgeSeg[] edgeSegs;
+
+    private int size;
+
+    private int[] active;
+
+    private int edgeNum;
+
+    private int[] edgeFrom;
 
-    private Iterable<TreeMap<Integer, List<EdgeSeg>>> edgeSegGroups;
+    private int[] edgeTo;
 
-    private Iterable<TreeMap<Integer, List<EdgeSeg>>> group(DedirectedGraph<EdgeSeg> digraph) {
-      clear();
+    private int[] adjStart;
 
-      setRank(digraph);
+    private int[] adj;
 
-      setGroup(digraph);
+    private int[] rank;
 
-      groupEdgeSegs(digraph);
+    private int[] group;
 
-      return getEdgeSegGroups();
+    private int[] stack;
+
+    private int[] cursor;
+
+    private void split(Channel channel) {
+      channel.sortEdgeSegs();
+      init(channel);
+      if (size <= 1) {
+        return;
+      }
+
+      sweep();
+      if (edgeNum == 0) {
+        return;
+      }
+
+      adjacency();
+      rank();
+      move(channel);
     }
 
-    private Iterable<TreeMap<Integer, List<EdgeSeg>>> getEdgeSegGroups() {
-      return edgeSegGroups != null ? edgeSegGroups : Collections.emptyList();
+    private void init(Channel channel) {
+      int capacity = channel.segmentSize();
+      if (edgeSegs == null || edgeSegs.length < capacity) {
+        capacity = Math.max(capacity, 16);
+        edgeSegs = new EdgeSeg[capacity];
+        active = new int[capacity];
+        adjStart = new int[capacity + 1];
+        rank = new int[capacity];
+        group = new int[capacity];
+        stack = new int[capacity];
+        cursor = new int[capacity];
+      }
+      if (edgeFrom == null) {
+        edgeFrom = new int[capacity];
+        edgeTo = new int[capacity];
+      }
+
+      size = 0;
+      edgeNum = 0;
+      for (int i = 0; i < channel.segmentSize(); i++) {
+        EdgeSeg edgeSeg = channel.get(i);
+        if (edgeSeg.start != null && edgeSeg.end != null) {
+          edgeSegs[size++] = edgeSeg;
+        }
+      }
     }
 
-    private void setRank(DedirectedGraph<EdgeSeg> digraph) {
-      for (EdgeSeg node : digraph) {
-        if (isMark(node)) {
-          continue;
+    /*
+     * The segments are in the order of channel, the vertical segments are before the horizontal
+     * segments, the segments of every direction are swept separately.
+     */
+    private void sweep() {
+      Integer[] order = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (l, r) -> {
+        if (edgeSegs[l].isHor != edgeSegs[r].isHor) {
+          return edgeSegs[l].isHor ? 1 : -1;
+        }
+        int c = Double.compare(edgeSegs[l].start, edgeSegs[r].start);
+        return c != 0 ? c : Integer.compare(l, r);
+      });
+
+      int activeNum = 0;
+      for (int i = 0; i < size; i++) {
+        int seg = order[i];
+        EdgeSeg edgeSeg = edgeSegs[seg];
+        int remain = 0;
+        for (int j = 0; j < activeNum; j++) {
+          int other = active[j];
+          // The open segments of the other direction or before the start are closed
+          if (edgeSegs[other].isHor != edgeSeg.isHor || edgeSegs[other].end < edgeSeg.start) {
+            continue;
+          }
+          active[remain++] = other;
+          addPair(Math.min(other, seg), Math.max(other, seg));
         }
+        active[remain++] = seg;
+        activeNum = remain;
+      }
+    }
 
-        dfs(node, digraph);
+    /*
+     * Ties of overlapCmp put the segment later in channel under the earlier one
+     */
+    private void addPair(int first, int second) {
+      if (edgeNum == edgeFrom.length) {
+        edgeFrom = Arrays.copyOf(edgeFrom, edgeNum << 1);
+        edgeTo = Arrays.copyOf(edgeTo, edgeNum << 1);
+      }
+      if (overlapCmp(edgeSegs[first], edgeSegs[second]) < 0) {
+        edgeFrom[edgeNum] = first;
+        edgeTo[edgeNum++] = second;
+      } else {
+        edgeFrom[edgeNum] = second;
+        edgeTo[edgeNum++] = first;
       }
     }
 
-    private void dfs(EdgeSeg from, DedirectedGraph<EdgeSeg> digraph) {
-      mark(from);
+    private void adjacency() {
+      Arrays.fill(adjStart, 0, size + 1, 0);
+      for (int e = 0; e < edgeNum; e++) {
+        adjStart[edgeFrom[e] + 1]++;
+      }
+      for (int i = 0; i < size; i++) {
+        adjStart[i + 1] += adjStart[i];
+      }
+      if (adj == null || adj.length < edgeNum) {
+        adj = new int[Math.max(edgeNum, edgeFrom.length)];
+      }
+      System.arraycopy(adjStart, 0, cursor, 0, size);
+      for (int e = 0; e < edgeNum; e++) {
+        adj[cursor[edgeFrom[e]]++] = edgeTo[e];
+      }
 
-      for (EdgeSeg to : digraph.outAdjacent(from)) {
-        if (!isMark(to)) {
-          dfs(to, digraph);
+      // The connected groups of the pairs
+      for (int i = 0; i < size; i++) {
+        group[i] = i;
+      }
+      for (int e = 0; e < edgeNum; e++) {
+        int g1 = find(edgeFrom[e]);
+        int g2 = find(edgeTo[e]);
+        if (g1 != g2) {
+          group[Math.max(g1, g2)] = Math.min(g1, g2);
         }
-
-        from.rank = Math.min(from.rank, to.rank - 1);
+      }
+      for (int i = 0; i < size; i++) {
+        group[i] = find(i);
       }
     }
 
-    private void setGroup(DedirectedGraph<EdgeSeg> digraph) {
-      clear();
+    private int find(int seg) {
+      while (group[seg] != seg) {
+        group[seg] = group[group[seg]];
+        seg = group[seg];
+      }
+      return seg;
+    }
 
-      int group = 0;
-      for (EdgeSeg node : digraph) {
-        if (isMark(node)) {
+    /*
+     * Depth first search in the order of channel, the rank of a segment is lower than all segments
+     * over it. If the orientations of the pairs form a cycle, the segment visited again keeps the
+     * rank it has at that time.
+     */
+    private void rank() {
+      Arrays.fill(rank, 0, size, 1);
+      for (int i = 0; i < size; i++) {
+        if (rank[i] <= 0) {
           continue;
         }
 
-        dfs(group++, node, digraph);
+        int top = 0;
+        stack[top++] = i;
+        rank[i] = 0;
+        cursor[i] = adjStart[i];
+        while (top > 0) {
+          int seg = stack[top - 1];
+          if (cursor[seg] < adjStart[seg + 1]) {
+            int next = adj[cursor[seg]];
+            if (rank[next] > 0) {
+              rank[next] = 0;
+              cursor[next] = adjStart[next];
+              stack[top++] = next;
+              continue;
+            }
+            rank[seg] = Math.min(rank[seg], rank[next] - 1);
+            cursor[seg]++;
+            continue;
+          }
+
+          top--;
+          if (top > 0) {
+            int from = stack[top - 1];
+            rank[from] = Math.min(rank[from], rank[seg] - 1);
+            cursor[from]++;
+          }
+        }
       }
     }
 
-    private void dfs(int group, EdgeSeg from, DedirectedGraph<EdgeSeg> digraph) {
-      mark(from);
-      from.group = group;
+    /*
+     * All segments of a group in the same rank use the same track
+     */
+    private void move(Channel channel) {
+      Integer[] order = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (l, r) -> {
+        int c = Integer.compare(group[l], group[r]);
+        if (c != 0) {
+          return c;
+        }
+        c = Integer.compare(rank[l], rank[r]);
+        return c != 0 ? c : Integer.compare(l, r);
+      });
 
-      for (EdgeSeg to : digraph.adjacent(from)) {
-        if (isMark(to)) {
+      int groupStart = 0;
+      for (int i = 1; i <= size; i++) {
+        if (i < size && group[order[i]] == group[order[groupStart]]) {
           continue;
         }
 
-        dfs(group, to, digraph);
+        if (i - groupStart > 1) {
+          int rankNum = 1;
+          for (int j = groupStart + 1; j < i; j++) {
+            if (rank[order[j]] != rank[order[j - 1]]) {
+              rankNum++;
+            }
+          }
+
+          double moveUnit = channel.range() / (rankNum + 1);
+          int idx = 0;
+          for (int j = groupStart; j < i; j++) {
+            if (j == groupStart || rank[order[j]] != rank[order[j - 1]]) {
+              idx++;
+            }
+            EdgeSeg edgeSeg = edgeSegs[order[j]];
+            if (edgeSeg.canNotMove) {
+              continue;
+            }
+            edgeSeg.moveAxis(moveUnit * idx - edgeSeg.axis + channel.min);
+          }
+        }
+        groupStart = i;
       }
-    }
 
-    private void groupEdgeSegs(DedirectedGraph<EdgeSeg> digraph) {
-      this.edgeSegGroups = digraph.stream()
-          .collect(Collectors.groupingBy(e -> e.group, Collectors
-              .groupingBy(e -> e.rank, TreeMap::new, Collectors.toList())))
-          .values();
+      Arrays.fill(edgeSegs, 0, size, null);
     }
   }
 
@@ -47,12 +47,17 @@ class RankContent implements Iterable<RankNode> {
 
   RankContent(BaseGraph<DNode> graph, double rankSep,
               boolean positiveRank, Consumer<DNode[]> sortNodesConsumer) {
+    this(graph.toArray(), rankSep, positiveRank, sortNodesConsumer);
+  }
+
+  RankContent(DNode[] nodes, double rankSep,
+              boolean positiveRank, Consumer<DNode[]> sortNodesConsumer) {
     this.rankNodeMap = new HashMap<>();
     this.rankSep = rankSep;
     this.positiveRank = positiveRank;
 
     // init RankContent
-    normalize(graph, sortNodesConsumer);
+    normalize(nodes, sortNodesConsumer);
   }
 
   protected RankContent() {
@@ -61,10 +66,9 @@ class RankContent implements Iterable<RankNode> {
   }
 
   // The smallest hierarchy starts rearranging
-  private void normalize(BaseGraph<DNode> graph, Consumer<DNode[]> sortNodesConsumer) {
+  private void normalize(DNode[] nodes, Consumer<DNode[]> sortNodesConsumer) {
     // Sort by node rank
-    DNode[] nodes = graph.toArray();
-    if (nodes == null) {
+    if (nodes == null || nodes.length == 0) {
       return;
     }
 
@@ -17,14 +17,12 @@
 package org.graphper.layout.dot;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 import org.graphper.api.GraphContainer;
 import org.graphper.def.DedirectedEdgeGraph;
@@ -32,12 +30,17 @@ import org.graphper.def.EdgeDedigraph;
 import org.graphper.draw.DrawGraph;
 import org.graphper.layout.dot.MinCross.ClusterOrder;
 import org.graphper.util.Asserts;
-import org.graphper.util.CollectionUtils;
 
 class RootCrossRank implements CrossRank {
 
   private static final int MIN_CROSS_SCALE = 256;
 
+  /*
+   * Ranks whose size exceeds this value count crossings by the accumulator tree, the pairwise
+   * comparison is cheaper for small ranks.
+   */
+  static final int ACCUMULATOR_CROSS_THRESHOLD = 32;
+
   ClusterOrder clusterOrder;
 
   private final DrawGraph drawGraph;
@@ -46,21 +49,33 @@ class RootCrossRank implements CrossRank {
 
   private BasicCrossRank childCrossRank;
 
-  private Map<Integer, Integer> rankStartIndex;
+  // The root rank index of the first node of the child, index is rank - minRank()
+  private int[] rankStartIndex;
 
   private final EdgeDedigraph<DNode, DLine> digraphProxy;
 
-  // Cross Number Cache
-  private final Map<Integer, RankCrossCache> rankCrossCacheMap;
+  // Cross number cache of every rank, index is rank - minRank()
+  private int[] rankCrossNum;
+
+  private boolean[] rankCrossEffective;
 
   private SameRankAdjacentRecord sameRankAdjacentRecord;
 
+  // Scratch of the median values of the rank being sorted, index is rank index
+  private double[] medians = new double[16];
+
+  // Scratch of the adjacent positions of the node whose median value is being calculated
+  private double[] positions = new double[16];
+
+  private final int[] leftCrossRecord = new int[3];
+
+  private final int[] rightCrossRecord = new int[3];
+
   RootCrossRank(DrawGraph drawGraph) {
     Asserts.nullArgument(drawGraph, "drawGraph");
     this.drawGraph = drawGraph;
     this.root = new BasicCrossRank(drawGraph.getGraphviz());
     this.digraphProxy = new DedirectedEdgeGraph<>();
-    this.rankCrossCacheMap = new HashMap<>();
   }
 
   RootCrossRank(DrawGraph drawGraph, EdgeDedigraph<DNode, DLine> digraphProxy) {
@@ -69,12 +84,44 @@ class RootCrossRank implements CrossRank {
     this.drawGraph = drawGraph;
     this.root = new BasicCrossRank(drawGraph.getGraphviz());
     this.digraphProxy = digraphProxy;
-    this.rankCrossCacheMap = new HashMap<>();
+    indexNodes(digraphProxy);
     for (DNode node : digraphProxy) {
       addNode(node, Boolean.FALSE);
     }
   }
 
+  /*
+   * Fork an independent ordering of the source, the root and the proxy graph are shared and only
+   * read, every change of the order goes to a clone of the current BasicCrossRank. Forks of the
+   * same source can be sorted by different threads at the same time.
+   */
+  private RootCrossRank(RootCrossRank source) {
+    this.drawGraph = source.drawGraph;
+    this.root = source.root;
+    this.digraphProxy = source.digraphProxy;
+    this.rankStartIndex = source.rankStartIndex;
+    this.sameRankAdjacentRecord = source.sameRankAdjacentRecord;
+    this.clusterOrder = source.clusterOrder;
+    this.childCrossRank = source.getBasicCrossRank().clone();
+  }
+
+  /**
+   * Assign the dense {@link DNode#getCrossId()} of the nodes, every node added to the cross rank
+   * must have cross id.
+   *
+   * @param nodes all nodes of crossing minimization
+   */
+  static void indexNodes(Iterable<DNode> nodes) {
+    int id = 0;
+    for (DNode node : nodes) {
+      node.setCrossId(id++);
+    }
+  }
+
+  RootCrossRank fork() {
+    return new RootCrossRank(this);
+  }
+
   void setBasicCrossRank(BasicCrossRank basicCrossRank) {
     if (basicCrossRank == childCrossRank) {
       return;
@@ -112,8 +159,8 @@ class RootCrossRank implements CrossRank {
     if (childCrossRank == null) {
       return root.getRankIndex(node);
     }
-    Integer idx = childCrossRank.safeGetRankIndex(node);
-    if (idx == null) {
+    int idx = childCrossRank.indexOf(node);
+    if (idx < 0) {
       return root.getRankIndex(node);
     }
     return getChildRankStartIndex(node.getRank()) + idx;
@@ -124,8 +171,8 @@ class RootCrossRank implements CrossRank {
     if (childCrossRank == null) {
       return root.safeGetRankIndex(node);
     }
-    Integer idx = childCrossRank.safeGetRankIndex(node);
-    if (idx != null) {
+    int idx = childCrossRank.indexOf(node);
+    if (idx >= 0) {
       return getChildRankStartIndex(node.getRank()) + idx;
     }
     return root.safeGetRankIndex(node);
@@ -209,22 +256,23 @@ class RootCrossRank implements CrossRank {
       return null;
     }
 
-    if (rankStartIndex == null) {
-      rankStartIndex = new HashMap<>();
+    int rankNum = maxRank() - minRank() + 1;
+    if (rankStartIndex == null || rankStartIndex.length != rankNum) {
+      rankStartIndex = new int[rankNum];
     } else {
-      rankStartIndex.clear();
+      Arrays.fill(rankStartIndex, 0);
     }
     BasicCrossRank basicCrossRank = new BasicCrossRank(expandInfoProvider.container());
     /*
      * 1.handle every expand node, delete it and replace by ExpandInfoProvider#replaceNodes
      * 2.add ExpandInfoProvider#expandLines
      * */
+    List<DNode> nodes = new ArrayList<>();
     for (DNode expandNode : expandNodes) {
       digraphProxy.remove(expandNode);
 
-      List<DNode> nodes = root.rankNode.get(expandNode.getRank());
       Asserts.illegalArgument(
-          CollectionUtils.isEmpty(nodes),
+          root.rankSize(expandNode.getRank()) == 0,
           "Illegal expand node, root not contain"
       );
       Iterable<DNode> replaceNodes = expandInfoProvider.replaceNodes(expandNode);
@@ -232,24 +280,12 @@ class RootCrossRank implements CrossRank {
         continue;
       }
 
-      int i = 0;
-      int rankIndex = root.getRankIndex(expandNode);
-      rankStartIndex.put(expandNode.getRank(), rankIndex);
-      for (DNode replaceNode : replaceNodes) {
-        if (i == 0) {
-          nodes.set(rankIndex, replaceNode);
-          root.nodeRankIndex.remove(expandNode);
-        } else {
-          nodes.add(rankIndex + i, replaceNode);
-        }
-        root.nodeRankIndex.put(replaceNode, rankIndex + i);
+      nodes.clear();
+      replaceNodes.forEach(nodes::add);
+      rankStartIndex[expandNode.getRank() - minRank()] = root.getRankIndex(expandNode);
+      root.replace(expandNode, nodes);
+      for (DNode replaceNode : nodes) {
         basicCrossRank.addNode(replaceNode);
-        i++;
-      }
-
-      // sync node id that rank index greater than insert index
-      for (int j = rankIndex + i; j < nodes.size(); j++) {
-        root.nodeRankIndex.put(nodes.get(j), j);
       }
     }
 
@@ -279,18 +315,18 @@ class RootCrossRank implements CrossRank {
    * @param i times
    */
   void vmedian(int i) {
-    Consumer<DNode> positiveAction = v -> {
-      double v1 = medianValue(v, true);
-      v.setMedian(v1);
-    };
-    Consumer<DNode> reverseAction = v -> {
-      double v1 = medianValue(v, false);
-      v.setMedian(v1);
-    };
-
-    IntConsumer rankIndexAction = this::sortRankVertex;
-
-    accessRankNode(i, positiveAction, reverseAction, rankIndexAction);
+    // positive direction
+    if (i % 2 == 0) {
+      for (int j = calcCrossRank().minRank(); j <= calcCrossRank().maxRank(); j++) {
+        medianSort(j, true);
+      }
+    }
+    // reverse direction
+    else {
+      for (int j = calcCrossRank().maxRank(); j >= calcCrossRank().minRank(); j--) {
+        medianSort(j, false);
+      }
+    }
   }
 
   void adjPostion(Consumer<DNode> adjAction, DNode node, boolean direction, boolean isProxy) {
@@ -364,49 +400,74 @@ class RootCrossRank implements CrossRank {
   }
 
   int currentCrossNum() {
+    int rankNum = maxRank() - minRank() + 1;
+    if (rankCrossEffective == null || rankCrossEffective.length != rankNum) {
+      rankCrossNum = new int[rankNum];
+      rankCrossEffective = new boolean[rankNum];
+    }
+
     setCacheExpired();
     int num = 0;
-    for (int i = minRank(); i <= maxRank(); i++) {
-      RankCrossCache rankCrossCache = getRankCacheIfAbsent(i);
-
-      if (rankCrossCache.effective) {
-        num += rankCrossCache.crossNum;
-      } else {
-        rankCrossCache.crossNum = computeCrossNum(i);
-        rankCrossCache.effective = true;
-        num += rankCrossCache.crossNum;
+    for (int i = 0; i < rankNum; i++) {
+      if (!rankCrossEffective[i]) {
+        rankCrossNum[i] = computeCrossNum(i + minRank());
+        rankCrossEffective[i] = true;
       }
+      num += rankCrossNum[i];
     }
     return num;
   }
 
   // ----------------------------------------- private ---------------------------------------------
 
+  private void medianSort(int rank, boolean direction) {
+    int rankSize = calcCrossRank().rankSize(rank);
+    if (rankSize <= 1) {
+      return;
+    }
+
+    if (medians.length < rankSize) {
+      medians = new double[Math.max(rankSize, medians.length << 1)];
+    }
+    for (int i = 0; i < rankSize; i++) {
+      medians[i] = medianValue(calcCrossRank().getNode(rank, i), direction);
+    }
+
+    sortRankVertex(rank);
+  }
+
   private double medianValue(DNode v, boolean direction) {
-    List<Double> positions = adjPostion(v, direction);
+    int size = 0;
+    Iterable<DLine> lines = direction ? digraphProxy.inAdjacent(v) : digraphProxy.outAdjacent(v);
+    for (DLine line : lines) {
+      if (size == positions.length) {
+        positions = Arrays.copyOf(positions, size << 1);
+      }
+      positions[size++] = (double) (getRankIndex(line.other(v))) * MIN_CROSS_SCALE;
+    }
 
-    if (CollectionUtils.isEmpty(positions)) {
+    if (size == 0) {
       return -1.0;
     }
 
-    if (positions.size() == 1) {
-      return positions.get(0);
+    if (size == 1) {
+      return positions[0];
     }
 
-    if (positions.size() == 2) {
-      return (positions.get(0) + positions.get(1)) / 2;
+    if (size == 2) {
+      return (positions[0] + positions[1]) / 2;
     }
 
-    positions.sort(Double::compareTo);
-    int rightIndex = positions.size() / 2;
-    if ((positions.size() % 2) == 1) {
-      return positions.get(rightIndex);
+    Arrays.sort(positions, 0, size);
+    int rightIndex = size / 2;
+    if ((size % 2) == 1) {
+      return positions[rightIndex];
     }
 
-    Double l = positions.get(rightIndex - 1);
-    Double r = positions.get(rightIndex);
-    double left = l - positions.get(0);
-    double right = positions.get(positions.size() - 1) - r;
+    double l = positions[rightIndex - 1];
+    double r = positions[rightIndex];
+    double left = l - positions[0];
+    double right = positions[size - 1] - r;
 
     if (left == right) {
       return (l + r) / 2;
@@ -415,63 +476,9 @@ class RootCrossRank implements CrossRank {
     return (l * right + r * left) / (left + right);
   }
 
-  private List<Double> adjPostion(DNode v, boolean direction) {
-    List<Double> positions = new ArrayList<>();
-    Consumer<DNode> adjAction = vertex ->
-        positions.add((double) (getRankIndex(vertex)) * MIN_CROSS_SCALE);
-
-    adjPostion(adjAction, v, direction, true);
-
-    return positions;
-  }
-
-  /**
-   * Visit the vertices of each level in a forward and reverse manner.
-   *
-   * @param i               Forward and reverse signs Even forward, odd reverse
-   * @param positiveAction  Action when visiting a vertex forward
-   * @param reverseAction   Action when visiting vertices in reverse
-   * @param rankIndexAction Action after visiting post action
-   */
-  private void accessRankNode(int i, Consumer<DNode> positiveAction,
-                              Consumer<DNode> reverseAction,
-                              IntConsumer rankIndexAction) {
-    Objects.requireNonNull(positiveAction);
-    Objects.requireNonNull(reverseAction);
-
-    // positive direction
-    if (i % 2 == 0) {
-      for (int j = calcCrossRank().minRank(); j <= calcCrossRank().maxRank(); j++) {
-        rankNodesHandle(positiveAction, rankIndexAction, j);
-      }
-    }
-    // reverse direction
-    else {
-      for (int j = calcCrossRank().maxRank(); j >= calcCrossRank().minRank(); j--) {
-        rankNodesHandle(reverseAction, rankIndexAction, j);
-      }
-    }
-  }
-
-  private void rankNodesHandle(Consumer<DNode> positiveAction,
-                               IntConsumer rankIndexAction,
-                               int rank) {
-    if (calcCrossRank().rankSize(rank) <= 1) {
-      return;
-    }
-
-    for (int i = 0; i < calcCrossRank().rankSize(rank); i++) {
-      positiveAction.accept(calcCrossRank().getNode(rank, i));
-    }
-
-    if (rankIndexAction != null) {
-      rankIndexAction.accept(rank);
-    }
-  }
-
   private int transposeStep(int rank, boolean reverse) {
-    int[] leftCrossRecord = new int[3];
-    int[] rightCrossRecord = new int[3];
+    Arrays.fill(leftCrossRecord, 0);
+    Arrays.fill(rightCrossRecord, 0);
 
     int rv = 0;
 
@@ -506,19 +513,15 @@ class RootCrossRank implements CrossRank {
 
 
   private void setCacheExpired(int rank) {
-    RankCrossCache rankCrossCache = rankCrossCacheMap.get(rank);
-    if (rankCrossCache == null) {
+    int r = rank - minRank();
+    if (rankCrossEffective == null || r < 0 || r >= rankCrossEffective.length) {
       return;
     }
 
-    rankCrossCache.effective = false;
-
-    rankCrossCache = rankCrossCacheMap.get(rank - 1);
-    if (rankCrossCache == null) {
-      return;
+    rankCrossEffective[r] = false;
+    if (r > 0) {
+      rankCrossEffective[r - 1] = false;
     }
-
-    rankCrossCache.effective = false;
   }
 
   private boolean canExchange(DNode left, DNode right) {
@@ -532,14 +535,13 @@ class RootCrossRank implements CrossRank {
         return false;
       }
 
-      Integer leftIdx = childCrossRank.safeGetRankIndex(left);
-      if (leftIdx == null) {
+      int leftIdx = childCrossRank.indexOf(left);
+      if (leftIdx < 0) {
         return true;
       }
       Set<DNode> inAdjs = sameRankAdjacentRecord.inAdjacent(right);
       for (DNode in : inAdjs) {
-        Integer idx = childCrossRank.safeGetRankIndex(in);
-        if (idx != null && idx > leftIdx) {
+        if (childCrossRank.indexOf(in) > leftIdx) {
           return false;
         }
       }
@@ -592,8 +594,10 @@ class RootCrossRank implements CrossRank {
         DNode leftNode = calcCrossRank().getNode(rank, left);
         DNode rightNode = null;
 
+        double lm = medians[left];
+
         // Find the first one on the left whose median value is greater than 0 in the hierarchy
-        while (left < endIndex && leftNode.getMedian() < 0) {
+        while (left < endIndex && lm < 0) {
           left++;
         }
 
@@ -611,7 +615,7 @@ class RootCrossRank implements CrossRank {
             break;
           }
 
-          if (rightNode.getMedian() >= 0) {
+          if (medians[right] >= 0) {
             break;
           }
         }
@@ -620,12 +624,13 @@ class RootCrossRank implements CrossRank {
           break;
         }
 
-        double lm = leftNode.getMedian();
-        double rm = rightNode.getMedian();
+        double rm = medians[right];
 
         if (lm >= rm && canExchange) {
           setCacheExpired(rank);
           exchange(leftNode, rightNode);
+          medians[left] = rm;
+          medians[right] = lm;
         }
 
         left = right;
@@ -664,11 +669,21 @@ class RootCrossRank implements CrossRank {
     }
   }
 
-  private RankCrossCache getRankCacheIfAbsent(int rank) {
-    return rankCrossCacheMap.computeIfAbsent(rank, r -> new RankCrossCache());
+  private int computeCrossNum(int rank) {
+    if (rankSize(rank) > ACCUMULATOR_CROSS_THRESHOLD) {
+      return accumulatorCrossNum(rank);
+    }
+    return pairwiseCrossNum(rank);
   }
 
-  private int computeCrossNum(int rank) {
+  /**
+   * Count the crossings of the out lines of the specified rank by comparing every pair of nodes and
+   * every pair of their lines, it is the reference of {@link #accumulatorCrossNum(int)}.
+   *
+   * @param rank rank
+   * @return cross number
+   */
+  int pairwiseCrossNum(int rank) {
     int crossNum = 0;
     int rankSize = rankSize(rank);
     for (int i = 0; i < rankSize; i++) {
@@ -693,6 +708,169 @@ class RootCrossRank implements CrossRank {
     return crossNum;
   }
 
+  /**
+   * Count the crossings of the out lines of the specified rank by the bilayer accumulator tree of
+   * Barth, Jünger and Mutzel, the lines between {@code rank} and {@code rank + 1} cost
+   * O(E log V). The lines are visited in the order of the tail, every line counts the inserted lines
+   * whose head is on its right, and the lines of the same tail are inserted only after all of them
+   * are counted, because lines of the same tail never cross. The head order is the rank index of
+   * the head and then the port compare number, which is the same as {@link #isCross(DLine, DLine)}.
+   *
+   * <p>A flat line only crosses the lines that share an endpoint with it, so the flat lines still
+   * use {@link #isCross(DLine, DLine)}.
+   *
+   * @param rank rank
+   * @return cross number
+   */
+  int accumulatorCrossNum(int rank) {
+    int rankSize = rankSize(rank);
+    List<DLine> lines = new ArrayList<>(rankSize);
+    // The exclusive end index of the lines of every tail
+    int[] tailEnd = new int[rankSize];
+    boolean haveFlat = false;
+    for (int i = 0; i < rankSize; i++) {
+      for (DLine line : digraphProxy.outAdjacent(getNode(rank, i))) {
+        int toRank = line.to().getRank();
+        if (toRank == rank) {
+          haveFlat = true;
+          continue;
+        }
+        // Not a proper layered graph, fallback to the reference
+        if (toRank != rank + 1) {
+          return pairwiseCrossNum(rank);
+        }
+        lines.add(line);
+      }
+      tailEnd[i] = lines.size();
+    }
+
+    int[] keys = new int[lines.size()];
+    int keyNum = headKeys(lines, keys);
+
+    int firstIndex = 1;
+    while (firstIndex < keyNum) {
+      firstIndex <<= 1;
+    }
+    int[] tree = new int[2 * firstIndex - 1];
+    firstIndex--;
+
+    int crossNum = 0;
+    int start = 0;
+    for (int i = 0; i < rankSize; i++) {
+      int end = tailEnd[i];
+      for (int k = start; k < end; k++) {
+        int index = keys[k] + firstIndex;
+        while (index > 0) {
+          // Left child, all lines of the right sibling are on the right of the current line
+          if (index % 2 == 1) {
+            crossNum += tree[index + 1];
+          }
+          index = (index - 1) / 2;
+        }
+      }
+      for (int k = start; k < end; k++) {
+        int index = keys[k] + firstIndex;
+        tree[index]++;
+        while (index > 0) {
+          index = (index - 1) / 2;
+          tree[index]++;
+        }
+      }
+      start = end;
+    }
+
+    if (haveFlat) {
+      crossNum += flatCrossNum(rank);
+    }
+    return crossNum;
+  }
+
+  /*
+   * Fill the dense order key of the head of every line, and returns the number of the distinct keys.
+   * Without ports the key is the rank index of the head, otherwise the lines are sorted by the rank
+   * index and then the port compare number of the head.
+   */
+  private int headKeys(List<DLine> lines, int[] keys) {
+    int keyNum = 0;
+    double[] ports = null;
+    for (int i = 0; i < lines.size(); i++) {
+      DLine line = lines.get(i);
+      keys[i] = getRankIndex(line.to());
+      keyNum = Math.max(keyNum, keys[i] + 1);
+
+      double port = getCompareNo(line, line.to());
+      if (port != 0) {
+        if (ports == null) {
+          ports = new double[lines.size()];
+        }
+        ports[i] = port;
+      }
+    }
+
+    if (ports == null) {
+      return keyNum;
+    }
+
+    double[] headPorts = ports;
+    Integer[] order = new Integer[lines.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (l, r) -> {
+      int c = Integer.compare(keys[l], keys[r]);
+      return c != 0 ? c : Double.compare(headPorts[l], headPorts[r]);
+    });
+
+    int[] headKeys = new int[keys.length];
+    keyNum = 0;
+    for (int i = 0; i < order.length; i++) {
+      int idx = order[i];
+      if (i > 0) {
+        int pre = order[i - 1];
+        if (keys[pre] != keys[idx] || Double.compare(headPorts[pre], headPorts[idx]) != 0) {
+          keyNum++;
+        }
+      }
+      headKeys[idx] = keyNum;
+    }
+    System.arraycopy(headKeys, 0, keys, 0, keys.length);
+    return keyNum + 1;
+  }
+
+  /*
+   * The crossings of all pairs of lines that contain at least one flat line, every pair is the same
+   * as the pair of pairwiseCrossNum.
+   */
+  private int flatCrossNum(int rank) {
+    int crossNum = 0;
+    int rankSize = rankSize(rank);
+    for (int i = 0; i < rankSize; i++) {
+      for (DLine flatLine : digraphProxy.outAdjacent(getNode(rank, i))) {
+        if (flatLine.to().getRank() != rank) {
+          continue;
+        }
+
+        for (int j = 0; j < rankSize; j++) {
+          if (j == i) {
+            continue;
+          }
+
+          for (DLine line : digraphProxy.outAdjacent(getNode(rank, j))) {
+            if (j > i) {
+              if (isCross(flatLine, line)) {
+                crossNum++;
+              }
+            } else if (line.to().getRank() != rank && isCross(line, flatLine)) {
+              // The pair of two flat lines is counted when visiting the left one
+              crossNum++;
+            }
+          }
+        }
+      }
+    }
+    return crossNum;
+  }
+
   private int inCross(DNode n, DNode w) {
     int count = 0;
     for (DLine l1 : digraphProxy.inAdjacent(n)) {
@@ -792,12 +970,11 @@ class RootCrossRank implements CrossRank {
   }
 
   private int getChildRankStartIndex(int rank) {
-    Integer idx;
-    if (childCrossRank == null || rankStartIndex == null
-        || (idx = rankStartIndex.get(rank)) == null) {
+    int r = rank - minRank();
+    if (childCrossRank == null || rankStartIndex == null || r < 0 || r >= rankStartIndex.length) {
       return 0;
     }
-    return idx;
+    return rankStartIndex[r];
   }
 
   interface ExpandInfoProvider {
@@ -808,26 +985,4 @@ class RootCrossRank implements CrossRank {
 
     GraphContainer container();
   }
-
-  private static class RankCrossCache implements Cloneable {
-
-    private int crossNum;
-
-    private boolean effective;
-
-    private RankCrossCache() {
-    }
-
-    @Override
-    protected RankCrossCache clone() {
-      try {
-        return (RankCrossCache) super.clone();
-      } catch (CloneNotSupportedException e) {
-        RankCrossCache crossCache = new RankCrossCache();
-        crossCache.crossNum = crossNum;
-        crossCache.effective = effective;
-        return crossCache;
-      }
-    }
-  }
 }
@@ -64,10 +64,10 @@ class RoundedRouter extends CurveFitBoxRouter {
     if (throughPoints.size() <= 2) {
       ThroughPoint first = throughPoints.get(0);
       ThroughPoint last = throughPoints.get(throughPoints.size() - 1);
-      lineDrawProp.add(first);
-      lineDrawProp.add(first);
-      lineDrawProp.add(last);
-      lineDrawProp.add(last);
+      lineDrawProp.addAndNotRefreshDrawGraph(first);
+      lineDrawProp.addAndNotRefreshDrawGraph(first);
+      lineDrawProp.addAndNotRefreshDrawGraph(last);
+      lineDrawProp.addAndNotRefreshDrawGraph(last);
 
       lineDrawPropConnect(lineDrawProp, throughParam.fromPortPoints, true);
       lineDrawPropConnect(lineDrawProp, throughParam.toPortPoints, false);
@@ -85,7 +85,7 @@ class RoundedRouter extends CurveFitBoxRouter {
 
       if (prepre == null) {
         prepre = p1;
-        lineDrawProp.add(p1);
+        lineDrawProp.addAndNotRefreshDrawGraph(p1);
       }
 
       if (isCorner(p1, p2, p3)) {
@@ -95,18 +95,18 @@ class RoundedRouter extends CurveFitBoxRouter {
 
         MultiBezierCurve curves = getCorner(lt, p1, p2, p3, rt, radian, throughParam.lineRouterBoxes);
         if (curves.size() == 1) {
-          lineDrawProp.add(p1);
+          lineDrawProp.addAndNotRefreshDrawGraph(p1);
         }
 
         for (ThirdOrderBezierCurve curve : curves) {
           if (corner == null && curves.size() == 1) {
-            lineDrawProp.add(curve.getV1());
-            lineDrawProp.add(curve.getV1());
+            lineDrawProp.addAndNotRefreshDrawGraph(curve.getV1());
+            lineDrawProp.addAndNotRefreshDrawGraph(curve.getV1());
           }
 
-          lineDrawProp.add(curve.getV2());
-          lineDrawProp.add(curve.getV3());
-          lineDrawProp.add(curve.getV4());
+          lineDrawProp.addAndNotRefreshDrawGraph(curve.getV2());
+          lineDrawProp.addAndNotRefreshDrawGraph(curve.getV3());
+          lineDrawProp.addAndNotRefreshDrawGraph(curve.getV4());
 
           corner = curve;
         }
@@ -117,15 +117,15 @@ class RoundedRouter extends CurveFitBoxRouter {
         }
 
         if (corner != null && i == throughPoints.size() - 1) {
-          lineDrawProp.add(corner.getV4());
-          lineDrawProp.add(p3);
-          lineDrawProp.add(p3);
+          lineDrawProp.addAndNotRefreshDrawGraph(corner.getV4());
+          lineDrawProp.addAndNotRefreshDrawGraph(p3);
+          lineDrawProp.addAndNotRefreshDrawGraph(p3);
         }
       } else {
         if (i == throughPoints.size() - 1) {
-          lineDrawProp.add(p1);
-          lineDrawProp.add(p3);
-          lineDrawProp.add(p3);
+          lineDrawProp.addAndNotRefreshDrawGraph(p1);
+          lineDrawProp.addAndNotRefreshDrawGraph(p3);
+          lineDrawProp.addAndNotRefreshDrawGraph(p3);
         } else {
           pre = p3;
         }
@@ -152,7 +152,7 @@ class SplineRouter extends CurveFitBoxRouter {
   private void addAllLineProp(LineDrawProp lineDrawProp, List<FlatPoint> flatPoints) {
     int k = CollectionUtils.isEmpty(lineDrawProp) ? 0 : 1;
     for (; k < flatPoints.size(); k++) {
-      lineDrawProp.add(flatPoints.get(k));
+      lineDrawProp.addAndNotRefreshDrawGraph(flatPoints.get(k));
     }
   }
 
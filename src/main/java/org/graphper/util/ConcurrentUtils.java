@@ -0,0 +1,194 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Some methods to run the parallel work of layout on an executor.
+ *
+ * <p>The parallel steps of layout are nested, such as the components of a graph are laid out in
+ * parallel and every component runs its crossing minimization starts and routes its lines in
+ * parallel again. A task which waits for other tasks of the same bounded executor can take all
+ * threads of the executor and never return, so the methods here never wait for a task that has
+ * not started: the calling thread takes the tasks not started yet by itself, and a thread that is
+ * already running a task of the executor runs everything inline.
+ *
+ * @author Jamison Jiang
+ */
+public class ConcurrentUtils {
+
+  // The executor whose task is running in the current thread
+  private static final ThreadLocal<Executor> RUNNING_EXECUTOR = new ThreadLocal<>();
+
+  private ConcurrentUtils() {
+  }
+
+  /**
+   * Returns the specified executor, or {@link ForkJoinPool#commonPool()} if it is null.
+   *
+   * @param executor executor or null
+   * @return executor never null
+   */
+  public static Executor executor(Executor executor) {
+    return executor != null ? executor : ForkJoinPool.commonPool();
+  }
+
+  /**
+   * Returns whether the current thread is running a task of the executor, it is a worker thread
+   * of the {@link ForkJoinPool}, or a thread running a task submitted by
+   * {@link #stride(Executor, int, Supplier)}.
+   *
+   * @param executor executor, null is the {@link ForkJoinPool#commonPool()}
+   * @return true if the current thread is running a task of the executor
+   */
+  public static boolean inExecutor(Executor executor) {
+    Executor exec = executor(executor);
+    Thread thread = Thread.currentThread();
+    if (thread instanceof ForkJoinWorkerThread
+        && ((ForkJoinWorkerThread) thread).getPool() == exec) {
+      return true;
+    }
+    return RUNNING_EXECUTOR.get() == exec;
+  }
+
+  /**
+   * Returns the number of tasks the executor can run at the same time, the parallelism of
+   * {@link ForkJoinPool}, the maximum pool size of {@link ThreadPoolExecutor}, otherwise the
+   * number of processors.
+   *
+   * @param executor executor, null is the {@link ForkJoinPool#commonPool()}
+   * @return parallelism of executor
+   */
+  public static int parallelism(Executor executor) {
+    Executor exec = executor(executor);
+    if (exec instanceof ForkJoinPool) {
+      return ((ForkJoinPool) exec).getParallelism();
+    }
+    if (exec instanceof ThreadPoolExecutor) {
+      return ((ThreadPoolExecutor) exec).getMaximumPoolSize();
+    }
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Waits for the future and returns its result. If the future completed exceptionally by a
+   * {@link RuntimeException} or an {@link Error}, it is thrown as it is instead of the
+   * {@link CompletionException} wrapping it.
+   *
+   * @param future the future to wait for
+   * @param <T>    type of result
+   * @return the result of future
+   * @throws NullPointerException null future
+   */
+  public static <T> T join(CompletableFuture<T> future) {
+    Asserts.nullArgument(future, "future");
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Runs the indexes from 0 to size (exclusive) by some tasks, and waits for all of them. The
+   * number of tasks is the {@link #parallelism(Executor)} of executor at most, and every task runs
+   * the indexes by the task number as the step, so an index is never run by two tasks. Every task
+   * gets its own consumer from the supplier, which can keep the state used by one thread only.
+   *
+   * <p>The tasks are offered to the executor, but the current thread also takes the tasks not
+   * started yet, and only waits for the tasks running in other threads, so it never waits for a
+   * queued task and can be called in a task of any executor. If there is only one task, or the
+   * current thread is already running a task of the executor ({@link #inExecutor(Executor)}),
+   * all indexes run in the current thread, so the results of the consumers should not depend on
+   * the number of tasks.
+   *
+   * @param executor executor of tasks, null is the {@link ForkJoinPool#commonPool()}
+   * @param size     the number of indexes
+   * @param task     supplier of the consumer of indexes of a task
+   * @throws NullPointerException null task supplier
+   */
+  public static void stride(Executor executor, int size, Supplier<IntConsumer> task) {
+    Asserts.nullArgument(task, "task");
+    Executor exec = executor(executor);
+    int tasks = inExecutor(exec) ? 1 : Math.min(parallelism(exec), size);
+    if (tasks <= 1) {
+      IntConsumer consumer = task.get();
+      for (int i = 0; i < size; i++) {
+        consumer.accept(i);
+      }
+      return;
+    }
+
+    AtomicInteger next = new AtomicInteger();
+    @SuppressWarnings("unchecked")
+    CompletableFuture<Void>[] done = new CompletableFuture[tasks];
+    for (int i = 0; i < tasks; i++) {
+      done[i] = new CompletableFuture<>();
+    }
+    Runnable worker = () -> {
+      int t;
+      while ((t = next.getAndIncrement()) < tasks) {
+        try {
+          IntConsumer consumer = task.get();
+          for (int j = t; j < size; j += tasks) {
+            consumer.accept(j);
+          }
+          done[t].complete(null);
+        } catch (Throwable e) {
+          done[t].completeExceptionally(e);
+        }
+      }
+    };
+
+    for (int i = 1; i < tasks; i++) {
+      exec.execute(() -> {
+        Executor previous = RUNNING_EXECUTOR.get();
+        RUNNING_EXECUTOR.set(exec);
+        try {
+          worker.run();
+        } finally {
+          if (previous != null) {
+            RUNNING_EXECUTOR.set(previous);
+          } else {
+            RUNNING_EXECUTOR.remove();
+          }
+        }
+      });
+    }
+
+    // The tasks not taken by the executor yet run here, then only the running tasks are waited
+    worker.run();
+    for (CompletableFuture<Void> future : done) {
+      join(future);
+    }
+  }
+}
@@ -16,7 +16,13 @@
 
 package org.graphper.util;
 
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache_gs.commons.lang3.StringUtils;
 import org.graphper.def.FlatPoint;
 import org.graphper.layout.FontSelector;
@@ -31,9 +37,33 @@ public class FontUtils {
 
   private static final MeasureText MEASURE_TEXT;
 
+  /**
+   * The system property of the maximum number of measured texts kept in the cache, 0 means no
+   * cache.
+   */
+  public static final String MEASURE_CACHE_SIZE = "font.measure.cache.size";
+
+  private static final int DEFAULT_MEASURE_CACHE_SIZE = 4096;
+
+  private static final MeasureCache MEASURE_CACHE;
+
   static {
     MEASURE_TEXT = selectMeasureText();
     DEFAULT_FONT = selectDefaultFont();
+    MEASURE_CACHE = new MeasureCache(measureCacheSize());
+  }
+
+  private static int measureCacheSize() {
+    String size = System.getProperty(MEASURE_CACHE_SIZE);
+    if (StringUtils.isEmpty(size)) {
+      return DEFAULT_MEASURE_CACHE_SIZE;
+    }
+
+    try {
+      return Math.max(Integer.parseInt(size.trim()), 0);
+    } catch (NumberFormatException e) {
+      return DEFAULT_MEASURE_CACHE_SIZE;
+    }
   }
 
   private static MeasureText selectMeasureText() {
@@ -84,12 +114,217 @@ public class FontUtils {
    */
   public static FlatPoint measure(String label, String fontName,
                                   double fontSize, double widthIncr) {
-    FlatPoint size = MEASURE_TEXT.measure(label, fontName, fontSize);
+    FlatPoint size = MEASURE_CACHE.get(label, fontName, fontSize);
     if (size == null) {
-      throw new RuntimeException(
-          "Occurred unexpected error, MeasureText can not work and return null label size");
+      size = MEASURE_TEXT.measure(label, fontName, fontSize);
+      if (size == null) {
+        throw new RuntimeException(
+            "Occurred unexpected error, MeasureText can not work and return null label size");
+      }
+      MEASURE_CACHE.put(label, fontName, fontSize, size);
+    }
+
+    return new FlatPoint(size.getHeight(), size.getWidth() + widthIncr);
+  }
+
+  /**
+   * Change the maximum number of measured texts kept in the cache, the least recently used ones
+   * are evicted first, the order is approximate under concurrent measurements. 0 turns off the
+   * cache.
+   *
+   * @param size maximum number of cached texts
+   * @throws IllegalArgumentException size is negative
+   */
+  public static void setMeasureCacheSize(int size) {
+    Asserts.illegalArgument(size < 0, "measure cache size (" + size + ") can not be negative");
+    MEASURE_CACHE.resize(size);
+  }
+
+  /**
+   * Returns the number of measurements answered by the cache.
+   *
+   * @return cache hit count
+   */
+  public static long measureCacheHits() {
+    return MEASURE_CACHE.hits();
+  }
+
+  /**
+   * Returns the number of measurements that had to go to the {@link MeasureText}.
+   *
+   * @return cache miss count
+   */
+  public static long measureCacheMisses() {
+    return MEASURE_CACHE.misses();
+  }
+
+  /**
+   * Remove all measured texts from the cache and reset the hit and miss counters.
+   */
+  public static void clearMeasureCache() {
+    MEASURE_CACHE.clear();
+  }
+
+  /*
+   * Cache of measured text sizes shared by the parallel layouts, the lookups never block. Every
+   * entry keeps the value of a clock increased by each put, when the cache is larger than the
+   * maximum size, one thread removes the oldest entries and some more, so the eviction is close to
+   * the least recently added first and only runs once in a while. The cached sizes are never given
+   * to the caller.
+   */
+  private static class MeasureCache {
+
+    private final ConcurrentHashMap<MeasureKey, CachedSize> sizes = new ConcurrentHashMap<>();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private volatile int maxSize;
+
+    private MeasureCache(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    private FlatPoint get(String text, String fontName, double fontSize) {
+      if (maxSize == 0) {
+        misses.increment();
+        return null;
+      }
+
+      CachedSize size = sizes.get(new MeasureKey(text, fontName, fontSize));
+      if (size == null) {
+        misses.increment();
+        return null;
+      }
+
+      hits.increment();
+      size.stamp = clock.get();
+      return size.size;
+    }
+
+    private void put(String text, String fontName, double fontSize, FlatPoint size) {
+      if (maxSize == 0) {
+        return;
+      }
+
+      sizes.put(new MeasureKey(text, fontName, fontSize),
+                new CachedSize(new FlatPoint(size.getHeight(), size.getWidth()),
+                               clock.incrementAndGet()));
+      if (sizes.size() > maxSize && evictLock.tryLock()) {
+        try {
+          evict();
+        } finally {
+          evictLock.unlock();
+        }
+      }
+    }
+
+    private void resize(int maxSize) {
+      this.maxSize = maxSize;
+      evictLock.lock();
+      try {
+        evict();
+      } finally {
+        evictLock.unlock();
+      }
+    }
+
+    private void evict() {
+      int max = maxSize;
+      if (max == 0) {
+        sizes.clear();
+        return;
+      }
+
+      int remove = sizes.size() - max;
+      if (remove <= 0) {
+        return;
+      }
+
+      // Remove more than needed, so the next eviction is not at the next put
+      remove = Math.min(remove + max / 8, sizes.size());
+      long[] stamps = new long[sizes.size()];
+      int n = 0;
+      for (CachedSize size : sizes.values()) {
+        if (n == stamps.length) {
+          break;
+        }
+        stamps[n++] = size.stamp;
+      }
+      // The map can be emptied by clear after the stamps are sized
+      remove = Math.min(remove, n);
+      if (remove <= 0) {
+        return;
+      }
+      Arrays.sort(stamps, 0, n);
+      long threshold = stamps[remove - 1];
+      sizes.values().removeIf(size -> size.stamp <= threshold);
+    }
+
+    private long hits() {
+      return hits.sum();
+    }
+
+    private long misses() {
+      return misses.sum();
+    }
+
+    private void clear() {
+      sizes.clear();
+      hits.reset();
+      misses.reset();
+    }
+  }
+
+  private static class CachedSize {
+
+    private final FlatPoint size;
+
+    // The clock of the last put or hit
+    private volatile long stamp;
+
+    private CachedSize(FlatPoint size, long stamp) {
+      this.size = size;
+      this.stamp = stamp;
+    }
+  }
+
+  private static class MeasureKey {
+
+    private final String text;
+
+    private final String fontName;
+
+    private final double fontSize;
+
+    private MeasureKey(String text, String fontName, double fontSize) {
+      this.text = text;
+      this.fontName = fontName;
+      this.fontSize = fontSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      MeasureKey that = (MeasureKey) o;
+      return Double.compare(that.fontSize, fontSize) == 0
+          && Objects.equals(text, that.text)
+          && Objects.equals(fontName, that.fontName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(text, fontName, fontSize);
     }
-    size.setWidth(size.getWidth() + widthIncr);
-    return size;
   }
 }
@@ -19,7 +19,12 @@ package org.graphper.api;
 import helper.DocumentUtils;
 import helper.SerialHelper;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Phaser;
+import java.util.stream.Stream;
 import org.graphper.api.Cluster;
 import org.graphper.api.GraphAttrs;
 import org.graphper.api.Graphviz;
@@ -29,6 +34,7 @@ import org.graphper.api.Subgraph;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.graphper.def.CycleDependencyException;
+import org.graphper.draw.ExecuteException;
 import org.graphper.api.GraphContainer.GraphContainerBuilder;
 import org.graphper.api.Graphviz.GraphvizBuilder;
 import org.graphper.api.Subgraph.IntegrationSubgraphBuilder;
@@ -178,6 +184,62 @@ public class GraphvizTest {
         });
   }
 
+  @Test
+  public void testRenderLayoutMultipleTimes() throws ExecuteException, IOException {
+    Node a = Node.builder().label("a").build();
+    Node b = Node.builder().label("b").build();
+    Graphviz graphviz = Graphviz.digraph().addLine(a, b).build();
+
+    GraphLayout layout = graphviz.toLayout();
+    String svg = new String(layout.toSvg().bytes());
+    Assertions.assertEquals(svg, new String(layout.toFile(null).bytes()));
+
+    Map<FileType, GraphResource> resources = layout.toFiles(FileType.SVG, FileType.SVG);
+    Assertions.assertEquals(1, resources.size());
+    Assertions.assertEquals(svg, new String(resources.get(FileType.SVG).bytes()));
+    Assertions.assertThrows(NullPointerException.class,
+                            () -> layout.toFiles((FileType) null));
+  }
+
+  @Test
+  public void testBulk() throws ExecuteException {
+    Node[] nodes = new Node[5];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = Node.builder().label(String.valueOf(nodes.length - i)).build();
+    }
+    List<Line> lines = new ArrayList<>();
+    for (int i = 1; i < nodes.length; i++) {
+      lines.add(Line.builder(nodes[i - 1], nodes[i]).build());
+    }
+
+    GraphvizBuilder builder = Graphviz.digraph()
+        .bulk(nodes.length, lines.size())
+        .addNodes(Arrays.asList(nodes))
+        .addLines(lines);
+    Graphviz g1 = builder.build();
+
+    // Insertion order instead of label order
+    List<Node> order = new ArrayList<>();
+    g1.nodes().forEach(order::add);
+    Assertions.assertEquals(Arrays.asList(nodes), order);
+    List<Line> lineOrder = new ArrayList<>();
+    g1.lines().forEach(lineOrder::add);
+    Assertions.assertEquals(lines, lineOrder);
+
+    // Adding after building does not change the built graph
+    Node extra = Node.builder().label("extra").build();
+    Graphviz g2 = builder.addNodes(Stream.of(extra)::iterator).build();
+    Assertions.assertEquals(5, g1.nodeNum());
+    Assertions.assertEquals(6, g2.nodeNum());
+    Assertions.assertFalse(g1.containsNode(extra));
+    Assertions.assertTrue(g2.containsNode(extra));
+
+    Assertions.assertNotNull(g2.toLayout().toSvg());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Graphviz.digraph().bulk(-1, 0));
+    Assertions.assertThrows(NullPointerException.class,
+                            () -> Graphviz.digraph().addNodes(Arrays.asList(nodes[0], null)));
+  }
+
   private void build(GraphContainerBuilder c, int a, int b) {
     if (a > b) {
       return;
@@ -102,6 +102,39 @@ public class BagTest {
     Assertions.assertTrue(isEmpty(bag));
   }
 
+  @Test
+  public void testSwapRemove() {
+    Bag<Integer, Integer> bag = new Bag<>(0);
+    bag.swapRemove = true;
+    for (int v = 1; v <= 10; v++) {
+      bag.add(v);
+    }
+
+    bag.remove(2);
+    bag.removeIf(v -> Objects.equals(v, 10));
+    // The last member fills the removed slot
+    int[] expected = {1, 9, 3, 4, 5, 6, 7, 8};
+    int i = 0;
+    for (Integer v : bag) {
+      Assertions.assertEquals(expected[i++], v);
+    }
+    Assertions.assertEquals(expected.length, i);
+
+    Iterator<Integer> iterator = bag.iterator();
+    int visited = 0;
+    while (iterator.hasNext()) {
+      visited++;
+      if (iterator.next() % 2 == 1) {
+        iterator.remove();
+      }
+    }
+    Assertions.assertEquals(8, visited);
+    for (Integer v : bag) {
+      Assertions.assertEquals(0, v % 2);
+    }
+    Assertions.assertEquals(3, size(bag));
+  }
+
   @Test
   public void testUnmodify() {
     Bag<Integer, Integer> bag = new Bag<>(true);
@@ -248,4 +248,29 @@ public class DirectedEdgeGraphTest {
 
         });
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testVertexInManyGraphs() {
+    // More graphs than the inline index slots of a vertex, queried alternately
+    DirectedEdgeGraph<GNode, GEdge>[] graphs = new DirectedEdgeGraph[4];
+    for (int i = 0; i < graphs.length; i++) {
+      graphs[i] = new DirectedEdgeGraph<>();
+      for (int j = 0; j < i; j++) {
+        graphs[i].add(newNode("pad" + j));
+      }
+      graphs[i].addEdge(newEdge(n1, n2));
+      graphs[i].addEdge(newEdge(n2, n3));
+    }
+
+    graphs[1].remove(n1);
+    graphs[3].copy().remove(n2);
+    for (int k = 0; k < 3; k++) {
+      for (int i = 0; i < graphs.length; i++) {
+        assertAdjEquals(graphs[i], n2, n3);
+        Assertions.assertEquals(i == 1 ? 0 : 1, graphs[i].degree(n1));
+        Assertions.assertEquals(i + (i == 1 ? 2 : 3), graphs[i].vertexNum());
+      }
+    }
+  }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.graphper.api.Cluster;
+import org.graphper.api.GraphLayout;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Graphviz.GraphvizBuilder;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.ext.Box;
+import org.graphper.api.ext.DefaultBox;
+import org.graphper.def.FlatPoint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DrawGraphIndexTest {
+
+  @Test
+  public void testQuery() throws ExecuteException {
+    DrawGraph drawGraph = graph().toLayout().getDrawGraph();
+    DrawGraphIndex index = new DrawGraphIndex(drawGraph, 4);
+    Assertions.assertEquals(drawGraph.clusters().size() + drawGraph.getNodeNum()
+                                + drawGraph.lines().size(), index.size());
+
+    Random random = new Random(7);
+    for (int i = 0; i < 100; i++) {
+      double x = random.nextDouble() * drawGraph.width();
+      double y = random.nextDouble() * drawGraph.height();
+      Box area = new DefaultBox(x, x + random.nextDouble() * 200,
+                                y, y + random.nextDouble() * 200);
+
+      List<NodeDrawProp> nodes = new ArrayList<>();
+      for (NodeDrawProp node : drawGraph.nodes()) {
+        if (intersect(node, area)) {
+          nodes.add(node);
+        }
+      }
+      List<ClusterDrawProp> clusters = new ArrayList<>();
+      for (ClusterDrawProp cluster : drawGraph.clusters()) {
+        if (intersect(cluster, area)) {
+          clusters.add(cluster);
+        }
+      }
+      clusters.sort(Comparator.comparing(ClusterDrawProp::getClusterNo).reversed());
+      Viewport viewport = index.viewport(area);
+      Assertions.assertEquals(nodes, viewport.nodes());
+      Assertions.assertEquals(clusters, viewport.clusters());
+
+      for (LineDrawProp line : drawGraph.lines()) {
+        for (FlatPoint point : line) {
+          if (area.in(point.getX(), point.getY())) {
+            Assertions.assertTrue(viewport.lines().contains(line));
+          }
+        }
+      }
+    }
+
+    Assertions.assertTrue(index.viewport(new DefaultBox(-100, -50, -100, -50)).nodes().isEmpty());
+    Assertions.assertThrows(NullPointerException.class, () -> index.viewport(null));
+  }
+
+  @Test
+  public void testHit() throws ExecuteException {
+    DrawGraph drawGraph = graph().toLayout().getDrawGraph();
+    DrawGraphIndex index = new DrawGraphIndex(drawGraph);
+
+    for (NodeDrawProp node : drawGraph.nodes()) {
+      Assertions.assertSame(node, index.nodeAt(node.getX(), node.getY()));
+    }
+    Assertions.assertNull(index.nodeAt(-10, -10));
+
+    for (LineDrawProp line : drawGraph.lines()) {
+      FlatPoint start = line.getStart() != null ? line.getStart() : line.get(0);
+      LineDrawProp hit = index.lineAt(start.getX(), start.getY(), 1);
+      Assertions.assertNotNull(hit);
+    }
+    Assertions.assertNull(index.lineAt(-10, -10, 1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> index.lineAt(0, 0, -1));
+
+    for (ClusterDrawProp cluster : drawGraph.clusters()) {
+      ClusterDrawProp hit = index.clusterAt(cluster.getLeftBorder() + 1,
+                                            cluster.getUpBorder() + 1);
+      Assertions.assertSame(cluster, hit);
+    }
+  }
+
+  @Test
+  public void testViewportSvg() throws ExecuteException, IOException {
+    GraphLayout layout = graph().toLayout();
+    DrawGraph drawGraph = layout.getDrawGraph();
+    Box area = new DefaultBox(drawGraph.width() / 4, drawGraph.width() * 3 / 4,
+                              0, drawGraph.height() / 2);
+    String svg = new String(layout.toSvg(area).bytes(), StandardCharsets.UTF_8);
+
+    List<NodeDrawProp> nodes = layout.index().nodes(area);
+    Assertions.assertFalse(nodes.isEmpty());
+    Assertions.assertTrue(nodes.size() < drawGraph.getNodeNum());
+    for (NodeDrawProp node : drawGraph.nodes()) {
+      Assertions.assertEquals(nodes.contains(node),
+                              svg.contains("id=\"" + drawGraph.nodeId(node.getNode()) + "\""));
+    }
+
+    FlatPoint scale = drawGraph.getGraphviz().graphAttrs().getScale();
+    double scaleX = scale != null ? scale.getX() : 1;
+    double scaleY = scale != null ? scale.getY() : 1;
+    Assertions.assertTrue(svg.contains("viewBox=\"" + area.getLeftBorder() * scaleX + " 0.0 "
+                                           + area.getWidth() * scaleX + " "
+                                           + area.getHeight() * scaleY + "\""));
+  }
+
+  private static Graphviz graph() {
+    GraphvizBuilder builder = Graphviz.digraph();
+    Node[] nodes = new Node[40];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = Node.builder().label("n" + i).build();
+    }
+    for (int i = 1; i < nodes.length; i++) {
+      builder.addLine(Line.builder(nodes[(i - 1) / 2], nodes[i]).label("l" + i).build());
+    }
+    builder.addLine(nodes[39], nodes[0]);
+    Cluster inner = Cluster.builder().label("inner").addNode(nodes[7]).addNode(nodes[8]).build();
+    builder.cluster(Cluster.builder().label("outer").addNode(nodes[3]).cluster(inner).build());
+    return builder.build();
+  }
+
+  private static boolean intersect(Box box, Box area) {
+    return box.getLeftBorder() <= area.getRightBorder()
+        && box.getRightBorder() >= area.getLeftBorder()
+        && box.getUpBorder() <= area.getDownBorder()
+        && box.getDownBorder() >= area.getUpBorder();
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.geometry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.graphper.api.Cluster;
+import org.graphper.api.FloatLabel;
+import org.graphper.api.GraphLayout;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.attributes.NodeStyle;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.ExecuteException;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.NodeDrawProp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GeometryRenderEngineTest {
+
+  @Test
+  public void testJson() throws ExecuteException, IOException {
+    GraphLayout layout = graph().toLayout();
+    DrawGraph drawGraph = layout.getDrawGraph();
+    byte[] bytes = layout.toGeometry(GeometryFormat.JSON).bytes();
+    String json = new String(bytes, StandardCharsets.UTF_8);
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    layout.writeGeometry(GeometryFormat.JSON, os);
+    Assertions.assertArrayEquals(bytes, os.toByteArray());
+
+    Assertions.assertTrue(json.startsWith("{\"width\":"));
+    Assertions.assertTrue(json.endsWith("]}"));
+    Assertions.assertTrue(json.contains("\"label\":\"b \\\"quoted\\\"\\nlabel\""));
+    Assertions.assertTrue(json.contains("\"floatLabels\":[{\"label\":\"float\""));
+    for (NodeDrawProp node : drawGraph.nodes()) {
+      boolean visible = node.nodeAttrs().getStyle() != NodeStyle.INVIS;
+      String id = drawGraph.nodeId(node.getNode());
+      Assertions.assertEquals(visible, json.contains("\"id\":\"" + id + "\""));
+    }
+    Assertions.assertTrue(bytes.length < layout.toSvg().bytes().length / 2);
+  }
+
+  @Test
+  public void testBinary() throws ExecuteException, IOException {
+    GraphLayout layout = graph().toLayout();
+    DrawGraph drawGraph = layout.getDrawGraph();
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    layout.writeGeometry(GeometryFormat.BINARY, os);
+    byte[] bytes = os.toByteArray();
+    Assertions.assertArrayEquals(bytes, layout.toGeometry(GeometryFormat.BINARY).bytes());
+
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    int tableLength = buffer.getInt(bytes.length - 4);
+    buffer.position(bytes.length - 4 - tableLength);
+    List<String> strings = new ArrayList<>();
+    for (int i = buffer.getInt(); i > 0; i--) {
+      byte[] s = new byte[buffer.getInt()];
+      buffer.get(s);
+      strings.add(new String(s, StandardCharsets.UTF_8));
+    }
+
+    buffer.position(0);
+    Assertions.assertEquals('G', buffer.get());
+    Assertions.assertEquals('S', buffer.get());
+    Assertions.assertEquals('G', buffer.get());
+    Assertions.assertEquals('B', buffer.get());
+    Assertions.assertEquals(BinaryGeometryWriter.VERSION, buffer.getInt());
+    Assertions.assertEquals((float) drawGraph.width(), buffer.getFloat());
+    Assertions.assertEquals((float) drawGraph.height(), buffer.getFloat());
+    buffer.getFloat();
+    buffer.getFloat();
+
+    List<String> nodeIds = new ArrayList<>();
+    List<String> lineIds = new ArrayList<>();
+    byte type;
+    while ((type = buffer.get()) != BinaryGeometryWriter.END) {
+      String id = strings.get(buffer.getInt());
+      float left = buffer.getFloat();
+      float up = buffer.getFloat();
+      float right = buffer.getFloat();
+      float down = buffer.getFloat();
+      buffer.getInt();
+      buffer.getFloat();
+      buffer.getFloat();
+      if (type == GeometryBrush.NODE) {
+        NodeDrawProp node = nodeById(drawGraph, id);
+        Assertions.assertEquals((float) node.getLeftBorder(), left);
+        Assertions.assertEquals((float) node.getDownBorder(), down);
+        Assertions.assertTrue(right > left && down > up);
+        buffer.getInt();
+        nodeIds.add(id);
+      } else if (type == GeometryBrush.LINE) {
+        Assertions.assertTrue(Float.isNaN(left));
+        buffer.getInt();
+        buffer.getInt();
+        byte flags = buffer.get();
+        int n = buffer.getInt();
+        Assertions.assertTrue(n > 0);
+        buffer.position(buffer.position() + n * 8);
+        buffer.position(buffer.position() + Integer.bitCount(flags & 6) * 16);
+        for (int m = buffer.getInt(); m > 0; m--) {
+          Assertions.assertEquals("float", strings.get(buffer.getInt()));
+          buffer.getFloat();
+          buffer.getFloat();
+        }
+        lineIds.add(id);
+      }
+    }
+    Assertions.assertEquals(bytes.length - 4 - tableLength, buffer.position());
+
+    List<String> expectNodes = new ArrayList<>();
+    for (NodeDrawProp node : drawGraph.nodes()) {
+      if (node.nodeAttrs().getStyle() != NodeStyle.INVIS) {
+        expectNodes.add(drawGraph.nodeId(node.getNode()));
+      }
+    }
+    List<String> expectLines = new ArrayList<>();
+    for (LineDrawProp line : drawGraph.lines()) {
+      expectLines.add(drawGraph.lineId(line.getLine()));
+    }
+    Assertions.assertEquals(expectNodes, nodeIds);
+    Assertions.assertEquals(expectLines, lineIds);
+  }
+
+  private static NodeDrawProp nodeById(DrawGraph drawGraph, String id) {
+    for (NodeDrawProp node : drawGraph.nodes()) {
+      if (drawGraph.nodeId(node.getNode()).equals(id)) {
+        return node;
+      }
+    }
+    throw new AssertionError(id);
+  }
+
+  private static Graphviz graph() {
+    Node a = Node.builder().label("a").build();
+    Node b = Node.builder().label("b \"quoted\"\nlabel").build();
+    Node c = Node.builder().label("c").build();
+    Node d = Node.builder().label("invisible").style(NodeStyle.INVIS).build();
+    return Graphviz.digraph()
+        .label("geometry")
+        .addLine(Line.builder(a, b).label("ab").floatLabels(FloatLabel.builder().label("float")
+                                                                .build()).build())
+        .addLine(b, c)
+        .addLine(a, c)
+        .addLine(c, d)
+        .cluster(Cluster.builder().label("cluster").addNode(b).addNode(c).build())
+        .build();
+  }
+}
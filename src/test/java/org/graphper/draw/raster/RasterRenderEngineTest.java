@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import org.graphper.api.Cluster;
+import org.graphper.api.FileType;
+import org.graphper.api.GraphLayout;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.attributes.ArrowShape;
+import org.graphper.api.attributes.ClusterStyle;
+import org.graphper.api.attributes.LineStyle;
+import org.graphper.api.attributes.NodeShapeEnum;
+import org.graphper.api.attributes.NodeStyle;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.ExecuteException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RasterRenderEngineTest {
+
+  @Test
+  public void testRenderImage() throws ExecuteException, IOException {
+    Node a = Node.builder().label("a").build();
+    Node b = Node.builder().label("{b|{c|d}}").shape(NodeShapeEnum.RECORD).build();
+    Node c = Node.builder().label("c").shape(NodeShapeEnum.CYLINDER).style(NodeStyle.DASHED)
+        .build();
+    Node d = Node.builder().label("invisible").style(NodeStyle.INVIS).build();
+    Graphviz graphviz = Graphviz.digraph()
+        .label("raster")
+        .addLine(Line.builder(a, b).label("ab").arrowHead(ArrowShape.VEE).build())
+        .addLine(Line.builder(b, c).arrowHead(ArrowShape.CURVE).style(LineStyle.DOTTED).build())
+        .addLine(Line.builder(a, c).style(LineStyle.INVIS).build())
+        .addLine(c, d)
+        .cluster(Cluster.builder().label("cluster").style(ClusterStyle.ROUNDED)
+                     .addNode(b).addNode(c).build())
+        .build();
+
+    GraphLayout layout = graphviz.toLayout();
+    DrawGraph drawGraph = layout.getDrawGraph();
+    Assertions.assertTrue(RasterRenderEngine.support(drawGraph));
+
+    FlatPoint scale = graphviz.graphAttrs().getScale();
+    double scaleX = scale != null ? scale.getX() : 1;
+    double scaleY = scale != null ? scale.getY() : 1;
+    int width = (int) ((int) (drawGraph.width() * scaleX) * RasterDrawBoard.PX_PER_PT);
+    int height = (int) ((int) (drawGraph.height() * scaleY) * RasterDrawBoard.PX_PER_PT);
+
+    for (FileType fileType : new FileType[]{FileType.PNG, FileType.JPG, FileType.GIF}) {
+      byte[] bytes = RasterRenderEngine.getInstance().render(drawGraph, fileType).bytes();
+      BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+      Assertions.assertNotNull(image);
+      Assertions.assertEquals(width, image.getWidth());
+      Assertions.assertEquals(height, image.getHeight());
+      Assertions.assertTrue(hasDarkPixel(image));
+    }
+
+    byte[] png = RasterRenderEngine.getInstance().render(drawGraph, FileType.PNG).bytes();
+    Assertions.assertArrayEquals(png, layout.toFile(FileType.PNG).bytes());
+  }
+
+  @Test
+  public void testOnlyRemoveCurrent() throws ExecuteException {
+    Node a = Node.builder().label("a").build();
+    Node b = Node.builder().label("b").build();
+    DrawGraph drawGraph = Graphviz.digraph().addLine(a, b).build().toLayout().getDrawGraph();
+
+    RasterDrawBoard drawBoard = new RasterDrawBoard(drawGraph, FileType.PNG);
+    drawBoard.drawNode(drawGraph.getNodeDrawProp(a));
+    Assertions.assertFalse(drawBoard.removeNode(b));
+    Assertions.assertTrue(drawBoard.removeNode(a));
+    Assertions.assertFalse(drawBoard.removeNode(a));
+    Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> new RasterDrawBoard(drawGraph, FileType.SVG));
+  }
+
+  private static boolean hasDarkPixel(BufferedImage image) {
+    for (int x = 0; x < image.getWidth(); x++) {
+      for (int y = 0; y < image.getHeight(); y++) {
+        if ((image.getRGB(x, y) & 0xff) < 64) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
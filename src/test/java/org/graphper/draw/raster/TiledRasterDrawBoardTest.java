@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.raster;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import javax.imageio.ImageIO;
+import org.graphper.api.Cluster;
+import org.graphper.api.FileType;
+import org.graphper.api.GraphLayout;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.attributes.NodeShapeEnum;
+import org.graphper.draw.DefaultPipelineFactory;
+import org.graphper.draw.DrawBoard;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.ExecuteException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TiledRasterDrawBoardTest {
+
+  @Test
+  public void testSameAsWholeImage() throws ExecuteException, IOException {
+    Node a = Node.builder().label("a").build();
+    Node b = Node.builder().label("{b|{c|d}}").shape(NodeShapeEnum.RECORD).build();
+    Node c = Node.builder().label("c").shape(NodeShapeEnum.CYLINDER).build();
+    Node d = Node.builder().label("d").build();
+    Graphviz graphviz = Graphviz.digraph()
+        .label("tiled")
+        .addLine(Line.builder(a, b).label("ab").build())
+        .addLine(b, c)
+        .addLine(a, d)
+        .addLine(d, c)
+        .cluster(Cluster.builder().label("cluster").addNode(b).addNode(c).build())
+        .build();
+
+    GraphLayout layout = graphviz.toLayout();
+    byte[] whole = RasterRenderEngine.getInstance()
+        .render(layout.getDrawGraph(), FileType.PNG).bytes();
+    BufferedImage expected = read(whole);
+
+    RasterRenderEngine tiledEngine = new RasterRenderEngine(new DefaultPipelineFactory()) {
+      @Override
+      protected DrawBoard<RasterBrush, RasterBrush, RasterBrush, RasterBrush> drawBoard(
+          DrawGraph drawGraph, Object attach) {
+        return new TiledRasterDrawBoard(drawGraph, null, ForkJoinPool.commonPool(), 37);
+      }
+    };
+    byte[] tiled = tiledEngine.render(layout.getDrawGraph(), null).bytes();
+    assertSameImage(expected, read(tiled));
+    // The rows are filtered, so the size is close to the image written by ImageIO
+    Assertions.assertTrue(tiled.length < whole.length * 1.2,
+                          tiled.length + " bytes, ImageIO " + whole.length + " bytes");
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    layout.writePng(os);
+    assertSameImage(expected, read(os.toByteArray()));
+  }
+
+  @Test
+  public void testIllegalArgument() throws ExecuteException {
+    DrawGraph drawGraph = Graphviz.digraph().addNode(Node.builder().build()).build()
+        .toLayout().getDrawGraph();
+    Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> new TiledRasterDrawBoard(drawGraph, null,
+                                                           ForkJoinPool.commonPool(), 0));
+    Assertions.assertThrows(NullPointerException.class,
+                            () -> new TiledRasterDrawBoard(drawGraph, null, null, 16));
+  }
+
+  private static BufferedImage read(byte[] bytes) throws IOException {
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+    Assertions.assertNotNull(image);
+    return image;
+  }
+
+  private static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+    Assertions.assertEquals(expected.getWidth(), actual.getWidth());
+    Assertions.assertEquals(expected.getHeight(), actual.getHeight());
+    for (int x = 0; x < expected.getWidth(); x++) {
+      for (int y = 0; y < expected.getHeight(); y++) {
+        int e = expected.getRGB(x, y);
+        int a = actual.getRGB(x, y);
+        // The antialiasing coverage may be rounded differently at the edges of tiles
+        for (int shift = 0; shift < 32; shift += 8) {
+          Assertions.assertTrue(Math.abs(((e >> shift) & 0xff) - ((a >> shift) & 0xff)) <= 2);
+        }
+      }
+    }
+  }
+}
@@ -96,6 +96,45 @@ public class SvgDocumentTest {
     Assertions.assertFalse(svgDocument.toXml().contains("polygon"));
   }
 
+  @Test
+  public void testChildOrder() {
+    SvgDocument svgDocument = new SvgDocument();
+    SvgElement svg = svgDocument.createElement("svg");
+    Element a = svg.createChildElement("a");
+    Element b = svg.createChildElement("b");
+    Element c = svg.createChildElement("c");
+    c.createChildElement("d");
+
+    // The element that gets an id last is the last child
+    a.setAttribute(SvgConstants.ID, "a");
+    Assertions.assertEquals("<svg><b></b><c><d></d></c><a id=\"a\"></a></svg>",
+                            body(svgDocument));
+
+    c.setId("c");
+    svgDocument.removeEle("c");
+    Assertions.assertEquals("<svg><b></b><a id=\"a\"></a></svg>", body(svgDocument));
+
+    // The element that takes the id of another one replaces it
+    b.setId("a");
+    Assertions.assertEquals(b, svgDocument.getElementById("a"));
+    Assertions.assertTrue(svgDocument.toXml().endsWith("<svg><b></b></svg>"));
+  }
+
+  @Test
+  public void testEscape() {
+    String num = "12.5,-3.0 4";
+    Assertions.assertSame(num, SvgElement.escape(num));
+    Assertions.assertEquals("a &amp; &lt;b&gt; &quot;c&quot; &apos;d&apos;",
+                            SvgElement.escape("a & <b> \"c\" 'd'"));
+    Assertions.assertEquals("\u4e2d\u6587", SvgElement.escape("\u4e2d\u6587"));
+    Assertions.assertEquals("a&#11;b", SvgElement.escape("a\u000bb"));
+  }
+
+  private String body(SvgDocument svgDocument) {
+    String xml = svgDocument.toXml();
+    return xml.substring(xml.indexOf("<svg>"));
+  }
+
   @Test
   public void testSerial() throws IOException, ClassNotFoundException {
     SvgDocument svgDocument = new SvgDocument();
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.svg;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.graphper.api.Cluster;
+import org.graphper.api.GraphLayout;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.attributes.Color;
+import org.graphper.api.attributes.LineStyle;
+import org.graphper.api.attributes.NodeStyle;
+import org.graphper.draw.ExecuteException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SvgRenderResultTest {
+
+  @Test
+  public void testRerender() throws ExecuteException, IOException {
+    Node a = Node.builder().id("a").label("a").build();
+    Node b = Node.builder().id("b").label("b").build();
+    Node c = Node.builder().id("c").label("c").build();
+    Line ab = Line.builder(a, b).id("ab").build();
+    Cluster cluster = Cluster.builder().id("cluster").label("cluster").addNode(b).addNode(c).build();
+    Graphviz graphviz = Graphviz.digraph()
+        .addLine(ab)
+        .addLine(b, c)
+        .cluster(cluster)
+        .build();
+
+    GraphLayout layout = graphviz.toLayout();
+    SvgRenderResult result = layout.toSvgResult();
+    String svg = svg(layout);
+    Assertions.assertEquals(svg, result.toXml());
+
+    // Same node with new color, and the unchanged cluster
+    Node newB = Node.builder().id("b").label("new b").color(Color.RED).build();
+    List<SvgPatch> patches = result.rerender(Arrays.asList(newB, cluster));
+    Assertions.assertEquals(2, patches.size());
+    SvgPatch patch = patches.get(0);
+    Assertions.assertEquals(SvgPatch.Op.REPLACE, patch.getOp());
+    Assertions.assertEquals("b", patch.getId());
+    Assertions.assertTrue(patch.getXml().contains("new b"));
+    Assertions.assertTrue(patch.getXml().contains(Color.RED.value()));
+    Assertions.assertEquals(SvgPatch.Op.REPLACE, patches.get(1).getOp());
+    Assertions.assertTrue(result.toXml().contains(patch.getXml()));
+    Assertions.assertEquals(svg, svg(layout));
+
+    // The invisible node keeps an empty group
+    Node invisA = Node.builder().id("a").style(NodeStyle.INVIS).build();
+    patch = result.rerender(Collections.singletonList(invisA)).get(0);
+    Assertions.assertEquals(SvgPatch.Op.REPLACE, patch.getOp());
+    Assertions.assertTrue(result.toXml().contains(patch.getXml()));
+
+    Line invisAb = Line.builder(a, b).id("ab").style(LineStyle.INVIS).build();
+    patch = result.rerender(Collections.singletonList(invisAb)).get(0);
+    Assertions.assertEquals(SvgPatch.Op.REPLACE, patch.getOp());
+    Assertions.assertEquals("<g id=\"ab\"></g>", patch.getXml());
+    Assertions.assertTrue(result.toXml().contains(patch.getXml()));
+
+    // The missing element is inserted before the next element in the order of drawing
+    result.drawBoard().removeLine(ab);
+    Line newAb = Line.builder(a, b).id("ab").style(LineStyle.SOLID).color(Color.BLUE).build();
+    patch = result.rerender(Collections.singletonList(newAb)).get(0);
+    Assertions.assertEquals(SvgPatch.Op.INSERT, patch.getOp());
+    Assertions.assertTrue(patch.getXml().contains(Color.BLUE.value()));
+    Assertions.assertTrue(result.toXml().contains(patch.getXml()));
+
+    // The null attributes of the new element keep the current values
+    patch = result.rerender(Collections.singletonList(Node.builder().id("b").build())).get(0);
+    Assertions.assertTrue(patch.getXml().contains("new b"));
+    Assertions.assertTrue(patch.getXml().contains(Color.RED.value()));
+    patch = result.rerender(
+        Collections.singletonList(Node.builder().id("b").color(Color.BLACK).build())).get(0);
+    Assertions.assertFalse(patch.getXml().contains(Color.RED.value()));
+
+    // The new cluster with the id of the layout
+    Cluster newCluster = Cluster.builder().id("cluster").bgColor(Color.YELLOW).build();
+    patch = result.rerender(Collections.singletonList(newCluster)).get(0);
+    Assertions.assertEquals(SvgPatch.Op.REPLACE, patch.getOp());
+    Assertions.assertTrue(patch.getXml().contains("cluster"));
+    Assertions.assertTrue(patch.getXml().contains(Color.YELLOW.value()));
+    Assertions.assertTrue(result.toXml().contains(patch.getXml()));
+
+    // The element of the layout is drawn with the attributes it was laid out with
+    patch = result.rerender(Collections.singletonList(b)).get(0);
+    Assertions.assertFalse(patch.getXml().contains("new b"));
+    Assertions.assertTrue(result.toXml().contains(patch.getXml()));
+
+    // The shared layout is never changed
+    Assertions.assertEquals(svg, svg(layout));
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> result.rerender(
+        Collections.singletonList(Node.builder().id("d").build())));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> result.rerender(
+        Collections.singletonList(Cluster.builder().id("other").build())));
+    Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> result.rerender(Collections.singletonList("a")));
+  }
+
+  private static String svg(GraphLayout layout) throws ExecuteException, IOException {
+    return new String(layout.toSvg().bytes(), StandardCharsets.UTF_8);
+  }
+}
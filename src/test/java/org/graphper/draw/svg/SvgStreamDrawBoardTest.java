@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.draw.svg;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import org.graphper.api.Cluster;
+import org.graphper.api.GraphLayout;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.attributes.NodeStyle;
+import org.graphper.draw.ExecuteException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SvgStreamDrawBoardTest {
+
+  @Test
+  public void testSameAsSvgDocument() throws ExecuteException, IOException {
+    Node a = Node.builder().label("a").href("https://github.com").build();
+    Node b = Node.builder().label("b & <c>").build();
+    Node c = Node.builder().label("c").build();
+    Node d = Node.builder().label("invisible").style(NodeStyle.INVIS).build();
+    Graphviz graphviz = Graphviz.digraph()
+        .label("stream")
+        .addLine(Line.builder(a, b).label("ab").build())
+        .addLine(b, c)
+        .addLine(c, d)
+        .cluster(Cluster.builder().label("cluster").addNode(b).addNode(c).build())
+        .build();
+
+    GraphLayout layout = graphviz.toLayout();
+    String svg = new String(layout.toSvg().bytes(), StandardCharsets.UTF_8);
+
+    StringWriter writer = new StringWriter();
+    layout.writeSvg(writer);
+    Assertions.assertEquals(svg, writer.toString());
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    layout.writeSvg(os);
+    Assertions.assertEquals(svg, new String(os.toByteArray(), StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout;
+
+import org.graphper.api.Cluster;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Line;
+import org.graphper.api.LineAttrs;
+import org.graphper.api.Node;
+import org.graphper.api.NodeAttrs;
+import org.graphper.api.Subgraph;
+import org.graphper.api.attributes.ArrowShape;
+import org.graphper.api.attributes.Color;
+import org.graphper.api.attributes.NodeShapeEnum;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.ExecuteException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AttrsTemplateTest {
+
+  @Test
+  public void testNodeTemplate() throws ExecuteException {
+    Node a = Node.builder().label("a").build();
+    Node b = Node.builder().label("b").build();
+    Node c = Node.builder().label("c").build();
+    Node d = Node.builder().label("d").build();
+    Node e = Node.builder().label("e").color(Color.BLUE).shape(NodeShapeEnum.STAR).build();
+    Node f = Node.builder().label("f").build();
+    Graphviz graphviz = Graphviz.digraph()
+        .tempNode(Node.builder().shape(NodeShapeEnum.RECT).color(Color.RED).fontSize(20).build())
+        .addNode(a)
+        .addNode(e)
+        .cluster(
+            Cluster.builder()
+                .tempNode(Node.builder().shape(NodeShapeEnum.TRIANGLE).build())
+                .addNode(b)
+                .subgraph(
+                    Subgraph.builder()
+                        .tempNode(Node.builder().shape(NodeShapeEnum.CIRCLE).build())
+                        .addNode(c)
+                        .build()
+                )
+                .cluster(Cluster.builder().addNode(f).build())
+                .build()
+        )
+        .cluster(Cluster.builder().addNode(d).build())
+        .build();
+    DrawGraph drawGraph = graphviz.toLayout().getDrawGraph();
+
+    // The root template
+    NodeAttrs attrs = drawGraph.getNodeDrawProp(a).nodeAttrs();
+    Assertions.assertEquals(NodeShapeEnum.RECT.getName(), attrs.getNodeShape().getName());
+    Assertions.assertEquals(Color.RED, attrs.getColor());
+    Assertions.assertEquals(20d, attrs.getFontSize(), 0);
+    attrs = drawGraph.getNodeDrawProp(d).nodeAttrs();
+    Assertions.assertEquals(NodeShapeEnum.RECT.getName(), attrs.getNodeShape().getName());
+    Assertions.assertEquals(Color.RED, attrs.getColor());
+
+    // The explicit attributes win over the template
+    attrs = drawGraph.getNodeDrawProp(e).nodeAttrs();
+    Assertions.assertEquals(NodeShapeEnum.STAR.getName(), attrs.getNodeShape().getName());
+    Assertions.assertEquals(Color.BLUE, attrs.getColor());
+    Assertions.assertEquals(20d, attrs.getFontSize(), 0);
+
+    // Only the nearest template is used, the attributes it does not have are the default values
+    attrs = drawGraph.getNodeDrawProp(b).nodeAttrs();
+    Assertions.assertEquals(NodeShapeEnum.TRIANGLE.getName(), attrs.getNodeShape().getName());
+    Assertions.assertEquals(Color.BLACK, attrs.getColor());
+    Assertions.assertEquals(DefaultVal.DEFAULT_NODE_ATTRS.getFontSize(), attrs.getFontSize());
+    attrs = drawGraph.getNodeDrawProp(c).nodeAttrs();
+    Assertions.assertEquals(NodeShapeEnum.CIRCLE.getName(), attrs.getNodeShape().getName());
+    attrs = drawGraph.getNodeDrawProp(f).nodeAttrs();
+    Assertions.assertEquals(NodeShapeEnum.TRIANGLE.getName(), attrs.getNodeShape().getName());
+  }
+
+  @Test
+  public void testLineTemplate() throws ExecuteException {
+    Node a = Node.builder().label("a").build();
+    Node b = Node.builder().label("b").build();
+    Node c = Node.builder().label("c").build();
+    Node d = Node.builder().label("d").build();
+    Line ab = Line.builder(a, b).build();
+    Line ba = Line.builder(b, a).arrowHead(ArrowShape.BOX).color(Color.GREEN).build();
+    Line cd = Line.builder(c, d).build();
+    Line dc = Line.builder(d, c).build();
+    Line ac = Line.builder(a, c).build();
+    Graphviz graphviz = Graphviz.digraph()
+        .tempLine(Line.tempLine().arrowHead(ArrowShape.DOT).color(Color.RED).build())
+        .addLine(ab)
+        .addLine(ba)
+        .cluster(
+            Cluster.builder()
+                .tempLine(Line.tempLine().arrowHead(ArrowShape.VEE).build())
+                .addLine(cd)
+                .subgraph(
+                    Subgraph.builder()
+                        .tempLine(Line.tempLine().arrowHead(ArrowShape.CURVE).build())
+                        .addLine(dc)
+                        .build()
+                )
+                .build()
+        )
+        .cluster(Cluster.builder().addLine(ac).build())
+        .build();
+    DrawGraph drawGraph = graphviz.toLayout().getDrawGraph();
+
+    LineAttrs attrs = drawGraph.getLineDrawProp(ab).lineAttrs();
+    Assertions.assertEquals(ArrowShape.DOT, attrs.getArrowHead());
+    Assertions.assertEquals(Color.RED, attrs.getColor());
+    Assertions.assertEquals(DefaultVal.DEFAULT_LINE_ATTRS.getArrowTail(), attrs.getArrowTail());
+    attrs = drawGraph.getLineDrawProp(ac).lineAttrs();
+    Assertions.assertEquals(ArrowShape.DOT, attrs.getArrowHead());
+
+    attrs = drawGraph.getLineDrawProp(ba).lineAttrs();
+    Assertions.assertEquals(ArrowShape.BOX, attrs.getArrowHead());
+    Assertions.assertEquals(Color.GREEN, attrs.getColor());
+
+    attrs = drawGraph.getLineDrawProp(cd).lineAttrs();
+    Assertions.assertEquals(ArrowShape.VEE, attrs.getArrowHead());
+    Assertions.assertEquals(Color.BLACK, attrs.getColor());
+    attrs = drawGraph.getLineDrawProp(dc).lineAttrs();
+    Assertions.assertEquals(ArrowShape.CURVE, attrs.getArrowHead());
+    Assertions.assertEquals(DefaultVal.DEFAULT_LINE_ATTRS.getWeight(), attrs.getWeight());
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.graphper.api.Cluster;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Graphviz.GraphvizBuilder;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.attributes.Labelloc;
+import org.graphper.api.attributes.Splines;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.ClusterDrawProp;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.ExecuteException;
+import org.graphper.draw.GraphvizDrawProp;
+import org.graphper.draw.LineDrawProp;
+import org.graphper.draw.NodeDrawProp;
+import org.graphper.draw.Rectangle;
+import org.graphper.layout.dot.DotLayoutEngine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ComponentPackerTest {
+
+  @Test
+  public void testComponents() {
+    Node a = Node.builder().label("a").build();
+    Node b = Node.builder().label("b").build();
+    Node c = Node.builder().label("c").build();
+    Node d = Node.builder().label("d").build();
+    Node e = Node.builder().label("e").build();
+    Node f = Node.builder().label("f").build();
+    Node g = Node.builder().label("g").build();
+
+    Graphviz graphviz = Graphviz.digraph()
+        .addLine(a, b)
+        .addLine(c, d)
+        .addNode(g)
+        .cluster(Cluster.builder().addNode(e).addNode(f).build())
+        .cluster(Cluster.builder().addNode(d).build())
+        .build();
+
+    List<Graphviz> components = graphviz.components();
+    Assertions.assertEquals(4, components.size());
+    Assertions.assertTrue(components.get(0).containsNode(a));
+    Assertions.assertTrue(components.get(0).containsNode(b));
+    Assertions.assertTrue(components.get(1).containsNode(c));
+    Assertions.assertEquals(1, components.get(1).clusters().size());
+    Assertions.assertTrue(components.get(2).containsNode(g));
+    Assertions.assertEquals(1, components.get(3).clusters().size());
+    Assertions.assertTrue(components.get(3).containsNode(f));
+    for (Graphviz component : components) {
+      Assertions.assertNull(component.graphAttrs().getLabel());
+      Assertions.assertFalse(component.graphAttrs().isPackComponents());
+      for (Cluster cluster : component.clusters()) {
+        Assertions.assertSame(component, component.father(cluster));
+      }
+    }
+
+    Graphviz connected = Graphviz.digraph().addLine(a, b).addLine(b, c).build();
+    Assertions.assertEquals(1, connected.components().size());
+    Assertions.assertSame(connected, connected.components().get(0));
+  }
+
+  @Test
+  public void testPack() throws ExecuteException {
+    GraphvizBuilder builder = Graphviz.digraph()
+        .packComponents(true)
+        .label("packed")
+        .labelloc(Labelloc.TOP);
+    List<List<Node>> nodes = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      List<Node> component = new ArrayList<>();
+      Node head = Node.builder().label("h" + i).build();
+      component.add(head);
+      for (int j = 0; j < i % 5 + 1; j++) {
+        Node tail = Node.builder().label("n" + i + "_" + j).build();
+        component.add(tail);
+        builder.addLine(Line.builder(head, tail).label("l" + j).build());
+      }
+      if (i % 7 == 0) {
+        Node node = Node.builder().label("c" + i).build();
+        component.add(node);
+        builder.cluster(Cluster.builder().label("cluster" + i).addLine(head, node).build());
+      }
+      nodes.add(component);
+    }
+    Graphviz graphviz = builder.build();
+
+    DrawGraph drawGraph = graphviz.toLayout().getDrawGraph();
+    Assertions.assertEquals(nodes.stream().mapToInt(List::size).sum(), drawGraph.getNodeNum());
+    Assertions.assertEquals(graphviz.lineNum(), drawGraph.lines().size());
+    Assertions.assertEquals(graphviz.clusters().size(), drawGraph.clusters().size());
+
+    GraphvizDrawProp graphvizDrawProp = drawGraph.getGraphvizDrawProp();
+    Assertions.assertEquals(0, graphvizDrawProp.getLeftBorder());
+    Assertions.assertEquals(0, graphvizDrawProp.getUpBorder());
+    Assertions.assertNotNull(graphvizDrawProp.getLabelCenter());
+
+    List<Rectangle> boxes = new ArrayList<>();
+    Set<String> nodeIds = new HashSet<>();
+    for (List<Node> component : nodes) {
+      Rectangle box = new Rectangle();
+      for (Node node : component) {
+        NodeDrawProp nodeDrawProp = drawGraph.getNodeDrawProp(node);
+        box.updateXAxisRange(nodeDrawProp.getLeftBorder());
+        box.updateXAxisRange(nodeDrawProp.getRightBorder());
+        box.updateYAxisRange(nodeDrawProp.getUpBorder());
+        box.updateYAxisRange(nodeDrawProp.getDownBorder());
+        Assertions.assertTrue(nodeIds.add(drawGraph.nodeId(node)));
+      }
+      Assertions.assertTrue(box.getLeftBorder() >= graphvizDrawProp.getLeftBorder());
+      Assertions.assertTrue(box.getRightBorder() <= graphvizDrawProp.getRightBorder());
+      Assertions.assertTrue(box.getUpBorder() >= graphvizDrawProp.getUpBorder()
+                                + graphvizDrawProp.getLabelSize().getHeight());
+      Assertions.assertTrue(box.getDownBorder() <= graphvizDrawProp.getDownBorder());
+      for (Rectangle other : boxes) {
+        Assertions.assertFalse(overlap(box, other));
+      }
+      boxes.add(box);
+    }
+
+    Set<String> lineIds = new HashSet<>();
+    for (LineDrawProp line : drawGraph.lines()) {
+      Assertions.assertTrue(lineIds.add(line.id()));
+    }
+    Set<Integer> clusterNos = new HashSet<>();
+    for (ClusterDrawProp cluster : drawGraph.clusters()) {
+      Assertions.assertTrue(clusterNos.add(cluster.getClusterNo()));
+    }
+
+    String svg = graphviz.toSvgStr();
+    Assertions.assertTrue(svg.contains("cluster28"));
+    Assertions.assertEquals(svg, graphviz.toSvgStr());
+  }
+
+  @Test
+  public void testFixedPool() {
+    GraphvizBuilder builder = Graphviz.digraph()
+        .packComponents(true)
+        .mcstarts(2)
+        .splines(Splines.ORTHO)
+        .orthoRounds(2);
+    List<Node> nodes = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Node[] component = new Node[8];
+      for (int j = 0; j < component.length; j++) {
+        component[j] = Node.builder().label("n" + i + "_" + j).build();
+        nodes.add(component[j]);
+      }
+      for (int j = 0; j < 4; j++) {
+        builder.addLine(component[j], component[4 + (j * 3 + i) % 4]);
+        builder.addLine(component[j], component[4 + (j + 1) % 4]);
+      }
+    }
+    Graphviz graphviz = builder.build();
+
+    // Components and the parallel steps inside them share the two threads
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      List<FlatPoint> positions = Assertions.assertTimeoutPreemptively(
+          Duration.ofSeconds(60), () -> positions(graphviz, nodes, pool));
+      Assertions.assertEquals(positions(graphviz, nodes, Runnable::run), positions);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static List<FlatPoint> positions(Graphviz graphviz, List<Node> nodes,
+                                           Executor executor) {
+    DrawGraph drawGraph = new DotLayoutEngine(executor).layout(graphviz);
+    List<FlatPoint> positions = new ArrayList<>(nodes.size());
+    for (Node node : nodes) {
+      NodeDrawProp nodeDrawProp = drawGraph.getNodeDrawProp(node);
+      positions.add(new FlatPoint(nodeDrawProp.getX(), nodeDrawProp.getY()));
+    }
+    return positions;
+  }
+
+  private static boolean overlap(Rectangle r1, Rectangle r2) {
+    return r1.getLeftBorder() < r2.getRightBorder() && r2.getLeftBorder() < r1.getRightBorder()
+        && r1.getUpBorder() < r2.getDownBorder() && r2.getUpBorder() < r1.getDownBorder();
+  }
+}
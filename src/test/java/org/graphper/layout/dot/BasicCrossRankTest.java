@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Node;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BasicCrossRankTest {
+
+  @Test
+  public void testOrder() {
+    Graphviz graphviz = Graphviz.digraph().addNode(Node.builder().build()).build();
+    DNode[] nodes = nodes(graphviz, 3, 5, 3, 4, 5, 3);
+    BasicCrossRank crossRank = new BasicCrossRank(graphviz);
+    for (DNode node : nodes) {
+      crossRank.addNode(node);
+    }
+
+    Assertions.assertEquals(3, crossRank.minRank());
+    Assertions.assertEquals(5, crossRank.maxRank());
+    Assertions.assertEquals(3, crossRank.rankSize(3));
+    Assertions.assertEquals(1, crossRank.rankSize(4));
+    Assertions.assertEquals(0, crossRank.rankSize(6));
+    Assertions.assertEquals(2, crossRank.getRankIndex(nodes[5]));
+    Assertions.assertNull(crossRank.getNode(4, 1));
+
+    BasicCrossRank clone = crossRank.clone();
+    clone.exchange(nodes[0], nodes[5]);
+    Assertions.assertEquals(nodes[5], clone.getNode(3, 0));
+    Assertions.assertEquals(0, clone.getRankIndex(nodes[5]));
+    Assertions.assertEquals(nodes[0], crossRank.getNode(3, 0));
+    Assertions.assertEquals(2, crossRank.getRankIndex(nodes[5]));
+
+    clone.sort(3, Comparator.comparingInt(DNode::getCrossId));
+    Assertions.assertEquals(nodes[0], clone.getNode(3, 0));
+    Assertions.assertEquals(1, clone.getRankIndex(nodes[2]));
+  }
+
+  @Test
+  public void testReplace() {
+    Graphviz graphviz = Graphviz.digraph().addNode(Node.builder().build()).build();
+    DNode[] nodes = nodes(graphviz, 0, 0, 0, 0, 0, 0);
+    BasicCrossRank crossRank = new BasicCrossRank(graphviz);
+    for (int i = 0; i < 3; i++) {
+      crossRank.addNode(nodes[i]);
+    }
+
+    crossRank.replace(nodes[1], Arrays.asList(nodes[3], nodes[1], nodes[4], nodes[5]));
+    Assertions.assertEquals(6, crossRank.rankSize(0));
+    DNode[] order = {nodes[0], nodes[3], nodes[1], nodes[4], nodes[5], nodes[2]};
+    for (int i = 0; i < order.length; i++) {
+      Assertions.assertEquals(order[i], crossRank.getNode(0, i));
+      Assertions.assertEquals(i, crossRank.getRankIndex(order[i]));
+    }
+
+    crossRank.replace(nodes[0], Arrays.asList(nodes[0]));
+    Assertions.assertEquals(0, crossRank.getRankIndex(nodes[0]));
+    crossRank.replace(nodes[2], Arrays.asList(nodes[3]));
+    Assertions.assertNull(crossRank.safeGetRankIndex(nodes[2]));
+    Assertions.assertThrows(NoSuchElementException.class, () -> crossRank.getRankIndex(nodes[2]));
+  }
+
+  private DNode[] nodes(Graphviz graphviz, int... ranks) {
+    DNode[] nodes = new DNode[ranks.length];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = DNode.newVirtualNode(20, graphviz);
+      nodes[i].setRank(ranks[i]);
+    }
+    RootCrossRank.indexNodes(Arrays.asList(nodes));
+    return nodes;
+  }
+}
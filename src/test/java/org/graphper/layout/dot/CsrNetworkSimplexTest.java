@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import java.util.Random;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Node;
+import org.graphper.layout.dot.RankContent.RankNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CsrNetworkSimplexTest {
+
+  private final Graphviz graphviz = Graphviz.digraph().addNode(Node.builder().build()).build();
+
+  @Test
+  public void testSameRankAsNetworkSimplex() {
+    for (int seed = 0; seed < 20; seed++) {
+      for (boolean positiveRank : new boolean[]{true, false}) {
+        DNode[] v1Nodes = new DNode[40 + seed * 5];
+        DNode[] csrNodes = new DNode[v1Nodes.length];
+        DotDigraph v1 = digraph(seed, v1Nodes);
+        DotDigraph csr = digraph(seed, csrNodes);
+
+        RankContent v1Rank = new NetworkSimplex(new FeasibleTree(v1), Integer.MAX_VALUE,
+                                                positiveRank, true, 10, null).getRankContent();
+        RankContent csrRank = new CsrNetworkSimplex(csr, Integer.MAX_VALUE, 1, positiveRank,
+                                                    true, 10, null).getRankContent();
+
+        for (int i = 0; i < v1Nodes.length; i++) {
+          Assertions.assertEquals(v1Nodes[i].getRank(), csrNodes[i].getRank());
+        }
+        Assertions.assertEquals(v1Rank.minRank(), csrRank.minRank());
+        Assertions.assertEquals(v1Rank.maxRank(), csrRank.maxRank());
+        for (RankNode rankNode : v1Rank) {
+          RankNode other = csrRank.get(rankNode.rankIndex());
+          Assertions.assertEquals(rankNode.size(), other.size());
+          for (int i = 0; i < rankNode.size(); i++) {
+            Assertions.assertEquals(indexOf(v1Nodes, rankNode.get(i)),
+                                    indexOf(csrNodes, other.get(i)));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testNoLine() {
+    DNode[] nodes = new DNode[3];
+    DotDigraph digraph = new DotDigraph(nodes.length);
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = DNode.newVirtualNode(20, graphviz);
+      digraph.add(nodes[i]);
+    }
+
+    RankContent rankContent = new CsrNetworkSimplex(digraph, 100, 30, 10, null).getRankContent();
+    Assertions.assertEquals(1, rankContent.size());
+    Assertions.assertEquals(3, rankContent.get(rankContent.minRank()).size());
+    Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> new CsrNetworkSimplex(new DotDigraph(1), 100, 1, 10, null));
+  }
+
+  @Test
+  public void testSearchSize() {
+    // The default takes the first negative line, the same as the object graph version
+    Assertions.assertEquals(1, graphviz.graphAttrs().getSearchsize());
+
+    for (int seed = 0; seed < 20; seed++) {
+      DNode[] nodes = new DNode[40 + seed * 5];
+      DotDigraph digraph = digraph(seed, nodes);
+      new CsrNetworkSimplex(digraph, Integer.MAX_VALUE, 1, 10, null);
+      double cost = cost(digraph, nodes);
+
+      for (int searchSize : new int[]{3, 30, Integer.MAX_VALUE}) {
+        digraph = digraph(seed, nodes);
+        new CsrNetworkSimplex(digraph, Integer.MAX_VALUE, searchSize, 10, null);
+        Assertions.assertEquals(cost, cost(digraph, nodes));
+      }
+    }
+
+    DotDigraph digraph = digraph(0, new DNode[40]);
+    Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> new CsrNetworkSimplex(digraph, 100, 0, 10, null));
+  }
+
+  // The weighted length of all lines, every line must be feasible
+  private double cost(DotDigraph digraph, DNode[] nodes) {
+    double cost = 0;
+    for (DNode node : nodes) {
+      for (DLine line : digraph.adjacent(node)) {
+        int len = line.to().getRank() - node.getRank();
+        Assertions.assertTrue(len >= line.limit());
+        cost += len * line.weight();
+      }
+    }
+    return cost;
+  }
+
+  private DotDigraph digraph(int seed, DNode[] nodes) {
+    Random random = new Random(seed);
+    DotDigraph digraph = new DotDigraph(nodes.length);
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = DNode.newVirtualNode(20, graphviz);
+      digraph.add(nodes[i]);
+    }
+
+    // Lines always point to the larger index, some nodes are left to other components
+    int lineNum = nodes.length * 3 / 2;
+    for (int i = 0; i < lineNum; i++) {
+      int from = random.nextInt(nodes.length - 5);
+      int to = from + 1 + random.nextInt(Math.min(8, nodes.length - 5 - from));
+      if (to >= nodes.length - 5) {
+        continue;
+      }
+      digraph.addEdge(new DLine(nodes[from], nodes[to], null, null,
+                                1 + random.nextInt(3), 1 + random.nextInt(2)));
+    }
+    digraph.addEdge(new DLine(nodes[nodes.length - 2], nodes[nodes.length - 1], null, null, 1, 1));
+    digraph.addEdge(new DLine(nodes[nodes.length - 2], nodes[nodes.length - 1], null, null, 1, 1));
+    return digraph;
+  }
+
+  private int indexOf(DNode[] nodes, DNode node) {
+    for (int i = 0; i < nodes.length; i++) {
+      if (nodes[i] == node) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import org.graphper.api.Line;
+import org.graphper.api.Line.LineBuilder;
+import org.graphper.api.Node;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.LineDrawProp;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * The random graphs and the checks shared by the tests of the parallel steps of dot layout.
+ */
+final class LayoutFixture {
+
+  private LayoutFixture() {
+  }
+
+  static Node[] nodes(int num) {
+    Node[] nodes = new Node[num];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = Node.builder().label(String.valueOf(i)).build();
+    }
+    return nodes;
+  }
+
+  static Line[] lines(Node[] nodes, int num, int span, long seed) {
+    return lines(nodes, num, span, seed, null);
+  }
+
+  /**
+   * Random lines from a node to one of the next span nodes, the decorator can change the builder
+   * of the i-th line. No two lines have the same endpoints, because the order of the parallel
+   * lines depends on the hash codes of lines, and the routes would not be the same in every run.
+   */
+  static Line[] lines(Node[] nodes, int num, int span, long seed,
+                      ObjIntConsumer<LineBuilder> decorator) {
+    Random random = new Random(seed);
+    Set<Integer> endpoints = new HashSet<>();
+    Line[] lines = new Line[num];
+    for (int i = 0; i < lines.length; i++) {
+      int tail;
+      int head;
+      do {
+        tail = random.nextInt(nodes.length - 1);
+        head = tail + 1 + random.nextInt(Math.min(span, nodes.length - tail - 1));
+      } while (!endpoints.add(tail * nodes.length + head));
+      LineBuilder builder = Line.builder(nodes[tail], nodes[head]);
+      if (decorator != null) {
+        decorator.accept(builder, i);
+      }
+      lines[i] = builder.build();
+    }
+    return lines;
+  }
+
+  static List<FlatPoint> points(DrawGraph drawGraph, Line[] lines) {
+    List<FlatPoint> points = new ArrayList<>();
+    for (Line line : lines) {
+      LineDrawProp lineDrawProp = drawGraph.getLineDrawProp(line);
+      Assertions.assertTrue(lineDrawProp.size() >= 2);
+      points.addAll(lineDrawProp);
+    }
+    return points;
+  }
+
+  /**
+   * Runs the layout in the current thread, on a pool and on the common pool, asserts the results
+   * are the same and returns it.
+   */
+  static <T> T sameOnExecutors(Function<Executor, T> layout) {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      T inline = layout.apply(Runnable::run);
+      Assertions.assertEquals(inline, layout.apply(pool));
+      Assertions.assertEquals(inline, layout.apply(null));
+      return inline;
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * A digest of the exact coordinates of points, to compare a layout with the layout of an older
+   * version.
+   */
+  static long digest(List<FlatPoint> points) {
+    long digest = 1;
+    for (FlatPoint point : points) {
+      digest = 31 * digest + Double.doubleToLongBits(point.getX());
+      digest = 31 * digest + Double.doubleToLongBits(point.getY());
+    }
+    return digest;
+  }
+}
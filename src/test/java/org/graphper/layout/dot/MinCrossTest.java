@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.graphper.api.Cluster;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Graphviz.GraphvizBuilder;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.Subgraph;
+import org.graphper.api.attributes.Rank;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.NodeDrawProp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MinCrossTest {
+
+  /*
+   * The digests of the node positions of graphviz(nodes, cluster, 1, seed) for the seeds 0, 1, 2,
+   * laid out by the version before the multiple starts
+   */
+  private static final long[] SINGLE_START_DIGESTS = {
+      6034036617814704385L, -273386601713008383L, 4709138300484157697L
+  };
+
+  private static final long[] SINGLE_START_CLUSTER_DIGESTS = {
+      -5881366494347296511L, 5342483386362200321L, 3550824790854697217L
+  };
+
+  @Test
+  public void testMultiStartDeterministic() {
+    for (boolean cluster : new boolean[]{false, true}) {
+      Node[] nodes = LayoutFixture.nodes(60);
+      Graphviz graphviz = graphviz(nodes, cluster, 6, 17);
+      LayoutFixture.sameOnExecutors(executor -> positions(graphviz, nodes, executor));
+    }
+  }
+
+  @Test
+  public void testSingleStartSameAsBefore() {
+    for (int seed = 0; seed < 3; seed++) {
+      Node[] nodes = LayoutFixture.nodes(60);
+      Assertions.assertEquals(SINGLE_START_DIGESTS[seed], LayoutFixture.digest(
+          positions(graphviz(nodes, false, 1, seed), nodes, null)));
+      Assertions.assertEquals(SINGLE_START_CLUSTER_DIGESTS[seed], LayoutFixture.digest(
+          positions(graphviz(nodes, true, 1, seed), nodes, null)));
+    }
+  }
+
+  @Test
+  public void testMultiStartCrossNum() {
+    for (long seed = 0; seed < 3; seed++) {
+      Node[] nodes = LayoutFixture.nodes(60);
+      Graphviz single = graphviz(nodes, false, 1, seed);
+      Graphviz multi = graphviz(nodes, false, 8, seed);
+
+      // The first start is the single start, so more starts can not have more crossings
+      Assertions.assertTrue(crossNum(multi) <= crossNum(single));
+    }
+  }
+
+  private Graphviz graphviz(Node[] nodes, boolean cluster, int starts, long seed) {
+    GraphvizBuilder builder = Graphviz.digraph().mcstarts(starts).mcseed(seed);
+    builder.addNode(nodes);
+
+    if (cluster) {
+      Cluster.ClusterBuilder c = Cluster.builder();
+      for (int i = 0; i < nodes.length / 4; i++) {
+        c.addNode(nodes[i]);
+      }
+      builder.cluster(c.build());
+      builder.subgraph(Subgraph.builder().rank(Rank.SAME)
+                           .addLine(nodes[nodes.length - 1], nodes[nodes.length - 2])
+                           .build());
+    }
+
+    for (Line line : LayoutFixture.lines(nodes, nodes.length * 2, 5, seed)) {
+      builder.addLine(line);
+    }
+    return builder.build();
+  }
+
+  private List<FlatPoint> positions(Graphviz graphviz, Node[] nodes, Executor executor) {
+    DrawGraph drawGraph = new DotLayoutEngine(executor).layout(graphviz);
+
+    List<FlatPoint> positions = new ArrayList<>(nodes.length);
+    for (Node node : nodes) {
+      NodeDrawProp nodeDrawProp = drawGraph.getNodeDrawProp(node);
+      positions.add(new FlatPoint(nodeDrawProp.getX(), nodeDrawProp.getY()));
+    }
+    return positions;
+  }
+
+  private int crossNum(Graphviz graphviz) {
+    TLayout tLayout = new TLayout();
+    DrawGraph drawGraph = tLayout.layout(graphviz);
+    DotAttachment dotAttachment = tLayout.dotAttachment;
+    dotAttachment.initLineClip();
+    ContainerCollapse containerCollapse = new ContainerCollapse(dotAttachment, graphviz);
+    MinCross minCross = new MinCross(containerCollapse.getRankContent(), dotAttachment);
+
+    RootCrossRank crossRank = new RootCrossRank(drawGraph, minCross.getDigraphProxy());
+    crossRank.sort(Comparator.comparingInt(DNode::getRankIndex));
+    int crossNum = 0;
+    for (int r = crossRank.minRank(); r <= crossRank.maxRank(); r++) {
+      crossNum += crossRank.pairwiseCrossNum(r);
+    }
+    return crossNum;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.graphper.api.Cluster;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Graphviz.GraphvizBuilder;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.attributes.Splines;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.DrawGraph;
+import org.graphper.draw.LineDrawProp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OrthogonalRouterTest {
+
+  /*
+   * The digests of the routes of graphviz(lines(seed), 0) for the seeds 0, 1, 2, routed by the
+   * indexed heap whose ties are polled in the order the states entered the heap, and the tracks
+   * of channels assigned by the sweep of the overlapping segments
+   */
+  private static final long[] SERIAL_DIGESTS = {
+      1195057133916606540L, 4344929986926064838L, -5895530543878284245L
+  };
+
+  @Test
+  public void testSerialRoutes() {
+    for (int seed = 0; seed < 3; seed++) {
+      Line[] lines = lines(seed);
+      List<FlatPoint> serial = points(graphviz(lines, 0), lines, null);
+      Assertions.assertEquals(SERIAL_DIGESTS[seed], LayoutFixture.digest(serial));
+
+      // The first round has no congestion, so it is the same as the serial routing
+      Assertions.assertEquals(serial, points(graphviz(lines, 1), lines, null));
+    }
+  }
+
+  @Test
+  public void testNegotiationDeterministic() {
+    Line[] lines = lines(7);
+    Graphviz graphviz = graphviz(lines, 4);
+    LayoutFixture.sameOnExecutors(executor -> points(graphviz, lines, executor));
+  }
+
+  @Test
+  public void testBusChannel() {
+    busChannel(20);
+    busChannel(200);
+  }
+
+  private void busChannel(int lineNum) {
+    Node hub = Node.builder().label("hub").build();
+    Node sink = Node.builder().label("sink").build();
+    Line[] lines = new Line[lineNum];
+    GraphvizBuilder builder = Graphviz.digraph().splines(Splines.ORTHO);
+    for (int i = 0; i < lines.length; i += 2) {
+      Node node = Node.builder().label(String.valueOf(i)).build();
+      lines[i] = Line.builder(hub, node).build();
+      lines[i + 1] = Line.builder(node, sink).build();
+      builder.addLine(lines[i]).addLine(lines[i + 1]);
+    }
+    DrawGraph drawGraph = new DotLayoutEngine().layout(builder.build());
+
+    // The segments sharing the trunk are put on different tracks
+    List<FlatPoint[]> segments = new ArrayList<>();
+    List<Line> owners = new ArrayList<>();
+    for (Line line : lines) {
+      LineDrawProp lineDrawProp = drawGraph.getLineDrawProp(line);
+      for (int i = 1; i < lineDrawProp.size(); i++) {
+        segments.add(new FlatPoint[]{lineDrawProp.get(i - 1), lineDrawProp.get(i)});
+        owners.add(line);
+      }
+    }
+    for (int i = 0; i < segments.size(); i++) {
+      for (int j = i + 1; j < segments.size(); j++) {
+        if (owners.get(i) != owners.get(j)) {
+          Assertions.assertFalse(collinearOverlap(segments.get(i), segments.get(j)));
+        }
+      }
+    }
+  }
+
+  private Line[] lines(long seed) {
+    return LayoutFixture.lines(LayoutFixture.nodes(40), 80, 6, seed);
+  }
+
+  private Graphviz graphviz(Line[] lines, int rounds) {
+    GraphvizBuilder builder = Graphviz.digraph().splines(Splines.ORTHO).orthoRounds(rounds);
+    Cluster.ClusterBuilder cluster = Cluster.builder();
+    for (int i = 0; i < lines.length / 8; i++) {
+      cluster.addNode(lines[i].tail());
+    }
+    builder.cluster(cluster.build());
+    for (Line line : lines) {
+      builder.addLine(line);
+    }
+    return builder.build();
+  }
+
+  private static boolean collinearOverlap(FlatPoint[] s1, FlatPoint[] s2) {
+    if (s1[0].getY() == s1[1].getY() && s2[0].getY() == s2[1].getY()
+        && s1[0].getY() == s2[0].getY()) {
+      return overlap(s1[0].getX(), s1[1].getX(), s2[0].getX(), s2[1].getX());
+    }
+    if (s1[0].getX() == s1[1].getX() && s2[0].getX() == s2[1].getX()
+        && s1[0].getX() == s2[0].getX()) {
+      return overlap(s1[0].getY(), s1[1].getY(), s2[0].getY(), s2[1].getY());
+    }
+    return false;
+  }
+
+  private static boolean overlap(double a1, double a2, double b1, double b2) {
+    return Math.min(Math.max(a1, a2), Math.max(b1, b2))
+        - Math.max(Math.min(a1, a2), Math.min(b1, b2)) > 1;
+  }
+
+  private List<FlatPoint> points(Graphviz graphviz, Line[] lines, Executor executor) {
+    return LayoutFixture.points(new DotLayoutEngine(executor).layout(graphviz), lines);
+  }
+}
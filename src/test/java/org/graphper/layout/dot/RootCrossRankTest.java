@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import java.util.Random;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Graphviz.GraphvizBuilder;
+import org.graphper.api.Line;
+import org.graphper.api.Node;
+import org.graphper.api.attributes.Port;
+import org.graphper.def.DedirectedEdgeGraph;
+import org.graphper.draw.DrawGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RootCrossRankTest {
+
+  private static final int RANK_NUM = 4;
+
+  private static final int RANK_SIZE = 40;
+
+  @Test
+  public void testAccumulatorCrossNumWithPorts() {
+    for (long seed = 0; seed < 10; seed++) {
+      Random random = new Random(seed);
+      Node[][] nodes = new Node[RANK_NUM][RANK_SIZE];
+      GraphvizBuilder builder = Graphviz.digraph();
+      for (int r = 0; r < RANK_NUM; r++) {
+        for (int i = 0; i < RANK_SIZE; i++) {
+          nodes[r][i] = Node.builder().label(r + "_" + i).build();
+          builder.addNode(nodes[r][i]);
+        }
+      }
+
+      Port[] ports = Port.values();
+      for (int r = 0; r < RANK_NUM; r++) {
+        for (int k = 0; k < RANK_SIZE * 2; k++) {
+          Node tail = nodes[r][random.nextInt(RANK_SIZE)];
+          // Some flat lines, and the tail and head of the last rank are always in the same rank
+          int headRank = r == RANK_NUM - 1 || random.nextInt(8) == 0 ? r : r + 1;
+          Node head = nodes[headRank][random.nextInt(RANK_SIZE)];
+          if (head == tail) {
+            continue;
+          }
+
+          Line.LineBuilder line = Line.builder(tail, head);
+          if (random.nextBoolean()) {
+            line.tailPort(ports[random.nextInt(ports.length)]);
+          }
+          if (random.nextBoolean()) {
+            line.headPort(ports[random.nextInt(ports.length)]);
+          }
+          builder.addLine(line.build());
+          // Parallel line
+          if (random.nextInt(10) == 0) {
+            builder.addLine(Line.builder(tail, head).headPort(Port.EAST).build());
+          }
+        }
+      }
+
+      Graphviz graphviz = builder.build();
+      TLayout tLayout = new TLayout();
+      DrawGraph drawGraph = tLayout.layout(graphviz);
+      DotAttachment dotAttachment = tLayout.dotAttachment;
+
+      for (int r = 0; r < RANK_NUM; r++) {
+        for (Node node : nodes[r]) {
+          dotAttachment.get(node).setRank(r);
+        }
+      }
+      DedirectedEdgeGraph<DNode, DLine> digraph = new DedirectedEdgeGraph<>();
+      for (Node[] rankNodes : nodes) {
+        for (Node node : rankNodes) {
+          digraph.add(dotAttachment.get(node));
+        }
+      }
+      for (Line line : graphviz.lines()) {
+        digraph.addEdge(new DLine(dotAttachment.get(line.tail()), dotAttachment.get(line.head()),
+                                  line, drawGraph.lineAttrs(line), 1, 1));
+      }
+
+      assertSameCrossNum(new RootCrossRank(drawGraph, digraph), random);
+    }
+  }
+
+  @Test
+  public void testAccumulatorCrossNumWithVirtualNodes() {
+    Node node = Node.builder().build();
+    Graphviz graphviz = Graphviz.digraph().addNode(node).build();
+    TLayout tLayout = new TLayout();
+    DrawGraph drawGraph = tLayout.layout(graphviz);
+
+    Random random = new Random(0);
+    DNode[][] nodes = new DNode[RANK_NUM][RANK_SIZE];
+    DedirectedEdgeGraph<DNode, DLine> digraph = new DedirectedEdgeGraph<>();
+    for (int r = 0; r < RANK_NUM; r++) {
+      for (int i = 0; i < RANK_SIZE; i++) {
+        nodes[r][i] = DNode.newVirtualNode(20, graphviz);
+        nodes[r][i].setRank(r);
+        digraph.add(nodes[r][i]);
+      }
+    }
+    for (int r = 0; r < RANK_NUM - 1; r++) {
+      for (int k = 0; k < RANK_SIZE * 3; k++) {
+        digraph.addEdge(new DLine(nodes[r][random.nextInt(RANK_SIZE)],
+                                  nodes[r + 1][random.nextInt(RANK_SIZE)], null, null, 1, 1));
+      }
+    }
+
+    assertSameCrossNum(new RootCrossRank(drawGraph, digraph), random);
+  }
+
+  private void assertSameCrossNum(RootCrossRank crossRank, Random random) {
+    for (int t = 0; t < 5; t++) {
+      for (int r = crossRank.minRank(); r <= crossRank.maxRank(); r++) {
+        for (int k = 0; k < RANK_SIZE; k++) {
+          DNode v = crossRank.getNode(r, random.nextInt(RANK_SIZE));
+          DNode w = crossRank.getNode(r, random.nextInt(RANK_SIZE));
+          if (v != w) {
+            crossRank.exchange(v, w);
+          }
+        }
+      }
+
+      for (int r = crossRank.minRank(); r <= crossRank.maxRank(); r++) {
+        Assertions.assertEquals(crossRank.pairwiseCrossNum(r), crossRank.accumulatorCrossNum(r));
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.layout.dot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import org.graphper.api.Graphviz;
+import org.graphper.api.Graphviz.GraphvizBuilder;
+import org.graphper.api.Line;
+import org.graphper.api.attributes.Port;
+import org.graphper.api.attributes.Rank;
+import org.graphper.api.attributes.Splines;
+import org.graphper.def.FlatPoint;
+import org.graphper.draw.DrawGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SplineRouterTest {
+
+  /*
+   * The digests of the curves of graphviz(lines(3), SPLINE, false) and
+   * graphviz(lines(3), ROUNDED, false), fitted by the version before the parallel curve fitting
+   */
+  private static final long SPLINE_DIGEST = 7436362345736945168L;
+
+  private static final long ROUNDED_DIGEST = 8597348717288005626L;
+
+  @Test
+  public void testParallelSameAsBefore() {
+    Line[] lines = lines(3);
+    Graphviz spline = graphviz(lines, Splines.SPLINE, false);
+    Assertions.assertEquals(SPLINE_DIGEST, LayoutFixture.digest(
+        LayoutFixture.sameOnExecutors(executor -> points(spline, lines, executor))));
+
+    Graphviz rounded = graphviz(lines, Splines.ROUNDED, false);
+    Assertions.assertEquals(ROUNDED_DIGEST, LayoutFixture.digest(
+        LayoutFixture.sameOnExecutors(executor -> points(rounded, lines, executor))));
+  }
+
+  @Test
+  public void testParallelAndFlatLines() {
+    Line[] lines = lines(3);
+    for (Splines splines : new Splines[]{Splines.SPLINE, Splines.ROUNDED}) {
+      Graphviz graphviz = graphviz(lines, splines, true);
+      LayoutFixture.sameOnExecutors(executor -> points(graphviz, lines, executor));
+    }
+  }
+
+  @Test
+  public void testForkJoinPool() {
+    Line[] lines = lines(5);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (Splines splines : new Splines[]{Splines.SPLINE, Splines.ROUNDED}) {
+        Graphviz graphviz = graphviz(lines, splines, false);
+        List<FlatPoint> sequential = pointsAndArea(graphviz, lines, Runnable::run);
+        for (int i = 0; i < 5; i++) {
+          Assertions.assertEquals(sequential, pointsAndArea(graphviz, lines, pool));
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private Line[] lines(long seed) {
+    return LayoutFixture.lines(LayoutFixture.nodes(40), 90, 6, seed, (builder, i) -> {
+      if (i % 9 == 0) {
+        builder.tailPort(Port.EAST).headPort(Port.WEST);
+      }
+    });
+  }
+
+  private Graphviz graphviz(Line[] lines, Splines splines, boolean parallelAndFlat) {
+    GraphvizBuilder builder = Graphviz.digraph().splines(splines);
+    for (Line line : lines) {
+      builder.addLine(line);
+    }
+    if (!parallelAndFlat) {
+      return builder.build();
+    }
+
+    // Parallel edges and flat edges
+    builder.addLine(lines[0].tail(), lines[0].head());
+    builder.startSub()
+        .rank(Rank.SAME)
+        .addLine(lines[1].tail(), lines[2].head())
+        .addLine(lines[1].tail(), lines[2].head())
+        .endSub();
+    return builder.build();
+  }
+
+  // The points of lines, and the area of graph expanded by them as the last two points
+  private List<FlatPoint> pointsAndArea(Graphviz graphviz, Line[] lines, Executor executor) {
+    DrawGraph drawGraph = new DotLayoutEngine(executor).layout(graphviz);
+    List<FlatPoint> points = new ArrayList<>(LayoutFixture.points(drawGraph, lines));
+    points.add(new FlatPoint(drawGraph.getMinX(), drawGraph.getMinY()));
+    points.add(new FlatPoint(drawGraph.getMaxX(), drawGraph.getMaxY()));
+    return points;
+  }
+
+  private List<FlatPoint> points(Graphviz graphviz, Line[] lines, Executor executor) {
+    return LayoutFixture.points(new DotLayoutEngine(executor).layout(graphviz), lines);
+  }
+}
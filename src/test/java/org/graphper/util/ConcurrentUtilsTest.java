@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.util;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentUtilsTest {
+
+  @Test
+  public void testStride() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      AtomicIntegerArray counts = new AtomicIntegerArray(103);
+      Set<IntConsumer> consumers = Collections.synchronizedSet(
+          Collections.newSetFromMap(new IdentityHashMap<>()));
+      ConcurrentUtils.stride(pool, counts.length(), () -> {
+        IntConsumer consumer = counts::incrementAndGet;
+        consumers.add(consumer);
+        return consumer;
+      });
+
+      // Every index runs once, and every task has its own consumer
+      for (int i = 0; i < counts.length(); i++) {
+        Assertions.assertEquals(1, counts.get(i));
+      }
+      Assertions.assertEquals(4, consumers.size());
+
+      // Only one index runs in the current thread
+      Thread current = Thread.currentThread();
+      ConcurrentUtils.stride(pool, 1, () -> i -> Assertions.assertSame(current,
+                                                                        Thread.currentThread()));
+      ConcurrentUtils.stride(pool, 0, () -> i -> Assertions.fail("No index"));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testNestedStride() {
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      Assertions.assertEquals(2, ConcurrentUtils.parallelism(pool));
+      Assertions.assertFalse(ConcurrentUtils.inExecutor(pool));
+
+      // The tasks of pool wait for the nested strides on the same pool
+      AtomicInteger count = new AtomicInteger();
+      AtomicInteger notInline = new AtomicInteger();
+      Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+        ConcurrentUtils.stride(pool, 8, () -> i -> {
+          Thread outer = Thread.currentThread();
+          boolean inline = ConcurrentUtils.inExecutor(pool);
+          ConcurrentUtils.stride(pool, 8, () -> j -> {
+            count.incrementAndGet();
+            if (inline && Thread.currentThread() != outer) {
+              notInline.incrementAndGet();
+            }
+          });
+        });
+      });
+      Assertions.assertEquals(64, count.get());
+      Assertions.assertEquals(0, notInline.get());
+
+      // All threads of pool call stride, the queued tasks run by the callers
+      count.set(0);
+      Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+        CompletableFuture<?>[] futures = new CompletableFuture[2];
+        for (int i = 0; i < futures.length; i++) {
+          futures[i] = CompletableFuture.runAsync(
+              () -> ConcurrentUtils.stride(pool, 8, () -> j -> count.incrementAndGet()), pool);
+        }
+        CompletableFuture.allOf(futures).join();
+      });
+      Assertions.assertEquals(16, count.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testJoin() {
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      Assertions.assertEquals("a", ConcurrentUtils.join(
+          CompletableFuture.supplyAsync(() -> "a", pool)));
+
+      CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+        throw new IllegalStateException("task");
+      }, pool);
+      IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+                                                        () -> ConcurrentUtils.join(future));
+      Assertions.assertEquals("task", e.getMessage());
+
+      Assertions.assertThrows(IllegalArgumentException.class, () -> ConcurrentUtils.stride(
+          pool, 10, () -> i -> {
+            throw new IllegalArgumentException();
+          }));
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 The graph-support project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graphper.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.graphper.def.FlatPoint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FontUtilsTest {
+
+  @Test
+  public void testMeasureCache() {
+    FontUtils.clearMeasureCache();
+    try {
+      FlatPoint first = FontUtils.measure("measure\ncache", null, 14, 0);
+      Assertions.assertEquals(0, FontUtils.measureCacheHits());
+      Assertions.assertEquals(1, FontUtils.measureCacheMisses());
+
+      first.setWidth(-1);
+      FlatPoint second = FontUtils.measure("measure\ncache", null, 14, 10);
+      Assertions.assertEquals(1, FontUtils.measureCacheHits());
+      Assertions.assertEquals(FontUtils.measure("measure\ncache", null, 14, 0).getWidth() + 10,
+                              second.getWidth());
+      Assertions.assertEquals(2, FontUtils.measureCacheHits());
+
+      FontUtils.measure("measure\ncache", null, 15, 0);
+      Assertions.assertEquals(2, FontUtils.measureCacheMisses());
+
+      FontUtils.setMeasureCacheSize(0);
+      FontUtils.measure("measure\ncache", null, 14, 0);
+      Assertions.assertEquals(2, FontUtils.measureCacheHits());
+      Assertions.assertEquals(3, FontUtils.measureCacheMisses());
+      Assertions.assertThrows(IllegalArgumentException.class,
+                              () -> FontUtils.setMeasureCacheSize(-1));
+
+      // The oldest text is evicted
+      FontUtils.setMeasureCacheSize(2);
+      FontUtils.measure("a", null, 14, 0);
+      FontUtils.measure("b", null, 14, 0);
+      FontUtils.measure("c", null, 14, 0);
+      FontUtils.measure("c", null, 14, 0);
+      Assertions.assertEquals(3, FontUtils.measureCacheHits());
+      FontUtils.measure("a", null, 14, 0);
+      Assertions.assertEquals(3, FontUtils.measureCacheHits());
+    } finally {
+      FontUtils.setMeasureCacheSize(4096);
+      FontUtils.clearMeasureCache();
+    }
+  }
+
+  @Test
+  public void testConcurrentClear() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    FontUtils.setMeasureCacheSize(4);
+    try {
+      Future<?> measures = executor.submit(() -> {
+        for (int i = 0; i < 20000; i++) {
+          FontUtils.measure(String.valueOf(i % 64), null, 14, 0);
+        }
+      });
+      while (!measures.isDone()) {
+        FontUtils.clearMeasureCache();
+      }
+      // The eviction racing with the clear never fails the measure
+      measures.get();
+    } finally {
+      executor.shutdown();
+      FontUtils.setMeasureCacheSize(4096);
+      FontUtils.clearMeasureCache();
+    }
+  }
+}